@@ -10,8 +10,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.sql.Connection;
@@ -23,7 +23,7 @@ import java.util.UUID;
 
 /**
  * Listener de autenticação
- * Grug Brain: PlayerLoginEvent síncrono (login é crítico, query rápida com HikariCP)
+ * Grug Brain: Validação no AsyncPlayerPreLoginEvent (query da conta fora da main thread)
  */
 public class AuthListener implements Listener {
 
@@ -35,28 +35,35 @@ public class AuthListener implements Listener {
         this.codeValidator = new CodeValidator(plugin);
     }
 
+    /**
+     * Valida conta no pre-login (thread async do login)
+     * Grug Brain: Query da conta fora da main thread - reconexão em massa não trava o tick.
+     * Só recusa (disallow); nunca força ALLOWED por cima de whitelist/ban/servidor cheio.
+     */
     @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerLogin(PlayerLoginEvent event) {
-        String name = event.getPlayer().getName();
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return; // Já recusado (ban, whitelist) - não consultar conta
+        }
+
+        String name = event.getName();
         String ip = event.getAddress().getHostAddress();
 
         // Validação básica
         if (name == null || name.isEmpty() || name.length() > 16) {
-            event.setResult(PlayerLoginEvent.Result.KICK_OTHER);
-            event.setKickMessage("§cNome inválido.");
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, "§cNome inválido.");
             return;
         }
 
         // Bloquear por padrão até validação completa
-        // Grug Brain: Login é crítico, query síncrona é aceitável (login é raro)
         try {
-            UUID serverUuid = event.getPlayer().getUniqueId(); // UUID do servidor (fonte de verdade)
+            UUID serverUuid = event.getUniqueId(); // UUID do servidor (fonte de verdade)
             PlayerData data = CoreAPI.getPlayerByName(name);
 
             if (data == null) {
                 // Conta não existe - kick com instrução para Discord
-                event.setResult(PlayerLoginEvent.Result.KICK_OTHER);
-                event.setKickMessage("§cConta não encontrada. Registre-se no Discord primeiro:\n§b/discord");
+                event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                    "§cConta não encontrada. Registre-se no Discord primeiro:\n§b/discord");
                 return;
             }
 
@@ -64,7 +71,7 @@ public class AuthListener implements Listener {
             // Se UUID diferente (conta antiga criada com IP), atualizar para UUID do servidor (Paper)
             // ON CONFLICT (name) no savePlayer() garante que atualiza corretamente
             if (!serverUuid.equals(data.getUuid())) {
-                plugin.getLogger().info("PlayerLoginEvent: UUID diferente detectado para " + name +
+                plugin.getLogger().info("AsyncPlayerPreLoginEvent: UUID diferente detectado para " + name +
                     " (Banco: " + data.getUuid() + ", Servidor: " + serverUuid + ") - Atualizando UUID (conta antiga)");
                 data.setUuid(serverUuid);
                 // Salvar UUID atualizado - ON CONFLICT (name) garante que atualiza corretamente
@@ -73,7 +80,6 @@ public class AuthListener implements Listener {
 
             // NOVO: Se conta existe mas ip_hash é NULL, permite entrada (primeiro login após registro Discord)
             if (data.getIpHash() == null) {
-                event.setResult(PlayerLoginEvent.Result.ALLOWED);
                 // IP será capturado no PlayerJoinEvent
                 return;
             }
@@ -85,41 +91,31 @@ public class AuthListener implements Listener {
                 // IP diferente - verifica se tem Discord vinculado
                 if (data.getDiscordId() == null) {
                     // Sem Discord - bloqueia
-                    event.setResult(PlayerLoginEvent.Result.KICK_OTHER);
-                    event.setKickMessage("§cIP diferente detectado. Vincule sua conta Discord primeiro.");
+                    event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                        "§cIP diferente detectado. Vincule sua conta Discord primeiro.");
                     return;
                 }
 
-                // Tem Discord - cria pending_login e notifica Discord Bot (async para não bloquear)
-                final UUID playerUuid = data.getUuid();
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        createPendingLogin(playerUuid, name, ip, currentIpHash);
-                    }
-                }.runTaskAsynchronously(plugin);
+                // Tem Discord - cria pending_login e notifica Discord Bot (já estamos fora da main thread)
+                createPendingLogin(data.getUuid(), name, ip, currentIpHash);
 
-                event.setResult(PlayerLoginEvent.Result.KICK_OTHER);
-                event.setKickMessage("§cIP diferente detectado. Aguarde aprovação no Discord.");
+                event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                    "§cIP diferente detectado. Aguarde aprovação no Discord.");
                 return;
             }
 
             // Valida acesso (mensalidade)
             if (data.getAccessExpiresAt() != null &&
                 data.getAccessExpiresAt().before(new Date())) {
-                event.setResult(PlayerLoginEvent.Result.KICK_OTHER);
-                event.setKickMessage("§cAcesso expirado. Renove sua assinatura.");
-                return;
+                event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, "§cAcesso expirado. Renove sua assinatura.");
             }
 
-            // Tudo OK - permite entrada
-            event.setResult(PlayerLoginEvent.Result.ALLOWED);
+            // Tudo OK - resultado continua ALLOWED
 
         } catch (Exception e) {
             plugin.getLogger().severe("Erro ao validar login: " + e.getMessage());
             e.printStackTrace();
-            event.setResult(PlayerLoginEvent.Result.KICK_OTHER);
-            event.setKickMessage("§cErro interno. Tente novamente.");
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, "§cErro interno. Tente novamente.");
         }
     }
 
@@ -183,7 +179,7 @@ public class AuthListener implements Listener {
     /**
      * Captura IP no primeiro login após registro via Discord
      * Grug Brain: PlayerJoinEvent é assíncrono, query deve ser async
-     * UUID já está correto no PlayerLoginEvent (síncrono) - não precisa atualizar aqui
+     * UUID já está correto no AsyncPlayerPreLoginEvent - não precisa atualizar aqui
      */
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
@@ -199,7 +195,7 @@ public class AuthListener implements Listener {
             @Override
             public void run() {
                 try {
-                    // UUID já está correto no PlayerLoginEvent (síncrono) - buscar por UUID do servidor
+                    // UUID já está correto no AsyncPlayerPreLoginEvent - buscar por UUID do servidor
                     PlayerData data = CoreAPI.getPlayer(player.getUniqueId());
 
                     if (data == null) {
@@ -0,0 +1,125 @@
+package com.primeleague.chat.bench;
+
+import com.primeleague.chat.managers.ChatFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatação de chat por mensagem: implementação antiga x formato compilado + cache por player
+ * Grug Brain: Fora do servidor não tem PlaceholderAPI nem Player - mede o caminho sem PAPI
+ * (o antigo fazia replace + regex do sanitize a cada mensagem; com PAPI o antigo só fica mais caro).
+ *
+ * legacy = formatChat/sanitizeFormat antes do formato compilado
+ * cachedHit = o que ChatManager.formatChat faz por mensagem (get + displayName + TTL)
+ * render = cache miss (snapshot/clan mudou, TTL venceu)
+ *
+ * Rodar (ns/op + bytes/op em gc.alloc.rate.norm):
+ *   mvn -f plugins/primeleague-chat install
+ *   mvn -f plugins/primeleague-chat-bench package
+ *   java -jar plugins/primeleague-chat-bench/target/benchmarks.jar ChatFormatBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChatFormatBenchmark {
+
+    // Formato padrão do config.yml
+    private static final String TEMPLATE = "§7[%clans_tag%] %elo_symbol% §b%player_name% §7» §f%2$s";
+    private static final String NAME = "Grug";
+    private static final String DISPLAY_NAME = "§bGrug";
+
+    private ChatFormat compiled;
+    private final Map<UUID, Cached> cache = new ConcurrentHashMap<>();
+    private final UUID uuid = UUID.nameUUIDFromBytes(NAME.getBytes());
+
+    @Setup(Level.Trial)
+    public void setup() {
+        compiled = ChatFormat.compile(TEMPLATE);
+        cache.put(uuid, new Cached(render(), compiled, DISPLAY_NAME, Long.MAX_VALUE));
+
+        // Mesmo resultado nos dois (placeholders de clan/ELO vazios, como o PAPI devolve sem clan/ELO)
+        String legacy = legacyFormat(TEMPLATE.replace("%clans_tag%", "").replace("%elo_symbol%", ""));
+        if (!legacy.equals(render())) {
+            throw new IllegalStateException("Formato diverge: antigo '" + legacy + "', novo '" + render() + "'");
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyFormat(TEMPLATE);
+    }
+
+    private static String legacyFormat(String template) {
+        String formatString = template.replace("%message%", "%2$s");
+        String result = formatString.replace("%player_name%", NAME)
+            .replace("%player_displayname%", DISPLAY_NAME);
+        result = result.replaceAll("%(?!\\d+\\$[sSdD]|%)", "%%");
+        if (!result.contains("%2$s")) {
+            result = result + " %2$s";
+        }
+        return result;
+    }
+
+    @Benchmark
+    public String cachedHit() {
+        Cached cached = cache.get(uuid);
+        if (cached != null && cached.source == compiled && cached.displayName.equals(DISPLAY_NAME) &&
+            System.currentTimeMillis() < cached.expiresAt) {
+            return cached.format;
+        }
+        return render();
+    }
+
+    @Benchmark
+    public String render() {
+        return compiled.render(ChatFormatBenchmark::fallbackPlaceholder);
+    }
+
+    /**
+     * Mesmo fallback do ChatManager (sem PAPI)
+     */
+    private static String fallbackPlaceholder(String identifier) {
+        switch (identifier) {
+            case "player_name":
+                return NAME;
+            case "player_displayname":
+                return DISPLAY_NAME;
+            case "clans_tag":
+            case "elo_symbol":
+                return "";
+            default:
+                return null;
+        }
+    }
+
+    private static final class Cached {
+        final String format;
+        final ChatFormat source;
+        final String displayName;
+        final long expiresAt;
+
+        Cached(String format, ChatFormat source, String displayName, long expiresAt) {
+            this.format = format;
+            this.source = source;
+            this.displayName = displayName;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
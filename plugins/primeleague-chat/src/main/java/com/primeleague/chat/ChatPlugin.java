@@ -5,6 +5,7 @@ import com.primeleague.chat.commands.ReplyCommand;
 import com.primeleague.chat.integrations.ChatPlaceholderExpansion;
 import com.primeleague.chat.integrations.DiscordIntegration;
 import com.primeleague.chat.listeners.ChatListener;
+import com.primeleague.chat.managers.ChatLogWriter;
 import com.primeleague.chat.managers.ChatManager;
 import com.primeleague.core.CoreAPI;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -17,6 +18,7 @@ public class ChatPlugin extends JavaPlugin {
 
     private static ChatPlugin instance;
     private ChatManager chatManager;
+    private ChatLogWriter chatLogWriter;
     private ChatListener chatListener;
     private ChatPlaceholderExpansion placeholderExpansion;
     private DiscordIntegration discordIntegration;
@@ -38,6 +40,10 @@ public class ChatPlugin extends JavaPlugin {
         // Criar tabela PostgreSQL
         createTables();
 
+        // Escritor de chat_logs em lote (antes do ChatManager - logChat enfileira nele)
+        chatLogWriter = new ChatLogWriter(this);
+        chatLogWriter.start();
+
         // Inicializar ChatManager
         chatManager = new ChatManager(this);
 
@@ -45,6 +51,13 @@ public class ChatPlugin extends JavaPlugin {
         chatListener = new ChatListener(this);
         getServer().getPluginManager().registerEvents(chatListener, this);
 
+        // Formato em cache cai quando snapshot (clan, ELO/rank) ou nome/tag de clan muda
+        chatManager.subscribeSnapshots();
+        if (getServer().getPluginManager().isPluginEnabled("PrimeleagueClans")) {
+            getServer().getPluginManager().registerEvents(
+                new com.primeleague.chat.listeners.ClanChangeListener(chatManager), this);
+        }
+
         // Registrar comandos
         if (getCommand("msg") != null) {
             getCommand("msg").setExecutor(new MsgCommand(this));
@@ -55,6 +68,9 @@ public class ChatPlugin extends JavaPlugin {
         if (getCommand("clearchat") != null) {
             getCommand("clearchat").setExecutor(new com.primeleague.chat.commands.ClearChatCommand(this));
         }
+        if (getCommand("chat") != null) {
+            getCommand("chat").setExecutor(new com.primeleague.chat.commands.ChatCommand(this));
+        }
 
         // Setup PlaceholderAPI (se disponível)
         setupPlaceholderAPI();
@@ -72,6 +88,10 @@ public class ChatPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (chatManager != null) {
+            chatManager.unsubscribeSnapshots();
+        }
+
         // Desregistrar PlaceholderAPI expansion
         if (placeholderExpansion != null) {
             try {
@@ -81,6 +101,11 @@ public class ChatPlugin extends JavaPlugin {
             }
         }
 
+        // Gravar logs pendentes (sync - scheduler não roda mais depois do disable)
+        if (chatLogWriter != null) {
+            chatLogWriter.stop();
+        }
+
         getLogger().info("PrimeleagueChat desabilitado");
     }
 
@@ -179,6 +204,10 @@ public class ChatPlugin extends JavaPlugin {
         return chatManager;
     }
 
+    public ChatLogWriter getChatLogWriter() {
+        return chatLogWriter;
+    }
+
     public ChatListener getChatListener() {
         return chatListener;
     }
@@ -0,0 +1,48 @@
+package com.primeleague.chat.commands;
+
+import com.primeleague.chat.ChatPlugin;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+/**
+ * Comando /chat - Admin do chat
+ * Grug Brain: reload recompila filtro e formato; logs mostra o escritor de chat_logs
+ */
+public class ChatCommand implements CommandExecutor {
+
+    private final ChatPlugin plugin;
+
+    public ChatCommand(ChatPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
+        if (!sender.hasPermission("chat.admin")) {
+            sender.sendMessage("§cVocê não tem permissão para usar este comando!");
+            return true;
+        }
+
+        if (args.length == 0) {
+            sender.sendMessage("§eUso: /chat reload §7- Recarrega config e filtros");
+            sender.sendMessage("§eUso: /chat logs §7- Estado do buffer de chat_logs");
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("reload")) {
+            plugin.reloadConfig();
+            plugin.getChatManager().reloadFilters();
+            sender.sendMessage("§aConfig, filtros e formato do chat recarregados!");
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("logs")) {
+            sender.sendMessage("§eChat logs: §7" + plugin.getChatLogWriter().getStats());
+            return true;
+        }
+
+        sender.sendMessage("§cSubcomando desconhecido. Use /chat reload ou /chat logs");
+        return true;
+    }
+}
@@ -40,47 +40,40 @@ public class ChatListener implements Listener {
             return; // Deixar ClansPlugin processar
         }
 
-        // Anti-spam (cooldown, duplicatas, comprimento) - só verificar se não está mutado
-        if (chatManager.isSpam(player, message)) {
-            event.setCancelled(true);
-            player.sendMessage(org.bukkit.ChatColor.RED + "Aguarde antes de enviar outra mensagem!");
-            return;
+        // Anti-spam (cooldown, duplicatas, comprimento) + filtros (swear, caps, ads) em uma passada
+        switch (chatManager.checkMessage(player, message)) {
+            case ChatManager.SPAM:
+                event.setCancelled(true);
+                player.sendMessage(org.bukkit.ChatColor.RED + "Aguarde antes de enviar outra mensagem!");
+                return;
+
+            case ChatManager.SWEAR:
+                event.setCancelled(true);
+                player.sendMessage("§cPalavra proibida detectada!");
+                // Punir player (pode adicionar mais lógica aqui)
+                plugin.getLogger().warning("Player " + player.getName() + " tentou usar palavra proibida: " + message);
+                return;
+
+            case ChatManager.CAPS:
+                event.setCancelled(true);
+                player.sendMessage("§cEvite usar muitas letras maiúsculas!");
+                return;
+
+            case ChatManager.ADS:
+                event.setCancelled(true);
+                player.sendMessage("§cAnúncios não são permitidos!");
+                return;
+
+            default:
+                break;
         }
 
-        // Filtros (swear, caps, ads)
-        if (chatManager.hasSwear(message)) {
-            event.setCancelled(true);
-            player.sendMessage("§cPalavra proibida detectada!");
-            // Punir player (pode adicionar mais lógica aqui)
-            plugin.getLogger().warning("Player " + player.getName() + " tentou usar palavra proibida: " + message);
-            return;
-        }
-
-        if (chatManager.hasExcessiveCaps(message)) {
-            event.setCancelled(true);
-            player.sendMessage("§cEvite usar muitas letras maiúsculas!");
-            return;
-        }
-
-        if (chatManager.hasAds(message)) {
-            event.setCancelled(true);
-            player.sendMessage("§cAnúncios não são permitidos!");
-            return;
-        }
-
-        // Formatar via PlaceholderAPI
+        // Formato em cache por player (PlaceholderAPI só quando clan/ELO/rank muda)
         // Grug Brain: Formato usa %2$s para mensagem (padrão AsyncPlayerChatEvent)
-        String format = plugin.getConfig().getString("format",
-            "§8[%clans_tag%] §6%player_name% §7» §f%2$s");
-        String formatted = chatManager.formatChat(player, format);
-        event.setFormat(formatted);
-
-        // Log async
-        if (plugin.getConfig().getBoolean("logs.enabled", true)) {
-            org.bukkit.Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                chatManager.logChat(player.getUniqueId(), message, "global");
-            });
-        }
+        event.setFormat(chatManager.formatChat(player));
+
+        // Log (enfileira - já estamos em thread async, gravação em lote no ChatLogWriter)
+        chatManager.logChat(player.getUniqueId(), message, "global");
 
         // Discord relay (opcional)
         // Grug Brain: Chamado no AsyncPlayerChatEvent (thread async) - relayChat() já é thread-safe
@@ -0,0 +1,31 @@
+package com.primeleague.chat.listeners;
+
+import com.primeleague.chat.managers.ChatManager;
+import com.primeleague.clans.events.ClanChangeEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Mudanças no registry de clans (Clans plugin)
+ * Grug Brain: Nome/tag mudou -> formato de chat em cache tem o prefixo velho, descarta.
+ * Mudança rara (comando de admin/líder): limpar o cache inteiro é mais simples que achar os membros.
+ * Só registrado se PrimeleagueClans está habilitado (senão a classe do evento nem existe).
+ */
+public class ClanChangeListener implements Listener {
+
+    private final ChatManager chatManager;
+
+    public ClanChangeListener(ChatManager chatManager) {
+        this.chatManager = chatManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onClanChange(ClanChangeEvent event) {
+        ClanChangeEvent.Change change = event.getChange();
+        if (change == ClanChangeEvent.Change.NAME || change == ClanChangeEvent.Change.TAG ||
+            change == ClanChangeEvent.Change.RELOADED) {
+            chatManager.invalidateAllFormats();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.primeleague.chat.managers;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtro de chat compilado (Aho-Corasick)
+ * Grug Brain: Blacklists viram um autômato uma vez (enable/reload); cada mensagem é uma passada
+ * char a char por uma tabela de int - sem lista do config, sem contains por palavra, sem alocação.
+ *
+ * Normalização (padrões e mensagem): minúscula, sem acento, leetspeak (0→o, 1→i, 3→e, 4→a, 5→s, 7→t, @→a, $→s)
+ * Ex: "P4l@vr4" e "pálavra" batem com "palavra".
+ * Sem Bukkit aqui dentro - benchmark roda fora do servidor (plugins/primeleague-chat-bench).
+ */
+public final class ChatFilter {
+
+    public static final int SWEAR = 1;
+    public static final int ADS = 1 << 1;
+
+    // Char -> char normalizado (65536 entradas, montado uma vez por JVM)
+    private static final char[] FOLD = buildFoldTable();
+
+    // Char -> símbolo do alfabeto dos padrões (0 = char que não aparece em nenhum padrão)
+    private final short[] symbols;
+    private final int alphabetSize;
+    // DFA completo: próximo estado = next[estado * alphabetSize + símbolo]
+    private final int[] next;
+    // Máscara SWEAR/ADS por estado (já inclui padrões que terminam em sufixos, via links de falha)
+    private final byte[] output;
+    private final int patternCount;
+
+    private ChatFilter(short[] symbols, int alphabetSize, int[] next, byte[] output, int patternCount) {
+        this.symbols = symbols;
+        this.alphabetSize = alphabetSize;
+        this.next = next;
+        this.output = output;
+        this.patternCount = patternCount;
+    }
+
+    /**
+     * Compila as blacklists (chamar no enable/reload, nunca por mensagem)
+     */
+    public static ChatFilter compile(List<String> swearList, List<String> adsList) {
+        // Padrões normalizados + categoria
+        Map<String, Integer> patterns = new HashMap<>();
+        addPatterns(patterns, swearList, SWEAR);
+        addPatterns(patterns, adsList, ADS);
+
+        // Alfabeto: só chars que aparecem nos padrões (tabela do DFA fica pequena)
+        Map<Character, Integer> alphabet = new HashMap<>();
+        int totalLength = 0;
+        for (String pattern : patterns.keySet()) {
+            totalLength += pattern.length();
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (!alphabet.containsKey(c)) {
+                    alphabet.put(c, alphabet.size() + 1);
+                }
+            }
+        }
+        int alphabetSize = alphabet.size() + 1;
+
+        short[] symbols = new short[65536];
+        for (int c = 0; c < 65536; c++) {
+            Integer symbol = alphabet.get(FOLD[c]);
+            if (symbol != null) {
+                symbols[c] = (short) (int) symbol;
+            }
+        }
+
+        // Trie (0 = raiz; transição 0 = ausente, raiz nunca é filha)
+        int maxStates = totalLength + 1;
+        int[] next = new int[maxStates * alphabetSize];
+        byte[] output = new byte[maxStates];
+        int states = 1;
+        for (Map.Entry<String, Integer> entry : patterns.entrySet()) {
+            String pattern = entry.getKey();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int slot = state * alphabetSize + alphabet.get(pattern.charAt(i));
+                if (next[slot] == 0) {
+                    next[slot] = states++;
+                }
+                state = next[slot];
+            }
+            output[state] |= entry.getValue();
+        }
+
+        // BFS: links de falha e transições ausentes resolvidas (trie -> DFA completo)
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 1; symbol < alphabetSize; symbol++) {
+            int child = next[symbol];
+            if (child != 0) {
+                queue.add(child); // fail = raiz
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] |= output[fail[state]];
+            for (int symbol = 1; symbol < alphabetSize; symbol++) {
+                int slot = state * alphabetSize + symbol;
+                int child = next[slot];
+                int fallback = next[fail[state] * alphabetSize + symbol];
+                if (child != 0) {
+                    fail[child] = fallback;
+                    queue.add(child);
+                } else {
+                    next[slot] = fallback;
+                }
+            }
+        }
+
+        return new ChatFilter(symbols, alphabetSize,
+            Arrays.copyOf(next, states * alphabetSize), Arrays.copyOf(output, states), patterns.size());
+    }
+
+    private static void addPatterns(Map<String, Integer> patterns, List<String> list, int category) {
+        if (list == null) {
+            return;
+        }
+        for (String word : list) {
+            if (word == null) {
+                continue;
+            }
+            String normalized = normalize(word);
+            if (!normalized.isEmpty()) {
+                patterns.merge(normalized, category, (a, b) -> a | b);
+            }
+        }
+    }
+
+    /**
+     * Uma passada pela mensagem: blacklists + contagem de maiúsculas + hash para duplicatas
+     * Grug Brain: Resultado escrito em out (reaproveitado por player) - zero alocação
+     */
+    public void scan(String message, Scan out) {
+        int state = 0;
+        int found = 0;
+        int caps = 0;
+        long hash = 0xcbf29ce484222325L;
+        int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            state = next[state * alphabetSize + symbols[c]];
+            found |= output[state];
+            if (Character.isUpperCase(c)) {
+                caps++;
+            }
+            // Mesma dobra de caixa do equalsIgnoreCase (strings iguais ignorando caixa = mesmo hash)
+            hash = (hash ^ Character.toLowerCase(Character.toUpperCase(c))) * 0x100000001b3L;
+        }
+        out.matches = found;
+        out.caps = caps;
+        out.length = length;
+        out.hash = hash ^ length;
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    public int getStateCount() {
+        return output.length;
+    }
+
+    /**
+     * Forma normalizada (mesma dobra aplicada na mensagem)
+     */
+    public static String normalize(String text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = FOLD[text.charAt(i)];
+        }
+        return new String(chars);
+    }
+
+    private static char[] buildFoldTable() {
+        char[] fold = new char[65536];
+        for (int c = 0; c < 65536; c++) {
+            fold[c] = Character.toLowerCase((char) c);
+        }
+        // Acentos latinos: primeira letra da decomposição (á -> a, ç -> c)
+        for (int c = 0x00C0; c <= 0x024F; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(fold[c]), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            if (base < 0x80 && Character.isLetter(base)) {
+                fold[c] = base;
+            }
+        }
+        fold['0'] = 'o';
+        fold['1'] = 'i';
+        fold['3'] = 'e';
+        fold['4'] = 'a';
+        fold['5'] = 's';
+        fold['7'] = 't';
+        fold['@'] = 'a';
+        fold['$'] = 's';
+        return fold;
+    }
+
+    /**
+     * Resultado de scan (mutável, um por player - reaproveitado a cada mensagem)
+     */
+    public static final class Scan {
+        public int matches;
+        public int caps;
+        public int length;
+        public long hash;
+    }
+}
@@ -0,0 +1,150 @@
+package com.primeleague.chat.managers;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Formato de chat compilado
+ * Grug Brain: Template do config vira lista de segmentos uma vez (enable/reload).
+ * Render por player = concatenar literais + valor de cada placeholder - sem regex, sem varrer o template.
+ *
+ * Literais já saem prontos para o String.format do AsyncPlayerChatEvent (cores traduzidas, % solto vira %%).
+ * %1$s/%2$s ficam como literal; %message% vira %2$s; sem %2$s no template, " %2$s" vai no final.
+ */
+public final class ChatFormat {
+
+    private final String template;
+    // Segmentos alternados: literal[i], depois placeholder[i] (último literal sem placeholder)
+    private final String[] literals;
+    private final String[] placeholders;
+
+    private ChatFormat(String template, String[] literals, String[] placeholders) {
+        this.template = template;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Compila template do config (chamar no enable/reload, nunca por mensagem)
+     */
+    public static ChatFormat compile(String template) {
+        String source = template == null || template.isEmpty() ? "%1$s: %2$s" : template.replace("%message%", "%2$s");
+        source = ChatColor.translateAlternateColorCodes('&', source);
+
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean hasMessage = false;
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            // %% - já escapado
+            if (i + 1 < source.length() && source.charAt(i + 1) == '%') {
+                literal.append("%%");
+                i += 2;
+                continue;
+            }
+
+            // %N$s - argumento do evento, fica como está
+            int argEnd = formatArgumentEnd(source, i);
+            if (argEnd > 0) {
+                String argument = source.substring(i, argEnd);
+                hasMessage |= argument.equals("%2$s");
+                literal.append(argument);
+                i = argEnd;
+                continue;
+            }
+
+            // %identificador% - placeholder
+            int close = source.indexOf('%', i + 1);
+            if (close > i + 1 && isIdentifier(source, i + 1, close)) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                placeholders.add(source.substring(i + 1, close));
+                i = close + 1;
+                continue;
+            }
+
+            // % solto - escapar para o String.format não quebrar
+            literal.append("%%");
+            i++;
+        }
+        if (!hasMessage) {
+            literal.append(" %2$s");
+        }
+        literals.add(literal.toString());
+
+        return new ChatFormat(template, literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * Monta o formato do player (uma vez por mudança de dado, não por mensagem)
+     * @param resolver Identificador (sem %) -> valor; null = deixar o placeholder visível
+     */
+    public String render(Function<String, String> resolver) {
+        StringBuilder sb = new StringBuilder(template.length() + 32);
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(literals[i]);
+            String value = resolver.apply(placeholders[i]);
+            appendEscaped(sb, value != null ? value : "%" + placeholders[i] + "%");
+        }
+        sb.append(literals[placeholders.length]);
+        return sb.toString();
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public int getPlaceholderCount() {
+        return placeholders.length;
+    }
+
+    /**
+     * Valor de placeholder entra no String.format: todo % vira %%
+     */
+    private static void appendEscaped(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%') {
+                sb.append("%%");
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Fim de %N$s/%N$d a partir de start (0 se não é argumento)
+     */
+    private static int formatArgumentEnd(String source, int start) {
+        int i = start + 1;
+        while (i < source.length() && Character.isDigit(source.charAt(i))) {
+            i++;
+        }
+        if (i == start + 1 || i + 1 >= source.length() || source.charAt(i) != '$') {
+            return 0;
+        }
+        char type = source.charAt(i + 1);
+        return type == 's' || type == 'S' || type == 'd' || type == 'D' ? i + 2 : 0;
+    }
+
+    private static boolean isIdentifier(String source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.' && c != ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,453 @@
+package com.primeleague.chat.managers;
+
+import com.primeleague.chat.ChatPlugin;
+import com.primeleague.core.CoreAPI;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Escritor de chat_logs em lote
+ * Grug Brain: Chat só enfileira (sem scheduler, sem JDBC no caminho da mensagem).
+ * Um único escritor drena o buffer e grava INSERT multi-linha a cada N ms ou N linhas.
+ *
+ * - Ring buffer limitado, sem lock: produtores reservam posição com CAS, escritor único consome
+ * - Buffer cheio: mensagem descartada (contada) - chat nunca espera o log
+ * - Pool do Hikari disputado: flush adiado; se o buffer passa da metade, lote vai para arquivo local
+ * - Falha no banco: lote vai para o arquivo; arquivo é regravado no banco quando o pool está livre
+ *   (lote do arquivo que falha por dado ruim cai para linha a linha - só a linha ruim é descartada)
+ * - Uma conexão por vez, no máximo (escritor único)
+ */
+public class ChatLogWriter {
+
+    // Limite de parâmetros do PostgreSQL é 32767 - 5 por linha
+    private static final int MAX_ROWS_PER_INSERT = 1000;
+
+    private final ChatPlugin plugin;
+    private final int capacity;
+    private final int mask;
+    private final int batchSize;
+    private final AtomicReferenceArray<Entry> slots;
+    // Próxima posição a reservar (produtores) / próxima a consumir (escritor)
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final File spillFile;
+    // Arquivo sendo regravado no banco (sobra de leitura interrompida é retomada antes do spill novo)
+    private final File replayFile;
+    private BukkitTask flushTask;
+
+    // Métricas
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+
+    public ChatLogWriter(ChatPlugin plugin) {
+        this.plugin = plugin;
+        int requested = Math.max(256, plugin.getConfig().getInt("logs.buffer-size", 16384));
+        this.capacity = Integer.highestOneBit(requested - 1) << 1; // Potência de 2 (índice via máscara)
+        this.mask = capacity - 1;
+        this.batchSize = Math.max(1, Math.min(MAX_ROWS_PER_INSERT, plugin.getConfig().getInt("logs.batch-size", 500)));
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.spillFile = new File(plugin.getDataFolder(), "chat-logs-spill.tsv");
+        this.replayFile = new File(plugin.getDataFolder(), "chat-logs-spill.tsv.replay");
+    }
+
+    /**
+     * Inicia flush periódico async
+     */
+    public void start() {
+        long intervalTicks = Math.max(1L, plugin.getConfig().getLong("logs.flush-interval-ms", 1000) / 50L);
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> flush(false),
+            intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Para o timer e grava tudo (sync - usado no disable, ignora pressão do pool)
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        // Flush em andamento no async: esperar terminar antes do flush final
+        while (!flushing.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+        try {
+            drainAndWrite(true);
+        } finally {
+            flushing.set(false);
+        }
+        if (dropped.get() > 0 || spilled.get() > 0) {
+            plugin.getLogger().info("Chat log: " + written.get() + " gravadas, " + dropped.get() +
+                " descartadas (buffer cheio), " + spilled.get() + " em " + spillFile.getName());
+        }
+    }
+
+    /**
+     * Enfileira uma linha (qualquer thread, nunca bloqueia)
+     * @return false se o buffer está cheio (linha descartada)
+     */
+    public boolean enqueue(UUID playerUuid, String message, String channel, UUID targetUuid) {
+        Entry entry = new Entry(playerUuid, message, channel, targetUuid, System.currentTimeMillis());
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+        slots.lazySet((int) (seq & mask), entry);
+
+        // Lote cheio: não esperar o timer
+        // Flag só é limpa quando o buffer é drenado de verdade (flush adiado = timer cuida, sem nova task)
+        if (seq + 1 - head >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> flush(false));
+        }
+        return true;
+    }
+
+    /**
+     * Drena o buffer e grava (escritor único - chamada concorrente retorna sem fazer nada)
+     */
+    public void flush(boolean force) {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drainAndWrite(force);
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    private void drainAndWrite(boolean force) {
+        boolean poolBusy = !force && CoreAPI.getDatabase().getThreadsAwaitingConnection() > 0;
+        if (poolBusy) {
+            // Gameplay esperando conexão: não disputar. Buffer passando da metade vai para o arquivo.
+            deferred.incrementAndGet();
+            if (size() < capacity / 2) {
+                return;
+            }
+        }
+
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (drain(batch, batchSize) > 0) {
+            if (poolBusy) {
+                spill(batch);
+            } else {
+                try {
+                    insert(batch);
+                    written.addAndGet(batch.size());
+                } catch (SQLException e) {
+                    plugin.getLogger().warning("Erro ao gravar " + batch.size() + " chat logs: " + e.getMessage());
+                    spill(batch);
+                }
+            }
+            batch.clear();
+        }
+        flushScheduled.set(false);
+
+        if (!poolBusy && (spillFile.exists() || replayFile.exists())) {
+            replaySpill();
+        }
+    }
+
+    /**
+     * Move até max linhas publicadas do buffer para a lista (só o escritor chama)
+     */
+    private int drain(List<Entry> out, int max) {
+        long position = head;
+        long end = tail.get();
+        int count = 0;
+        while (position < end && count < max) {
+            int index = (int) (position & mask);
+            Entry entry = slots.get(index);
+            if (entry == null) {
+                break; // Produtor reservou mas ainda não publicou - pega no próximo flush
+            }
+            slots.lazySet(index, null);
+            out.add(entry);
+            position++;
+            count++;
+        }
+        head = position; // Libera as posições para os produtores
+        return count;
+    }
+
+    /**
+     * INSERT multi-linha (um round-trip por lote)
+     */
+    private void insert(List<Entry> batch) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO chat_logs (player_uuid, message, channel, target_uuid, timestamp) VALUES ");
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Entry entry : batch) {
+                stmt.setObject(index++, entry.playerUuid);
+                stmt.setString(index++, entry.message);
+                stmt.setString(index++, entry.channel);
+                if (entry.targetUuid != null) {
+                    stmt.setObject(index++, entry.targetUuid);
+                } else {
+                    stmt.setNull(index++, Types.OTHER);
+                }
+                stmt.setTimestamp(index++, new Timestamp(entry.timestamp));
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Anexa lote ao arquivo local (TSV: timestamp, player, canal, alvo, mensagem)
+     */
+    private void spill(List<Entry> batch) {
+        if (!spillFile.getParentFile().exists()) {
+            spillFile.getParentFile().mkdirs();
+        }
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(spillFile, true), StandardCharsets.UTF_8))) {
+            for (Entry entry : batch) {
+                writer.write(entry.timestamp + "\t" + entry.playerUuid + "\t" + escape(entry.channel) + "\t" +
+                    (entry.targetUuid != null ? entry.targetUuid.toString() : "-") + "\t" + escape(entry.message));
+                writer.newLine();
+            }
+            spilled.addAndGet(batch.size());
+        } catch (IOException e) {
+            dropped.addAndGet(batch.size());
+            plugin.getLogger().warning("Erro ao gravar chat logs em " + spillFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Regrava o arquivo local no banco (pool livre) e apaga só depois de ler até o fim
+     * Grug Brain: Erro de leitura no meio = lote em memória volta para o spill, linhas não lidas ficam
+     * no .replay (retomado no próximo flush). Nada lido é apagado sem ter ido para o banco ou para o spill.
+     */
+    private void replaySpill() {
+        File replaying = replayFile;
+        if (!replaying.exists() && !spillFile.renameTo(replaying)) {
+            return;
+        }
+
+        List<Entry> batch = new ArrayList<>(batchSize);
+        int replayed = 0;
+        long consumed = 0;
+        boolean eof = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(replaying), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                consumed++;
+                Entry entry = parse(line);
+                if (entry == null) {
+                    continue; // Linha corrompida
+                }
+                batch.add(entry);
+                if (batch.size() >= batchSize) {
+                    replayed += replayBatch(batch);
+                }
+            }
+            if (!batch.isEmpty()) {
+                replayed += replayBatch(batch);
+            }
+            eof = true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Erro ao ler " + replaying.getName() + " (linha " + consumed +
+                "), resto fica para o próximo flush: " + e.getMessage());
+            if (!batch.isEmpty()) {
+                spill(batch);
+                batch.clear();
+            }
+        }
+
+        if (eof) {
+            if (!replaying.delete()) {
+                plugin.getLogger().warning("Não foi possível apagar " + replaying.getName());
+            }
+        } else {
+            keepUnread(replaying, consumed);
+        }
+        if (replayed > 0) {
+            plugin.getLogger().info("Chat log: " + replayed + " linhas do arquivo local gravadas no banco");
+        }
+    }
+
+    /**
+     * Deixa no .replay só as linhas depois das consumidas (temporário + rename: nunca meio arquivo)
+     * Falhou de novo = .replay fica inteiro - linhas já gravadas podem duplicar, mas nenhuma se perde
+     */
+    private void keepUnread(File replaying, long consumed) {
+        File rest = new File(replaying.getParentFile(), replaying.getName() + ".tmp");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(replaying), StandardCharsets.UTF_8));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(rest), StandardCharsets.UTF_8))) {
+            String line;
+            long skipped = 0;
+            while ((line = reader.readLine()) != null) {
+                if (skipped < consumed) {
+                    skipped++;
+                    continue;
+                }
+                writer.write(line);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            rest.delete();
+            plugin.getLogger().warning("Erro ao separar linhas não lidas de " + replaying.getName() +
+                " (arquivo mantido inteiro): " + e.getMessage());
+            return;
+        }
+        if (!rest.renameTo(replaying)) {
+            rest.delete();
+            plugin.getLogger().warning("Não foi possível atualizar " + replaying.getName() + " (arquivo mantido inteiro)");
+        }
+    }
+
+    /**
+     * Lote do arquivo: banco, ou de volta para o arquivo se o banco está fora
+     * Erro de dado: linha a linha - linha ruim é descartada (senão o lote voltaria para o arquivo para sempre)
+     */
+    private int replayBatch(List<Entry> batch) {
+        int replayed = 0;
+        try {
+            insert(batch);
+            replayed = batch.size();
+        } catch (SQLException e) {
+            if (isTransient(e)) {
+                spill(batch);
+            } else {
+                List<Entry> single = new ArrayList<>(1);
+                for (int i = 0; i < batch.size(); i++) {
+                    single.clear();
+                    single.add(batch.get(i));
+                    try {
+                        insert(single);
+                        replayed++;
+                    } catch (SQLException rowError) {
+                        if (isTransient(rowError)) {
+                            spill(batch.subList(i, batch.size()));
+                            break;
+                        }
+                        dropped.incrementAndGet();
+                        plugin.getLogger().warning("Chat log inválido descartado: " + rowError.getMessage());
+                    }
+                }
+            }
+        }
+        written.addAndGet(replayed);
+        batch.clear();
+        return replayed;
+    }
+
+    /**
+     * Conexão/recurso indisponível (tentar de novo depois) - o resto é erro do dado
+     */
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state == null || state.startsWith("08") || state.startsWith("40") ||
+            state.startsWith("53") || state.startsWith("57");
+    }
+
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+
+    /**
+     * Resumo para admin/debug
+     */
+    public String getStats() {
+        return "buffer " + size() + "/" + capacity + ", gravadas " + written.get() + ", descartadas " +
+            dropped.get() + ", arquivo " + spilled.get() + ", flushes adiados " + deferred.get();
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char n = text.charAt(++i);
+                sb.append(n == 't' ? '\t' : n == 'n' ? '\n' : n == 'r' ? '\r' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Entry parse(String line) {
+        String[] parts = line.split("\t", 5);
+        if (parts.length < 5) {
+            return null;
+        }
+        try {
+            return new Entry(UUID.fromString(parts[1]), unescape(parts[4]), unescape(parts[2]),
+                parts[3].equals("-") ? null : UUID.fromString(parts[3]), Long.parseLong(parts[0]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Linha de chat_logs (imutável)
+     */
+    private static final class Entry {
+        final UUID playerUuid;
+        final String message;
+        final String channel;
+        final UUID targetUuid;
+        final long timestamp;
+
+        Entry(UUID playerUuid, String message, String channel, UUID targetUuid, long timestamp) {
+            this.playerUuid = playerUuid;
+            this.message = message;
+            this.channel = channel;
+            this.targetUuid = targetUuid;
+            this.timestamp = timestamp;
+        }
+    }
+}
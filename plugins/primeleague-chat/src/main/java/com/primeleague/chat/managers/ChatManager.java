@@ -2,16 +2,14 @@ package com.primeleague.chat.managers;
 
 import com.primeleague.chat.ChatPlugin;
 import com.primeleague.core.CoreAPI;
-import com.primeleague.core.models.PlayerData;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Gerenciador de chat
@@ -21,203 +19,263 @@ public class ChatManager {
 
     private final ChatPlugin plugin;
 
-    // Cooldown entre mensagens
-    private final Map<UUID, Long> lastMessageTime = new ConcurrentHashMap<>();
-
-    // Duplicatas (últimas 3 mensagens por player)
-    private final Map<UUID, List<String>> recentMessages = new ConcurrentHashMap<>();
+    // Resultado de checkMessage (ordem = prioridade, igual à ordem antiga dos checks)
+    public static final int ALLOWED = 0;
+    public static final int SPAM = 1;
+    public static final int SWEAR = 2;
+    public static final int CAPS = 3;
+    public static final int ADS = 4;
+
+    // Estado anti-spam por player (cooldown + hashes das últimas 3 mensagens)
+    private final Map<UUID, SpamState> spamStates = new ConcurrentHashMap<>();
+
+    // Filtro compilado + limites do config (recriados só no reload)
+    private volatile ChatFilter filter;
+    private volatile long cooldownMs;
+    private volatile boolean duplicateCheck;
+    private volatile int maxLength;
+    private volatile int capsLimit;
+    private volatile boolean logsEnabled;
+
+    // Formato compilado (reload) + formato montado por player
+    private volatile ChatFormat format;
+    private volatile long formatTtlMs;
+    private final Map<UUID, CachedFormat> formatCache = new ConcurrentHashMap<>();
+    // Conta invalidações: formato montado durante uma invalidação não entra no cache (pode estar velho)
+    private final AtomicLong formatInvalidations = new AtomicLong();
+    // Assinatura dos snapshots do Core (mesma referência para o unsubscribe)
+    private final Consumer<UUID> snapshotSubscriber = this::invalidateFormat;
 
     // Cache último remetente para /reply
     private final Map<UUID, UUID> lastSender = new ConcurrentHashMap<>();
 
     public ChatManager(ChatPlugin plugin) {
         this.plugin = plugin;
+        reloadFilters();
     }
 
     /**
-     * Formata mensagem de chat via PlaceholderAPI
-     * Grug Brain: Fallback simples se PAPI não disponível
+     * Compila blacklists, formato e lê limites do config (enable e /chat reload)
+     */
+    public void reloadFilters() {
+        ChatFilter compiled = ChatFilter.compile(
+            plugin.getConfig().getStringList("filters.swear-blacklist"),
+            plugin.getConfig().getStringList("filters.ads-blacklist"));
+        cooldownMs = (long) (plugin.getConfig().getDouble("anti-spam.cooldown", 2) * 1000);
+        duplicateCheck = plugin.getConfig().getBoolean("anti-spam.duplicate-check", true);
+        maxLength = plugin.getConfig().getInt("anti-spam.max-length", 256);
+        capsLimit = plugin.getConfig().getInt("filters.caps-limit", 70);
+        logsEnabled = plugin.getConfig().getBoolean("logs.enabled", true);
+        filter = compiled;
+        format = ChatFormat.compile(plugin.getConfig().getString("format",
+            "§8[%clans_tag%] §6%player_name% §7» §f%2$s"));
+        formatTtlMs = plugin.getConfig().getLong("format-cache-seconds", 30) * 1000L;
+        formatCache.clear();
+        plugin.getLogger().info("Filtro de chat compilado: " + compiled.getPatternCount() + " padrões, " +
+            compiled.getStateCount() + " estados");
+    }
+
+    /**
+     * Formato de chat do player (AsyncPlayerChatEvent.setFormat)
+     * Grug Brain: Por mensagem = um get no cache. Formato só é montado de novo depois de invalidateFormat
+     * (snapshot publicado no Core: clan, ELO/rank, stats; ClanChangeEvent: nome/tag), quando o display name
+     * muda, ou depois de format-cache-seconds (placeholders de outros plugins que não publicam snapshot).
      * Nota: AsyncPlayerChatEvent usa %1$s para player name e %2$s para message
      */
-    public String formatChat(Player player, String formatString) {
-        // Substituir %message% por %2$s (padrão do AsyncPlayerChatEvent) se presente
-        formatString = formatString.replace("%message%", "%2$s");
+    public String formatChat(Player player) {
+        UUID uuid = player.getUniqueId();
+        String displayName = player.getDisplayName();
+        long now = System.currentTimeMillis();
+        ChatFormat compiled = format;
+
+        CachedFormat cached = formatCache.get(uuid);
+        if (cached != null && cached.source == compiled &&
+            cached.displayName.equals(displayName) && now < cached.expiresAt) {
+            return cached.format;
+        }
 
-        // Verificar se PlaceholderAPI está disponível
+        long invalidations = formatInvalidations.get();
+        String rendered = renderFormat(player, compiled);
+        CachedFormat fresh = new CachedFormat(rendered, compiled, displayName, now + formatTtlMs);
+        formatCache.put(uuid, fresh);
+        // Invalidação no meio do render: valor pode ter saído do snapshot antigo, próxima mensagem monta de novo
+        if (formatInvalidations.get() != invalidations) {
+            formatCache.remove(uuid, fresh);
+        }
+        return rendered;
+    }
+
+    /**
+     * Monta o formato do player via PlaceholderAPI (só no cache miss)
+     * Grug Brain: Fallback simples se PAPI não disponível
+     */
+    private String renderFormat(Player player, ChatFormat compiled) {
         Plugin papi = plugin.getServer().getPluginManager().getPlugin("PlaceholderAPI");
         if (papi == null || !papi.isEnabled()) {
-            // Fallback simples se PAPI não disponível
-            String result = ChatColor.translateAlternateColorCodes('&',
-                formatString.replace("%player_name%", player.getName())
-                          .replace("%player_displayname%", player.getDisplayName())
-                          .replace("%clans_tag%", "")
-                          .replace("%chat_elo%", "")
-                          .replace("%chat_kills%", "")
-                          .replace("%chat_deaths%", "")
-                          .replace("%chat_kdr%", ""));
-            // Garantir que %2$s está presente (necessário para AsyncPlayerChatEvent)
-            if (!result.contains("%2$s") && !result.contains("%1$s")) {
-                result = result + " %2$s";
-            }
-            return result;
+            return compiled.render(identifier -> fallbackPlaceholder(player, identifier));
         }
 
-        // Usar PlaceholderAPI.setPlaceholders() (thread-safe para AsyncPlayerChatEvent)
-        // PlaceholderAPI processa %2$s corretamente (placeholder padrão do evento)
+        // PlaceholderAPI.setPlaceholders() é thread-safe para AsyncPlayerChatEvent
         try {
-            String result = me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, formatString);
-
-            // Se PlaceholderAPI não substituiu placeholders padrão, fazer fallback manual
-            if (result.contains("%player_name%")) {
-                result = result.replace("%player_name%", player.getName());
-            }
-            if (result.contains("%player_displayname%")) {
-                result = result.replace("%player_displayname%", player.getDisplayName());
-            }
-
-            // Validar formato: garantir que não há % inválidos (exceto %1$s, %2$s, %%, e cores §)
-            // Escapar % soltos que não sejam placeholders válidos
-            result = sanitizeFormat(result);
-
-            return result;
+            return compiled.render(identifier -> {
+                String token = "%" + identifier + "%";
+                String value = me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, token);
+                // Se PlaceholderAPI não substituiu placeholders padrão, fazer fallback manual
+                return token.equals(value) ? fallbackPlaceholder(player, identifier) : value;
+            });
         } catch (Exception e) {
             plugin.getLogger().warning("Erro ao formatar chat com PlaceholderAPI: " + e.getMessage());
             e.printStackTrace();
-            // Fallback completo
-            String result = ChatColor.translateAlternateColorCodes('&',
-                formatString.replace("%player_name%", player.getName())
-                          .replace("%player_displayname%", player.getDisplayName())
-                          .replace("%clans_tag%", "")
-                          .replace("%chat_elo%", "")
-                          .replace("%chat_kills%", "")
-                          .replace("%chat_deaths%", "")
-                          .replace("%chat_kdr%", ""));
-            // Garantir que %2$s está presente
-            if (!result.contains("%2$s") && !result.contains("%1$s")) {
-                result = result + " %2$s";
-            }
-            return result;
+            return compiled.render(identifier -> fallbackPlaceholder(player, identifier));
         }
     }
 
     /**
-     * Sanitiza formato do chat para evitar erros de String.format()
-     * Grug Brain: Remove % inválidos, mantém apenas %1$s, %2$s e %%
-     * Nota: PlaceholderAPI já substituiu seus placeholders, agora só sanitizar placeholders do evento
+     * Placeholders sem PlaceholderAPI (null = deixar visível)
      */
-    private String sanitizeFormat(String format) {
-        if (format == null || format.isEmpty()) {
-            return "%1$s: %2$s"; // Formato padrão seguro
+    private String fallbackPlaceholder(Player player, String identifier) {
+        switch (identifier) {
+            case "player_name":
+                return player.getName();
+            case "player_displayname":
+                return player.getDisplayName();
+            case "clans_tag":
+            case "elo_symbol":
+            case "chat_elo":
+            case "chat_kills":
+            case "chat_deaths":
+            case "chat_kdr":
+                return "";
+            default:
+                return null;
         }
-
-        // Substituir % que não são placeholders válidos do String.format() por %%
-        // Placeholders válidos: %1$s, %2$s, %%, ou % seguido de número+$+[sSdD]
-        // Regex mais permissiva: manter qualquer % seguido de dígito+$+letra, ou %%
-        String sanitized = format.replaceAll("%(?!\\d+\\$[sSdD]|%)", "%%");
-
-        // Garantir que há pelo menos %2$s (necessário para AsyncPlayerChatEvent mostrar a mensagem)
-        if (!sanitized.contains("%2$s")) {
-            // Se não tem %2$s, adicionar no final
-            sanitized = sanitized + " %2$s";
-        }
-
-        return sanitized;
     }
 
     /**
-     * Verifica se mensagem é spam (cooldown, duplicatas)
+     * Descarta formato em cache do player (próxima mensagem monta de novo)
      */
-    public boolean isSpam(Player player, String message) {
-        UUID uuid = player.getUniqueId();
-        long now = System.currentTimeMillis();
-        long cooldown = plugin.getConfig().getLong("anti-spam.cooldown", 2) * 1000;
-
-        // Verificar cooldown
-        Long lastTime = lastMessageTime.get(uuid);
-        if (lastTime != null && now - lastTime < cooldown) {
-            return true;
-        }
-
-        // Verificar duplicatas (últimas 3 mensagens)
-        if (plugin.getConfig().getBoolean("anti-spam.duplicate-check", true)) {
-            if (isDuplicate(player, message)) {
-                return true;
-            }
-        }
-
-        // Verificar comprimento máximo
-        int maxLength = plugin.getConfig().getInt("anti-spam.max-length", 256);
-        if (message.length() > maxLength) {
-            return true;
-        }
-
-        lastMessageTime.put(uuid, now);
-        return false;
+    public void invalidateFormat(UUID playerUuid) {
+        formatInvalidations.incrementAndGet();
+        formatCache.remove(playerUuid);
     }
 
     /**
-     * Verifica se mensagem é duplicada (últimas 3)
+     * Descarta o formato de todos (mudança que afeta vários players, ex: tag de clan)
      */
-    private boolean isDuplicate(Player player, String message) {
-        UUID uuid = player.getUniqueId();
-        List<String> recent = recentMessages.computeIfAbsent(uuid, k -> new ArrayList<>());
-
-        // Verificar se todas as últimas 3 mensagens são iguais
-        if (recent.size() >= 3 && recent.stream().allMatch(msg -> msg.equalsIgnoreCase(message))) {
-            return true;
-        }
+    public void invalidateAllFormats() {
+        formatInvalidations.incrementAndGet();
+        formatCache.clear();
+    }
 
-        // Adicionar mensagem atual ao início
-        recent.add(0, message);
-        if (recent.size() > 3) {
-            recent.remove(recent.size() - 1);
-        }
+    /**
+     * Passa a ouvir os snapshots do Core (enable)
+     */
+    public void subscribeSnapshots() {
+        CoreAPI.subscribeSnapshots(snapshotSubscriber);
+    }
 
-        return false;
+    /**
+     * Para de ouvir os snapshots do Core (disable)
+     */
+    public void unsubscribeSnapshots() {
+        CoreAPI.unsubscribeSnapshots(snapshotSubscriber);
     }
 
     /**
-     * Verifica se mensagem tem palavras proibidas (swear)
+     * Formato montado de um player + de onde veio (para validar o cache)
      */
-    public boolean hasSwear(String message) {
-        List<String> blacklist = plugin.getConfig().getStringList("filters.swear-blacklist");
-        if (blacklist.isEmpty()) {
-            return false;
+    private static final class CachedFormat {
+        final String format;
+        final ChatFormat source;
+        final String displayName;
+        final long expiresAt;
+
+        CachedFormat(String format, ChatFormat source, String displayName, long expiresAt) {
+            this.format = format;
+            this.source = source;
+            this.displayName = displayName;
+            this.expiresAt = expiresAt;
         }
-
-        String lower = message.toLowerCase();
-        return blacklist.stream().anyMatch(lower::contains);
     }
 
     /**
-     * Verifica se mensagem tem muitas letras maiúsculas (caps)
+     * Anti-spam + filtros em uma passada pela mensagem
+     * Grug Brain: Mesma ordem e regras de antes (cooldown, duplicata, tamanho, swear, caps, ads),
+     * sem ler o config e sem alocar por mensagem
+     * @return ALLOWED, SPAM, SWEAR, CAPS ou ADS
      */
-    public boolean hasExcessiveCaps(String message) {
-        int capsLimit = plugin.getConfig().getInt("filters.caps-limit", 70);
-        if (message.length() < 5) {
-            return false; // Ignorar mensagens curtas
-        }
+    public int checkMessage(Player player, String message) {
+        SpamState state = spamStates.computeIfAbsent(player.getUniqueId(), k -> new SpamState());
+        long now = System.currentTimeMillis();
 
-        long capsCount = message.chars().filter(Character::isUpperCase).count();
-        if (capsCount == 0) {
-            return false;
-        }
+        synchronized (state) {
+            // Cooldown (antes de tudo - mensagem nem é registrada)
+            if (state.lastMessageAt != 0L && now - state.lastMessageAt < cooldownMs) {
+                return SPAM;
+            }
 
-        int capsPercent = (int) ((capsCount * 100) / message.length());
-        return capsPercent > capsLimit;
+            ChatFilter.Scan scan = state.scan;
+            filter.scan(message, scan);
+
+            // Duplicatas (últimas 3)
+            if (duplicateCheck && state.isDuplicate(scan.hash)) {
+                return SPAM;
+            }
+
+            // Comprimento máximo
+            if (scan.length > maxLength) {
+                return SPAM;
+            }
+            state.lastMessageAt = now;
+
+            if ((scan.matches & ChatFilter.SWEAR) != 0) {
+                return SWEAR;
+            }
+            // Caps: ignorar mensagens curtas
+            if (scan.length >= 5 && scan.caps > 0 && (scan.caps * 100) / scan.length > capsLimit) {
+                return CAPS;
+            }
+            if ((scan.matches & ChatFilter.ADS) != 0) {
+                return ADS;
+            }
+            return ALLOWED;
+        }
     }
 
     /**
-     * Verifica se mensagem tem anúncios (ads)
+     * Estado anti-spam de um player
      */
-    public boolean hasAds(String message) {
-        List<String> adsList = plugin.getConfig().getStringList("filters.ads-blacklist");
-        if (adsList.isEmpty()) {
+    private static class SpamState {
+        private final ChatFilter.Scan scan = new ChatFilter.Scan();
+        private final long[] recent = new long[3]; // Hashes das últimas mensagens (ring)
+        private int recentCount;
+        private int recentNext;
+        private long lastMessageAt;
+
+        /**
+         * Mesma regra do anti-spam antigo: bloqueia se as 3 últimas são iguais a esta,
+         * senão registra a mensagem
+         */
+        boolean isDuplicate(long hash) {
+            if (recentCount == recent.length) {
+                boolean allSame = true;
+                for (long previous : recent) {
+                    if (previous != hash) {
+                        allSame = false;
+                        break;
+                    }
+                }
+                if (allSame) {
+                    return true;
+                }
+            }
+            recent[recentNext] = hash;
+            recentNext = (recentNext + 1) % recent.length;
+            if (recentCount < recent.length) {
+                recentCount++;
+            }
             return false;
         }
-
-        String lower = message.toLowerCase();
-        return adsList.stream().anyMatch(lower::contains);
     }
 
     /**
@@ -251,13 +309,9 @@ public class ChatManager {
         lastSender.put(to.getUniqueId(), from.getUniqueId());
         lastSender.put(from.getUniqueId(), to.getUniqueId());
 
-        // Log async
-        if (plugin.getConfig().getBoolean("logs.enabled", true)) {
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-                logChat(from.getUniqueId(), message, "pm", to.getUniqueId());
-                logChat(to.getUniqueId(), message, "pm", from.getUniqueId());
-            });
-        }
+        // Log (enfileira - gravado em lote pelo ChatLogWriter)
+        logChat(from.getUniqueId(), message, "pm", to.getUniqueId());
+        logChat(to.getUniqueId(), message, "pm", from.getUniqueId());
     }
 
     /**
@@ -272,43 +326,29 @@ public class ChatManager {
      */
     public void clearLastSender(UUID playerUuid) {
         lastSender.remove(playerUuid);
-        lastMessageTime.remove(playerUuid);
-        recentMessages.remove(playerUuid);
+        spamStates.remove(playerUuid);
+        formatCache.remove(playerUuid);
     }
 
     /**
-     * Loga mensagem de chat no PostgreSQL (async)
+     * Loga mensagem de chat no PostgreSQL
      */
     public void logChat(UUID playerUuid, String message, String channel) {
         logChat(playerUuid, message, channel, null);
     }
 
     /**
-     * Loga mensagem de chat no PostgreSQL (async)
+     * Loga mensagem de chat no PostgreSQL
+     * Grug Brain: Só enfileira (qualquer thread, sem scheduler, sem JDBC) - ChatLogWriter grava em lote
      */
     public void logChat(UUID playerUuid, String message, String channel, UUID targetUuid) {
-        if (!plugin.getConfig().getBoolean("logs.enabled", true)) {
+        if (!logsEnabled) {
             return;
         }
-
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (Connection conn = CoreAPI.getDatabase().getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT INTO chat_logs (player_uuid, message, channel, target_uuid, timestamp) " +
-                    "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)")) {
-                stmt.setObject(1, playerUuid);
-                stmt.setString(2, message);
-                stmt.setString(3, channel);
-                if (targetUuid != null) {
-                    stmt.setObject(4, targetUuid);
-                } else {
-                    stmt.setNull(4, java.sql.Types.OTHER);
-                }
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().warning("Erro ao logar chat: " + e.getMessage());
-            }
-        });
+        ChatLogWriter writer = plugin.getChatLogWriter();
+        if (writer != null) {
+            writer.enqueue(playerUuid, message, channel, targetUuid);
+        }
     }
 
     /**
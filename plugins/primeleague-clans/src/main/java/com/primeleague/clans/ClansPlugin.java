@@ -4,6 +4,7 @@ import com.primeleague.clans.commands.ClanCommand;
 import com.primeleague.clans.integrations.ClansPlaceholderExpansion;
 import com.primeleague.clans.listeners.ClanChatListener;
 import com.primeleague.clans.listeners.ClanEventWinListener;
+import com.primeleague.clans.listeners.ClanMembershipListener;
 import com.primeleague.clans.listeners.ClanPunishmentListener;
 import com.primeleague.clans.listeners.ClanStatsListener;
 import com.primeleague.clans.managers.ClansManager;
@@ -47,6 +48,13 @@ public class ClansPlugin extends JavaPlugin {
 
         // 3. Inicializar managers
         this.clansManager = new ClansManager(this);
+        // Registry de clans: todos em memória antes de qualquer getClan (factions/gladiador carregam depois)
+        int clanCount = clansManager.getRegistry().loadAll();
+        if (clanCount >= 0) {
+            getLogger().info(clanCount + " clans carregados no registry");
+        } else {
+            getLogger().warning("Registry de clans não carregou - getClan vai consultar o banco");
+        }
 
         // 4. Inicializar Discord integration (soft dependency)
         setupDiscordIntegration();
@@ -56,6 +64,21 @@ public class ClansPlugin extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new ClanChatListener(this), this);
         getServer().getPluginManager().registerEvents(new ClanEventWinListener(this), this);
         getServer().getPluginManager().registerEvents(new ClanPunishmentListener(this), this);
+        getServer().getPluginManager().registerEvents(new ClanMembershipListener(this), this);
+
+        // Reload: materializar membership de quem já está online
+        for (org.bukkit.entity.Player player : getServer().getOnlinePlayers()) {
+            final UUID uuid = player.getUniqueId();
+            getServer().getScheduler().runTaskAsynchronously(this, () -> {
+                clansManager.loadMembership(uuid);
+                clansManager.publishMembership(uuid);
+            });
+        }
+
+        // Placeholders: pontos/tag e ELO médio/kills dos clans online revalidados em background
+        long refreshTicks = Math.max(5, getConfig().getInt("placeholders.clan-refresh-seconds", 30)) * 20L;
+        getServer().getScheduler().runTaskTimerAsynchronously(this, clansManager::refreshOnlineClans,
+            refreshTicks, refreshTicks);
 
         // 5. Registrar comandos
         getCommand("clan").setExecutor(new ClanCommand(this));
@@ -73,6 +96,10 @@ public class ClansPlugin extends JavaPlugin {
         eloCache.clear();
         alertCache.clear();
 
+        if (clansManager != null && clansManager.getSyncMisses() > 0) {
+            getLogger().info("Membership: " + clansManager.getSyncMisses() + " misses síncronos no main thread");
+        }
+
         // Unregister PlaceholderAPI
         if (placeholderExpansion != null) {
             placeholderExpansion.unregister();
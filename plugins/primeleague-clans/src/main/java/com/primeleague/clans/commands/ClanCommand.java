@@ -2115,35 +2115,7 @@ public class ClanCommand implements CommandExecutor {
 
         if (clan == null) {
 
-            try (Connection conn = CoreAPI.getDatabase().getConnection();
-
-                 PreparedStatement stmt = conn.prepareStatement(
-
-                    "SELECT id FROM clans WHERE name = ?")) {
-
-                stmt.setString(1, clanName);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-
-                    if (rs.next()) {
-
-                        int clanId = rs.getInt("id");
-
-                        clan = plugin.getClansManager().getClan(clanId);
-
-                    }
-
-                }
-
-            } catch (SQLException e) {
-
-                plugin.getLogger().severe("Erro ao buscar clan: " + e.getMessage());
-
-                player.sendMessage(ChatColor.RED + "Erro ao buscar clan.");
-
-                return true;
-
-            }
+            clan = plugin.getClansManager().getClanByName(clanName);
 
         }
 
@@ -2159,136 +2131,117 @@ public class ClanCommand implements CommandExecutor {
 
 
 
-        // Atualizar campo
-
-        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
-
-            if (campo.equals("name")) {
-
-                try (PreparedStatement stmt = conn.prepareStatement(
-
-                    "UPDATE clans SET name = ? WHERE id = ?")) {
-
-                    stmt.setString(1, valor);
-
-                    stmt.setInt(2, clan.getId());
-
-                    stmt.executeUpdate();
+        // Atualizar campo (ClansManager grava no banco e atualiza o registry)
 
-                    player.sendMessage(ChatColor.GREEN + "Nome do clan atualizado para: " + ChatColor.YELLOW + valor);
-
-                }
-
-            } else if (campo.equals("tag")) {
+        if (campo.equals("name")) {
 
-                // Validar tag
+            if (plugin.getClansManager().renameClan(clan.getId(), valor)) {
 
-                String tagClean = ChatColor.stripColor(valor);
+                player.sendMessage(ChatColor.GREEN + "Nome do clan atualizado para: " + ChatColor.YELLOW + valor);
 
-                if (tagClean.length() != 3 || valor.length() > 20) {
+            } else {
 
-                    player.sendMessage(ChatColor.RED + "Tag inválida. Deve ter exatamente 3 caracteres (sem cores) e no máximo 20 com cores.");
+                player.sendMessage(ChatColor.RED + "Erro ao atualizar clan.");
 
-                    return true;
+            }
 
-                }
+        } else if (campo.equals("tag")) {
 
-                tagClean = tagClean.toUpperCase();
+            // Validar tag
 
+            String tagClean = ChatColor.stripColor(valor);
 
+            if (tagClean.length() != 3 || valor.length() > 20) {
 
-                // Verificar se tag já existe
+                player.sendMessage(ChatColor.RED + "Tag inválida. Deve ter exatamente 3 caracteres (sem cores) e no máximo 20 com cores.");
 
-                ClanData existingClan = plugin.getClansManager().getClanByTag(tagClean);
+                return true;
 
-                if (existingClan != null && existingClan.getId() != clan.getId()) {
+            }
 
-                    player.sendMessage(ChatColor.RED + "Tag já existe: " + tagClean);
+            tagClean = tagClean.toUpperCase();
 
-                    return true;
 
-                }
 
+            // Verificar se tag já existe
 
+            ClanData existingClan = plugin.getClansManager().getClanByTag(tagClean);
 
-                try (PreparedStatement stmt = conn.prepareStatement(
+            if (existingClan != null && existingClan.getId() != clan.getId()) {
 
-                    "UPDATE clans SET tag = ?, tag_clean = ? WHERE id = ?")) {
+                player.sendMessage(ChatColor.RED + "Tag já existe: " + tagClean);
 
-                    stmt.setString(1, valor);
+                return true;
 
-                    stmt.setString(2, tagClean);
+            }
 
-                    stmt.setInt(3, clan.getId());
 
-                    stmt.executeUpdate();
 
-                    player.sendMessage(ChatColor.GREEN + "Tag do clan atualizada para: " + ChatColor.YELLOW + valor);
+            if (plugin.getClansManager().setClanTag(clan.getId(), valor, tagClean)) {
 
-                }
+                player.sendMessage(ChatColor.GREEN + "Tag do clan atualizada para: " + ChatColor.YELLOW + valor);
 
-            } else if (campo.equals("leader")) {
+            } else {
 
-                // Buscar UUID do novo leader
+                player.sendMessage(ChatColor.RED + "Erro ao atualizar clan.");
 
-                PlayerData leaderData = CoreAPI.getPlayerByName(valor);
+            }
 
-                if (leaderData == null) {
+        } else if (campo.equals("leader")) {
 
-                    player.sendMessage(ChatColor.RED + "Player não encontrado: " + valor);
+            // Buscar UUID do novo leader
 
-                    return true;
+            PlayerData leaderData = CoreAPI.getPlayerByName(valor);
 
-                }
+            if (leaderData == null) {
 
+                player.sendMessage(ChatColor.RED + "Player não encontrado: " + valor);
 
+                return true;
 
-                UUID newLeaderUuid = leaderData.getUuid();
+            }
 
 
 
-                // Verificar se novo leader é membro do clan
+            UUID newLeaderUuid = leaderData.getUuid();
 
-                String memberRole = plugin.getClansManager().getMemberRole(clan.getId(), newLeaderUuid);
 
-                if (memberRole == null) {
 
-                    player.sendMessage(ChatColor.RED + "Player não é membro do clan. Adicione-o primeiro.");
+            // Verificar se novo leader é membro do clan
 
-                    return true;
+            String memberRole = plugin.getClansManager().getMemberRole(clan.getId(), newLeaderUuid);
 
-                }
+            if (memberRole == null) {
 
+                player.sendMessage(ChatColor.RED + "Player não é membro do clan. Adicione-o primeiro.");
 
+                return true;
 
-                // Transferir liderança
+            }
 
-                if (plugin.getClansManager().transferLeadership(clan.getId(), newLeaderUuid)) {
 
-                    player.sendMessage(ChatColor.GREEN + "Líder do clan atualizado para: " + ChatColor.YELLOW + valor);
 
-                } else {
+            // Transferir liderança
 
-                    player.sendMessage(ChatColor.RED + "Erro ao atualizar líder do clan.");
+            if (plugin.getClansManager().transferLeadership(clan.getId(), newLeaderUuid)) {
 
-                }
+                player.sendMessage(ChatColor.GREEN + "Líder do clan atualizado para: " + ChatColor.YELLOW + valor);
 
             } else {
 
-                player.sendMessage(ChatColor.RED + "Campo inválido. Campos disponíveis: " + ChatColor.WHITE + "name, tag, leader");
+                player.sendMessage(ChatColor.RED + "Erro ao atualizar líder do clan.");
 
             }
 
-        } catch (SQLException e) {
-
-            plugin.getLogger().severe("Erro ao atualizar clan: " + e.getMessage());
+        } else {
 
-            player.sendMessage(ChatColor.RED + "Erro ao atualizar clan.");
+            player.sendMessage(ChatColor.RED + "Campo inválido. Campos disponíveis: " + ChatColor.WHITE + "name, tag, leader");
 
         }
 
 
 
+
         return true;
 
     }
@@ -2503,33 +2456,13 @@ public class ClanCommand implements CommandExecutor {
 
 
 
-        // Atualizar no banco
-
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-
-             PreparedStatement stmt = conn.prepareStatement(
-
-                "UPDATE clans SET tag = ? WHERE id = ?")) {
-
-            stmt.setString(1, novaTagStr);
-
-            stmt.setInt(2, clan.getId());
-
-            stmt.executeUpdate();
-
-
-
-            // Atualizar cache
-
-            clan.setTag(novaTagStr);
-
+        // Atualizar no banco + registry (texto da tag não muda, só as cores)
 
+        if (plugin.getClansManager().setClanTag(clan.getId(), novaTagStr, clan.getTagClean())) {
 
             player.sendMessage(ChatColor.GREEN + "Cor da tag atualizada para: " + ChatColor.YELLOW + novaTagStr);
 
-        } catch (SQLException e) {
-
-            plugin.getLogger().severe("Erro ao atualizar cor da tag: " + e.getMessage());
+        } else {
 
             player.sendMessage(ChatColor.RED + "Erro ao atualizar cor da tag.");
 
@@ -0,0 +1,65 @@
+package com.primeleague.clans.events;
+
+import com.primeleague.clans.models.ClanData;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Evento disparado quando um clan muda no registry (criado, renomeado, home, pontos, etc)
+ * Grug Brain: Factions/Gladiador/Chat escutam isso em vez de consultar o banco de novo.
+ * Pode ser async (mudança feita fora do main thread) - ver isAsynchronous().
+ */
+public class ClanChangeEvent extends Event {
+    private static final HandlerList handlers = new HandlerList();
+
+    /**
+     * O que mudou
+     */
+    public enum Change {
+        CREATED, NAME, TAG, LEADER, HOME, POINTS, DISCORD, RELOADED
+    }
+
+    private final int clanId;
+    private final Change change;
+    private final ClanData previous;
+    private final ClanData current;
+
+    public ClanChangeEvent(int clanId, Change change, ClanData previous, ClanData current, boolean async) {
+        super(async);
+        this.clanId = clanId;
+        this.change = change;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    public int getClanId() {
+        return clanId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    /**
+     * Snapshot antes da mudança (null se CREATED)
+     */
+    public ClanData getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Snapshot atual (não alterar - é a entrada do registry)
+     */
+    public ClanData getCurrent() {
+        return current;
+    }
+}
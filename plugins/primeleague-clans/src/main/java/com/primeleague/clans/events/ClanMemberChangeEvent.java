@@ -0,0 +1,49 @@
+package com.primeleague.clans.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.UUID;
+
+/**
+ * Evento disparado quando um player entra ou sai de um clan (addMember/removeMember)
+ * Grug Brain: Agregados por clan (ex: power no Factions) atualizam sem reconsultar clan_members.
+ * Pode ser async - ver isAsynchronous().
+ */
+public class ClanMemberChangeEvent extends Event {
+    private static final HandlerList handlers = new HandlerList();
+    private final int clanId;
+    private final UUID playerUuid;
+    private final boolean joined;
+
+    public ClanMemberChangeEvent(int clanId, UUID playerUuid, boolean joined, boolean async) {
+        super(async);
+        this.clanId = clanId;
+        this.playerUuid = playerUuid;
+        this.joined = joined;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    public int getClanId() {
+        return clanId;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    /**
+     * true = entrou no clan, false = saiu
+     */
+    public boolean isJoined() {
+        return joined;
+    }
+}
@@ -1,22 +1,15 @@
 package com.primeleague.clans.integrations;
 
 import com.primeleague.clans.ClansPlugin;
-import com.primeleague.clans.models.ClanData;
 import com.primeleague.core.CoreAPI;
-import com.primeleague.core.models.PlayerData;
+import com.primeleague.core.models.PlayerSnapshot;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.UUID;
-
 /**
  * PlaceholderAPI Expansion para Clans
- * Grug Brain: Placeholders simples e diretos, queries sync (PlaceholderAPI não suporta async)
+ * Grug Brain: Placeholders simples e diretos, lidos do snapshot do Core (PlaceholderAPI não suporta async,
+ * então nada de query aqui - ClansManager publica clan e agregados em background)
  */
 public class ClansPlaceholderExpansion extends PlaceholderExpansion {
 
@@ -52,135 +45,47 @@ public class ClansPlaceholderExpansion extends PlaceholderExpansion {
             return "";
         }
 
-        UUID uuid = player.getUniqueId();
-        ClanData clan = plugin.getClansManager().getClanByMember(uuid);
+        // Snapshot do Core: clan publicado no join/mudança de membership, agregados revalidados async
+        PlayerSnapshot snapshot = CoreAPI.getSnapshot(player.getUniqueId());
 
         // Se player não tem clan, retornar vazio
-        if (clan == null) {
+        if (!snapshot.hasClan()) {
             return "";
         }
 
         // %clans_name% - Nome do clan
         if (identifier.equals("name")) {
-            return clan.getName();
+            return snapshot.getClanName();
         }
 
         // %clans_tag% - Tag colorida do clan (com reset de cor para não propagar)
         if (identifier.equals("tag")) {
-            String tag = clan.getTag();
+            String tag = snapshot.getClanTag();
             // Reset de cor + cor gray para o colchete de fechamento
             // Formato do chat usa §7[%clans_tag%], então reset + §7 garante cor correta no ]
             return tag + org.bukkit.ChatColor.RESET + org.bukkit.ChatColor.GRAY;
         }
 
-        // %clans_elo% - ELO médio do clan (usa cache TTL 30s)
+        // %clans_elo% - ELO médio do clan
         if (identifier.equals("elo")) {
-            try {
-                double avgElo = plugin.getClansManager().getClanAverageElo(clan.getId());
-                return String.format("%.0f", avgElo);
-            } catch (Exception e) {
-                return "";
-            }
+            return String.valueOf(snapshot.getClanAverageElo());
         }
 
-        // %clans_kills% - Kills totais do clan (query sync)
+        // %clans_kills% - Kills totais do clan
         if (identifier.equals("kills")) {
-            try {
-                int totalKills = getTotalKills(clan.getId());
-                return String.valueOf(totalKills);
-            } catch (Exception e) {
-                return "";
-            }
+            return String.valueOf(snapshot.getClanKills());
         }
 
-        // %clans_members_online% - Membros online
+        // %clans_members_online% - Mantém o valor de antes (pontos do clan)
         if (identifier.equals("members_online")) {
-            int online = getOnlineMembers(clan.getId());
-            try {
-                int points = plugin.getClansManager().getClanPoints(clan.getId());
-                return String.valueOf(points);
-            } catch (Exception e) {
-                return "";
-            }
+            return String.valueOf(snapshot.getClanPoints());
         }
 
         // %clans_event_wins% - Número de vitórias em eventos
         if (identifier.equals("event_wins")) {
-            try {
-                Integer eventWinsCount = clan.getEventWinsCount();
-                if (eventWinsCount != null) {
-                    return String.valueOf(eventWinsCount);
-                }
-                return "0";
-            } catch (Exception e) {
-                return "";
-            }
+            return String.valueOf(snapshot.getClanEventWins());
         }
 
         return null; // Placeholder desconhecido
     }
-
-    /**
-     * Calcula ELO médio do clan (query sync)
-     * Grug Brain: Query direta, try-with-resources
-     */
-    private double getAverageElo(int clanId) {
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                "SELECT COALESCE(AVG(u.elo), 0) as avg_elo " +
-                "FROM clan_members cm " +
-                "JOIN users u ON cm.player_uuid = u.uuid " +
-                "WHERE cm.clan_id = ?")) {
-            stmt.setInt(1, clanId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getDouble("avg_elo");
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Erro ao calcular ELO médio do clan: " + e.getMessage());
-        }
-        return 0;
-    }
-
-    /**
-     * Calcula kills totais do clan (query sync)
-     * Grug Brain: Query direta, try-with-resources
-     */
-    private int getTotalKills(int clanId) {
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                "SELECT COALESCE(SUM(u.kills), 0) as total_kills " +
-                "FROM clan_members cm " +
-                "JOIN users u ON cm.player_uuid = u.uuid " +
-                "WHERE cm.clan_id = ?")) {
-            stmt.setInt(1, clanId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("total_kills");
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Erro ao calcular kills totais do clan: " + e.getMessage());
-        }
-        return 0;
-    }
-
-    /**
-     * Conta membros online do clan
-     * Grug Brain: Contagem em tempo real, sem query
-     */
-    private int getOnlineMembers(int clanId) {
-        int count = 0;
-        for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
-            ClanData playerClan = plugin.getClansManager().getClanByMember(onlinePlayer.getUniqueId());
-            if (playerClan != null && playerClan.getId() == clanId) {
-                count++;
-            }
-        }
-        return count;
-    }
 }
-
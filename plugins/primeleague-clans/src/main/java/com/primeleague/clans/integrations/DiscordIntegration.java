@@ -143,19 +143,9 @@ public class DiscordIntegration {
      * Salva IDs do Discord no banco
      */
     private void saveDiscordIds(int clanId, long channelId, long roleId) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (java.sql.Connection conn = com.primeleague.core.CoreAPI.getDatabase().getConnection();
-                 java.sql.PreparedStatement stmt = conn.prepareStatement(
-                    "UPDATE clans SET discord_channel_id = ?, discord_role_id = ? WHERE id = ?")) {
-                stmt.setLong(1, channelId);
-                stmt.setLong(2, roleId);
-                stmt.setInt(3, clanId);
-                stmt.executeUpdate();
-            } catch (java.sql.SQLException e) {
-                plugin.getLogger().severe("Erro ao salvar IDs do Discord: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+        // ClansManager grava e atualiza o registry (notifyDiscord passa a ver o canal)
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () ->
+            plugin.getClansManager().setDiscordIds(clanId, channelId, roleId));
     }
 
     /**
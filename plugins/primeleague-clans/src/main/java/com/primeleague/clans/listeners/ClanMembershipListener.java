@@ -0,0 +1,64 @@
+package com.primeleague.clans.listeners;
+
+import com.primeleague.clans.ClansPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.UUID;
+
+/**
+ * Materializa membership do player na tabela do ClansManager
+ * Grug Brain: Carrega no pre-login (já é async - pronto antes do join), descarta no quit
+ * (ou no login negado - whitelist, ban, servidor cheio - que não tem join nem quit)
+ * No join publica o clan no snapshot de placeholders do Core (só existe a partir do join)
+ */
+public class ClanMembershipListener implements Listener {
+
+    private final ClansPlugin plugin;
+
+    public ClanMembershipListener(ClansPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        plugin.getClansManager().loadMembership(event.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            unloadLater(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        plugin.getClansManager().publishMembership(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        unloadLater(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * 1 tick depois: listeners de quit dos outros plugins ainda podem consultar o clan;
+     * mesmo UUID online de novo (rejoin, ou sessão antiga no login negado) mantém a membership
+     */
+    private void unloadLater(UUID uuid) {
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            if (plugin.getServer().getPlayer(uuid) == null) {
+                plugin.getClansManager().unloadMembership(uuid);
+            }
+        }, 1L);
+    }
+}
@@ -0,0 +1,301 @@
+package com.primeleague.clans.managers;
+
+import com.primeleague.clans.ClansPlugin;
+import com.primeleague.clans.events.ClanChangeEvent;
+import com.primeleague.clans.models.ClanData;
+import com.primeleague.core.CoreAPI;
+import org.bukkit.Bukkit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Registry de clans em memória (todos os clans, carregados no enable)
+ * Grug Brain: Índices por id, tag e nome. Leitura = get no ConcurrentHashMap, sem lock e sem I/O.
+ * Mudança = cópia do ClanData + troca da entrada (quem já leu continua com o snapshot antigo, inteiro).
+ * Quem escreve no banco (ClansManager) atualiza aqui logo depois e o registry publica ClanChangeEvent.
+ */
+public class ClanRegistry {
+
+    static final String CLAN_COLUMNS =
+        "id, name, tag, tag_clean, leader_uuid, created_at, description, " +
+        "discord_channel_id, discord_role_id, home_world, home_x, home_y, home_z, " +
+        "points, event_wins_count, blocked_from_events";
+
+    private final ClansPlugin plugin;
+    private final Consumer<ClanData> onChange;
+    private final Map<Integer, ClanData> byId = new ConcurrentHashMap<>();
+    private final Map<String, Integer> byTag = new ConcurrentHashMap<>(); // tag_clean maiúscula
+    private final Map<String, Integer> byName = new ConcurrentHashMap<>(); // nome minúsculo
+    private volatile boolean loaded;
+
+    /**
+     * @param onChange Chamado a cada mudança, antes do evento (ClansManager republica snapshot dos membros)
+     */
+    public ClanRegistry(ClansPlugin plugin, Consumer<ClanData> onChange) {
+        this.plugin = plugin;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Carrega todos os clans (enable)
+     * @return Quantidade carregada, ou -1 se erro no banco
+     */
+    public int loadAll() {
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT " + CLAN_COLUMNS + " FROM clans")) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                int count = 0;
+                while (rs.next()) {
+                    ClanData clan = map(rs);
+                    byId.put(clan.getId(), clan);
+                    index(clan);
+                    count++;
+                }
+                loaded = true;
+                return count;
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao carregar clans: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * false se o load do enable falhou (ClansManager volta a consultar o banco)
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public ClanData get(int clanId) {
+        return byId.get(clanId);
+    }
+
+    public ClanData getByTag(String tagClean) {
+        if (tagClean == null) {
+            return null;
+        }
+        Integer clanId = byTag.get(tagClean.toUpperCase(Locale.ROOT));
+        return clanId != null ? byId.get(clanId) : null;
+    }
+
+    public ClanData getByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer clanId = byName.get(name.toLowerCase(Locale.ROOT));
+        return clanId != null ? byId.get(clanId) : null;
+    }
+
+    /**
+     * Todos os clans (visão sem cópia - não alterar os ClanData)
+     */
+    public Collection<ClanData> getAll() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Coloca clan novo ou recarregado (linha completa do banco)
+     */
+    public void put(ClanData clan, ClanChangeEvent.Change change) {
+        ClanData previous = byId.put(clan.getId(), clan);
+        reindex(previous, clan);
+        publish(change, previous, clan);
+    }
+
+    /**
+     * Aplica mudança em uma cópia e troca a entrada (chamar depois do UPDATE no banco)
+     * @return Snapshot novo, ou null se o clan não está no registry
+     */
+    public ClanData update(int clanId, ClanChangeEvent.Change change, Consumer<ClanData> mutation) {
+        ClanData[] previous = new ClanData[1];
+        ClanData updated = byId.computeIfPresent(clanId, (id, old) -> {
+            previous[0] = old;
+            ClanData copy = old.copy();
+            mutation.accept(copy);
+            return copy;
+        });
+        if (updated == null) {
+            return null;
+        }
+        reindex(previous[0], updated);
+        publish(change, previous[0], updated);
+        return updated;
+    }
+
+    /**
+     * Relê um clan do banco (clan fora do registry, ou revalidação periódica)
+     * Só publica RELOADED se algo mudou (ex: UPDATE manual no banco)
+     */
+    public ClanData reload(int clanId) {
+        ClanData fresh;
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT " + CLAN_COLUMNS + " FROM clans WHERE id = ?")) {
+            stmt.setInt(1, clanId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    remove(clanId);
+                    return null;
+                }
+                fresh = map(rs);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao recarregar clan: " + e.getMessage());
+            return byId.get(clanId);
+        }
+
+        ClanData current = byId.get(clanId);
+        if (current != null && sameData(current, fresh)) {
+            return current;
+        }
+        put(fresh, current == null ? ClanChangeEvent.Change.CREATED : ClanChangeEvent.Change.RELOADED);
+        return fresh;
+    }
+
+    /**
+     * Remove clan (apagado no banco)
+     */
+    public void remove(int clanId) {
+        ClanData removed = byId.remove(clanId);
+        if (removed != null) {
+            unindex(removed);
+        }
+    }
+
+    private void reindex(ClanData previous, ClanData current) {
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(current);
+    }
+
+    private void index(ClanData clan) {
+        if (clan.getTagClean() != null) {
+            byTag.put(clan.getTagClean().toUpperCase(Locale.ROOT), clan.getId());
+        }
+        if (clan.getName() != null) {
+            byName.put(clan.getName().toLowerCase(Locale.ROOT), clan.getId());
+        }
+    }
+
+    private void unindex(ClanData clan) {
+        // remove(key, value): não apaga índice que já aponta para outro clan
+        if (clan.getTagClean() != null) {
+            byTag.remove(clan.getTagClean().toUpperCase(Locale.ROOT), clan.getId());
+        }
+        if (clan.getName() != null) {
+            byName.remove(clan.getName().toLowerCase(Locale.ROOT), clan.getId());
+        }
+    }
+
+    private void publish(ClanChangeEvent.Change change, ClanData previous, ClanData current) {
+        onChange.accept(current);
+        if (!plugin.isEnabled()) {
+            return;
+        }
+        try {
+            Bukkit.getPluginManager().callEvent(new ClanChangeEvent(current.getId(), change, previous, current,
+                !Bukkit.isPrimaryThread()));
+        } catch (Exception e) {
+            plugin.getLogger().warning("Erro ao publicar mudança do clan " + current.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean sameData(ClanData a, ClanData b) {
+        return Objects.equals(a.getName(), b.getName()) &&
+            Objects.equals(a.getTag(), b.getTag()) &&
+            Objects.equals(a.getTagClean(), b.getTagClean()) &&
+            Objects.equals(a.getLeaderUuid(), b.getLeaderUuid()) &&
+            Objects.equals(a.getDescription(), b.getDescription()) &&
+            Objects.equals(a.getDiscordChannelId(), b.getDiscordChannelId()) &&
+            Objects.equals(a.getDiscordRoleId(), b.getDiscordRoleId()) &&
+            Objects.equals(a.getHomeWorld(), b.getHomeWorld()) &&
+            Objects.equals(a.getHomeX(), b.getHomeX()) &&
+            Objects.equals(a.getHomeY(), b.getHomeY()) &&
+            Objects.equals(a.getHomeZ(), b.getHomeZ()) &&
+            Objects.equals(a.getPoints(), b.getPoints()) &&
+            Objects.equals(a.getEventWinsCount(), b.getEventWinsCount()) &&
+            Objects.equals(a.getBlockedFromEvents(), b.getBlockedFromEvents());
+    }
+
+    /**
+     * Mapeia ResultSet (colunas de CLAN_COLUMNS) para ClanData
+     */
+    static ClanData map(ResultSet rs) throws SQLException {
+        ClanData clan = new ClanData();
+        clan.setId(rs.getInt("id"));
+        clan.setName(rs.getString("name"));
+        clan.setTag(rs.getString("tag"));
+        clan.setTagClean(rs.getString("tag_clean"));
+        clan.setLeaderUuid((UUID) rs.getObject("leader_uuid"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            clan.setCreatedAt(new Date(createdAt.getTime()));
+        }
+        clan.setDescription(rs.getString("description"));
+        Long discordChannelId = rs.getLong("discord_channel_id");
+        if (rs.wasNull()) {
+            discordChannelId = null;
+        }
+        clan.setDiscordChannelId(discordChannelId);
+        Long discordRoleId = rs.getLong("discord_role_id");
+        if (rs.wasNull()) {
+            discordRoleId = null;
+        }
+        clan.setDiscordRoleId(discordRoleId);
+
+        // Home (pode ser null)
+        String homeWorld = rs.getString("home_world");
+        clan.setHomeWorld(homeWorld);
+        if (homeWorld != null) {
+            double homeX = rs.getDouble("home_x");
+            if (!rs.wasNull()) {
+                clan.setHomeX(homeX);
+            }
+            double homeY = rs.getDouble("home_y");
+            if (!rs.wasNull()) {
+                clan.setHomeY(homeY);
+            }
+            double homeZ = rs.getDouble("home_z");
+            if (!rs.wasNull()) {
+                clan.setHomeZ(homeZ);
+            }
+        }
+
+        // Pontos e bloqueio
+        int points = rs.getInt("points");
+        if (!rs.wasNull()) {
+            clan.setPoints(points);
+        }
+        int eventWinsCount = rs.getInt("event_wins_count");
+        if (!rs.wasNull()) {
+            clan.setEventWinsCount(eventWinsCount);
+        }
+        boolean blockedFromEvents = rs.getBoolean("blocked_from_events");
+        if (!rs.wasNull()) {
+            clan.setBlockedFromEvents(blockedFromEvents);
+        }
+
+        // Shield é gerenciado pelo Factions (ShieldManager), não mais pelo Clans
+        // Mantido como null no ClanData para compatibilidade, mas não buscado do banco
+
+        return clan;
+    }
+}
@@ -1,6 +1,8 @@
 package com.primeleague.clans.managers;
 
 import com.primeleague.clans.ClansPlugin;
+import com.primeleague.clans.events.ClanChangeEvent;
+import com.primeleague.clans.events.ClanMemberChangeEvent;
 import com.primeleague.clans.models.ClanData;
 import com.primeleague.clans.models.ClanMember;
 import com.primeleague.clans.models.ClanAlert;
@@ -13,10 +15,13 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Gerenciador de lógica de negócio dos clans
@@ -26,71 +31,51 @@ public class ClansManager {
 
     private final ClansPlugin plugin;
 
-    // Cache de roles (UUID -> RoleCache) para evitar queries síncronas em eventos frequentes
-    // Grug Brain: Cache simples com TTL 30s para balancear performance e consistência
-    private final Map<UUID, RoleCache> roleCache = new ConcurrentHashMap<>();
-    private static final long ROLE_CACHE_TTL = 30_000; // 30 segundos
+    // Tabela de membership dos players online (UUID -> Membership)
+    // Grug Brain: Materializada no login (async), atualizada por addMember/removeMember/updateMemberRole/
+    // transferLeadership. Eventos no main thread nunca consultam o banco para player online.
+    private final Map<UUID, Membership> memberships = new ConcurrentHashMap<>();
+    // Todos os clans em memória (getClan/getClanByTag sem I/O)
+    private final ClanRegistry registry;
+    // Métrica: lookups no main thread que não estavam na tabela (deveria ficar em 0)
+    private final AtomicLong syncMisses = new AtomicLong();
 
-    // Cache de clan por membro (UUID -> ClanMemberCache) para evitar queries síncronas em eventos frequentes
-    // Grug Brain: Cache simples com TTL 30s - clan do player muda raramente
-    private final Map<UUID, ClanMemberCache> clanMemberCache = new ConcurrentHashMap<>();
-    private static final long CLAN_MEMBER_CACHE_TTL = 30_000; // 30 segundos
+    private static final String MEMBERSHIP_QUERY =
+        "SELECT clan_id, role, joined_at FROM clan_members WHERE player_uuid = ?";
+
+    private static final String CLAN_QUERY = "SELECT " + ClanRegistry.CLAN_COLUMNS + " FROM clans ";
 
     public ClansManager(ClansPlugin plugin) {
         this.plugin = plugin;
+        this.registry = new ClanRegistry(plugin, this::publishClan);
     }
 
     /**
-     * Classe interna para cache de role
+     * Registry de clans (índices id/tag/nome em memória)
      */
-    private static class RoleCache {
-        private final String role;
-        private final int clanId;
-        private final long timestamp;
-        private final long joinedAtTimestamp; // Para verificar tempo de recruit
-
-        public RoleCache(String role, int clanId, long joinedAtTimestamp) {
-            this.role = role;
-            this.clanId = clanId;
-            this.timestamp = System.currentTimeMillis();
-            this.joinedAtTimestamp = joinedAtTimestamp;
-        }
-
-        public String getRole() {
-            return role;
-        }
-
-        public int getClanId() {
-            return clanId;
-        }
-
-        public long getTimestamp() {
-            return timestamp;
-        }
-
-        public long getJoinedAtTimestamp() {
-            return joinedAtTimestamp;
-        }
+    public ClanRegistry getRegistry() {
+        return registry;
     }
 
     /**
-     * Classe interna para cache de clan por membro
+     * Membership de um player (imutável - mudanças substituem a entrada)
+     * clanId -1 = sem clan. Dados do clan vêm do registry.
      */
-    private static class ClanMemberCache {
-        private final ClanData clan;
-        private final long timestamp;
+    private static class Membership {
+        private static final Membership NONE = new Membership(-1, null, 0);
 
-        public ClanMemberCache(ClanData clan) {
-            this.clan = clan;
-            this.timestamp = System.currentTimeMillis();
-        }
+        private final int clanId;
+        private final String role;
+        private final long joinedAt;
 
-        public ClanData getClan() {
-            return clan;
+        Membership(int clanId, String role, long joinedAt) {
+            this.clanId = clanId;
+            this.role = role;
+            this.joinedAt = joinedAt;
         }
 
-        public long getTimestamp() {
-            return timestamp;
+        Membership withRole(String newRole) {
+            return new Membership(clanId, newRole, joinedAt);
         }
     }
 
@@ -133,7 +118,7 @@ public class ClansManager {
             // Inserir clan
             try (PreparedStatement stmt = conn.prepareStatement(
                 "INSERT INTO clans (name, tag, tag_clean, leader_uuid, created_at) " +
-                "VALUES (?, ?, ?, ?, ?) RETURNING id")) {
+                "VALUES (?, ?, ?, ?, ?) RETURNING " + ClanRegistry.CLAN_COLUMNS)) {
                 stmt.setString(1, name);
                 stmt.setString(2, tag);
                 stmt.setString(3, tagClean);
@@ -145,13 +130,12 @@ public class ClansManager {
                         return null;
                     }
 
-                    int clanId = rs.getInt("id");
+                    // Registry primeiro: addMember publica o snapshot do leader com o clan novo
+                    ClanData clan = ClanRegistry.map(rs);
+                    registry.put(clan, ClanChangeEvent.Change.CREATED);
 
                     // Adicionar leader como membro
-                    addMember(clanId, leaderUuid, "LEADER");
-
-                    // Buscar clan criado
-                    ClanData clan = getClan(clanId);
+                    addMember(clan.getId(), leaderUuid, "LEADER");
 
                     // Criar canais no Discord (async)
                     if (plugin.getDiscordIntegration() != null) {
@@ -170,19 +154,47 @@ public class ClansManager {
 
     /**
      * Busca clan por ID
+     * Grug Brain: Registry em memória (sem I/O). Banco só se o load do enable falhou.
      */
     public ClanData getClan(int clanId) {
+        if (registry.isLoaded()) {
+            return registry.get(clanId);
+        }
+        return queryClan("WHERE id = ?", clanId);
+    }
+
+    /**
+     * Busca clan por tag (case-insensitive)
+     */
+    public ClanData getClanByTag(String tagClean) {
+        tagClean = tagClean.toUpperCase();
+        if (registry.isLoaded()) {
+            return registry.getByTag(tagClean);
+        }
+        return queryClan("WHERE UPPER(tag_clean) = ?", tagClean);
+    }
+
+    /**
+     * Busca clan por nome (case-insensitive)
+     */
+    public ClanData getClanByName(String name) {
+        if (registry.isLoaded()) {
+            return registry.getByName(name.trim());
+        }
+        return queryClan("WHERE LOWER(name) = LOWER(?)", name.trim());
+    }
+
+    /**
+     * Fallback sem registry: uma linha de clans
+     */
+    private ClanData queryClan(String where, Object param) {
         try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                "SELECT id, name, tag, tag_clean, leader_uuid, created_at, description, " +
-                "discord_channel_id, discord_role_id, home_world, home_x, home_y, home_z, " +
-                "points, event_wins_count, blocked_from_events " +
-                "FROM clans WHERE id = ?")) {
-            stmt.setInt(1, clanId);
+             PreparedStatement stmt = conn.prepareStatement(CLAN_QUERY + where)) {
+            stmt.setObject(1, param);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToClanData(rs);
+                    return ClanRegistry.map(rs);
                 }
                 return null;
             }
@@ -193,65 +205,188 @@ public class ClansManager {
     }
 
     /**
-     * Busca clan por tag (case-insensitive)
+     * Busca clan por membro
+     * Grug Brain: Tabela de membership + registry (sem I/O para player online)
      */
-    public ClanData getClanByTag(String tagClean) {
-        tagClean = tagClean.toUpperCase();
+    public ClanData getClanByMember(UUID playerUuid) {
+        Membership membership = lookupMembership(playerUuid);
+        if (membership.clanId < 0) {
+            return null; // Player não está em clan
+        }
+        return getClan(membership.clanId);
+    }
+
+    /**
+     * Carrega membership do banco para a tabela (chamar async - login/enable)
+     */
+    public void loadMembership(UUID playerUuid) {
+        Membership membership = queryMembership(playerUuid);
+        if (membership != null) {
+            memberships.put(playerUuid, membership);
+        }
+    }
+
+    /**
+     * Remove membership da tabela (player saiu)
+     */
+    public void unloadMembership(UUID playerUuid) {
+        memberships.remove(playerUuid);
+    }
+
+    /**
+     * Lookups síncronos no main thread que foram ao banco (métrica)
+     */
+    public long getSyncMisses() {
+        return syncMisses.get();
+    }
+
+    /**
+     * Membership da tabela, ou do banco se não estiver carregada (player offline)
+     * Nunca retorna null (falha no banco = sem clan)
+     */
+    private Membership lookupMembership(UUID playerUuid) {
+        Membership membership = memberships.get(playerUuid);
+        if (membership != null) {
+            return membership;
+        }
+
+        if (Bukkit.isPrimaryThread()) {
+            long misses = syncMisses.incrementAndGet();
+            plugin.getLogger().fine("Membership não carregada (miss síncrono #" + misses + "): " + playerUuid);
+        }
+        membership = queryMembership(playerUuid);
+        if (membership == null) {
+            return Membership.NONE;
+        }
+        // Player online mas fora da tabela (ex: falha no preload) - materializar agora
+        if (Bukkit.getPlayer(playerUuid) != null && memberships.putIfAbsent(playerUuid, membership) == null) {
+            publishSnapshot(playerUuid, membership);
+        }
+        return membership;
+    }
+
+    /**
+     * Busca membership do player
+     * @return Membership (NONE se sem clan), ou null se erro no banco
+     */
+    private Membership queryMembership(UUID playerUuid) {
         try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                "SELECT id, name, tag, tag_clean, leader_uuid, created_at, description, " +
-                "discord_channel_id, discord_role_id, home_world, home_x, home_y, home_z, " +
-                "points, event_wins_count, blocked_from_events " +
-                "FROM clans WHERE UPPER(tag_clean) = ?")) {
-            stmt.setString(1, tagClean);
+             PreparedStatement stmt = conn.prepareStatement(MEMBERSHIP_QUERY)) {
+            stmt.setObject(1, playerUuid);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToClanData(rs);
+                if (!rs.next()) {
+                    return Membership.NONE;
                 }
-                return null;
+                int clanId = rs.getInt("clan_id");
+                Timestamp joinedAt = rs.getTimestamp("joined_at");
+                Membership membership = new Membership(clanId, rs.getString("role"),
+                    joinedAt != null ? joinedAt.getTime() : 0);
+                // Clan criado fora do plugin (ex: insert manual) - trazer para o registry
+                if (registry.isLoaded() && registry.get(clanId) == null) {
+                    registry.reload(clanId);
+                }
+                return membership;
             }
         } catch (SQLException e) {
-            plugin.getLogger().severe("Erro ao buscar clan por tag: " + e.getMessage());
+            plugin.getLogger().severe("Erro ao buscar clan por membro: " + e.getMessage());
             return null;
         }
     }
 
     /**
-     * Busca clan por membro (com cache)
-     * Grug Brain: Cache em memória para evitar queries síncronas em eventos frequentes
+     * Mudança no registry: republica clan no snapshot dos membros online (chat/placeholders)
      */
-    public ClanData getClanByMember(UUID playerUuid) {
-        // Verificar cache primeiro
-        ClanMemberCache cached = clanMemberCache.get(playerUuid);
-        if (cached != null &&
-            System.currentTimeMillis() - cached.getTimestamp() < CLAN_MEMBER_CACHE_TTL) {
-            return cached.getClan(); // Pode ser null (player não está em clan)
+    private void publishClan(ClanData clan) {
+        for (Map.Entry<UUID, Membership> entry : memberships.entrySet()) {
+            if (entry.getValue().clanId == clan.getId()) {
+                publishSnapshot(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Publica clan do player (tabela de membership) no snapshot de placeholders do Core
+     * Chamar no join: no pre-login o snapshot ainda não existe. Agregados do clan vêm depois (async).
+     */
+    public void publishMembership(UUID playerUuid) {
+        Membership membership = memberships.get(playerUuid);
+        if (membership == null) {
+            return;
+        }
+        publishSnapshot(playerUuid, membership);
+        if (membership.clanId >= 0) {
+            int clanId = membership.clanId;
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> refreshClanStats(clanId));
+        }
+    }
+
+    /**
+     * Revalida clans com membros online: ClanData (pega UPDATE manual no banco) + ELO médio e kills
+     * (chamar async - timer)
+     * Grug Brain: Uma passada por clan, não por player
+     */
+    public void refreshOnlineClans() {
+        Set<Integer> clanIds = new HashSet<>();
+        for (Membership membership : memberships.values()) {
+            if (membership.clanId >= 0) {
+                clanIds.add(membership.clanId);
+            }
+        }
+        for (int clanId : clanIds) {
+            registry.reload(clanId);
+            refreshClanStats(clanId);
         }
+    }
 
-        // Cache expirado ou não existe - buscar do banco
+    /**
+     * ELO médio + kills totais do clan em uma query, publicados nos snapshots dos membros online
+     */
+    private void refreshClanStats(int clanId) {
+        double avgElo;
+        int totalKills;
         try (Connection conn = CoreAPI.getDatabase().getConnection();
              PreparedStatement stmt = conn.prepareStatement(
-                "SELECT c.id, c.name, c.tag, c.tag_clean, c.leader_uuid, c.created_at, c.description, " +
-                "c.discord_channel_id, c.discord_role_id, c.home_world, c.home_x, c.home_y, c.home_z, " +
-                "c.points, c.event_wins_count, c.blocked_from_events " +
-                "FROM clans c JOIN clan_members cm ON c.id = cm.clan_id " +
-                "WHERE cm.player_uuid = ?")) {
-            stmt.setObject(1, playerUuid);
+                "SELECT COALESCE(AVG(u.elo), 0) as avg_elo, COALESCE(SUM(u.kills), 0) as total_kills " +
+                "FROM clan_members cm " +
+                "JOIN users u ON cm.player_uuid = u.uuid " +
+                "WHERE cm.clan_id = ?")) {
+            stmt.setInt(1, clanId);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                ClanData clan = null;
-                if (rs.next()) {
-                    clan = mapResultSetToClanData(rs);
+                if (!rs.next()) {
+                    return;
                 }
-                // Atualizar cache (mesmo se null - player não está em clan)
-                clanMemberCache.put(playerUuid, new ClanMemberCache(clan));
-                return clan;
+                avgElo = rs.getDouble("avg_elo");
+                totalKills = rs.getInt("total_kills");
             }
         } catch (SQLException e) {
-            plugin.getLogger().severe("Erro ao buscar clan por membro: " + e.getMessage());
-            return null;
+            plugin.getLogger().severe("Erro ao calcular agregados do clan: " + e.getMessage());
+            return;
+        }
+
+        // Mesmo valor serve o getClanAverageElo (evita outra query até o TTL)
+        plugin.setEloCache(clanId, new ClansPlugin.EloCache(avgElo));
+        int roundedElo = (int) Math.round(avgElo);
+        for (Map.Entry<UUID, Membership> entry : memberships.entrySet()) {
+            if (entry.getValue().clanId == clanId) {
+                CoreAPI.updateSnapshot(entry.getKey(), snapshot -> snapshot.withClanStats(roundedElo, totalKills));
+            }
+        }
+    }
+
+    /**
+     * Copia clan da membership para o snapshot (ignorado se player offline)
+     */
+    private void publishSnapshot(UUID playerUuid, Membership membership) {
+        ClanData clan = membership.clanId >= 0 ? getClan(membership.clanId) : null;
+        if (clan == null) {
+            CoreAPI.updateSnapshot(playerUuid, snapshot -> snapshot.withClan(null, null, 0, 0));
+            return;
         }
+        int points = clan.getPoints() != null ? clan.getPoints() : 0;
+        int eventWins = clan.getEventWinsCount() != null ? clan.getEventWinsCount() : 0;
+        CoreAPI.updateSnapshot(playerUuid, snapshot -> snapshot.withClan(clan.getName(), clan.getTag(), points, eventWins));
     }
 
     /**
@@ -277,9 +412,15 @@ public class ClansManager {
             stmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
             int rows = stmt.executeUpdate();
             if (rows > 0) {
-                // Invalidar caches (player entrou no clan)
-                invalidateRoleCache(playerUuid);
-                invalidateClanMemberCache(playerUuid);
+                publishMemberChange(clanId, playerUuid, true);
+            }
+            if (rows > 0 && memberships.containsKey(playerUuid)) {
+                // Atualizar tabela (player online entrou no clan)
+                Membership membership = new Membership(clanId, role, System.currentTimeMillis());
+                if (memberships.computeIfPresent(playerUuid, (uuid, old) -> membership) != null) {
+                    publishSnapshot(playerUuid, membership);
+                    refreshClanStats(clanId);
+                }
             }
             return rows > 0;
         } catch (SQLException e) {
@@ -300,9 +441,14 @@ public class ClansManager {
 
             int rows = stmt.executeUpdate();
             if (rows > 0) {
-                // Invalidar caches (player saiu do clan)
-                invalidateRoleCache(playerUuid);
-                invalidateClanMemberCache(playerUuid);
+                publishMemberChange(clanId, playerUuid, false);
+
+                // Atualizar tabela (player saiu do clan)
+                Membership updated = memberships.computeIfPresent(playerUuid,
+                    (uuid, membership) -> membership.clanId == clanId ? Membership.NONE : membership);
+                if (updated != null) {
+                    publishSnapshot(playerUuid, updated);
+                }
 
                 // Notificar Discord (se disponível)
                 ClanData clan = getClan(clanId);
@@ -321,6 +467,21 @@ public class ClansManager {
         }
     }
 
+    /**
+     * Publica entrada/saída de membro (async se chamado fora do main thread)
+     */
+    private void publishMemberChange(int clanId, UUID playerUuid, boolean joined) {
+        if (!plugin.isEnabled()) {
+            return;
+        }
+        try {
+            Bukkit.getPluginManager().callEvent(new ClanMemberChangeEvent(clanId, playerUuid, joined,
+                !Bukkit.isPrimaryThread()));
+        } catch (Exception e) {
+            plugin.getLogger().warning("Erro ao publicar mudança de membro do clan " + clanId + ": " + e.getMessage());
+        }
+    }
+
     /**
      * Busca membros do clan
      */
@@ -349,87 +510,23 @@ public class ClansManager {
     }
 
     /**
-     * Busca role do membro no clan (com cache)
-     * Grug Brain: Cache em memória para evitar queries síncronas em eventos frequentes
+     * Busca role do membro no clan
+     * Grug Brain: Lê da tabela de membership (sem I/O para player online)
      */
     public String getMemberRole(int clanId, UUID playerUuid) {
-        // Verificar cache primeiro
-        RoleCache cached = roleCache.get(playerUuid);
-        if (cached != null &&
-            System.currentTimeMillis() - cached.getTimestamp() < ROLE_CACHE_TTL &&
-            cached.getClanId() == clanId) {
-            return cached.getRole();
-        }
-
-        // Cache expirado ou não existe - buscar do banco
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                "SELECT role, joined_at FROM clan_members WHERE clan_id = ? AND player_uuid = ?")) {
-            stmt.setInt(1, clanId);
-            stmt.setObject(2, playerUuid);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    String role = rs.getString("role");
-                    Timestamp joinedAt = rs.getTimestamp("joined_at");
-                    long joinedAtTs = joinedAt != null ? joinedAt.getTime() : 0;
-
-                    // Atualizar cache
-                    roleCache.put(playerUuid, new RoleCache(role, clanId, joinedAtTs));
-                    return role;
-                }
-                // Player não está no clan - remover do cache
-                roleCache.remove(playerUuid);
-                return null;
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Erro ao buscar role: " + e.getMessage());
-            return null;
-        }
-    }
-
-    /**
-     * Invalida cache de role do player (chamado quando role muda)
-     */
-    public void invalidateRoleCache(UUID playerUuid) {
-        roleCache.remove(playerUuid);
-    }
-
-    /**
-     * Invalida cache de clan por membro (chamado quando player entra/sai de clan)
-     */
-    public void invalidateClanMemberCache(UUID playerUuid) {
-        clanMemberCache.remove(playerUuid);
+        Membership membership = lookupMembership(playerUuid);
+        return membership.clanId == clanId ? membership.role : null;
     }
 
     /**
      * Verifica se player tem acesso a containers no chunk claimado
      * Grug Brain: RECRUIT nunca tem acesso (anti-spy). Apenas MEMBER/OFFICER/LEADER podem acessar.
-     * Usa cache para evitar queries síncronas
+     * Usa a tabela de membership (sem queries síncronas)
      */
     public boolean hasContainerAccess(int clanId, UUID playerUuid) {
-        // Verificar cache primeiro
-        RoleCache cached = roleCache.get(playerUuid);
-        String role;
-        long joinedAtTimestamp = 0;
-
-        if (cached != null &&
-            System.currentTimeMillis() - cached.getTimestamp() < ROLE_CACHE_TTL &&
-            cached.getClanId() == clanId) {
-            // Usar cache
-            role = cached.getRole();
-            joinedAtTimestamp = cached.getJoinedAtTimestamp();
-        } else {
-            // Cache expirado - buscar do banco (já atualiza cache com role + joined_at)
-            role = getMemberRole(clanId, playerUuid);
-            if (role == null) {
-                return false; // Não está no clan
-            }
-            // Buscar joinedAt do cache atualizado (getMemberRole já atualizou o cache)
-            cached = roleCache.get(playerUuid);
-            if (cached != null && cached.getClanId() == clanId) {
-                joinedAtTimestamp = cached.getJoinedAtTimestamp();
-            }
+        String role = getMemberRole(clanId, playerUuid);
+        if (role == null) {
+            return false; // Não está no clan
         }
 
         // RECRUIT nunca tem acesso - precisa ser promovido pelo líder
@@ -537,70 +634,6 @@ public class ClansManager {
         }
     }
 
-    /**
-     * Mapeia ResultSet para ClanData
-     */
-    private ClanData mapResultSetToClanData(ResultSet rs) throws SQLException {
-        ClanData clan = new ClanData();
-        clan.setId(rs.getInt("id"));
-        clan.setName(rs.getString("name"));
-        clan.setTag(rs.getString("tag"));
-        clan.setTagClean(rs.getString("tag_clean"));
-        clan.setLeaderUuid((UUID) rs.getObject("leader_uuid"));
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            clan.setCreatedAt(new Date(createdAt.getTime()));
-        }
-        clan.setDescription(rs.getString("description"));
-        Long discordChannelId = rs.getLong("discord_channel_id");
-        if (rs.wasNull()) {
-            discordChannelId = null;
-        }
-        clan.setDiscordChannelId(discordChannelId);
-        Long discordRoleId = rs.getLong("discord_role_id");
-        if (rs.wasNull()) {
-            discordRoleId = null;
-        }
-        clan.setDiscordRoleId(discordRoleId);
-
-        // Home (pode ser null)
-        String homeWorld = rs.getString("home_world");
-        clan.setHomeWorld(homeWorld);
-        if (homeWorld != null) {
-            double homeX = rs.getDouble("home_x");
-            if (!rs.wasNull()) {
-                clan.setHomeX(homeX);
-            }
-            double homeY = rs.getDouble("home_y");
-            if (!rs.wasNull()) {
-                clan.setHomeY(homeY);
-            }
-            double homeZ = rs.getDouble("home_z");
-            if (!rs.wasNull()) {
-                clan.setHomeZ(homeZ);
-            }
-        }
-
-        // Pontos e bloqueio
-        int points = rs.getInt("points");
-        if (!rs.wasNull()) {
-            clan.setPoints(points);
-        }
-        int eventWinsCount = rs.getInt("event_wins_count");
-        if (!rs.wasNull()) {
-            clan.setEventWinsCount(eventWinsCount);
-        }
-        boolean blockedFromEvents = rs.getBoolean("blocked_from_events");
-        if (!rs.wasNull()) {
-            clan.setBlockedFromEvents(blockedFromEvents);
-        }
-
-        // Shield é gerenciado pelo Factions (ShieldManager), não mais pelo Clans
-        // Mantido como null no ClanData para compatibilidade, mas não buscado do banco
-
-        return clan;
-    }
-
     /**
      * Obtém saldo do clan bank (em centavos)
      */
@@ -693,8 +726,9 @@ public class ClansManager {
             stmt.setObject(3, playerUuid);
             int rows = stmt.executeUpdate();
             if (rows > 0) {
-                // Invalidar cache de role (role mudou)
-                invalidateRoleCache(playerUuid);
+                // Atualizar tabela (role mudou)
+                memberships.computeIfPresent(playerUuid,
+                    (uuid, membership) -> membership.clanId == clanId ? membership.withRole(newRole) : membership);
             }
             return rows > 0;
         } catch (SQLException e) {
@@ -714,6 +748,12 @@ public class ClansManager {
                 return false; // Não é membro
             }
 
+            // Leader antigo (antes do UPDATE)
+            ClanData clan = getClan(clanId);
+            if (clan == null) {
+                return false;
+            }
+
             // Atualizar leader_uuid na tabela clans
             try (PreparedStatement stmt = conn.prepareStatement(
                 "UPDATE clans SET leader_uuid = ? WHERE id = ?")) {
@@ -725,17 +765,15 @@ public class ClansManager {
                 }
             }
 
-            // Atualizar roles: novo leader vira LEADER, antigo leader vira MEMBER
-            ClanData clan = getClan(clanId);
-            if (clan == null) {
-                return false;
-            }
+            // Registry + snapshot dos membros online passam a ter o novo leader
+            registry.update(clanId, ClanChangeEvent.Change.LEADER, c -> c.setLeaderUuid(newLeaderUuid));
 
+            // Atualizar roles: novo leader vira LEADER, antigo leader vira MEMBER
             // Novo leader vira LEADER
             updateMemberRole(clanId, newLeaderUuid, "LEADER");
 
             // Antigo leader vira MEMBER (se ainda for membro)
-            if (!newLeaderUuid.equals(clan.getLeaderUuid())) {
+            if (clan.getLeaderUuid() != null && !newLeaderUuid.equals(clan.getLeaderUuid())) {
                 updateMemberRole(clanId, clan.getLeaderUuid(), "MEMBER");
             }
 
@@ -759,6 +797,14 @@ public class ClansManager {
             stmt.setDouble(4, z);
             stmt.setInt(5, clanId);
             int rows = stmt.executeUpdate();
+            if (rows > 0) {
+                registry.update(clanId, ClanChangeEvent.Change.HOME, c -> {
+                    c.setHomeWorld(world);
+                    c.setHomeX(x);
+                    c.setHomeY(y);
+                    c.setHomeZ(z);
+                });
+            }
             return rows > 0;
         } catch (SQLException e) {
             plugin.getLogger().severe("Erro ao definir home do clan: " + e.getMessage());
@@ -838,10 +884,11 @@ public class ClansManager {
 
             // Atualizar points e event_wins_count na tabela clans
             try (PreparedStatement stmt = conn.prepareStatement(
-                "UPDATE clans SET points = points + ?, event_wins_count = event_wins_count + 1 WHERE id = ?")) {
+                "UPDATE clans SET points = points + ?, event_wins_count = event_wins_count + 1 WHERE id = ? " +
+                "RETURNING points, event_wins_count")) {
                 stmt.setInt(1, points);
                 stmt.setInt(2, clanId);
-                stmt.executeUpdate();
+                applyPoints(clanId, stmt);
             }
 
             // Invalidar cache de ranking
@@ -879,10 +926,10 @@ public class ClansManager {
         try (Connection conn = CoreAPI.getDatabase().getConnection()) {
             // Atualizar points
             try (PreparedStatement stmt = conn.prepareStatement(
-                "UPDATE clans SET points = points + ? WHERE id = ?")) {
+                "UPDATE clans SET points = points + ? WHERE id = ? RETURNING points, event_wins_count")) {
                 stmt.setInt(1, points);
                 stmt.setInt(2, clanId);
-                stmt.executeUpdate();
+                applyPoints(clanId, stmt);
             }
 
             // Inserir registro em clan_event_wins com points_awarded positivo (histórico)
@@ -923,10 +970,10 @@ public class ClansManager {
         try (Connection conn = CoreAPI.getDatabase().getConnection()) {
             // Atualizar points (pode ficar negativo)
             try (PreparedStatement stmt = conn.prepareStatement(
-                "UPDATE clans SET points = points - ? WHERE id = ?")) {
+                "UPDATE clans SET points = points - ? WHERE id = ? RETURNING points, event_wins_count")) {
                 stmt.setInt(1, points);
                 stmt.setInt(2, clanId);
-                stmt.executeUpdate();
+                applyPoints(clanId, stmt);
             }
 
             // Inserir registro em clan_event_wins com points_awarded negativo (histórico)
@@ -955,10 +1002,100 @@ public class ClansManager {
         }
     }
 
+    /**
+     * Lê "RETURNING points, event_wins_count" do UPDATE e aplica no registry
+     * Grug Brain: Valor do banco, não soma em memória - nunca diverge
+     */
+    private void applyPoints(int clanId, PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                int points = rs.getInt("points");
+                int eventWins = rs.getInt("event_wins_count");
+                registry.update(clanId, ClanChangeEvent.Change.POINTS, c -> {
+                    c.setPoints(points);
+                    c.setEventWinsCount(eventWins);
+                });
+            }
+        }
+    }
+
+    /**
+     * Renomeia clan (admin)
+     */
+    public boolean renameClan(int clanId, String name) {
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE clans SET name = ? WHERE id = ?")) {
+            stmt.setString(1, name);
+            stmt.setInt(2, clanId);
+            int rows = stmt.executeUpdate();
+            if (rows > 0) {
+                registry.update(clanId, ClanChangeEvent.Change.NAME, c -> c.setName(name));
+            }
+            return rows > 0;
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao renomear clan: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Altera tag do clan (texto e/ou cores)
+     * @param tagClean Tag sem cores, maiúscula (unicidade é verificada por quem chama)
+     */
+    public boolean setClanTag(int clanId, String tag, String tagClean) {
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE clans SET tag = ?, tag_clean = ? WHERE id = ?")) {
+            stmt.setString(1, tag);
+            stmt.setString(2, tagClean);
+            stmt.setInt(3, clanId);
+            int rows = stmt.executeUpdate();
+            if (rows > 0) {
+                registry.update(clanId, ClanChangeEvent.Change.TAG, c -> {
+                    c.setTag(tag);
+                    c.setTagClean(tagClean);
+                });
+            }
+            return rows > 0;
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao atualizar tag do clan: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Salva IDs do canal/role do Discord do clan
+     */
+    public boolean setDiscordIds(int clanId, long channelId, long roleId) {
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE clans SET discord_channel_id = ?, discord_role_id = ? WHERE id = ?")) {
+            stmt.setLong(1, channelId);
+            stmt.setLong(2, roleId);
+            stmt.setInt(3, clanId);
+            int rows = stmt.executeUpdate();
+            if (rows > 0) {
+                registry.update(clanId, ClanChangeEvent.Change.DISCORD, c -> {
+                    c.setDiscordChannelId(channelId);
+                    c.setDiscordRoleId(roleId);
+                });
+            }
+            return rows > 0;
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao salvar IDs do Discord: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Obtém pontos do clan
      */
     public int getClanPoints(int clanId) {
+        if (registry.isLoaded()) {
+            ClanData clan = registry.get(clanId);
+            return clan != null && clan.getPoints() != null ? clan.getPoints() : 0;
+        }
         try (Connection conn = CoreAPI.getDatabase().getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                 "SELECT points FROM clans WHERE id = ?")) {
@@ -1033,6 +1170,10 @@ public class ClansManager {
      * Verifica se clan está bloqueado de eventos
      */
     public boolean isClanBlockedFromEvents(int clanId) {
+        if (registry.isLoaded()) {
+            ClanData clan = registry.get(clanId);
+            return clan != null && Boolean.TRUE.equals(clan.getBlockedFromEvents());
+        }
         try (Connection conn = CoreAPI.getDatabase().getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                 "SELECT blocked_from_events FROM clans WHERE id = ?")) {
@@ -1317,10 +1458,10 @@ public class ClansManager {
             // Se pontos atuais != pontos esperados, atualizar
             if (currentPoints != expectedPoints) {
                 try (PreparedStatement stmt = conn.prepareStatement(
-                    "UPDATE clans SET points = ? WHERE id = ?")) {
+                    "UPDATE clans SET points = ? WHERE id = ? RETURNING points, event_wins_count")) {
                     stmt.setInt(1, expectedPoints);
                     stmt.setInt(2, clanId);
-                    stmt.executeUpdate();
+                    applyPoints(clanId, stmt);
                 }
                 // Invalidar cache de ranking
                 plugin.invalidateTopCache("points");
@@ -183,5 +183,30 @@ public class ClanData {
     public void setShieldEndHour(Integer shieldEndHour) {
         this.shieldEndHour = shieldEndHour;
     }
-}
 
+    /**
+     * Cópia rasa (registry troca a entrada inteira a cada mudança - quem leu antes não vê a mudança pela metade)
+     */
+    public ClanData copy() {
+        ClanData copy = new ClanData();
+        copy.id = id;
+        copy.name = name;
+        copy.tag = tag;
+        copy.tagClean = tagClean;
+        copy.leaderUuid = leaderUuid;
+        copy.createdAt = createdAt;
+        copy.description = description;
+        copy.discordChannelId = discordChannelId;
+        copy.discordRoleId = discordRoleId;
+        copy.homeWorld = homeWorld;
+        copy.homeX = homeX;
+        copy.homeY = homeY;
+        copy.homeZ = homeZ;
+        copy.points = points;
+        copy.eventWinsCount = eventWinsCount;
+        copy.blockedFromEvents = blockedFromEvents;
+        copy.shieldStartHour = shieldStartHour;
+        copy.shieldEndHour = shieldEndHour;
+        return copy;
+    }
+}
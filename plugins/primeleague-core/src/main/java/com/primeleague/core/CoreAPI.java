@@ -1,14 +1,19 @@
 package com.primeleague.core;
 
 import com.primeleague.core.database.DatabaseManager;
+import com.primeleague.core.database.PlayerStore;
 import com.primeleague.core.models.PlayerData;
+import com.primeleague.core.models.PlayerSnapshot;
 import org.bukkit.Bukkit;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * API pública estática para outros plugins
@@ -33,6 +38,62 @@ public class CoreAPI {
         return plugin != null && plugin.isEnabled();
     }
 
+    public static PlayerStore getPlayerStore() {
+        return getPlugin().getPlayerStore();
+    }
+
+    /**
+     * PlayerData do store em memória (players online)
+     * Grug Brain: Zero I/O - usar em hot paths (placeholders, eventos)
+     * @return cópia ou null se player não está carregado
+     */
+    public static PlayerData getCachedPlayer(UUID uuid) {
+        return getPlayerStore().get(uuid);
+    }
+
+    /**
+     * Altera colunas write-behind do player em memória (gravadas no próximo flush)
+     * Uso: economy, stats, elo, factions compartilham o mesmo PlayerData
+     * @param fields Bits de PlayerStore (MONEY, ELO, KILLS...)
+     * @return cópia atualizada ou null se player não está carregado (usar query direta)
+     */
+    public static PlayerData updatePlayer(UUID uuid, int fields, Consumer<PlayerData> change) {
+        return getPlayerStore().update(uuid, fields, change);
+    }
+
+    /**
+     * Snapshot de placeholders do player (ELO, kills, saldo, clan, X1)
+     * Grug Brain: Zero I/O - usar em onPlaceholderRequest, nunca getPlayer()
+     * @return snapshot ou PlayerSnapshot.EMPTY se player não está online
+     */
+    public static PlayerSnapshot getSnapshot(UUID uuid) {
+        return getPlugin().getPlaceholderSnapshots().get(uuid);
+    }
+
+    /**
+     * Publica parte do snapshot (plugins de clans/x1 chamam após carregar ou mudar seus dados)
+     * Ex: CoreAPI.updateSnapshot(uuid, s -> s.withX1(wins, losses, streak, best))
+     * @return false se player não está online
+     */
+    public static boolean updateSnapshot(UUID uuid, UnaryOperator<PlayerSnapshot> change) {
+        return getPlugin().getPlaceholderSnapshots().update(uuid, change);
+    }
+
+    /**
+     * Avisa a cada snapshot publicado (clan, ELO/rank, stats, X1) - para descartar cache derivado
+     * Grug Brain: Chamado na thread de quem publicou; só invalidar, nada de I/O.
+     * Guardar a referência e chamar unsubscribeSnapshots no onDisable.
+     */
+    public static void subscribeSnapshots(Consumer<UUID> subscriber) {
+        getPlugin().getPlaceholderSnapshots().subscribe(subscriber);
+    }
+
+    public static void unsubscribeSnapshots(Consumer<UUID> subscriber) {
+        if (isEnabled()) {
+            getPlugin().getPlaceholderSnapshots().unsubscribe(subscriber);
+        }
+    }
+
     public static PlayerData getPlayer(UUID uuid) {
         try (Connection conn = getDatabase().getConnection()) {
             PreparedStatement stmt = conn.prepareStatement(
@@ -146,6 +207,11 @@ public class CoreAPI {
      * @return Saldo em centavos (long) ou 0 se player não existe
      */
     public static long getPlayerMoney(UUID uuid) {
+        PlayerData cached = getCachedPlayer(uuid);
+        if (cached != null) {
+            return cached.getMoney();
+        }
+
         try (Connection conn = getDatabase().getConnection()) {
             PreparedStatement stmt = conn.prepareStatement(
                 "SELECT money FROM users WHERE uuid = ?");
@@ -171,6 +237,10 @@ public class CoreAPI {
      * @param money Novo saldo em centavos (long)
      */
     public static void updatePlayerMoney(UUID uuid, long money) {
+        if (updatePlayer(uuid, PlayerStore.MONEY, data -> data.setMoney(money)) != null) {
+            return; // Player online: gravado no próximo flush
+        }
+
         try (Connection conn = getDatabase().getConnection()) {
             PreparedStatement stmt = conn.prepareStatement(
                 "UPDATE users SET money = ? WHERE uuid = ?");
@@ -182,7 +252,20 @@ public class CoreAPI {
         }
     }
 
+    /**
+     * Salva player no banco
+     * Grug Brain: Player carregado no store e sem mudança de conta (ip, discord, pagamento)
+     * vai write-behind - só as colunas alteradas são gravadas no próximo flush
+     */
     public static void savePlayer(PlayerData data) {
+        PlayerStore store = getPlayerStore();
+        if (data.getUuid() != null) {
+            PlayerData cached = store.get(data.getUuid());
+            if (cached != null && sameAccount(cached, data) && store.apply(data, true)) {
+                return;
+            }
+        }
+
         try (Connection conn = getDatabase().getConnection()) {
             // Grug Brain: ON CONFLICT (name) - name é UNIQUE, sempre atualiza registro existente
             // UUID deve ser compatível com Paper 1.8.8 (gerado apenas com nome)
@@ -245,11 +328,27 @@ public class CoreAPI {
             }
 
             stmt.executeUpdate();
+            // Manter store em sync (já gravado - não marcar como sujo)
+            if (data.getUuid() != null) {
+                store.apply(data, false);
+            }
         } catch (SQLException e) {
             getPlugin().getLogger().severe("Erro ao salvar player: " + e.getMessage());
         }
     }
 
+    /**
+     * Colunas de conta (não write-behind) iguais
+     */
+    private static boolean sameAccount(PlayerData a, PlayerData b) {
+        return Objects.equals(a.getName(), b.getName()) &&
+            Objects.equals(a.getIpHash(), b.getIpHash()) &&
+            Objects.equals(a.getDiscordId(), b.getDiscordId()) &&
+            Objects.equals(a.getAccessCode(), b.getAccessCode()) &&
+            Objects.equals(a.getAccessExpiresAt(), b.getAccessExpiresAt()) &&
+            Objects.equals(a.getPaymentStatus(), b.getPaymentStatus());
+    }
+
     /**
      * Incremento atômico de kills e killstreak (evita race condition)
      * Grug Brain: UPDATE direto no banco, thread-safe, query simples
@@ -258,6 +357,19 @@ public class CoreAPI {
      * @return PlayerData com stats atualizadas ou null se não encontrado
      */
     public static PlayerData incrementKillsAndKillstreak(UUID uuid) {
+        // Player online: incremento em memória, flush grava depois (sem UPDATE + SELECT)
+        PlayerData cached = updatePlayer(uuid,
+            PlayerStore.KILLS | PlayerStore.KILLSTREAK | PlayerStore.BEST_KILLSTREAK | PlayerStore.LAST_KILL_AT,
+            data -> {
+                data.setKills(data.getKills() + 1);
+                data.setKillstreak(data.getKillstreak() + 1);
+                data.setBestKillstreak(Math.max(data.getBestKillstreak(), data.getKillstreak()));
+                data.setLastKillAt(new Date());
+            });
+        if (cached != null) {
+            return cached;
+        }
+
         try (Connection conn = getDatabase().getConnection()) {
             // Incremento atômico: kills = kills + 1, killstreak = killstreak + 1
             // best_killstreak = maior entre valor atual e novo killstreak (killstreak + 1)
@@ -291,6 +403,18 @@ public class CoreAPI {
      * @return PlayerData com stats atualizadas ou null se não encontrado
      */
     public static PlayerData incrementDeathsAndResetKillstreak(UUID uuid) {
+        // Player online: incremento em memória, flush grava depois (sem UPDATE + SELECT)
+        PlayerData cached = updatePlayer(uuid,
+            PlayerStore.DEATHS | PlayerStore.KILLSTREAK | PlayerStore.LAST_DEATH_AT,
+            data -> {
+                data.setDeaths(data.getDeaths() + 1);
+                data.setKillstreak(0);
+                data.setLastDeathAt(new Date());
+            });
+        if (cached != null) {
+            return cached;
+        }
+
         try (Connection conn = getDatabase().getConnection()) {
             // Incremento atômico: deaths = deaths + 1, killstreak = 0
             PreparedStatement stmt = conn.prepareStatement(
@@ -352,6 +476,8 @@ public class CoreAPI {
         if (lastSeenAt != null) {
             data.setLastSeenAt(new Date(lastSeenAt.getTime()));
         }
+        // Player online: colunas write-behind pendentes valem mais que o banco
+        getPlayerStore().overlay(data);
         return data;
     }
 }
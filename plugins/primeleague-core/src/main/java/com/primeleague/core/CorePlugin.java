@@ -1,10 +1,16 @@
 package com.primeleague.core;
 
 import com.primeleague.core.database.DatabaseManager;
+import com.primeleague.core.database.PlayerStore;
 import com.primeleague.core.integrations.CorePlaceholderExpansion;
+import com.primeleague.core.integrations.PlaceholderSnapshotService;
 import com.primeleague.core.listeners.DefaultMessagesListener;
+import com.primeleague.core.listeners.PlayerStoreListener;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.UUID;
+
 /**
  * Plugin principal - Core do Primeleague
  * Grug Brain: Singleton simples, config inline
@@ -13,6 +19,8 @@ public class CorePlugin extends JavaPlugin {
 
     private static CorePlugin instance;
     private DatabaseManager databaseManager;
+    private PlayerStore playerStore;
+    private PlaceholderSnapshotService placeholderSnapshots;
     private CorePlaceholderExpansion placeholderExpansion;
 
     @Override
@@ -30,6 +38,20 @@ public class CorePlugin extends JavaPlugin {
             return;
         }
 
+        // Snapshots de placeholders (PlayerStore publica neles a cada mudança)
+        placeholderSnapshots = new PlaceholderSnapshotService();
+
+        // Store write-behind de players online (flush periódico de colunas alteradas)
+        playerStore = new PlayerStore(this);
+        playerStore.start();
+        getServer().getPluginManager().registerEvents(new PlayerStoreListener(this), this);
+        // Reload com players online: carregar quem já está no servidor
+        for (Player player : getServer().getOnlinePlayers()) {
+            final UUID uuid = player.getUniqueId();
+            placeholderSnapshots.track(uuid);
+            getServer().getScheduler().runTaskAsynchronously(this, () -> playerStore.load(uuid));
+        }
+
         // Setup PlaceholderAPI (se disponível)
         setupPlaceholderAPI();
 
@@ -53,6 +75,11 @@ public class CorePlugin extends JavaPlugin {
             }
         }
 
+        // Gravar colunas pendentes antes de fechar o pool
+        if (playerStore != null) {
+            playerStore.stop();
+        }
+
         if (databaseManager != null) {
             databaseManager.close();
         }
@@ -68,6 +95,14 @@ public class CorePlugin extends JavaPlugin {
         return databaseManager;
     }
 
+    public PlayerStore getPlayerStore() {
+        return playerStore;
+    }
+
+    public PlaceholderSnapshotService getPlaceholderSnapshots() {
+        return placeholderSnapshots;
+    }
+
     /**
      * Setup PlaceholderAPI integration
      * Grug Brain: Método separado seguindo padrão dos outros plugins
@@ -0,0 +1,87 @@
+package com.primeleague.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contexto de PvP por player (arenas de minigames)
+ * Grug Brain: Minigames (Gladiador, X1, ...) registram quem está em arena quando a partida
+ * começa/termina. Quem consulta (pvp152 a cada hit) faz uma leitura de mapa - sem reflection.
+ *
+ * - managed = true: o minigame gerencia o combate (pvp152 não aplica mecânicas customizadas)
+ * - managed = false: player está em arena, mas mecânicas normais de PvP valem
+ */
+public final class PvPContextAPI {
+
+    private static final Map<UUID, Context> contexts = new ConcurrentHashMap<>();
+
+    private PvPContextAPI() {
+    }
+
+    /**
+     * Marca player como em arena do minigame (owner = nome do minigame, ex: "Gladiador")
+     */
+    public static void enterArena(UUID playerUuid, String owner, boolean managed) {
+        contexts.put(playerUuid, new Context(owner, managed));
+    }
+
+    /**
+     * Remove player da arena (só se a arena atual for do mesmo owner)
+     */
+    public static void leaveArena(UUID playerUuid, String owner) {
+        Context context = contexts.get(playerUuid);
+        if (context != null && context.owner.equals(owner)) {
+            contexts.remove(playerUuid, context);
+        }
+    }
+
+    /**
+     * Remove todos os players de um minigame (fim/cancelamento de partida, disable)
+     */
+    public static void clearOwner(String owner) {
+        Iterator<Context> it = contexts.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().owner.equals(owner)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Player está em alguma arena de minigame?
+     */
+    public static boolean isInArena(UUID playerUuid) {
+        return contexts.containsKey(playerUuid);
+    }
+
+    /**
+     * Combate do player é gerenciado pelo minigame? (caminho quente - uma leitura de mapa)
+     */
+    public static boolean isCombatManaged(UUID playerUuid) {
+        Context context = contexts.get(playerUuid);
+        return context != null && context.managed;
+    }
+
+    /**
+     * Nome do minigame da arena atual, ou null
+     */
+    public static String getArenaOwner(UUID playerUuid) {
+        Context context = contexts.get(playerUuid);
+        return context != null ? context.owner : null;
+    }
+
+    /**
+     * Contexto imutável (criado só ao entrar na arena)
+     */
+    private static final class Context {
+        private final String owner;
+        private final boolean managed;
+
+        private Context(String owner, boolean managed) {
+            this.owner = owner;
+            this.managed = managed;
+        }
+    }
+}
@@ -163,6 +163,17 @@ public class DatabaseManager {
         return dataSource.getConnection();
     }
 
+    /**
+     * Threads esperando conexão no pool (> 0 = pool saturado)
+     * Grug Brain: Escritores de baixa prioridade (logs) adiam o flush quando o gameplay precisa do pool
+     */
+    public int getThreadsAwaitingConnection() {
+        if (dataSource == null || dataSource.getHikariPoolMXBean() == null) {
+            return 0;
+        }
+        return dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection();
+    }
+
     public void close() {
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
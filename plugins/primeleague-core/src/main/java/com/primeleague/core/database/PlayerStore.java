@@ -0,0 +1,498 @@
+package com.primeleague.core.database;
+
+import com.primeleague.core.CorePlugin;
+import com.primeleague.core.models.PlayerData;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Store write-behind de PlayerData dos players online
+ * Grug Brain: Um PlayerData por player em memória + bitmask de colunas sujas por UUID.
+ * Flush periódico (e no quit) grava só as colunas alteradas, agrupadas por máscara em UPDATEs batch.
+ *
+ * Colunas write-behind (stats/saldo): money, elo, kills, deaths, killstreak, best_killstreak,
+ * last_kill_at, last_death_at, last_seen_at. Enquanto o player está carregado, o store é a fonte da verdade delas.
+ *
+ * Quit: cópia fica em pendingUnload até o UPDATE confirmar (falhou = flush periódico tenta de novo).
+ * Rejoin nessa janela reaproveita a cópia - SELECT ali leria o banco sem as colunas ainda não gravadas.
+ */
+public class PlayerStore {
+
+    public static final int MONEY = 1;
+    public static final int ELO = 1 << 1;
+    public static final int KILLS = 1 << 2;
+    public static final int DEATHS = 1 << 3;
+    public static final int KILLSTREAK = 1 << 4;
+    public static final int BEST_KILLSTREAK = 1 << 5;
+    public static final int LAST_KILL_AT = 1 << 6;
+    public static final int LAST_DEATH_AT = 1 << 7;
+    public static final int LAST_SEEN_AT = 1 << 8;
+    public static final int ALL = (1 << 9) - 1;
+
+    // Índice = posição do bit
+    private static final String[] COLUMNS = {
+        "money", "elo", "kills", "deaths", "killstreak", "best_killstreak",
+        "last_kill_at", "last_death_at", "last_seen_at"
+    };
+
+    private final CorePlugin plugin;
+    private final Map<UUID, PlayerData> players = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> dirty = new ConcurrentHashMap<>();
+    // Players que saíram com colunas ainda não gravadas (cópia congelada - ninguém altera depois do quit)
+    private final Map<UUID, PlayerData> pendingUnload = new ConcurrentHashMap<>();
+    // Um write por vez: flush periódico e unload nunca gravam o mesmo player em paralelo
+    private final Object writeLock = new Object();
+    private final Map<Integer, String> sqlByMask = new ConcurrentHashMap<>();
+    private BukkitTask flushTask;
+
+    public PlayerStore(CorePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Inicia flush periódico async
+     */
+    public void start() {
+        long intervalTicks = Math.max(1, plugin.getConfig().getInt("player-store.flush-interval", 30)) * 20L;
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flushAll,
+            intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Para flush periódico e grava tudo (sync - usado no disable)
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        flushAll();
+    }
+
+    /**
+     * Carrega player do banco para o store (chamar async)
+     * Grug Brain: Se já está carregado (rejoin antes do unload), reaproveita.
+     * Saiu e o UPDATE ainda não confirmou: volta da cópia pendente (máscara suja continua valendo).
+     */
+    public PlayerData load(UUID uuid) {
+        PlayerData cached = players.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+        PlayerData pending = pendingUnload.get(uuid);
+        if (pending != null) {
+            PlayerData data = copy(pending);
+            PlayerData previous = players.putIfAbsent(uuid, data);
+            if (previous != null) {
+                return previous;
+            }
+            // Daqui em diante o flush grava a partir do store (mesmos valores + mudanças novas)
+            pendingUnload.remove(uuid, pending);
+            synchronized (data) {
+                publish(data);
+            }
+            return data;
+        }
+
+        try (Connection conn = plugin.getDatabaseManager().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT uuid, name, ip_hash, discord_id, access_code, access_expires_at, " +
+                 "payment_status, money, elo, created_at, kills, deaths, killstreak, " +
+                 "best_killstreak, last_kill_at, last_death_at, last_seen_at FROM users WHERE uuid = ?")) {
+            stmt.setObject(1, uuid);
+
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                return null; // Conta ainda não existe - callers usam o banco direto
+            }
+
+            PlayerData data = new PlayerData();
+            data.setUuid(uuid);
+            data.setName(rs.getString("name"));
+            data.setIpHash(rs.getString("ip_hash"));
+            long discordId = rs.getLong("discord_id");
+            if (!rs.wasNull()) {
+                data.setDiscordId(discordId);
+            }
+            data.setAccessCode(rs.getString("access_code"));
+            data.setAccessExpiresAt(toDate(rs.getTimestamp("access_expires_at")));
+            data.setPaymentStatus(rs.getString("payment_status"));
+            data.setMoney(rs.getLong("money"));
+            data.setElo(rs.getInt("elo"));
+            data.setCreatedAt(toDate(rs.getTimestamp("created_at")));
+            data.setKills(rs.getInt("kills"));
+            data.setDeaths(rs.getInt("deaths"));
+            data.setKillstreak(rs.getInt("killstreak"));
+            data.setBestKillstreak(rs.getInt("best_killstreak"));
+            data.setLastKillAt(toDate(rs.getTimestamp("last_kill_at")));
+            data.setLastDeathAt(toDate(rs.getTimestamp("last_death_at")));
+            data.setLastSeenAt(toDate(rs.getTimestamp("last_seen_at")));
+
+            PlayerData previous = players.putIfAbsent(uuid, data);
+            if (previous != null) {
+                return previous;
+            }
+            synchronized (data) {
+                publish(data);
+            }
+            return data;
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao carregar player no store: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Grava colunas sujas do player e remove do store (chamar async, após o quit)
+     * Grug Brain: Cópia entra em pendingUnload ANTES de sair do map (load nunca vê nenhum dos dois vazio)
+     * e só sai depois do commit. Falhou = máscara volta e o flush periódico grava a partir da cópia.
+     */
+    public void unload(UUID uuid) {
+        synchronized (writeLock) {
+            PlayerData data = players.get(uuid);
+            if (data == null) {
+                if (!pendingUnload.containsKey(uuid)) {
+                    dirty.remove(uuid);
+                }
+                return;
+            }
+
+            PlayerData snapshot;
+            Integer mask;
+            // Barreira: qualquer update() que pegou a referência antes do remove já terminou
+            // (updates posteriores veem que saiu do map e caem no banco direto)
+            synchronized (data) {
+                mask = dirty.remove(uuid);
+                snapshot = copy(data);
+                if (mask != null) {
+                    pendingUnload.put(uuid, snapshot);
+                }
+                players.remove(uuid, data);
+            }
+            if (mask == null) {
+                return;
+            }
+
+            Map<UUID, PlayerData> snapshots = new HashMap<>();
+            snapshots.put(uuid, snapshot);
+            Map<UUID, Integer> masks = new HashMap<>();
+            masks.put(uuid, mask);
+            write(snapshots, masks);
+        }
+    }
+
+    public boolean isLoaded(UUID uuid) {
+        return players.containsKey(uuid);
+    }
+
+    /**
+     * Cópia do PlayerData em memória (sem I/O)
+     * @return cópia ou null se player não está carregado
+     */
+    public PlayerData get(UUID uuid) {
+        PlayerData data = players.get(uuid);
+        if (data == null) {
+            return null;
+        }
+        synchronized (data) {
+            return copy(data);
+        }
+    }
+
+    /**
+     * Altera PlayerData em memória e marca colunas como sujas
+     * Grug Brain: Mutação sob lock do próprio PlayerData, flush grava depois
+     * @param uuid UUID do player
+     * @param fields Colunas alteradas (bits MONEY, ELO, KILLS...)
+     * @param change Alteração a aplicar
+     * @return cópia atualizada ou null se player não está carregado (caller usa o banco direto)
+     */
+    public PlayerData update(UUID uuid, int fields, Consumer<PlayerData> change) {
+        PlayerData data = players.get(uuid);
+        if (data == null) {
+            return null;
+        }
+        synchronized (data) {
+            if (players.get(uuid) != data) {
+                return null; // Descarregado enquanto esperava o lock
+            }
+            change.accept(data);
+            markDirty(uuid, fields);
+            PlayerData copy = copy(data);
+            publish(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * Aplica valores de um PlayerData externo (ex: savePlayer)
+     * Grug Brain: Só colunas que mudaram ficam sujas
+     * @param pending false quando o caller já gravou tudo no banco
+     * @return true se o player está carregado e recebeu os valores
+     */
+    public boolean apply(PlayerData source, boolean pending) {
+        UUID uuid = source.getUuid();
+        PlayerData data = players.get(uuid);
+        if (data == null) {
+            return false;
+        }
+        synchronized (data) {
+            if (players.get(uuid) != data) {
+                return false;
+            }
+            int changed = 0;
+            if (data.getMoney() != source.getMoney()) changed |= MONEY;
+            if (data.getElo() != source.getElo()) changed |= ELO;
+            if (data.getKills() != source.getKills()) changed |= KILLS;
+            if (data.getDeaths() != source.getDeaths()) changed |= DEATHS;
+            if (data.getKillstreak() != source.getKillstreak()) changed |= KILLSTREAK;
+            if (data.getBestKillstreak() != source.getBestKillstreak()) changed |= BEST_KILLSTREAK;
+            if (!Objects.equals(data.getLastKillAt(), source.getLastKillAt())) changed |= LAST_KILL_AT;
+            if (!Objects.equals(data.getLastDeathAt(), source.getLastDeathAt())) changed |= LAST_DEATH_AT;
+            if (!Objects.equals(data.getLastSeenAt(), source.getLastSeenAt())) changed |= LAST_SEEN_AT;
+
+            data.setMoney(source.getMoney());
+            data.setElo(source.getElo());
+            data.setKills(source.getKills());
+            data.setDeaths(source.getDeaths());
+            data.setKillstreak(source.getKillstreak());
+            data.setBestKillstreak(source.getBestKillstreak());
+            data.setLastKillAt(source.getLastKillAt());
+            data.setLastDeathAt(source.getLastDeathAt());
+            data.setLastSeenAt(source.getLastSeenAt());
+            data.setName(source.getName());
+            data.setIpHash(source.getIpHash());
+            data.setDiscordId(source.getDiscordId());
+            data.setAccessCode(source.getAccessCode());
+            data.setAccessExpiresAt(source.getAccessExpiresAt());
+            data.setPaymentStatus(source.getPaymentStatus());
+
+            if (pending) {
+                markDirty(uuid, changed);
+            }
+            publish(data);
+            return true;
+        }
+    }
+
+    /**
+     * Junta um PlayerData recém-lido do banco com o store:
+     * colunas write-behind vêm da memória, colunas de conta (ip_hash, pagamento...) atualizam a memória
+     */
+    public void overlay(PlayerData target) {
+        PlayerData data = players.get(target.getUuid());
+        if (data == null) {
+            return;
+        }
+        synchronized (data) {
+            data.setName(target.getName());
+            data.setIpHash(target.getIpHash());
+            data.setDiscordId(target.getDiscordId());
+            data.setAccessCode(target.getAccessCode());
+            data.setAccessExpiresAt(target.getAccessExpiresAt());
+            data.setPaymentStatus(target.getPaymentStatus());
+            target.setMoney(data.getMoney());
+            target.setElo(data.getElo());
+            target.setKills(data.getKills());
+            target.setDeaths(data.getDeaths());
+            target.setKillstreak(data.getKillstreak());
+            target.setBestKillstreak(data.getBestKillstreak());
+            target.setLastKillAt(data.getLastKillAt());
+            target.setLastDeathAt(data.getLastDeathAt());
+            target.setLastSeenAt(data.getLastSeenAt());
+        }
+    }
+
+    /**
+     * Publica valores no snapshot de placeholders (chamar sob o lock do PlayerData - ordem das mudanças preservada)
+     */
+    private void publish(PlayerData data) {
+        plugin.getPlaceholderSnapshots().publish(data);
+    }
+
+    public void markDirty(UUID uuid, int fields) {
+        if ((fields & ALL) == 0) {
+            return;
+        }
+        dirty.merge(uuid, fields & ALL, (a, b) -> a | b);
+    }
+
+    /**
+     * Grava todas as colunas sujas (chamar async, ou sync no disable)
+     * @return linhas gravadas
+     */
+    public int flushAll() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+
+        synchronized (writeLock) {
+            Map<UUID, PlayerData> snapshot = new HashMap<>();
+            Map<UUID, Integer> masks = new HashMap<>();
+            for (UUID uuid : new ArrayList<>(dirty.keySet())) {
+                PlayerData data = players.get(uuid);
+                if (data == null) {
+                    // Saiu e o UPDATE do unload falhou: grava da cópia pendente
+                    PlayerData pending = pendingUnload.get(uuid);
+                    Integer mask = pending != null ? dirty.remove(uuid) : null;
+                    if (mask != null) {
+                        masks.put(uuid, mask);
+                        snapshot.put(uuid, pending);
+                    }
+                    continue;
+                }
+                // remove + cópia sob o lock: update() concorrente remarca a máscara depois
+                synchronized (data) {
+                    Integer mask = dirty.remove(uuid);
+                    if (mask == null) {
+                        continue;
+                    }
+                    masks.put(uuid, mask);
+                    snapshot.put(uuid, copy(data));
+                }
+            }
+            return write(snapshot, masks);
+        }
+    }
+
+    /**
+     * Uma conexão, um PreparedStatement batch por máscara de colunas, uma transação (chamar sob writeLock)
+     * Sucesso libera cópias pendentes gravadas; falha devolve todas as máscaras (carregado ou não)
+     */
+    private int write(Map<UUID, PlayerData> snapshot, Map<UUID, Integer> masks) {
+        if (masks.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, List<UUID>> byMask = new HashMap<>();
+        for (Map.Entry<UUID, Integer> entry : masks.entrySet()) {
+            byMask.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+        }
+
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = plugin.getDatabaseManager().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (Map.Entry<Integer, List<UUID>> group : byMask.entrySet()) {
+                    int mask = group.getKey();
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            sqlByMask.computeIfAbsent(mask, PlayerStore::buildUpdateSql))) {
+                        for (UUID uuid : group.getValue()) {
+                            int index = bind(stmt, mask, snapshot.get(uuid));
+                            stmt.setObject(index, uuid);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                    rows += group.getValue().size();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            // Devolver máscaras para o próximo flush (quem saiu continua em pendingUnload)
+            for (Map.Entry<UUID, Integer> entry : masks.entrySet()) {
+                markDirty(entry.getKey(), entry.getValue());
+            }
+            plugin.getLogger().severe("Erro ao gravar player store (" + masks.size() + " players, nova tentativa no " +
+                "próximo flush): " + e.getMessage());
+            return 0;
+        }
+
+        // Cópia pendente gravada: próximo load pode ler do banco (remove(k, v): rejoin já trocou a cópia)
+        for (Map.Entry<UUID, PlayerData> entry : snapshot.entrySet()) {
+            pendingUnload.remove(entry.getKey(), entry.getValue());
+        }
+
+        plugin.getLogger().fine("Player store flush: " + rows + " linhas em " +
+            ((System.nanoTime() - start) / 1000000) + "ms");
+        return rows;
+    }
+
+    private static String buildUpdateSql(int mask) {
+        StringBuilder sql = new StringBuilder("UPDATE users SET ");
+        boolean first = true;
+        for (int bit = 0; bit < COLUMNS.length; bit++) {
+            if ((mask & (1 << bit)) == 0) {
+                continue;
+            }
+            if (!first) {
+                sql.append(", ");
+            }
+            sql.append(COLUMNS[bit]).append(" = ?");
+            first = false;
+        }
+        return sql.append(" WHERE uuid = ?").toString();
+    }
+
+    /**
+     * Preenche parâmetros na mesma ordem de buildUpdateSql
+     * @return próximo índice (para o uuid do WHERE)
+     */
+    private static int bind(PreparedStatement stmt, int mask, PlayerData data) throws SQLException {
+        int index = 1;
+        if ((mask & MONEY) != 0) stmt.setLong(index++, data.getMoney());
+        if ((mask & ELO) != 0) stmt.setInt(index++, data.getElo());
+        if ((mask & KILLS) != 0) stmt.setInt(index++, data.getKills());
+        if ((mask & DEATHS) != 0) stmt.setInt(index++, data.getDeaths());
+        if ((mask & KILLSTREAK) != 0) stmt.setInt(index++, data.getKillstreak());
+        if ((mask & BEST_KILLSTREAK) != 0) stmt.setInt(index++, data.getBestKillstreak());
+        if ((mask & LAST_KILL_AT) != 0) setTimestamp(stmt, index++, data.getLastKillAt());
+        if ((mask & LAST_DEATH_AT) != 0) setTimestamp(stmt, index++, data.getLastDeathAt());
+        if ((mask & LAST_SEEN_AT) != 0) setTimestamp(stmt, index++, data.getLastSeenAt());
+        return index;
+    }
+
+    private static void setTimestamp(PreparedStatement stmt, int index, Date date) throws SQLException {
+        if (date != null) {
+            stmt.setTimestamp(index, new Timestamp(date.getTime()));
+        } else {
+            stmt.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    private static Date toDate(Timestamp timestamp) {
+        return timestamp != null ? new Date(timestamp.getTime()) : null;
+    }
+
+    private static PlayerData copy(PlayerData data) {
+        PlayerData copy = new PlayerData();
+        copy.setUuid(data.getUuid());
+        copy.setName(data.getName());
+        copy.setIpHash(data.getIpHash());
+        copy.setDiscordId(data.getDiscordId());
+        copy.setAccessCode(data.getAccessCode());
+        copy.setAccessExpiresAt(data.getAccessExpiresAt());
+        copy.setPaymentStatus(data.getPaymentStatus());
+        copy.setMoney(data.getMoney());
+        copy.setElo(data.getElo());
+        copy.setCreatedAt(data.getCreatedAt());
+        copy.setKills(data.getKills());
+        copy.setDeaths(data.getDeaths());
+        copy.setKillstreak(data.getKillstreak());
+        copy.setBestKillstreak(data.getBestKillstreak());
+        copy.setLastKillAt(data.getLastKillAt());
+        copy.setLastDeathAt(data.getLastDeathAt());
+        copy.setLastSeenAt(data.getLastSeenAt());
+        return copy;
+    }
+}
@@ -0,0 +1,91 @@
+package com.primeleague.core.integrations;
+
+import com.primeleague.core.models.PlayerData;
+import com.primeleague.core.models.PlayerSnapshot;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Snapshots de placeholders dos players online (compartilhado por todas as expansions)
+ * Grug Brain: Render de placeholder = um get no map, zero I/O.
+ * Quem muda o dado (PlayerStore, clans, x1) publica uma cópia nova - troca atômica por UUID.
+ *
+ * Ciclo de vida: track no join (antes dos loads async), untrack depois do quit.
+ * Updates de player fora do map são ignorados (load async que terminou depois do quit).
+ * Quem guarda algo derivado do snapshot (chat) assina e descarta o derivado a cada troca.
+ */
+public class PlaceholderSnapshotService {
+
+    private final Map<UUID, PlayerSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Avisados depois de cada troca (thread de quem publicou)
+    private final List<Consumer<UUID>> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Snapshot do player (zero I/O)
+     * @return snapshot ou EMPTY se player não está carregado
+     */
+    public PlayerSnapshot get(UUID uuid) {
+        PlayerSnapshot snapshot = snapshots.get(uuid);
+        return snapshot != null ? snapshot : PlayerSnapshot.EMPTY;
+    }
+
+    /**
+     * Começa a aceitar updates do player (join)
+     */
+    public void track(UUID uuid) {
+        snapshots.putIfAbsent(uuid, PlayerSnapshot.EMPTY);
+    }
+
+    /**
+     * Descarta snapshot do player (quit)
+     */
+    public void untrack(UUID uuid) {
+        snapshots.remove(uuid);
+    }
+
+    /**
+     * Troca atômica: change recebe a versão atual e devolve a nova
+     * @return false se player não está carregado
+     */
+    public boolean update(UUID uuid, UnaryOperator<PlayerSnapshot> change) {
+        if (snapshots.computeIfPresent(uuid, (k, current) -> change.apply(current)) == null) {
+            return false;
+        }
+        for (Consumer<UUID> subscriber : subscribers) {
+            try {
+                subscriber.accept(uuid);
+            } catch (RuntimeException ignored) {
+                // Assinante com problema não pode derrubar quem publicou
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recebe o UUID a cada snapshot trocado (rodar rápido - é chamado na thread de quem publicou)
+     */
+    public void subscribe(Consumer<UUID> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<UUID> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Publica colunas do PlayerData (chamado pelo PlayerStore a cada mudança)
+     */
+    public void publish(PlayerData data) {
+        update(data.getUuid(), current -> current.withPlayerData(data));
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.primeleague.core.listeners;
+
+import com.primeleague.core.CorePlugin;
+import com.primeleague.core.database.PlayerStore;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Carrega/descarrega players do PlayerStore
+ * Grug Brain: Load async no join, last_seen_at + flush + unload async no quit
+ * Snapshot de placeholders segue o mesmo ciclo (track no join, untrack junto com o unload)
+ */
+public class PlayerStoreListener implements Listener {
+
+    private final CorePlugin plugin;
+
+    public PlayerStoreListener(CorePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+        // Antes de qualquer load async (deste ou de outros plugins) publicar no snapshot
+        plugin.getPlaceholderSnapshots().track(uuid);
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> plugin.getPlayerStore().load(uuid));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+        plugin.getPlayerStore().update(uuid, PlayerStore.LAST_SEEN_AT, data -> data.setLastSeenAt(new Date()));
+
+        // 1 tick depois: listeners de quit dos outros plugins já gravaram no store
+        plugin.getServer().getScheduler().runTaskLaterAsynchronously(plugin, () -> {
+            if (plugin.getServer().getPlayer(uuid) == null) {
+                plugin.getPlaceholderSnapshots().untrack(uuid);
+                plugin.getPlayerStore().unload(uuid);
+            }
+        }, 1L);
+    }
+}
@@ -0,0 +1,192 @@
+package com.primeleague.core.models;
+
+/**
+ * Visão imutável do player para placeholders (ELO, kills, saldo, clan, X1)
+ * Grug Brain: Nunca alterada depois de publicada - mudança cria cópia nova (with...) e troca inteira.
+ * Cada plugin preenche só a sua parte; o resto vem da versão anterior.
+ */
+public final class PlayerSnapshot {
+
+    public static final PlayerSnapshot EMPTY = new PlayerSnapshot();
+
+    // Core (PlayerStore)
+    private int elo;
+    private int kills;
+    private int deaths;
+    private int killstreak;
+    private int bestKillstreak;
+    private long money; // Centavos
+    private String kdr = "0";
+
+    // Clans
+    private String clanName;
+    private String clanTag;
+    private int clanPoints;
+    private int clanEventWins;
+    private int clanAverageElo;
+    private int clanKills;
+
+    // X1
+    private int x1Wins;
+    private int x1Losses;
+    private int x1Winstreak;
+    private int x1BestWinstreak;
+
+    private PlayerSnapshot() {
+    }
+
+    private PlayerSnapshot(PlayerSnapshot other) {
+        this.elo = other.elo;
+        this.kills = other.kills;
+        this.deaths = other.deaths;
+        this.killstreak = other.killstreak;
+        this.bestKillstreak = other.bestKillstreak;
+        this.money = other.money;
+        this.kdr = other.kdr;
+        this.clanName = other.clanName;
+        this.clanTag = other.clanTag;
+        this.clanPoints = other.clanPoints;
+        this.clanEventWins = other.clanEventWins;
+        this.clanAverageElo = other.clanAverageElo;
+        this.clanKills = other.clanKills;
+        this.x1Wins = other.x1Wins;
+        this.x1Losses = other.x1Losses;
+        this.x1Winstreak = other.x1Winstreak;
+        this.x1BestWinstreak = other.x1BestWinstreak;
+    }
+
+    /**
+     * Cópia com as colunas de stats/saldo do PlayerData
+     * Grug Brain: KDR formatado aqui (uma vez por mudança, não a cada render)
+     */
+    public PlayerSnapshot withPlayerData(PlayerData data) {
+        PlayerSnapshot copy = new PlayerSnapshot(this);
+        copy.elo = data.getElo();
+        copy.kills = data.getKills();
+        copy.deaths = data.getDeaths();
+        copy.killstreak = data.getKillstreak();
+        copy.bestKillstreak = data.getBestKillstreak();
+        copy.money = data.getMoney();
+        copy.kdr = data.getDeaths() == 0
+            ? String.valueOf(data.getKills())
+            : String.format("%.2f", (double) data.getKills() / data.getDeaths());
+        return copy;
+    }
+
+    /**
+     * Cópia com o clan do player (name/tag null = sem clan)
+     */
+    public PlayerSnapshot withClan(String name, String tag, int points, int eventWins) {
+        PlayerSnapshot copy = new PlayerSnapshot(this);
+        copy.clanName = name;
+        copy.clanTag = tag;
+        copy.clanPoints = points;
+        copy.clanEventWins = eventWins;
+        if (name == null) {
+            copy.clanAverageElo = 0;
+            copy.clanKills = 0;
+        }
+        return copy;
+    }
+
+    /**
+     * Cópia com agregados do clan (calculados async pelo plugin de clans)
+     */
+    public PlayerSnapshot withClanStats(int averageElo, int kills) {
+        PlayerSnapshot copy = new PlayerSnapshot(this);
+        copy.clanAverageElo = averageElo;
+        copy.clanKills = kills;
+        return copy;
+    }
+
+    /**
+     * Cópia com stats de duels X1
+     */
+    public PlayerSnapshot withX1(int wins, int losses, int winstreak, int bestWinstreak) {
+        PlayerSnapshot copy = new PlayerSnapshot(this);
+        copy.x1Wins = wins;
+        copy.x1Losses = losses;
+        copy.x1Winstreak = winstreak;
+        copy.x1BestWinstreak = bestWinstreak;
+        return copy;
+    }
+
+    public int getElo() {
+        return elo;
+    }
+
+    public int getKills() {
+        return kills;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+
+    public int getKillstreak() {
+        return killstreak;
+    }
+
+    public int getBestKillstreak() {
+        return bestKillstreak;
+    }
+
+    public long getMoney() {
+        return money;
+    }
+
+    public String getKdr() {
+        return kdr;
+    }
+
+    public boolean hasClan() {
+        return clanName != null;
+    }
+
+    public String getClanName() {
+        return clanName;
+    }
+
+    public String getClanTag() {
+        return clanTag;
+    }
+
+    public int getClanPoints() {
+        return clanPoints;
+    }
+
+    public int getClanEventWins() {
+        return clanEventWins;
+    }
+
+    public int getClanAverageElo() {
+        return clanAverageElo;
+    }
+
+    public int getClanKills() {
+        return clanKills;
+    }
+
+    public int getX1Wins() {
+        return x1Wins;
+    }
+
+    public int getX1Losses() {
+        return x1Losses;
+    }
+
+    public int getX1Winstreak() {
+        return x1Winstreak;
+    }
+
+    public int getX1BestWinstreak() {
+        return x1BestWinstreak;
+    }
+
+    public double getX1Wlr() {
+        if (x1Losses == 0) {
+            return x1Wins > 0 ? x1Wins : 0.0;
+        }
+        return (double) x1Wins / x1Losses;
+    }
+}
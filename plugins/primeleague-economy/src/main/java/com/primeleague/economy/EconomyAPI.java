@@ -1,19 +1,14 @@
 package com.primeleague.economy;
 
-import com.primeleague.core.CoreAPI;
 import com.primeleague.league.LeagueAPI;
 import org.bukkit.Bukkit;
-import org.bukkit.scheduler.BukkitRunnable;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.util.UUID;
 
 /**
  * API pública estática para outros plugins
  * Grug Brain: Métodos estáticos thread-safe, similar ao EloAPI
+ * Sem lock global: atomicidade por conta fica no ledger do EconomyManager
  */
 public class EconomyAPI {
 
@@ -32,13 +27,13 @@ public class EconomyAPI {
 
     /**
      * Adiciona dinheiro ao player
-     * Thread-safe: synchronized para operação atômica
+     * Thread-safe: crédito atômico na conta (lock só da conta)
      * @param playerUuid UUID do player
      * @param amount Quantidade em dólares (ex: 10.50)
      * @param reason Motivo (para logs)
      * @return Quantidade adicionada (em dólares)
      */
-    public static synchronized double addMoney(UUID playerUuid, double amount, String reason) {
+    public static double addMoney(UUID playerUuid, double amount, String reason) {
         if (amount <= 0) {
             getPlugin().getLogger().warning("Tentativa de adicionar valor inválido: " + amount);
             return 0;
@@ -50,7 +45,7 @@ public class EconomyAPI {
         long cents = (long) (amount * 100);
 
         // Adicionar ao cache
-        manager.addBalanceCents(playerUuid, cents);
+        long newBalanceCents = manager.addBalanceCents(playerUuid, cents);
 
         // Log transação async (não bloquear thread)
         logTransactionAsync(playerUuid, null, cents, reason != null ? reason : "ADD", "");
@@ -62,7 +57,7 @@ public class EconomyAPI {
 
         // Logging reduzido (apenas se configurado)
         if (getPlugin().getConfig().getBoolean("economy.log-transacoes", false)) {
-            double newBalance = manager.getBalance(playerUuid);
+            double newBalance = newBalanceCents / 100.0;
             getPlugin().getLogger().info("Dinheiro adicionado: " + playerUuid + " +$" + amount +
                 " (" + reason + ") - Saldo: $" + newBalance);
         }
@@ -72,13 +67,13 @@ public class EconomyAPI {
 
     /**
      * Remove dinheiro do player
-     * Thread-safe: synchronized para operação atômica
+     * Thread-safe: verificação de saldo + débito atômicos na conta
      * @param playerUuid UUID do player
      * @param amount Quantidade em dólares
      * @param reason Motivo (para logs)
      * @return Quantidade removida (em dólares)
      */
-    public static synchronized double removeMoney(UUID playerUuid, double amount, String reason) {
+    public static double removeMoney(UUID playerUuid, double amount, String reason) {
         if (amount <= 0) {
             getPlugin().getLogger().warning("Tentativa de remover valor inválido: " + amount);
             return 0;
@@ -86,17 +81,14 @@ public class EconomyAPI {
 
         EconomyManager manager = getPlugin().getEconomyManager();
 
-        // Verificar saldo
-        if (!hasBalance(playerUuid, amount)) {
-            getPlugin().getLogger().warning("Saldo insuficiente para remover: " + playerUuid + " - $" + amount);
-            return 0;
-        }
-
         // Converter dólares para centavos
         long cents = (long) (amount * 100);
 
-        // Remover do cache
-        manager.removeBalanceCents(playerUuid, cents);
+        // Verificar saldo e remover do cache (atômico)
+        if (!manager.tryRemoveBalanceCents(playerUuid, cents)) {
+            getPlugin().getLogger().warning("Saldo insuficiente para remover: " + playerUuid + " - $" + amount);
+            return 0;
+        }
 
         // Log transação async (não bloquear thread)
         logTransactionAsync(playerUuid, null, -cents, reason != null ? reason : "REMOVE", "");
@@ -122,12 +114,12 @@ public class EconomyAPI {
 
     /**
      * Define saldo do player
-     * Thread-safe: synchronized para operação atômica
+     * Thread-safe: escrita atômica na conta
      * @param playerUuid UUID do player
      * @param amount Quantidade em dólares
      * @param reason Motivo (para logs)
      */
-    public static synchronized void setBalance(UUID playerUuid, double amount, String reason) {
+    public static void setBalance(UUID playerUuid, double amount, String reason) {
         if (amount < 0) {
             getPlugin().getLogger().warning("Tentativa de definir saldo negativo: " + amount);
             return;
@@ -164,92 +156,40 @@ public class EconomyAPI {
 
     /**
      * Transfere dinheiro entre players
-     * Thread-safe: synchronized para operação atômica
+     * Thread-safe: trava só as duas contas, em ordem fixa
      * @param fromUuid UUID do remetente
      * @param toUuid UUID do destinatário
      * @param amount Quantidade em dólares
      * @param reason Motivo (para logs)
      * @return true se transferência foi bem-sucedida
      */
-    public static synchronized boolean transfer(UUID fromUuid, UUID toUuid, double amount, String reason) {
+    public static boolean transfer(UUID fromUuid, UUID toUuid, double amount, String reason) {
         if (amount <= 0) {
             return false;
         }
 
-        // Verificar saldo
-        if (!hasBalance(fromUuid, amount)) {
-            return false;
-        }
-
         EconomyManager manager = getPlugin().getEconomyManager();
 
         // Converter dólares para centavos
         long cents = (long) (amount * 100);
 
-        // Remover do remetente
-        manager.removeBalanceCents(fromUuid, cents);
-        logTransactionAsync(fromUuid, toUuid, -cents, reason != null ? reason : "TRANSFER_OUT", "");
+        // Verificar saldo, remover do remetente e adicionar ao destinatário (atômico)
+        if (!manager.transferCents(fromUuid, toUuid, cents)) {
+            return false;
+        }
 
-        // Adicionar ao destinatário
-        manager.addBalanceCents(toUuid, cents);
+        logTransactionAsync(fromUuid, toUuid, -cents, reason != null ? reason : "TRANSFER_OUT", "");
         logTransactionAsync(toUuid, fromUuid, cents, reason != null ? reason : "TRANSFER_IN", "");
 
         return true;
     }
 
     /**
-     * Registra transação no banco (async)
-     * Grug Brain: Query direta PostgreSQL, executada async para não bloquear
+     * Registra transação no journal (gravado em lote pelo TransactionJournal)
+     * Grug Brain: Só enfileira - sem task nem conexão por transação
      */
     private static void logTransactionAsync(UUID playerUuid, UUID otherUuid, long amountCents, String type, String reason) {
-        final UUID finalPlayerUuid = playerUuid;
-        final UUID finalOtherUuid = otherUuid;
-        final long finalAmountCents = amountCents;
-        final String finalType = type;
-        final String finalReason = reason != null ? reason : "";
-
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                logTransaction(finalPlayerUuid, finalOtherUuid, finalAmountCents, finalType, finalReason);
-            }
-        }.runTaskAsynchronously(getPlugin());
-    }
-
-    /**
-     * Registra transação no banco (sync - usado apenas internamente)
-     * Grug Brain: Query direta PostgreSQL
-     */
-    private static void logTransaction(UUID playerUuid, UUID otherUuid, long amountCents, String type, String reason) {
-        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                "INSERT INTO economy_transactions (player_uuid, from_uuid, to_uuid, amount, type, reason, timestamp) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?)");
-
-            stmt.setObject(1, playerUuid);
-            if (otherUuid != null) {
-                // Se for transfer, from_uuid = from, to_uuid = to
-                if (amountCents > 0) {
-                    stmt.setObject(2, playerUuid); // from
-                    stmt.setObject(3, otherUuid);  // to
-                } else {
-                    stmt.setObject(2, otherUuid);  // from
-                    stmt.setObject(3, playerUuid); // to
-                }
-            } else {
-                // Single player transaction
-                stmt.setObject(2, playerUuid);
-                stmt.setNull(3, java.sql.Types.OTHER);
-            }
-            stmt.setLong(4, Math.abs(amountCents));
-            stmt.setString(5, type);
-            stmt.setString(6, reason);
-            stmt.setTimestamp(7, new Timestamp(System.currentTimeMillis()));
-
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            getPlugin().getLogger().severe("Erro ao logar transação: " + e.getMessage());
-        }
+        getPlugin().getTransactionJournal().record(playerUuid, otherUuid, amountCents, type, reason);
     }
 
     /**
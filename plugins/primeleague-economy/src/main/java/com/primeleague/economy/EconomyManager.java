@@ -2,36 +2,63 @@ package com.primeleague.economy;
 
 import com.primeleague.core.CoreAPI;
 import com.primeleague.core.models.PlayerData;
-import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Gerenciador de cache de saldos em memória
- * Grug Brain: Cache simples, auto-save async a cada 30s
+ * Grug Brain: Cache simples, auto-save async a cada 30s só dos saldos alterados (dirty)
+ *
+ * Ledger por conta: leituras sem lock, escritas sob lock listrado por UUID (não um lock global).
+ * Transferência trava as duas listras em ordem fixa (menor índice primeiro) - sem deadlock.
  */
 public class EconomyManager {
 
+    // Potência de 2 (índice via máscara)
+    private static final int LOCK_STRIPES = 64;
+
     private final EconomyPlugin plugin;
     // Cache em memória: UUID -> centavos (long)
     private final Map<UUID, Long> balanceCache = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    // Saldos alterados desde o último flush
+    private final Set<UUID> dirtyBalances = ConcurrentHashMap.newKeySet();
+    // Contas cujo valor no cache já inclui o saldo do banco (sem isso o valor é só crédito feito antes do load)
+    private final Set<UUID> loadedBalances = ConcurrentHashMap.newKeySet();
+    // Load x flush de créditos offline: o load vê o delta no cache OU já somado no banco, nunca nenhum dos dois
+    private final Object creditLock = new Object();
     private BukkitRunnable autoSaveTask;
 
     public EconomyManager(EconomyPlugin plugin) {
         this.plugin = plugin;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private int stripe(UUID uuid) {
+        int h = uuid.hashCode();
+        return (h ^ (h >>> 16)) & (LOCK_STRIPES - 1);
     }
 
     /**
-     * Inicia auto-save async a cada 30s
+     * Inicia auto-save async a cada 30s (saldos carregados + créditos em contas offline)
      */
     public void startAutoSave() {
         autoSaveTask = new BukkitRunnable() {
             @Override
             public void run() {
-                saveAllBalancesAsync();
+                flushDirtyBalances();
+                flushUnloadedCredits();
             }
         };
         // 30s = 600 ticks (20 ticks/segundo * 30)
@@ -45,8 +72,9 @@ public class EconomyManager {
         if (autoSaveTask != null) {
             autoSaveTask.cancel();
         }
-        // Salvar tudo sincronamente antes de desabilitar
-        saveAllBalancesSync();
+        // Salvar pendentes sincronamente antes de desabilitar
+        flushDirtyBalances();
+        flushUnloadedCredits();
     }
 
     /**
@@ -54,14 +82,34 @@ public class EconomyManager {
      * Grug Brain: Query direta via CoreAPI
      */
     public void loadBalance(UUID uuid) {
-        PlayerData data = CoreAPI.getPlayer(uuid);
-        if (data != null) {
-            long cents = data.getMoney();
-            balanceCache.put(uuid, cents);
-        } else {
-            // Player novo - saldo inicial
-            long startingBalance = (long) (plugin.getConfig().getDouble("economy.saldo-inicial", 10.0) * 100);
-            balanceCache.put(uuid, startingBalance);
+        // Rejoin antes do flush do quit: cache ainda é a fonte da verdade
+        if (loadedBalances.contains(uuid)) {
+            return;
+        }
+
+        synchronized (creditLock) {
+            PlayerData data = CoreAPI.getPlayer(uuid);
+            long cents;
+            if (data != null) {
+                cents = data.getMoney();
+            } else {
+                // Player novo - saldo inicial
+                cents = (long) (plugin.getConfig().getDouble("economy.saldo-inicial", 10.0) * 100);
+            }
+            synchronized (locks[stripe(uuid)]) {
+                if (!loadedBalances.add(uuid)) {
+                    return; // Outro load chegou primeiro
+                }
+                // Crédito/débito antes do load ficou no cache como delta sobre 0 - somar ao saldo do banco
+                Long early = balanceCache.get(uuid);
+                if (early != null) {
+                    cents += early;
+                    balanceCache.put(uuid, cents);
+                    markDirty(uuid, cents);
+                } else {
+                    balanceCache.put(uuid, cents);
+                }
+            }
         }
     }
 
@@ -84,71 +132,234 @@ public class EconomyManager {
      * Define saldo (em centavos)
      */
     public void setBalanceCents(UUID uuid, long cents) {
-        balanceCache.put(uuid, cents);
+        synchronized (locks[stripe(uuid)]) {
+            balanceCache.put(uuid, cents);
+            loadedBalances.add(uuid); // Valor absoluto - não é delta
+            markDirty(uuid, cents);
+        }
     }
 
     /**
-     * Adiciona dinheiro (em centavos)
+     * Adiciona dinheiro (em centavos), limitado ao saldo máximo
+     * @return novo saldo (em centavos)
      */
-    public void addBalanceCents(UUID uuid, long cents) {
-        long current = getBalanceCents(uuid);
-        long maxBalance = (long) (plugin.getConfig().getDouble("economy.saldo-maximo", 1000000.0) * 100);
-        long newBalance = Math.min(current + cents, maxBalance);
-        balanceCache.put(uuid, newBalance);
+    public long addBalanceCents(UUID uuid, long cents) {
+        long maxBalance = getMaxBalanceCents();
+        synchronized (locks[stripe(uuid)]) {
+            return credit(uuid, cents, maxBalance);
+        }
+    }
+
+    /**
+     * Verifica saldo e remove na mesma operação atômica
+     * @return false se saldo insuficiente (nada removido)
+     */
+    public boolean tryRemoveBalanceCents(UUID uuid, long cents) {
+        long minBalance = getMinBalanceCents();
+        synchronized (locks[stripe(uuid)]) {
+            return debit(uuid, cents, minBalance);
+        }
     }
 
     /**
-     * Remove dinheiro (em centavos)
+     * Transfere entre contas atomicamente (verificação de saldo + débito + crédito)
+     * Grug Brain: Trava as duas listras em ordem de índice - duas transferências cruzadas não travam
+     * @return false se saldo insuficiente (nada alterado)
      */
-    public void removeBalanceCents(UUID uuid, long cents) {
+    public boolean transferCents(UUID fromUuid, UUID toUuid, long cents) {
+        long minBalance = getMinBalanceCents();
+        long maxBalance = getMaxBalanceCents();
+        int a = stripe(fromUuid);
+        int b = stripe(toUuid);
+        Object first = locks[Math.min(a, b)];
+        Object second = locks[Math.max(a, b)];
+        synchronized (first) {
+            synchronized (second) {
+                if (!debit(fromUuid, cents, minBalance)) {
+                    return false;
+                }
+                credit(toUuid, cents, maxBalance);
+                return true;
+            }
+        }
+    }
+
+    // Chamar com a listra do uuid travada
+    private long credit(UUID uuid, long cents, long maxBalance) {
+        long newBalance = Math.min(getBalanceCents(uuid) + cents, maxBalance);
+        balanceCache.put(uuid, newBalance);
+        markDirty(uuid, newBalance);
+        return newBalance;
+    }
+
+    // Chamar com a listra do uuid travada
+    private boolean debit(UUID uuid, long cents, long minBalance) {
         long current = getBalanceCents(uuid);
-        long minBalance = (long) (plugin.getConfig().getDouble("economy.saldo-minimo", 0.0) * 100);
+        if (current < cents) {
+            return false;
+        }
         long newBalance = Math.max(current - cents, minBalance);
         balanceCache.put(uuid, newBalance);
+        markDirty(uuid, newBalance);
+        return true;
+    }
+
+    private long getMaxBalanceCents() {
+        return (long) (plugin.getConfig().getDouble("economy.saldo-maximo", 1000000.0) * 100);
+    }
+
+    private long getMinBalanceCents() {
+        return (long) (plugin.getConfig().getDouble("economy.saldo-minimo", 0.0) * 100);
     }
 
     /**
-     * Salva saldo do player no banco
+     * Marca saldo para o próximo flush e espelha no PlayerStore do Core
+     * Grug Brain: Store não fica sujo (quem grava money é a economy), só evita getPlayer() com saldo velho
      */
-    private void saveBalance(UUID uuid) {
-        long cents = getBalanceCents(uuid);
-        PlayerData data = CoreAPI.getPlayer(uuid);
-        if (data != null) {
-            data.setMoney(cents);
-            CoreAPI.savePlayer(data);
+    private void markDirty(UUID uuid, long cents) {
+        dirtyBalances.add(uuid);
+        if (loadedBalances.contains(uuid)) {
+            CoreAPI.updatePlayer(uuid, 0, data -> data.setMoney(cents));
         }
     }
 
     /**
-     * Salva todos os saldos no banco (async)
+     * Grava saldos alterados em um único UPDATE batch (uma conexão por flush)
+     * Grug Brain: Chamar async (timer) ou sync no disable
+     * @return linhas gravadas
      */
-    private void saveAllBalancesAsync() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                for (UUID uuid : balanceCache.keySet()) {
-                    saveBalance(uuid);
-                }
+    public int flushDirtyBalances() {
+        if (dirtyBalances.isEmpty()) {
+            return 0;
+        }
+
+        // Remover do set ANTES de ler o saldo: alteração concorrente remarca para o próximo flush
+        List<UUID> uuids = new ArrayList<>();
+        List<Long> balances = new ArrayList<>();
+        for (UUID uuid : new ArrayList<>(dirtyBalances)) {
+            // Conta sem load: valor é só delta - fica sujo até o load somar o saldo do banco
+            if (!loadedBalances.contains(uuid)) {
+                continue;
             }
-        }.runTaskAsynchronously(plugin);
+            if (!dirtyBalances.remove(uuid)) {
+                continue;
+            }
+            Long cents = balanceCache.get(uuid);
+            if (cents != null) {
+                uuids.add(uuid);
+                balances.add(cents);
+            }
+        }
+
+        long start = System.nanoTime();
+        int rows = writeBalances(uuids, balances);
+        if (rows > 0) {
+            long elapsedMs = (System.nanoTime() - start) / 1000000;
+            plugin.getLogger().info("Auto-save economia: " + rows + " saldos gravados em " + elapsedMs + "ms");
+        }
+        return rows;
+    }
+
+    private int writeBalances(List<UUID> uuids, List<Long> balances) {
+        if (uuids.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE users SET money = ? WHERE uuid = ?")) {
+            for (int i = 0; i < uuids.size(); i++) {
+                stmt.setLong(1, balances.get(i));
+                stmt.setObject(2, uuids.get(i));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            // Devolver para o próximo flush
+            dirtyBalances.addAll(uuids);
+            plugin.getLogger().severe("Erro ao gravar saldos (" + uuids.size() + "): " + e.getMessage());
+            return 0;
+        }
+        return uuids.size();
     }
 
     /**
-     * Salva todos os saldos no banco (sync - usado no disable)
+     * Créditos em contas que nunca carregaram (timer e desligamento) - somados no banco em vez de sobrescrever
+     * Grug Brain: Falhou = delta volta para o cache (somado ao que chegou no meio) e o próximo flush tenta de novo
      */
-    private void saveAllBalancesSync() {
-        for (UUID uuid : balanceCache.keySet()) {
-            saveBalance(uuid);
+    private void flushUnloadedCredits() {
+        synchronized (creditLock) {
+            List<UUID> uuids = new ArrayList<>();
+            List<Long> deltas = new ArrayList<>();
+            for (UUID uuid : new ArrayList<>(dirtyBalances)) {
+                synchronized (locks[stripe(uuid)]) {
+                    if (loadedBalances.contains(uuid)) {
+                        continue;
+                    }
+                    Long delta = balanceCache.remove(uuid);
+                    dirtyBalances.remove(uuid);
+                    if (delta != null && delta != 0) {
+                        uuids.add(uuid);
+                        deltas.add(delta);
+                    }
+                }
+            }
+            if (uuids.isEmpty()) {
+                return;
+            }
+
+            try (Connection conn = CoreAPI.getDatabase().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("UPDATE users SET money = money + ? WHERE uuid = ?")) {
+                for (int i = 0; i < uuids.size(); i++) {
+                    stmt.setLong(1, deltas.get(i));
+                    stmt.setObject(2, uuids.get(i));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            } catch (SQLException e) {
+                for (int i = 0; i < uuids.size(); i++) {
+                    UUID uuid = uuids.get(i);
+                    synchronized (locks[stripe(uuid)]) {
+                        // setBalanceCents no meio gravou valor absoluto - delta antigo não vale mais
+                        if (loadedBalances.contains(uuid)) {
+                            continue;
+                        }
+                        balanceCache.merge(uuid, deltas.get(i), Long::sum);
+                        dirtyBalances.add(uuid);
+                    }
+                }
+                plugin.getLogger().severe("Erro ao gravar créditos de contas offline (" + uuids.size() +
+                    ", nova tentativa no próximo flush): " + e.getMessage());
+            }
         }
     }
 
     /**
      * Remove player do cache (on quit)
+     * Grug Brain: Grava saldo pendente async e só então remove do cache (rejoin rápido reaproveita o cache)
      */
     public void removePlayer(UUID uuid) {
-        // Salvar antes de remover
-        saveBalance(uuid);
-        balanceCache.remove(uuid);
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (loadedBalances.contains(uuid) && dirtyBalances.remove(uuid)) {
+                    Long cents = balanceCache.get(uuid);
+                    if (cents != null) {
+                        List<UUID> uuids = new ArrayList<>();
+                        uuids.add(uuid);
+                        List<Long> balances = new ArrayList<>();
+                        balances.add(cents);
+                        writeBalances(uuids, balances);
+                    }
+                }
+                // Verificar e remover sob a listra: crédito entre os dois não se perde
+                synchronized (locks[stripe(uuid)]) {
+                    if (plugin.getServer().getPlayer(uuid) == null && !dirtyBalances.contains(uuid)) {
+                        balanceCache.remove(uuid);
+                        loadedBalances.remove(uuid);
+                    }
+                }
+            }
+        }.runTaskAsynchronously(plugin);
     }
 
     /**
@@ -156,6 +367,7 @@ public class EconomyManager {
      */
     public void clearCache() {
         balanceCache.clear();
+        loadedBalances.clear();
     }
 }
 
@@ -28,6 +28,7 @@ public class EconomyPlugin extends JavaPlugin implements Listener {
 
     private static EconomyPlugin instance;
     private EconomyManager economyManager;
+    private TransactionJournal transactionJournal;
     private VaultEconomyProvider vaultProvider;
     private PlaceholderAPIExpansion placeholderExpansion;
     private DynamicPricer dynamicPricer;
@@ -59,6 +60,10 @@ public class EconomyPlugin extends JavaPlugin implements Listener {
         // Criar tabela de transações se não existir
         createTransactionsTable();
 
+        // Journal de transações (INSERTs em lote por um único escritor)
+        transactionJournal = new TransactionJournal(this);
+        transactionJournal.start();
+
         // Criar tabela de dynamic_prices se não existir
         createDynamicPricesTable();
 
@@ -150,6 +155,11 @@ public class EconomyPlugin extends JavaPlugin implements Listener {
             economyManager.stopAutoSave();
         }
 
+        // Gravar transações pendentes do journal
+        if (transactionJournal != null) {
+            transactionJournal.shutdown();
+        }
+
         getLogger().info("PrimeleagueEconomy desabilitado");
     }
 
@@ -293,6 +303,10 @@ public class EconomyPlugin extends JavaPlugin implements Listener {
         return economyManager;
     }
 
+    public TransactionJournal getTransactionJournal() {
+        return transactionJournal;
+    }
+
     /**
      * Obtém cache de ricostop ou null se expirado
      */
@@ -0,0 +1,308 @@
+package com.primeleague.economy;
+
+import com.primeleague.core.CoreAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal de economy_transactions em lote
+ * Grug Brain: Fila limitada em memória + um único escritor que grava INSERTs multi-linha
+ * por tamanho (lote cheio) ou tempo (intervalo). Sem task por transação.
+ *
+ * Backpressure (fila cheia):
+ * - Thread async: espera até 100ms por espaço (freia o produtor)
+ * - Thread principal: nunca bloqueia o tick - descarta e conta em "descartadas"
+ */
+public class TransactionJournal {
+
+    private static final int PARAMS_PER_ROW = 7;
+    // Limite de bind parameters do PostgreSQL (32767) / 7 por linha = 4681 - margem
+    private static final int MAX_BATCH = 4000;
+    // Tentativas do lote inteiro antes de cair para linha a linha
+    private static final int MAX_RETRIES = 5;
+
+    private final EconomyPlugin plugin;
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final String fullBatchSql;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private BukkitTask flushTask;
+
+    // Lote que falhou (gravado antes da fila no próximo ciclo - só acessado dentro de drain)
+    private final List<Entry> retryBatch = new ArrayList<>();
+    private int retryAttempts;
+    private volatile int retryCount;
+
+    // Métricas
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private volatile long lastFlushMs;
+    private volatile long maxFlushMs;
+
+    public TransactionJournal(EconomyPlugin plugin) {
+        this.plugin = plugin;
+        int capacity = Math.max(100, plugin.getConfig().getInt("economy.journal.capacidade", 20000));
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = Math.min(MAX_BATCH, Math.max(1, plugin.getConfig().getInt("economy.journal.lote", 500)));
+        this.fullBatchSql = buildInsertSql(batchSize);
+    }
+
+    /**
+     * Inicia flush por tempo
+     */
+    public void start() {
+        long intervalTicks = Math.max(1L, plugin.getConfig().getLong("economy.journal.intervalo-ms", 1000) / 50);
+        flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::drain, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Para o timer e grava tudo que sobrou (sync - usado no onDisable)
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        drain();
+        if (!queue.isEmpty() || retryCount > 0) {
+            plugin.getLogger().warning("Journal: " + (queue.size() + retryCount) +
+                " transações não gravadas no desligamento");
+        }
+    }
+
+    /**
+     * Enfileira transação (não faz I/O)
+     */
+    public void record(UUID playerUuid, UUID otherUuid, long amountCents, String type, String reason) {
+        Entry entry = new Entry(playerUuid, otherUuid, amountCents, type, reason != null ? reason : "",
+            System.currentTimeMillis());
+
+        boolean queued = queue.offer(entry);
+        if (!queued && !Bukkit.isPrimaryThread()) {
+            try {
+                queued = queue.offer(entry, 100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            long total = dropped.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                plugin.getLogger().warning("Journal cheio - transações descartadas: " + total);
+            }
+        }
+
+        // Lote cheio: drenar agora em vez de esperar o timer
+        if (queue.size() >= batchSize && drainScheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                drainScheduled.set(false);
+                drain();
+            });
+        }
+    }
+
+    /**
+     * Esvazia a fila em lotes
+     * Grug Brain: synchronized = um escritor por vez (timer, gatilho de lote e shutdown)
+     * Lote que falha não é descartado: volta na frente no próximo ciclo (ordem preservada).
+     * Depois de MAX_RETRIES, grava linha a linha - só a linha ruim conta como "falhou".
+     */
+    private synchronized void drain() {
+        if (queue.isEmpty() && retryBatch.isEmpty()) {
+            return;
+        }
+
+        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
+            if (!retryBatch.isEmpty()) {
+                if (!flushBatch(conn, retryBatch)) {
+                    retryAttempts++;
+                    if (retryAttempts < MAX_RETRIES) {
+                        return; // Próximo ciclo tenta de novo (fila continua acumulando atrás)
+                    }
+                    if (!writeRowByRow(conn, retryBatch)) {
+                        return; // Conexão caiu no meio - resto fica para o próximo ciclo
+                    }
+                }
+                clearRetry();
+            }
+
+            List<Entry> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                if (!flushBatch(conn, batch)) {
+                    retryBatch.addAll(batch);
+                    retryAttempts = 1;
+                    retryCount = retryBatch.size();
+                    return;
+                }
+                batch.clear();
+            }
+        } catch (SQLException e) {
+            // Sem conexão: transações ficam na fila para o próximo ciclo
+            plugin.getLogger().severe("Erro ao obter conexão para o journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Grava um lote e atualiza métricas
+     * @return false se o lote falhou (chamador guarda para retry)
+     */
+    private boolean flushBatch(Connection conn, List<Entry> batch) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            writeBatch(conn, batch);
+            written.addAndGet(batch.size());
+            ok = true;
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao gravar lote de transações (" + batch.size() + ", tentativa " +
+                (retryAttempts + 1) + "): " + e.getMessage());
+            ok = false;
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1000000;
+        lastFlushMs = elapsedMs;
+        if (elapsedMs > maxFlushMs) {
+            maxFlushMs = elapsedMs;
+        }
+        flushes.incrementAndGet();
+        return ok;
+    }
+
+    /**
+     * Fallback do lote que esgotou as tentativas: uma linha por INSERT
+     * Linha que falha com a conexão viva é ruim de verdade (conta em "falhou"); conexão morta = para e
+     * deixa o resto no retryBatch.
+     * @return true se o lote inteiro foi resolvido (gravado ou descartado)
+     */
+    private boolean writeRowByRow(Connection conn, List<Entry> entries) throws SQLException {
+        List<Entry> single = new ArrayList<>(1);
+        while (!entries.isEmpty()) {
+            single.clear();
+            single.add(entries.get(0));
+            try {
+                writeBatch(conn, single);
+                written.incrementAndGet();
+            } catch (SQLException e) {
+                if (!conn.isValid(2)) {
+                    retryCount = entries.size();
+                    return false;
+                }
+                failed.incrementAndGet();
+                plugin.getLogger().severe("Transação descartada após " + MAX_RETRIES + " tentativas: " + e.getMessage());
+            }
+            entries.remove(0);
+        }
+        return true;
+    }
+
+    private void clearRetry() {
+        retryBatch.clear();
+        retryAttempts = 0;
+        retryCount = 0;
+    }
+
+    private void writeBatch(Connection conn, List<Entry> batch) throws SQLException {
+        String sql = batch.size() == batchSize ? fullBatchSql : buildInsertSql(batch.size());
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (Entry entry : batch) {
+                stmt.setObject(index, entry.playerUuid);
+                if (entry.otherUuid != null) {
+                    // Se for transfer, from_uuid = from, to_uuid = to
+                    if (entry.amountCents > 0) {
+                        stmt.setObject(index + 1, entry.playerUuid); // from
+                        stmt.setObject(index + 2, entry.otherUuid);  // to
+                    } else {
+                        stmt.setObject(index + 1, entry.otherUuid);  // from
+                        stmt.setObject(index + 2, entry.playerUuid); // to
+                    }
+                } else {
+                    // Single player transaction
+                    stmt.setObject(index + 1, entry.playerUuid);
+                    stmt.setNull(index + 2, Types.OTHER);
+                }
+                stmt.setLong(index + 3, Math.abs(entry.amountCents));
+                stmt.setString(index + 4, entry.type);
+                stmt.setString(index + 5, entry.reason);
+                stmt.setTimestamp(index + 6, new Timestamp(entry.timestamp));
+                index += PARAMS_PER_ROW;
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String buildInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO economy_transactions (player_uuid, from_uuid, to_uuid, amount, type, reason, timestamp) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+
+    public int getQueueDepth() {
+        return queue.size() + retryCount;
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    public long getLastFlushMs() {
+        return lastFlushMs;
+    }
+
+    public long getMaxFlushMs() {
+        return maxFlushMs;
+    }
+
+    /**
+     * Transação pendente (imutável)
+     */
+    private static class Entry {
+        final UUID playerUuid;
+        final UUID otherUuid;
+        final long amountCents;
+        final String type;
+        final String reason;
+        final long timestamp;
+
+        Entry(UUID playerUuid, UUID otherUuid, long amountCents, String type, String reason, long timestamp) {
+            this.playerUuid = playerUuid;
+            this.otherUuid = otherUuid;
+            this.amountCents = amountCents;
+            this.type = type;
+            this.reason = reason;
+            this.timestamp = timestamp;
+        }
+    }
+}
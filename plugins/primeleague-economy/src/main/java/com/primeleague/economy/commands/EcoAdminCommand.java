@@ -3,6 +3,7 @@ package com.primeleague.economy.commands;
 import com.primeleague.core.CoreAPI;
 import com.primeleague.economy.EconomyAPI;
 import com.primeleague.economy.EconomyPlugin;
+import com.primeleague.economy.TransactionJournal;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -32,6 +33,11 @@ public class EcoAdminCommand implements CommandExecutor {
             return true;
         }
 
+        if (args.length == 1 && args[0].equalsIgnoreCase("journal")) {
+            showJournalStats(sender);
+            return true;
+        }
+
         if (args.length < 3) {
             sender.sendMessage(ChatColor.RED + "Use: /eco <dar|remover|definir|reset> <player> <valor>");
             sender.sendMessage(ChatColor.GRAY + "Exemplos:");
@@ -39,6 +45,7 @@ public class EcoAdminCommand implements CommandExecutor {
             sender.sendMessage(ChatColor.GRAY + "  /eco remover PlayerName 50");
             sender.sendMessage(ChatColor.GRAY + "  /eco definir PlayerName 500");
             sender.sendMessage(ChatColor.GRAY + "  /eco reset PlayerName");
+            sender.sendMessage(ChatColor.GRAY + "  /eco journal");
             return true;
         }
 
@@ -137,5 +144,19 @@ public class EcoAdminCommand implements CommandExecutor {
 
         return true;
     }
-}
 
+    /**
+     * Métricas do journal de transações
+     */
+    private void showJournalStats(CommandSender sender) {
+        TransactionJournal journal = plugin.getTransactionJournal();
+        sender.sendMessage(ChatColor.GOLD + "=== Journal de Transações ===");
+        sender.sendMessage(ChatColor.GRAY + "Na fila: " + ChatColor.WHITE + journal.getQueueDepth());
+        sender.sendMessage(ChatColor.GRAY + "Gravadas: " + ChatColor.WHITE + journal.getWritten() +
+            ChatColor.GRAY + " em " + ChatColor.WHITE + journal.getFlushes() + ChatColor.GRAY + " lotes");
+        sender.sendMessage(ChatColor.GRAY + "Descartadas: " + ChatColor.WHITE + journal.getDropped() +
+            ChatColor.GRAY + " | Falhas: " + ChatColor.WHITE + journal.getFailed());
+        sender.sendMessage(ChatColor.GRAY + "Último lote: " + ChatColor.WHITE + journal.getLastFlushMs() + "ms" +
+            ChatColor.GRAY + " | Pior: " + ChatColor.WHITE + journal.getMaxFlushMs() + "ms");
+    }
+}
@@ -1,7 +1,5 @@
 package com.primeleague.elo;
 
-import com.primeleague.core.CoreAPI;
-import com.primeleague.core.models.PlayerData;
 import com.primeleague.elo.utils.EloCalculator;
 import com.primeleague.league.LeagueAPI;
 import org.bukkit.Bukkit;
@@ -11,7 +9,7 @@ import java.util.UUID;
 
 /**
  * API pública estática para outros plugins
- * Grug Brain: Métodos estáticos thread-safe, queries diretas
+ * Grug Brain: Métodos estáticos thread-safe, ELO dos players online em memória (EloStore)
  */
 public class EloAPI {
 
@@ -30,36 +28,42 @@ public class EloAPI {
 
     /**
      * Atualiza ELO após PvP (vitória/derrota)
-     * Thread-safe: synchronized para operação atômica
+     * Thread-safe: locks listrados dos dois players (não um lock global)
      * @param winnerUuid UUID do vencedor
      * @param loserUuid UUID do perdedor
      * @return Mudança de ELO do vencedor
      */
-    public static synchronized int updateEloAfterPvP(UUID winnerUuid, UUID loserUuid) {
-        PlayerData winnerData = CoreAPI.getPlayer(winnerUuid);
-        PlayerData loserData = CoreAPI.getPlayer(loserUuid);
-
-        if (winnerData == null || loserData == null) {
-            getPlugin().getLogger().warning("Player não encontrado para atualizar ELO PvP");
-            return 0;
-        }
-
-        // Calcular ELO
-        int winnerOldElo = winnerData.getElo();
-        int loserOldElo = loserData.getElo();
-
+    public static int updateEloAfterPvP(UUID winnerUuid, UUID loserUuid) {
+        EloStore store = getPlugin().getEloStore();
         int kFactor = getKFactor();
         int minElo = getMinElo();
-        int winnerNewElo = Math.max(minElo, EloCalculator.calculateElo(winnerOldElo, loserOldElo, true, kFactor));
-        int loserNewElo = Math.max(minElo, EloCalculator.calculateElo(loserOldElo, winnerOldElo, false, kFactor));
 
-        // Atualizar
-        winnerData.setElo(winnerNewElo);
-        loserData.setElo(loserNewElo);
-
-        // Salvar (CoreAPI.savePlayer() já é thread-safe via HikariCP)
-        CoreAPI.savePlayer(winnerData);
-        CoreAPI.savePlayer(loserData);
+        int winnerOldElo;
+        int loserOldElo;
+        int winnerNewElo;
+        int loserNewElo;
+        Object[] locks = store.lockPair(winnerUuid, loserUuid);
+        synchronized (locks[0]) {
+            synchronized (locks[1]) {
+                Integer winnerElo = store.get(winnerUuid);
+                Integer loserElo = store.get(loserUuid);
+
+                if (winnerElo == null || loserElo == null) {
+                    getPlugin().getLogger().warning("Player não encontrado para atualizar ELO PvP");
+                    return 0;
+                }
+
+                // Calcular ELO
+                winnerOldElo = winnerElo;
+                loserOldElo = loserElo;
+                winnerNewElo = Math.max(minElo, EloCalculator.calculateElo(winnerOldElo, loserOldElo, true, kFactor));
+                loserNewElo = Math.max(minElo, EloCalculator.calculateElo(loserOldElo, winnerOldElo, false, kFactor));
+
+                // Atualizar (memória + flush em lote só da coluna elo)
+                store.set(winnerUuid, winnerNewElo);
+                store.set(loserUuid, loserNewElo);
+            }
+        }
 
         int winnerEloChange = winnerNewElo - winnerOldElo;
         int loserEloChange = loserNewElo - loserOldElo;
@@ -70,33 +74,37 @@ public class EloAPI {
             LeagueAPI.recordEloChange(loserUuid, loserOldElo, loserNewElo, "PvP Loss");
         }
 
-        getPlugin().getLogger().info("ELO PvP atualizado: " + winnerData.getName() +
+        getPlugin().getLogger().info("ELO PvP atualizado: " + store.getName(winnerUuid) +
             " +" + winnerEloChange + " (" + winnerNewElo + "), " +
-            loserData.getName() + " " + loserEloChange + " (" + loserNewElo + ")");
+            store.getName(loserUuid) + " " + loserEloChange + " (" + loserNewElo + ")");
 
         return winnerEloChange;
     }
 
     /**
      * Adiciona ELO fixo (eventos, recompensas)
-     * Thread-safe: synchronized para operação atômica
+     * Thread-safe: lock listrado do player
      * @param playerUuid UUID do player
      * @param amount Quantidade de ELO a adicionar
      * @param reason Motivo (para logs)
      * @return Mudança de ELO
      */
-    public static synchronized int addElo(UUID playerUuid, int amount, String reason) {
-        PlayerData data = CoreAPI.getPlayer(playerUuid);
-        if (data == null) {
-            getPlugin().getLogger().warning("Player não encontrado para adicionar ELO: " + playerUuid);
-            return 0;
-        }
-
-        int oldElo = data.getElo();
-        int newElo = Math.max(getMinElo(), oldElo + amount);
-        data.setElo(newElo);
+    public static int addElo(UUID playerUuid, int amount, String reason) {
+        EloStore store = getPlugin().getEloStore();
+        int minElo = getMinElo();
 
-        CoreAPI.savePlayer(data);
+        int oldElo;
+        int newElo;
+        synchronized (store.lockFor(playerUuid)) {
+            Integer current = store.get(playerUuid);
+            if (current == null) {
+                getPlugin().getLogger().warning("Player não encontrado para adicionar ELO: " + playerUuid);
+                return 0;
+            }
+            oldElo = current;
+            newElo = Math.max(minElo, oldElo + amount);
+            store.set(playerUuid, newElo);
+        }
 
         int eloChange = newElo - oldElo;
 
@@ -105,7 +113,7 @@ public class EloAPI {
             LeagueAPI.recordEloChange(playerUuid, oldElo, newElo, reason);
         }
 
-        getPlugin().getLogger().info("ELO atualizado: " + data.getName() + " +" + eloChange +
+        getPlugin().getLogger().info("ELO atualizado: " + store.getName(playerUuid) + " +" + eloChange +
             " (" + reason + ") - ELO: " + oldElo + " -> " + newElo);
 
         return eloChange;
@@ -113,12 +121,12 @@ public class EloAPI {
 
     /**
      * Adiciona ELO para múltiplos players (clans, eventos)
-     * Thread-safe: synchronized para operação atômica
+     * Thread-safe: cada player sob o próprio lock
      * @param playerUuids Lista de UUIDs dos players
      * @param amount Quantidade de ELO a adicionar
      * @param reason Motivo (para logs)
      */
-    public static synchronized void addEloToPlayers(List<UUID> playerUuids, int amount, String reason) {
+    public static void addEloToPlayers(List<UUID> playerUuids, int amount, String reason) {
         for (UUID uuid : playerUuids) {
             addElo(uuid, amount, reason);
         }
@@ -126,13 +134,22 @@ public class EloAPI {
 
     /**
      * Obtém ELO atual do player
-     * Thread-safe: apenas leitura
+     * Thread-safe: apenas leitura - memória se online, senão só a coluna elo
      * @param playerUuid UUID do player
      * @return ELO atual ou ELO inicial se não encontrado
      */
     public static int getElo(UUID playerUuid) {
-        PlayerData data = CoreAPI.getPlayer(playerUuid);
-        return data != null ? data.getElo() : getInitialElo();
+        Integer elo = getPlugin().getEloStore().get(playerUuid);
+        return elo != null ? elo : getInitialElo();
+    }
+
+    /**
+     * ELO em memória (zero I/O) - para placeholders, scoreboards e main thread
+     * @param playerUuid UUID do player
+     * @return ELO atual ou ELO inicial se player não está carregado
+     */
+    public static int getCachedElo(UUID playerUuid) {
+        return getPlugin().getEloStore().getCached(playerUuid, getInitialElo());
     }
 
     private static int getKFactor() {
@@ -3,10 +3,13 @@ package com.primeleague.elo;
 import com.primeleague.core.CoreAPI;
 import com.primeleague.elo.commands.EloCommand;
 import com.primeleague.elo.integrations.EloPlaceholderExpansion;
+import com.primeleague.elo.listeners.EloStoreListener;
 import com.primeleague.elo.listeners.PvPListener;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -16,6 +19,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class EloPlugin extends JavaPlugin {
 
     private static EloPlugin instance;
+    private EloStore eloStore;
     private PvPListener pvpListener;
     private EloPlaceholderExpansion placeholderExpansion;
     private Map<String, TopCache> topCache;
@@ -39,6 +43,15 @@ public class EloPlugin extends JavaPlugin {
         topCache = new ConcurrentHashMap<>();
         topCacheDuration = getConfig().getLong("cache.top-elo-duration", 300) * 1000; // Converter para ms
 
+        // ELO dos players online em memória (reload: carregar quem já está online)
+        eloStore = new EloStore(this);
+        getServer().getPluginManager().registerEvents(new EloStoreListener(this), this);
+        for (Player online : getServer().getOnlinePlayers()) {
+            final UUID uuid = online.getUniqueId();
+            final String name = online.getName();
+            getServer().getScheduler().runTaskAsynchronously(this, () -> eloStore.load(uuid, name));
+        }
+
         // Registrar listener
         pvpListener = new PvPListener(this);
         getServer().getPluginManager().registerEvents(pvpListener, this);
@@ -75,6 +88,10 @@ public class EloPlugin extends JavaPlugin {
         return instance;
     }
 
+    public EloStore getEloStore() {
+        return eloStore;
+    }
+
     public PvPListener getPvPListener() {
         return pvpListener;
     }
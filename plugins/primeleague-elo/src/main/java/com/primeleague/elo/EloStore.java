@@ -0,0 +1,174 @@
+package com.primeleague.elo;
+
+import com.primeleague.core.CoreAPI;
+import com.primeleague.core.database.PlayerStore;
+import com.primeleague.core.models.PlayerData;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ELO dos players online em memória
+ * Grug Brain: Um int por player, carregado no join e descartado no quit.
+ * Leituras (placeholders, fila do X1) sem I/O e sem lock; escritas sob lock listrado por UUID.
+ *
+ * Persistência: PlayerStore do Core (bit ELO) - flush em lote só da coluna elo.
+ * Player offline ou fora do PlayerStore: SELECT/UPDATE só da coluna elo.
+ */
+public class EloStore {
+
+    // Potência de 2 (índice via máscara)
+    private static final int LOCK_STRIPES = 64;
+
+    private final EloPlugin plugin;
+    private final Map<UUID, Entry> online = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public EloStore(EloPlugin plugin) {
+        this.plugin = plugin;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private int stripe(UUID uuid) {
+        int h = uuid.hashCode();
+        return (h ^ (h >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    /**
+     * Lock de escrita do player (ler-calcular-gravar atômico)
+     */
+    public Object lockFor(UUID uuid) {
+        return locks[stripe(uuid)];
+    }
+
+    /**
+     * Locks de dois players em ordem fixa (menor índice primeiro) - sem deadlock
+     * @return [primeiro, segundo] (mesmo objeto se caírem na mesma listra)
+     */
+    public Object[] lockPair(UUID a, UUID b) {
+        int sa = stripe(a);
+        int sb = stripe(b);
+        return new Object[]{locks[Math.min(sa, sb)], locks[Math.max(sa, sb)]};
+    }
+
+    /**
+     * Carrega ELO do player (chamar async, no join)
+     * Grug Brain: Se o Core já carregou o PlayerData, reaproveita (sem query)
+     */
+    public void load(UUID uuid, String name) {
+        if (online.containsKey(uuid)) {
+            return; // Rejoin antes do unload
+        }
+        // Sob o lock do player: set() concorrente não é sobrescrito por leitura antiga
+        synchronized (lockFor(uuid)) {
+            Integer elo;
+            PlayerData cached = CoreAPI.getCachedPlayer(uuid);
+            if (cached != null) {
+                elo = cached.getElo();
+            } else {
+                elo = queryElo(uuid);
+            }
+            if (elo == null) {
+                return; // Conta ainda não existe - leituras usam ELO inicial
+            }
+            online.putIfAbsent(uuid, new Entry(name, elo));
+        }
+    }
+
+    /**
+     * Remove player da memória (no quit) - nada a gravar, o PlayerStore do Core já tem o valor
+     */
+    public void unload(UUID uuid) {
+        online.remove(uuid);
+    }
+
+    /**
+     * ELO em memória (zero I/O)
+     * @return ELO ou fallback se player não está carregado
+     */
+    public int getCached(UUID uuid, int fallback) {
+        Entry entry = online.get(uuid);
+        return entry != null ? entry.elo : fallback;
+    }
+
+    /**
+     * ELO do player: memória se online, senão só a coluna elo do banco
+     * @return ELO ou null se conta não existe
+     */
+    public Integer get(UUID uuid) {
+        Entry entry = online.get(uuid);
+        if (entry != null) {
+            return entry.elo;
+        }
+        return queryElo(uuid);
+    }
+
+    /**
+     * Nome para logs (memória se online, senão UUID)
+     */
+    public String getName(UUID uuid) {
+        Entry entry = online.get(uuid);
+        return entry != null ? entry.name : uuid.toString();
+    }
+
+    /**
+     * Grava ELO novo (chamar com lockFor/lockPair do player)
+     * Grug Brain: Memória na hora; banco via flush em lote do PlayerStore, ou UPDATE direto se offline
+     */
+    public void set(UUID uuid, int elo) {
+        Entry entry = online.get(uuid);
+        if (entry != null) {
+            entry.elo = elo;
+        }
+
+        if (CoreAPI.updatePlayer(uuid, PlayerStore.ELO, data -> data.setElo(elo)) != null) {
+            return;
+        }
+
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE users SET elo = ? WHERE uuid = ?")) {
+            stmt.setInt(1, elo);
+            stmt.setObject(2, uuid);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao gravar ELO de " + uuid + ": " + e.getMessage());
+        }
+    }
+
+    public int getOnlineCount() {
+        return online.size();
+    }
+
+    private Integer queryElo(UUID uuid) {
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT elo FROM users WHERE uuid = ?")) {
+            stmt.setObject(1, uuid);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("elo") : null;
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao buscar ELO de " + uuid + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * ELO de um player online (elo escrito só sob lock, lido sem lock)
+     */
+    private static class Entry {
+        final String name;
+        volatile int elo;
+
+        Entry(String name, int elo) {
+            this.name = name;
+            this.elo = elo;
+        }
+    }
+}
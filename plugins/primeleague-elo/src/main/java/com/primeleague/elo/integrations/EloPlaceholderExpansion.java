@@ -10,14 +10,21 @@ import java.util.*;
 
 /**
  * PlaceholderAPI Expansion para ELO
- * Grug Brain: Placeholders simples e diretos, queries sync
+ * Grug Brain: Placeholders simples e diretos, ELO da memória (zero I/O por render)
  * Fornece %elo_symbol% baseado em ranges configuráveis
  */
 public class EloPlaceholderExpansion extends PlaceholderExpansion {
 
+    // Tabela densa maior que isso (ranges com valores enormes) cai na busca linear
+    private static final int MAX_SYMBOL_TABLE_SIZE = 1 << 16;
+
     private final EloPlugin plugin;
     private List<EloRange> eloRanges;
 
+    // Símbolo pré-calculado por ELO: symbolTable[elo - symbolTableMin]
+    // Fora da tabela: abaixo = belowSymbol, acima = aboveSymbol
+    private volatile SymbolTable symbolTable;
+
     public EloPlaceholderExpansion(EloPlugin plugin) {
         this.plugin = plugin;
         loadEloRanges();
@@ -49,7 +56,7 @@ public class EloPlaceholderExpansion extends PlaceholderExpansion {
             return "";
         }
 
-        int elo = EloAPI.getElo(player.getUniqueId());
+        int elo = EloAPI.getCachedElo(player.getUniqueId());
 
         switch (identifier) {
             case "symbol":
@@ -65,9 +72,26 @@ public class EloPlaceholderExpansion extends PlaceholderExpansion {
 
     /**
      * Obtém símbolo baseado no ELO
-     * Grug Brain: Busca direta nos ranges, sem abstrações
+     * Grug Brain: Um acesso de array na tabela pré-calculada
      */
     private String getEloSymbol(int elo) {
+        SymbolTable table = symbolTable;
+        if (table == null) {
+            return findEloSymbol(elo);
+        }
+        if (elo < table.min) {
+            return table.belowSymbol;
+        }
+        if (elo - table.min >= table.symbols.length) {
+            return table.aboveSymbol;
+        }
+        return table.symbols[elo - table.min];
+    }
+
+    /**
+     * Busca linear nos ranges (monta a tabela e cobre configs sem tabela)
+     */
+    private String findEloSymbol(int elo) {
         if (eloRanges == null || eloRanges.isEmpty()) {
             return String.valueOf(elo); // Fallback para número se não houver ranges
         }
@@ -103,6 +127,7 @@ public class EloPlaceholderExpansion extends PlaceholderExpansion {
             eloRanges.add(new EloRange(1000, 1499, "§f●"));
             eloRanges.add(new EloRange(1500, 1999, "§a●"));
             eloRanges.add(new EloRange(2000, -1, "§b●"));
+            buildSymbolTable();
             return;
         }
 
@@ -123,9 +148,46 @@ public class EloPlaceholderExpansion extends PlaceholderExpansion {
         // Ordenar por min (maior primeiro para busca eficiente)
         eloRanges.sort((a, b) -> Integer.compare(b.getMin(), a.getMin()));
 
+        buildSymbolTable();
+
         plugin.getLogger().info("Carregados " + eloRanges.size() + " ranges de ELO");
     }
 
+    /**
+     * Pré-calcula símbolo de cada ELO entre o menor min e o maior limite dos ranges
+     * Grug Brain: Mesmo resultado da busca linear - a tabela é preenchida por ela
+     */
+    private void buildSymbolTable() {
+        if (eloRanges.isEmpty()) {
+            symbolTable = null;
+            return;
+        }
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (EloRange range : eloRanges) {
+            min = Math.min(min, range.getMin());
+            max = Math.max(max, range.getMin());
+            if (range.getMax() != -1) {
+                max = Math.max(max, range.getMax());
+            }
+        }
+
+        long size = (long) max - min + 1;
+        if (size <= 0 || size > MAX_SYMBOL_TABLE_SIZE) {
+            plugin.getLogger().warning("Ranges de ELO muito largos para tabela (" + size + ") - usando busca linear");
+            symbolTable = null;
+            return;
+        }
+
+        String[] symbols = new String[(int) size];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = findEloSymbol(min + i);
+        }
+        // Acima de max: só ranges sem máximo casam - igual para qualquer ELO > max
+        symbolTable = new SymbolTable(min, symbols, findEloSymbol(min - 1), findEloSymbol(max + 1));
+    }
+
     /**
      * Recarrega ranges do config (útil para reload)
      */
@@ -133,6 +195,23 @@ public class EloPlaceholderExpansion extends PlaceholderExpansion {
         loadEloRanges();
     }
 
+    /**
+     * Tabela imutável de símbolos (trocada inteira no reload)
+     */
+    private static class SymbolTable {
+        final int min;
+        final String[] symbols;
+        final String belowSymbol;
+        final String aboveSymbol;
+
+        SymbolTable(int min, String[] symbols, String belowSymbol, String aboveSymbol) {
+            this.min = min;
+            this.symbols = symbols;
+            this.belowSymbol = belowSymbol;
+            this.aboveSymbol = aboveSymbol;
+        }
+    }
+
     /**
      * Classe interna para range de ELO
      */
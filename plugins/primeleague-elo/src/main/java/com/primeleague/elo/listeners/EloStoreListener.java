@@ -0,0 +1,42 @@
+package com.primeleague.elo.listeners;
+
+import com.primeleague.elo.EloPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.UUID;
+
+/**
+ * Carrega/descarrega ELO dos players no EloStore
+ * Grug Brain: Load async no join, unload 1 tick depois do quit (se não voltou)
+ */
+public class EloStoreListener implements Listener {
+
+    private final EloPlugin plugin;
+
+    public EloStoreListener(EloPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+        final String name = event.getPlayer().getName();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> plugin.getEloStore().load(uuid, name));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+
+        // 1 tick depois: ELO de mortes/partidas no quit ainda usa a memória
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            if (plugin.getServer().getPlayer(uuid) == null) {
+                plugin.getEloStore().unload(uuid);
+            }
+        }, 1L);
+    }
+}
@@ -2,6 +2,10 @@ package com.primeleague.essentials;
 
 import com.primeleague.core.CoreAPI;
 import com.primeleague.essentials.database.DatabaseSetup;
+import com.primeleague.essentials.database.WriteBehindQueue;
+import com.primeleague.essentials.listeners.PlayerDataListener;
+import com.primeleague.essentials.managers.WarpManager;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
@@ -32,6 +36,10 @@ public class EssentialsPlugin extends JavaPlugin {
             return;
         }
 
+        // Warps em memória + fila write-behind (homes/warps/cooldowns nunca gravam no main thread)
+        WarpManager.getInstance().loadAll();
+        WriteBehindQueue.getInstance().start();
+
         // Registrar Comandos
         getCommand("tpa").setExecutor(new com.primeleague.essentials.commands.TpaCommand());
         getCommand("tpaccept").setExecutor(new com.primeleague.essentials.commands.TpAcceptCommand());
@@ -72,12 +80,21 @@ public class EssentialsPlugin extends JavaPlugin {
         // Registrar Listeners
         getServer().getPluginManager().registerEvents(new com.primeleague.essentials.listeners.SignListener(), this);
         getServer().getPluginManager().registerEvents(new com.primeleague.essentials.listeners.EssentialsListener(), this);
+        getServer().getPluginManager().registerEvents(new PlayerDataListener(), this);
+
+        // Reload: carregar homes/cooldowns de quem já está online
+        for (Player online : getServer().getOnlinePlayers()) {
+            final java.util.UUID uuid = online.getUniqueId();
+            getServer().getScheduler().runTaskAsynchronously(this, () -> PlayerDataListener.load(uuid));
+        }
 
         getLogger().info("PrimeleagueEssentials habilitado com sucesso!");
     }
 
     @Override
     public void onDisable() {
+        // Gravar alterações pendentes (sync - scheduler não roda mais depois do disable)
+        WriteBehindQueue.getInstance().stop();
         getLogger().info("PrimeleagueEssentials desabilitado.");
     }
 
@@ -23,6 +23,11 @@ public class DelHomeCommand implements CommandExecutor {
             homeName = args[0].toLowerCase();
         }
 
+        if (!HomeManager.getInstance().isLoaded(player.getUniqueId())) {
+            player.sendMessage(ChatColor.RED + "Suas homes ainda estão carregando, tente novamente.");
+            return true;
+        }
+
         if (HomeManager.getInstance().deleteHome(player.getUniqueId(), homeName)) {
             player.sendMessage(ChatColor.GREEN + "Home " + ChatColor.YELLOW + homeName + ChatColor.GREEN + " removida com sucesso.");
         } else {
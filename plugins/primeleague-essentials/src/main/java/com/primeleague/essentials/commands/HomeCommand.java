@@ -25,6 +25,11 @@ public class HomeCommand implements CommandExecutor {
             homeName = args[0].toLowerCase();
         }
 
+        if (!HomeManager.getInstance().isLoaded(player.getUniqueId())) {
+            player.sendMessage(ChatColor.RED + "Suas homes ainda estão carregando, tente novamente.");
+            return true;
+        }
+
         Location loc = HomeManager.getInstance().getHome(player.getUniqueId(), homeName);
         if (loc == null) {
             if (args.length == 0) {
@@ -19,6 +19,11 @@ public class HomesCommand implements CommandExecutor {
         }
 
         Player player = (Player) sender;
+        if (!HomeManager.getInstance().isLoaded(player.getUniqueId())) {
+            player.sendMessage(ChatColor.RED + "Suas homes ainda estão carregando, tente novamente.");
+            return true;
+        }
+
         List<String> homes = HomeManager.getInstance().getHomes(player.getUniqueId());
 
         if (homes.isEmpty()) {
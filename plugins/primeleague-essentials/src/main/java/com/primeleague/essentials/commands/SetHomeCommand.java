@@ -29,10 +29,15 @@ public class SetHomeCommand implements CommandExecutor {
         if (player.hasPermission("essentials.homes.mvp")) limit = 10;
         if (player.hasPermission("essentials.homes.unlimited")) limit = 100;
 
+        if (!HomeManager.getInstance().isLoaded(player.getUniqueId())) {
+            player.sendMessage(ChatColor.RED + "Suas homes ainda estão carregando, tente novamente.");
+            return true;
+        }
+
         int currentCount = HomeManager.getInstance().getHomeCount(player.getUniqueId());
         
         // Se já existe a home, é update, não conta pro limite
-        boolean exists = HomeManager.getInstance().getHome(player.getUniqueId(), homeName) != null;
+        boolean exists = HomeManager.getInstance().hasHome(player.getUniqueId(), homeName);
         
         if (!exists && currentCount >= limit) {
             player.sendMessage(ChatColor.RED + "Você atingiu o limite de homes (" + limit + ").");
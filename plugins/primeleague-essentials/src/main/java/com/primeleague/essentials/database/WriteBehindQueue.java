@@ -0,0 +1,173 @@
+package com.primeleague.essentials.database;
+
+import com.primeleague.core.CoreAPI;
+import com.primeleague.essentials.EssentialsPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Fila write-behind do Essentials (homes, warps, cooldowns de kit)
+ * Grug Brain: Comando altera a memória e enfileira o SQL; flush async periódico grava tudo
+ * com uma conexão, em ordem. Escritas seguidas com o mesmo SQL viram um batch.
+ *
+ * Banco fora (conexão, timeout, deadlock): nada é descartado, fila espera o banco voltar.
+ * Erro de dado (constraint, tipo): grupo roda linha a linha e só a linha ruim sai
+ * (upsert/delete - repetir as que já gravaram não muda nada).
+ */
+public class WriteBehindQueue {
+
+    private static WriteBehindQueue instance;
+
+    private final ConcurrentLinkedQueue<Write> pending = new ConcurrentLinkedQueue<>();
+    // Escritas de um flush que falhou - vão na frente no próximo (só acessado dentro do flush)
+    private final List<Write> retry = new ArrayList<>();
+    private BukkitTask flushTask;
+
+    private WriteBehindQueue() {}
+
+    public static WriteBehindQueue getInstance() {
+        if (instance == null) {
+            instance = new WriteBehindQueue();
+        }
+        return instance;
+    }
+
+    /**
+     * Inicia flush periódico async
+     */
+    public void start() {
+        EssentialsPlugin plugin = EssentialsPlugin.getInstance();
+        long intervalTicks = Math.max(1, plugin.getConfig().getInt("storage.flush-interval", 5)) * 20L;
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+            intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Para flush periódico e grava tudo (sync - usado no disable)
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        flush();
+    }
+
+    /**
+     * Enfileira escrita (qualquer thread, nunca bloqueia)
+     */
+    public void enqueue(String sql, Object... params) {
+        pending.add(new Write(sql, params));
+    }
+
+    /**
+     * Grava tudo que está na fila (async, ou sync no disable/pre-login)
+     * Grug Brain: synchronized = escritor único; quem chega durante um flush espera e grava o resto
+     * @return false se ficou escrita para o próximo flush (banco fora) - load não pode ler o banco ainda
+     */
+    public synchronized boolean flush() {
+        if (pending.isEmpty() && retry.isEmpty()) {
+            return true;
+        }
+
+        List<Write> batch = new ArrayList<>(retry);
+        retry.clear();
+        Write write;
+        while ((write = pending.poll()) != null) {
+            batch.add(write);
+        }
+
+        int start = 0;
+        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
+            while (start < batch.size()) {
+                // Grupo de escritas seguidas com o mesmo SQL (mantém a ordem entre grupos)
+                String sql = batch.get(start).sql;
+                int end = start;
+                while (end < batch.size() && batch.get(end).sql.equals(sql)) {
+                    end++;
+                }
+                try {
+                    execute(conn, batch, start, end);
+                } catch (SQLException e) {
+                    if (isTransient(e)) {
+                        throw e;
+                    }
+                    // Erro de dado: isolar linha a linha (transitório no meio sobe e para o flush)
+                    for (int i = start; i < end; i++) {
+                        try {
+                            execute(conn, batch, i, i + 1);
+                        } catch (SQLException rowError) {
+                            if (isTransient(rowError)) {
+                                start = i;
+                                throw rowError;
+                            }
+                            EssentialsPlugin.getInstance().getLogger().severe("Escrita do Essentials descartada (" +
+                                describe(batch.get(i)) + "): " + rowError.getMessage());
+                        }
+                    }
+                }
+                start = end;
+            }
+        } catch (SQLException e) {
+            // Banco fora: grupo que falhou e o resto voltam para o próximo flush (na mesma ordem, sem limite)
+            retry.addAll(batch.subList(start, batch.size()));
+            EssentialsPlugin.getInstance().getLogger().warning("Erro transitório ao gravar alterações do Essentials (" +
+                retry.size() + " para tentar de novo no próximo flush): " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private static void execute(Connection conn, List<Write> batch, int start, int end) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(batch.get(start).sql)) {
+            for (int i = start; i < end; i++) {
+                Object[] params = batch.get(i).params;
+                for (int p = 0; p < params.length; p++) {
+                    stmt.setObject(p + 1, params[p]);
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static String describe(Write write) {
+        StringBuilder sb = new StringBuilder(write.sql.split(" ", 2)[0]);
+        for (Object param : write.params) {
+            sb.append(' ').append(param);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Conexão caiu, timeout, deadlock, banco sobrecarregado/desligando = tentar de novo (mesma regra do EventIngestor)
+     */
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state == null || state.startsWith("08") || state.startsWith("40") ||
+            state.startsWith("53") || state.startsWith("57");
+    }
+
+    /**
+     * SQL + parâmetros de uma escrita
+     */
+    private static final class Write {
+        final String sql;
+        final Object[] params;
+
+        Write(String sql, Object[] params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.primeleague.essentials.listeners;
+
+import com.primeleague.essentials.EssentialsPlugin;
+import com.primeleague.essentials.managers.HomeManager;
+import com.primeleague.essentials.managers.KitManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.UUID;
+
+/**
+ * Homes e cooldowns de kit do player em memória
+ * Grug Brain: Carrega no pre-login (já é async - pronto antes do join), descarta no quit.
+ * Join só recarrega se o load do pre-login falhou.
+ */
+public class PlayerDataListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        load(event.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+        if (!HomeManager.getInstance().isLoaded(uuid) || !KitManager.getInstance().isCooldownsLoaded(uuid)) {
+            EssentialsPlugin plugin = EssentialsPlugin.getInstance();
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> load(uuid));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+        EssentialsPlugin plugin = EssentialsPlugin.getInstance();
+
+        // 1 tick depois: rejoin rápido já carregou de novo no pre-login
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            if (plugin.getServer().getPlayer(uuid) == null) {
+                HomeManager.getInstance().unload(uuid);
+                KitManager.getInstance().unloadCooldowns(uuid);
+            }
+        }, 1L);
+    }
+
+    /**
+     * Carrega dados do player (chamar async)
+     */
+    public static void load(UUID uuid) {
+        HomeManager.getInstance().load(uuid);
+        KitManager.getInstance().loadCooldowns(uuid);
+    }
+}
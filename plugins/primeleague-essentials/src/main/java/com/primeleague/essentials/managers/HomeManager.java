@@ -2,9 +2,9 @@ package com.primeleague.essentials.managers;
 
 import com.primeleague.core.CoreAPI;
 import com.primeleague.essentials.EssentialsPlugin;
-import org.bukkit.Bukkit;
+import com.primeleague.essentials.database.WriteBehindQueue;
+import com.primeleague.essentials.models.SavedLocation;
 import org.bukkit.Location;
-import org.bukkit.World;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,16 +12,29 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Gerenciador de Homes
- * Grug Brain: CRUD direto no banco via CoreAPI.
+ * Grug Brain: Homes do player carregadas async no login e servidas da memória.
+ * /home, /homes, /sethome e /delhome nunca tocam o banco no main thread - escrita vai pela WriteBehindQueue.
  */
 public class HomeManager {
 
     private static HomeManager instance;
 
+    private static final String UPSERT_SQL = "INSERT INTO user_homes (player_uuid, home_name, world_name, x, y, z, yaw, pitch) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (player_uuid, home_name) DO UPDATE SET " +
+            "world_name = EXCLUDED.world_name, x = EXCLUDED.x, y = EXCLUDED.y, z = EXCLUDED.z, " +
+            "yaw = EXCLUDED.yaw, pitch = EXCLUDED.pitch;";
+    private static final String DELETE_SQL = "DELETE FROM user_homes WHERE player_uuid = ? AND home_name = ?";
+
+    // Player UUID -> (nome da home -> local)
+    private final Map<UUID, Map<String, SavedLocation>> homes = new ConcurrentHashMap<>();
+
     private HomeManager() {}
 
     public static HomeManager getInstance() {
@@ -31,114 +44,103 @@ public class HomeManager {
         return instance;
     }
 
-    public boolean setHome(UUID playerUuid, String homeName, Location loc) {
-        String sql = "INSERT INTO user_homes (player_uuid, home_name, world_name, x, y, z, yaw, pitch) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON CONFLICT (player_uuid, home_name) DO UPDATE SET " +
-                "world_name = EXCLUDED.world_name, x = EXCLUDED.x, y = EXCLUDED.y, z = EXCLUDED.z, " +
-                "yaw = EXCLUDED.yaw, pitch = EXCLUDED.pitch;";
-
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setObject(1, playerUuid);
-            stmt.setString(2, homeName.toLowerCase());
-            stmt.setString(3, loc.getWorld().getName());
-            stmt.setDouble(4, loc.getX());
-            stmt.setDouble(5, loc.getY());
-            stmt.setDouble(6, loc.getZ());
-            stmt.setFloat(7, loc.getYaw());
-            stmt.setFloat(8, loc.getPitch());
-            
-            stmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            EssentialsPlugin.getInstance().getLogger().severe("Erro ao setar home: " + e.getMessage());
-            return false;
+    /**
+     * Carrega homes do player (chamar async - pre-login ou enable)
+     * Grug Brain: Grava a fila antes do SELECT - alteração de uma sessão anterior ainda pendente não some.
+     * Fila não esvaziou (banco fora) = load falhou (SELECT leria sem as pendentes); join tenta de novo.
+     */
+    public void load(UUID playerUuid) {
+        if (!WriteBehindQueue.getInstance().flush()) {
+            EssentialsPlugin.getInstance().getLogger().warning("Homes de " + playerUuid +
+                " não carregadas: escritas pendentes não gravaram");
+            return;
         }
-    }
 
-    public boolean deleteHome(UUID playerUuid, String homeName) {
-        String sql = "DELETE FROM user_homes WHERE player_uuid = ? AND home_name = ?";
+        Map<String, SavedLocation> loaded = new ConcurrentHashMap<>();
+        String sql = "SELECT home_name, world_name, x, y, z, yaw, pitch FROM user_homes WHERE player_uuid = ?";
 
         try (Connection conn = CoreAPI.getDatabase().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setObject(1, playerUuid);
-            stmt.setString(2, homeName.toLowerCase());
-            
-            int rows = stmt.executeUpdate();
-            return rows > 0;
-        } catch (SQLException e) {
-            EssentialsPlugin.getInstance().getLogger().severe("Erro ao deletar home: " + e.getMessage());
-            return false;
-        }
-    }
 
-    public Location getHome(UUID playerUuid, String homeName) {
-        String sql = "SELECT world_name, x, y, z, yaw, pitch FROM user_homes WHERE player_uuid = ? AND home_name = ?";
-
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
             stmt.setObject(1, playerUuid);
-            stmt.setString(2, homeName.toLowerCase());
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    String worldName = rs.getString("world_name");
-                    World world = Bukkit.getWorld(worldName);
-                    if (world == null) return null;
 
-                    return new Location(
-                            world,
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loaded.put(rs.getString("home_name"), new SavedLocation(
+                            rs.getString("world_name"),
                             rs.getDouble("x"),
                             rs.getDouble("y"),
                             rs.getDouble("z"),
                             rs.getFloat("yaw"),
                             rs.getFloat("pitch")
-                    );
+                    ));
                 }
             }
+            homes.put(playerUuid, loaded);
         } catch (SQLException e) {
-            EssentialsPlugin.getInstance().getLogger().severe("Erro ao buscar home: " + e.getMessage());
+            EssentialsPlugin.getInstance().getLogger().severe("Erro ao carregar homes: " + e.getMessage());
         }
-        return null;
     }
 
-    public List<String> getHomes(UUID playerUuid) {
-        List<String> homes = new ArrayList<>();
-        String sql = "SELECT home_name FROM user_homes WHERE player_uuid = ?";
+    /**
+     * Descarta homes do player (quit) - escritas pendentes continuam na fila
+     */
+    public void unload(UUID playerUuid) {
+        homes.remove(playerUuid);
+    }
 
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setObject(1, playerUuid);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    homes.add(rs.getString("home_name"));
-                }
-            }
-        } catch (SQLException e) {
-            EssentialsPlugin.getInstance().getLogger().severe("Erro ao listar homes: " + e.getMessage());
-        }
-        return homes;
+    /**
+     * Homes do player já estão em memória (false = load do login falhou ou ainda não terminou)
+     */
+    public boolean isLoaded(UUID playerUuid) {
+        return homes.containsKey(playerUuid);
+    }
+
+    public boolean setHome(UUID playerUuid, String homeName, Location loc) {
+        Map<String, SavedLocation> playerHomes = homes.get(playerUuid);
+        if (playerHomes == null) return false;
+
+        SavedLocation saved = SavedLocation.of(loc);
+        String name = homeName.toLowerCase();
+        playerHomes.put(name, saved);
+        WriteBehindQueue.getInstance().enqueue(UPSERT_SQL, playerUuid, name, saved.getWorldName(),
+                saved.getX(), saved.getY(), saved.getZ(), saved.getYaw(), saved.getPitch());
+        return true;
+    }
+
+    public boolean deleteHome(UUID playerUuid, String homeName) {
+        Map<String, SavedLocation> playerHomes = homes.get(playerUuid);
+        if (playerHomes == null) return false;
+
+        String name = homeName.toLowerCase();
+        if (playerHomes.remove(name) == null) return false;
+        WriteBehindQueue.getInstance().enqueue(DELETE_SQL, playerUuid, name);
+        return true;
+    }
+
+    /**
+     * @return Local da home ou null (não existe, mundo não carregado ou homes não carregadas)
+     */
+    public Location getHome(UUID playerUuid, String homeName) {
+        Map<String, SavedLocation> playerHomes = homes.get(playerUuid);
+        if (playerHomes == null) return null;
+
+        SavedLocation saved = playerHomes.get(homeName.toLowerCase());
+        return saved != null ? saved.toLocation() : null;
     }
-    
+
+    public boolean hasHome(UUID playerUuid, String homeName) {
+        Map<String, SavedLocation> playerHomes = homes.get(playerUuid);
+        return playerHomes != null && playerHomes.containsKey(homeName.toLowerCase());
+    }
+
+    public List<String> getHomes(UUID playerUuid) {
+        Map<String, SavedLocation> playerHomes = homes.get(playerUuid);
+        return playerHomes != null ? new ArrayList<>(playerHomes.keySet()) : new ArrayList<>();
+    }
+
     public int getHomeCount(UUID playerUuid) {
-        String sql = "SELECT COUNT(*) as count FROM user_homes WHERE player_uuid = ?";
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setObject(1, playerUuid);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("count");
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        Map<String, SavedLocation> playerHomes = homes.get(playerUuid);
+        return playerHomes != null ? playerHomes.size() : 0;
     }
 }
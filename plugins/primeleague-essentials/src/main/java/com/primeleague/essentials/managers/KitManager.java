@@ -2,6 +2,7 @@ package com.primeleague.essentials.managers;
 
 import com.primeleague.core.CoreAPI;
 import com.primeleague.essentials.EssentialsPlugin;
+import com.primeleague.essentials.database.WriteBehindQueue;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -17,9 +18,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class KitManager {
 
@@ -27,6 +31,12 @@ public class KitManager {
     private File kitsFile;
     private FileConfiguration kitsConfig;
 
+    private static final String COOLDOWN_UPSERT_SQL = "INSERT INTO user_kit_cooldowns (player_uuid, kit_name, last_used) VALUES (?, ?, ?) " +
+            "ON CONFLICT (player_uuid, kit_name) DO UPDATE SET last_used = EXCLUDED.last_used";
+
+    // Player UUID -> (kit -> último uso em ms), carregado async no login
+    private final Map<UUID, Map<String, Long>> cooldowns = new ConcurrentHashMap<>();
+
     private KitManager() {
         kitsFile = new File(EssentialsPlugin.getInstance().getDataFolder(), "kits.yml");
         if (!kitsFile.exists()) {
@@ -77,6 +87,10 @@ public class KitManager {
         // Verificar cooldown
         long delay = kitsConfig.getLong(path + ".delay");
         if (delay > 0) {
+            if (!cooldowns.containsKey(player.getUniqueId())) {
+                player.sendMessage(ChatColor.RED + "Seus dados ainda estão carregando, tente novamente.");
+                return true;
+            }
             long lastUsed = getLastUsed(player.getUniqueId(), kitName);
             long nextUse = lastUsed + (delay * 1000);
             if (System.currentTimeMillis() < nextUse) {
@@ -134,34 +148,63 @@ public class KitManager {
         }
     }
 
-    // Database Cooldowns
-    private long getLastUsed(UUID playerUuid, String kitName) {
-        String sql = "SELECT last_used FROM user_kit_cooldowns WHERE player_uuid = ? AND kit_name = ?";
+    // Cooldowns em memória (write-behind)
+    // Grug Brain: Carregados async no login; /kit só lê o map, gravação vai pela WriteBehindQueue
+
+    /**
+     * Carrega cooldowns do player (chamar async - pre-login ou enable)
+     * Grug Brain: Fila não esvaziou (banco fora) = load falhou, igual HomeManager.load
+     */
+    public void loadCooldowns(UUID playerUuid) {
+        if (!WriteBehindQueue.getInstance().flush()) {
+            EssentialsPlugin.getInstance().getLogger().warning("Cooldowns de kit de " + playerUuid +
+                " não carregados: escritas pendentes não gravaram");
+            return;
+        }
+
+        Map<String, Long> loaded = new ConcurrentHashMap<>();
+        String sql = "SELECT kit_name, last_used FROM user_kit_cooldowns WHERE player_uuid = ?";
         try (Connection conn = CoreAPI.getDatabase().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setObject(1, playerUuid);
-            stmt.setString(2, kitName.toLowerCase());
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getTimestamp("last_used").getTime();
+                while (rs.next()) {
+                    loaded.put(rs.getString("kit_name"), rs.getTimestamp("last_used").getTime());
                 }
             }
+            cooldowns.put(playerUuid, loaded);
         } catch (SQLException e) {
-            e.printStackTrace();
+            EssentialsPlugin.getInstance().getLogger().severe("Erro ao carregar cooldowns de kit: " + e.getMessage());
         }
-        return 0;
+    }
+
+    /**
+     * Cooldowns do player já estão em memória (false = load do login falhou ou ainda não terminou)
+     */
+    public boolean isCooldownsLoaded(UUID playerUuid) {
+        return cooldowns.containsKey(playerUuid);
+    }
+
+    /**
+     * Descarta cooldowns do player (quit) - escritas pendentes continuam na fila
+     */
+    public void unloadCooldowns(UUID playerUuid) {
+        cooldowns.remove(playerUuid);
+    }
+
+    private long getLastUsed(UUID playerUuid, String kitName) {
+        Map<String, Long> playerCooldowns = cooldowns.get(playerUuid);
+        if (playerCooldowns == null) return 0;
+        Long lastUsed = playerCooldowns.get(kitName.toLowerCase());
+        return lastUsed != null ? lastUsed : 0;
     }
 
     private void setLastUsed(UUID playerUuid, String kitName) {
-        String sql = "INSERT INTO user_kit_cooldowns (player_uuid, kit_name, last_used) VALUES (?, ?, CURRENT_TIMESTAMP) " +
-                "ON CONFLICT (player_uuid, kit_name) DO UPDATE SET last_used = CURRENT_TIMESTAMP";
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setObject(1, playerUuid);
-            stmt.setString(2, kitName.toLowerCase());
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        Map<String, Long> playerCooldowns = cooldowns.get(playerUuid);
+        if (playerCooldowns == null) return;
+        long now = System.currentTimeMillis();
+        String name = kitName.toLowerCase();
+        playerCooldowns.put(name, now);
+        WriteBehindQueue.getInstance().enqueue(COOLDOWN_UPSERT_SQL, playerUuid, name, new Timestamp(now));
     }
 }
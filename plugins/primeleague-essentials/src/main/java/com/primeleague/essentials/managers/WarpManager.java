@@ -2,9 +2,9 @@ package com.primeleague.essentials.managers;
 
 import com.primeleague.core.CoreAPI;
 import com.primeleague.essentials.EssentialsPlugin;
-import org.bukkit.Bukkit;
+import com.primeleague.essentials.database.WriteBehindQueue;
+import com.primeleague.essentials.models.SavedLocation;
 import org.bukkit.Location;
-import org.bukkit.World;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,11 +12,27 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Gerenciador de Warps
+ * Grug Brain: Todas as warps carregadas no enable e servidas da memória (são poucas, todo mundo usa).
+ * Escrita vai pela WriteBehindQueue.
+ */
 public class WarpManager {
 
     private static WarpManager instance;
 
+    private static final String UPSERT_SQL = "INSERT INTO warps (name, world_name, x, y, z, yaw, pitch, permission) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (name) DO UPDATE SET " +
+            "world_name = EXCLUDED.world_name, x = EXCLUDED.x, y = EXCLUDED.y, z = EXCLUDED.z, " +
+            "yaw = EXCLUDED.yaw, pitch = EXCLUDED.pitch, permission = EXCLUDED.permission;";
+    private static final String DELETE_SQL = "DELETE FROM warps WHERE name = ?";
+
+    private final Map<String, SavedLocation> warps = new ConcurrentHashMap<>();
+
     private WarpManager() {}
 
     public static WarpManager getInstance() {
@@ -26,94 +42,58 @@ public class WarpManager {
         return instance;
     }
 
-    public boolean setWarp(String name, Location loc, String permission) {
-        String sql = "INSERT INTO warps (name, world_name, x, y, z, yaw, pitch, permission) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON CONFLICT (name) DO UPDATE SET " +
-                "world_name = EXCLUDED.world_name, x = EXCLUDED.x, y = EXCLUDED.y, z = EXCLUDED.z, " +
-                "yaw = EXCLUDED.yaw, pitch = EXCLUDED.pitch, permission = EXCLUDED.permission;";
+    /**
+     * Carrega todas as warps (enable)
+     */
+    public void loadAll() {
+        String sql = "SELECT name, world_name, x, y, z, yaw, pitch FROM warps";
 
         try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, name.toLowerCase());
-            stmt.setString(2, loc.getWorld().getName());
-            stmt.setDouble(3, loc.getX());
-            stmt.setDouble(4, loc.getY());
-            stmt.setDouble(5, loc.getZ());
-            stmt.setFloat(6, loc.getYaw());
-            stmt.setFloat(7, loc.getPitch());
-            stmt.setString(8, permission);
-            
-            stmt.executeUpdate();
-            return true;
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            warps.clear();
+            while (rs.next()) {
+                warps.put(rs.getString("name"), new SavedLocation(
+                        rs.getString("world_name"),
+                        rs.getDouble("x"),
+                        rs.getDouble("y"),
+                        rs.getDouble("z"),
+                        rs.getFloat("yaw"),
+                        rs.getFloat("pitch")
+                ));
+            }
+            EssentialsPlugin.getInstance().getLogger().info(warps.size() + " warps carregadas");
         } catch (SQLException e) {
-            EssentialsPlugin.getInstance().getLogger().severe("Erro ao setar warp: " + e.getMessage());
-            return false;
+            EssentialsPlugin.getInstance().getLogger().severe("Erro ao carregar warps: " + e.getMessage());
         }
     }
 
-    public boolean deleteWarp(String name) {
-        String sql = "DELETE FROM warps WHERE name = ?";
+    public boolean setWarp(String name, Location loc, String permission) {
+        SavedLocation saved = SavedLocation.of(loc);
+        String warpName = name.toLowerCase();
+        warps.put(warpName, saved);
+        WriteBehindQueue.getInstance().enqueue(UPSERT_SQL, warpName, saved.getWorldName(),
+                saved.getX(), saved.getY(), saved.getZ(), saved.getYaw(), saved.getPitch(), permission);
+        return true;
+    }
 
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, name.toLowerCase());
-            
-            int rows = stmt.executeUpdate();
-            return rows > 0;
-        } catch (SQLException e) {
-            EssentialsPlugin.getInstance().getLogger().severe("Erro ao deletar warp: " + e.getMessage());
-            return false;
-        }
+    public boolean deleteWarp(String name) {
+        String warpName = name.toLowerCase();
+        if (warps.remove(warpName) == null) return false;
+        WriteBehindQueue.getInstance().enqueue(DELETE_SQL, warpName);
+        return true;
     }
 
+    /**
+     * @return Local da warp ou null (não existe ou mundo não carregado)
+     */
     public Location getWarp(String name) {
-        String sql = "SELECT world_name, x, y, z, yaw, pitch FROM warps WHERE name = ?";
-
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, name.toLowerCase());
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    String worldName = rs.getString("world_name");
-                    World world = Bukkit.getWorld(worldName);
-                    if (world == null) return null;
-
-                    return new Location(
-                            world,
-                            rs.getDouble("x"),
-                            rs.getDouble("y"),
-                            rs.getDouble("z"),
-                            rs.getFloat("yaw"),
-                            rs.getFloat("pitch")
-                    );
-                }
-            }
-        } catch (SQLException e) {
-            EssentialsPlugin.getInstance().getLogger().severe("Erro ao buscar warp: " + e.getMessage());
-        }
-        return null;
+        SavedLocation saved = warps.get(name.toLowerCase());
+        return saved != null ? saved.toLocation() : null;
     }
 
     public List<String> getWarps() {
-        List<String> warps = new ArrayList<>();
-        String sql = "SELECT name FROM warps";
-
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    warps.add(rs.getString("name"));
-                }
-            }
-        } catch (SQLException e) {
-            EssentialsPlugin.getInstance().getLogger().severe("Erro ao listar warps: " + e.getMessage());
-        }
-        return warps;
+        return new ArrayList<>(warps.keySet());
     }
 }
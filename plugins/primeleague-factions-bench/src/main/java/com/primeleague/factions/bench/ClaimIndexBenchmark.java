@@ -0,0 +1,148 @@
+package com.primeleague.factions.bench;
+
+import com.primeleague.factions.util.ChunkKey;
+import com.primeleague.factions.util.ClaimIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getClanAt: ClaimIndex (long empacotado, sem alocação) x claimCache antigo (ConcurrentHashMap<ChunkKey, Integer>)
+ * Grug Brain: Mesmos claims nos dois lados (inclusive unclaims - tombstones no índice); setup confere que
+ * toda consulta dá o mesmo clan antes de medir. Metade das consultas cai em chunk livre (movimento no mapa).
+ *
+ * legacy = claimCache.getOrDefault(new ChunkKey(world, x, z), -1), como o ClaimManager fazia
+ * index = claimIndex.get(world, x, z)
+ *
+ * Rodar (ns/op + bytes/op em gc.alloc.rate.norm):
+ *   mvn -f plugins/primeleague-factions install
+ *   mvn -f plugins/primeleague-factions-bench package
+ *   java -jar plugins/primeleague-factions-bench/target/benchmarks.jar -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClaimIndexBenchmark {
+
+    private static final String[] WORLDS = {"world", "world_nether"};
+    private static final int SAMPLES = 4096; // Potência de 2 (índice via máscara)
+    private static final int RANGE = 2000;   // Chunks ±2000 (mapa de ~64k blocos)
+
+    @Param({"1000", "10000", "100000"})
+    public int claims;
+
+    private final Map<ChunkKey, Integer> claimCache = new ConcurrentHashMap<>();
+    private final ClaimIndex claimIndex = new ClaimIndex();
+    private final String[] worlds = new String[SAMPLES];
+    private final int[] xs = new int[SAMPLES];
+    private final int[] zs = new int[SAMPLES];
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(5);
+        List<ChunkKey> claimed = new ArrayList<>(claims);
+        // Claims em blocos de até 5x5 chunks (base de clan), 90% no overworld
+        while (claimed.size() < claims) {
+            String world = random.nextInt(10) == 0 ? WORLDS[1] : WORLDS[0];
+            int baseX = random.nextInt(RANGE * 2) - RANGE;
+            int baseZ = random.nextInt(RANGE * 2) - RANGE;
+            int clanId = 1 + random.nextInt(Math.max(1, claims / 10));
+            int side = 1 + random.nextInt(5);
+            for (int dx = 0; dx < side && claimed.size() < claims; dx++) {
+                for (int dz = 0; dz < side && claimed.size() < claims; dz++) {
+                    ChunkKey key = new ChunkKey(world, baseX + dx, baseZ + dz);
+                    if (claimCache.putIfAbsent(key, clanId) == null) {
+                        claimIndex.putIfAbsent(world, key.getX(), key.getZ(), clanId);
+                        claimed.add(key);
+                    }
+                }
+            }
+        }
+
+        // 10% de unclaim (deixa tombstones no índice, como no servidor)
+        for (int i = 0; i < claims / 10; i++) {
+            ChunkKey key = claimed.get(random.nextInt(claimed.size()));
+            claimCache.remove(key);
+            claimIndex.remove(key.getWorld(), key.getX(), key.getZ());
+        }
+
+        for (int i = 0; i < SAMPLES; i++) {
+            if (random.nextBoolean()) {
+                ChunkKey key = claimed.get(random.nextInt(claimed.size()));
+                worlds[i] = key.getWorld();
+                xs[i] = key.getX();
+                zs[i] = key.getZ();
+            } else {
+                worlds[i] = WORLDS[random.nextInt(WORLDS.length)];
+                xs[i] = random.nextInt(RANGE * 2) - RANGE;
+                zs[i] = random.nextInt(RANGE * 2) - RANGE;
+            }
+        }
+
+        verifyEquivalence();
+    }
+
+    /**
+     * Índice tem que devolver o mesmo clan que o map antigo (amostras + todo claim + mundo desconhecido)
+     */
+    private void verifyEquivalence() {
+        for (int i = 0; i < SAMPLES; i++) {
+            check(worlds[i], xs[i], zs[i]);
+        }
+        for (ChunkKey key : claimCache.keySet()) {
+            check(key.getWorld(), key.getX(), key.getZ());
+        }
+        check("world_the_end", 0, 0);
+        if (claimIndex.size() != claimCache.size()) {
+            throw new IllegalStateException("Tamanho diverge: antigo " + claimCache.size() + ", novo " +
+                claimIndex.size());
+        }
+    }
+
+    private void check(String world, int x, int z) {
+        int legacy = claimCache.getOrDefault(new ChunkKey(world, x, z), -1);
+        int current = claimIndex.get(world, x, z);
+        if (legacy != current) {
+            throw new IllegalStateException("Chunk " + world + " " + x + "," + z + " diverge (antigo " + legacy +
+                ", novo " + current + ")");
+        }
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1) & (SAMPLES - 1);
+        return i;
+    }
+
+    @Benchmark
+    public int legacy() {
+        int i = next();
+        return claimCache.getOrDefault(new ChunkKey(worlds[i], xs[i], zs[i]), -1);
+    }
+
+    @Benchmark
+    public int index() {
+        int i = next();
+        return claimIndex.get(worlds[i], xs[i], zs[i]);
+    }
+}
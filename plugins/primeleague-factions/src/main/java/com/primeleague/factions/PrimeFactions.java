@@ -1,6 +1,7 @@
 package com.primeleague.factions;
 
 import com.primeleague.clans.ClansPlugin;
+import com.primeleague.clans.models.ClanData;
 import com.primeleague.core.CoreAPI;
 import com.primeleague.factions.command.FactionsCommand;
 import com.primeleague.factions.integrations.DiscordIntegration;
@@ -13,12 +14,18 @@ import com.primeleague.factions.manager.FlyManager;
 import com.primeleague.factions.manager.PowerManager;
 import com.primeleague.factions.manager.ShieldManager;
 import com.primeleague.factions.manager.UpgradeManager;
+import com.primeleague.factions.util.ActionBarCompat;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -79,6 +86,7 @@ public class PrimeFactions extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new com.primeleague.factions.listener.UpgradeGUIListener(this), this);
         getServer().getPluginManager().registerEvents(new com.primeleague.factions.listener.UpgradeEffectListener(this), this);
         getServer().getPluginManager().registerEvents(new com.primeleague.factions.listener.ConfirmationCleanupListener(this), this);
+        getServer().getPluginManager().registerEvents(new com.primeleague.factions.listener.ClanChangeListener(this), this);
 
         // 6. Register Commands
         this.factionsCommand = new FactionsCommand(this);
@@ -97,11 +105,8 @@ public class PrimeFactions extends JavaPlugin {
         // 8. Task periódica: Remover chunks quando power total fica negativo
         startPowerNegativeCheckTask();
 
-        // 9. Task: ActionBar quando shield < 12h + notificação quando zera
-        startShieldDisplayTask();
-
-        // 10. Task: HUD contextual (Fase 2)
-        startHudTask();
+        // 9. Task: ActionBar (shield < 12h + HUD contextual) + notificação quando shield zera
+        startActionBarTask();
 
         getLogger().info("PrimeleagueFactions (Legendary Edition) habilitado!");
     }
@@ -118,6 +123,11 @@ public class PrimeFactions extends JavaPlugin {
             claimManager.saveSoloBuilds();
         }
 
+        // Gravar power pendente (flush em lote)
+        if (powerManager != null) {
+            powerManager.shutdown();
+        }
+
         getLogger().info("PrimeleagueFactions desabilitado.");
     }
 
@@ -240,20 +250,16 @@ public class PrimeFactions extends JavaPlugin {
             public void run() {
                 // Executar async para não bloquear main thread
                 getServer().getScheduler().runTaskAsynchronously(PrimeFactions.this, () -> {
-                    // Buscar todos os clãs com claims (usar método público)
-                    java.util.Set<Integer> clansWithClaims = new java.util.HashSet<>();
-                    for (java.util.Map.Entry<com.primeleague.factions.util.ChunkKey, Integer> entry :
-                         claimManager.getClaimCache().entrySet()) {
-                        clansWithClaims.add(entry.getValue());
-                    }
-
-                    // Verificar power de cada clã
-                    for (int clanId : clansWithClaims) {
+                    // Só clãs com power negativo (soma incremental), do mais negativo para o menos
+                    for (int clanId : powerManager.getNegativePowerClans()) {
                         double totalPower = powerManager.getClanTotalPower(clanId);
 
                         // Se power total é negativo, calcular quantos chunks devem ser removidos
                         if (totalPower < 0) {
                             int currentClaims = claimManager.getClaimCount(clanId);
+                            if (currentClaims == 0) {
+                                continue; // Sem território para perder
+                            }
                             int maxClaims = (int) (totalPower / 10.0); // Pode ser negativo
 
                             // Se maxClaims é negativo ou zero, remover todos os chunks
@@ -286,11 +292,12 @@ public class PrimeFactions extends JavaPlugin {
                                     java.util.List<com.primeleague.factions.util.ChunkKey> chunksToRemove =
                                         new java.util.ArrayList<>();
 
-                                    for (java.util.Map.Entry<com.primeleague.factions.util.ChunkKey, Integer> entry :
-                                         claimManager.getClaimCache().entrySet()) {
-                                        if (entry.getValue() == clanId && chunksToRemove.size() < toRemove) {
-                                            chunksToRemove.add(entry.getKey());
+                                    for (com.primeleague.factions.util.ChunkKey key :
+                                         claimManager.getClanClaims(clanId)) {
+                                        if (chunksToRemove.size() >= toRemove) {
+                                            break;
                                         }
+                                        chunksToRemove.add(key);
                                     }
 
                                     // Remover chunks
@@ -325,46 +332,69 @@ public class PrimeFactions extends JavaPlugin {
     }
 
     /**
-     * Task: Mostra ActionBar quando shield < 12h (crítico)
-     * Grug Brain: Tela limpa 95% do tempo, alerta quando importa
+     * Task: ActionBar a cada segundo - HUD contextual (quem ativou) ou alerta de shield < 12h
+     * Grug Brain: Tela limpa 95% do tempo, alerta quando importa.
+     * Shield calculado uma vez por clã (um lock no ShieldManager por tick), depois espalha para os membros.
+     * Packet só é remontado quando o texto do player muda (ActionBarCompat.Line).
      */
-    private void startShieldDisplayTask() {
+    private void startActionBarTask() {
         new BukkitRunnable() {
+            private final Map<UUID, ActionBarCompat.Line> lines = new HashMap<>();
+
             @Override
             public void run() {
-                for (org.bukkit.entity.Player player : getServer().getOnlinePlayers()) {
-                    com.primeleague.clans.models.ClanData clan =
-                        getClansPlugin().getClansManager().getClanByMember(player.getUniqueId());
-                    if (clan == null) continue;
-
-                    long remaining = shieldManager.getRemainingMinutes(clan.getId());
-
-                    // ActionBar só aparece se shield < 12h (crítico)
-                    if (remaining > 0 && remaining < 720) { // < 12h
-                        String shieldText = shieldManager.formatRemaining(clan.getId());
-
-                        // Cor vermelha se < 6h, amarela se < 12h
-                        String color = remaining < 360 ? "§c" : "§e";
-
-                        // Paper 1.8.8: usar ActionBarCompat (NMS v1_8_R3)
-                        com.primeleague.factions.util.ActionBarCompat.send(
-                            player, color + "🛡 Shield: " + shieldText
-                        );
+                long now = System.currentTimeMillis();
+
+                // Agrupar players online por clã (0 = sem clã)
+                Map<Integer, List<Player>> byClan = new HashMap<>();
+                Map<Integer, ClanData> clans = new HashMap<>();
+                for (Player player : getServer().getOnlinePlayers()) {
+                    ClanData clan = getClansPlugin().getClansManager().getClanByMember(player.getUniqueId());
+                    int clanId = clan != null ? clan.getId() : 0;
+                    if (clan != null) {
+                        clans.put(clanId, clan);
                     }
+                    byClan.computeIfAbsent(clanId, k -> new ArrayList<>()).add(player);
+                }
+                lines.keySet().removeIf(uuid -> getServer().getPlayer(uuid) == null);
+
+                Map<Integer, ShieldManager.ShieldState> shields = shieldManager.getStates(clans.keySet());
+                for (Map.Entry<Integer, List<Player>> entry : byClan.entrySet()) {
+                    int clanId = entry.getKey();
+                    ClanData clan = clans.get(clanId);
+                    ShieldManager.ShieldState shield = shields.get(clanId);
+
+                    // Cor vermelha se < 6h, amarela se < 12h
+                    String alert = shield != null && shield.isCritical()
+                        ? shield.getColor() + "🛡 Shield: " + shield.getFormatted() : null;
+                    // Notificar quando shield acaba (uma vez por clã, não spam)
+                    boolean notifyExpired = shield != null && shield.isExpired() && !shieldManager.wasNotified(clanId);
+
+                    for (Player player : entry.getValue()) {
+                        UUID uuid = player.getUniqueId();
+                        String text = isHudEnabled(uuid) && factionsCommand != null
+                            ? factionsCommand.buildHudText(player, clan, shield) : alert;
+                        if (text != null) {
+                            lines.computeIfAbsent(uuid, k -> new ActionBarCompat.Line()).show(player, text, now);
+                        } else {
+                            lines.remove(uuid);
+                        }
 
-                    // Notificar quando shield acaba (uma vez, não spam)
-                    if (remaining == 0 && !shieldManager.wasNotified(clan.getId())) {
-                        player.sendMessage("§c⚠ Shield acabou! Raids liberados!");
-                        // Paper 1.8.8: sendTitle via reflection (não aceita parâmetros de tempo)
-                        try {
-                            player.getClass().getMethod("sendTitle", String.class, String.class)
-                                .invoke(player, "§c⚠", "§4Shield Zerado");
-                        } catch (Exception ignored) {
-                            // Fallback: apenas mensagem no chat
+                        if (notifyExpired) {
+                            player.sendMessage("§c⚠ Shield acabou! Raids liberados!");
+                            // Paper 1.8.8: sendTitle via reflection (não aceita parâmetros de tempo)
+                            try {
+                                player.getClass().getMethod("sendTitle", String.class, String.class)
+                                    .invoke(player, "§c⚠", "§4Shield Zerado");
+                            } catch (Exception ignored) {
+                                // Fallback: apenas mensagem no chat
+                            }
+                            player.playSound(player.getLocation(),
+                                org.bukkit.Sound.WITHER_DEATH, 0.5f, 1.0f);
                         }
-                        player.playSound(player.getLocation(),
-                            org.bukkit.Sound.WITHER_DEATH, 0.5f, 1.0f);
-                        shieldManager.markNotified(clan.getId());
+                    }
+                    if (notifyExpired) {
+                        shieldManager.markNotified(clanId);
                     }
                 }
             }
@@ -387,24 +417,4 @@ public class PrimeFactions extends JavaPlugin {
     public boolean isHudEnabled(UUID playerUuid) {
         return hudEnabled.getOrDefault(playerUuid, false);
     }
-
-    /**
-     * Task: Atualiza ActionBar HUD para players com HUD ativado
-     * Grug Brain: Atualiza apenas players que têm HUD ativado (evita spam)
-     */
-    private void startHudTask() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                for (org.bukkit.entity.Player player : getServer().getOnlinePlayers()) {
-                    if (isHudEnabled(player.getUniqueId())) {
-                        // Atualizar HUD via FactionsCommand
-                        if (factionsCommand != null) {
-                            factionsCommand.updateHudForPlayer(player);
-                        }
-                    }
-                }
-            }
-        }.runTaskTimer(this, 20L, 20L); // A cada segundo
-    }
 }
@@ -582,34 +582,41 @@ public class FactionsCommand implements CommandExecutor {
     }
 
     /**
-     * Atualiza HUD para um player específico (chamado pela task periódica)
+     * Atualiza HUD para um player específico (feedback imediato do toggle)
      */
     public void updateHudForPlayer(Player player) {
         if (!plugin.isHudEnabled(player.getUniqueId())) {
             return;
         }
 
-        // Buscar dados (sync - já está na task)
+        com.primeleague.clans.models.ClanData clan =
+            plugin.getClansPlugin().getClansManager().getClanByMember(player.getUniqueId());
+        com.primeleague.factions.manager.ShieldManager.ShieldState shield = clan != null
+            ? plugin.getShieldManager().getStates(java.util.Collections.singleton(clan.getId())).get(clan.getId())
+            : null;
+
+        // Enviar ActionBar
+        com.primeleague.factions.util.ActionBarCompat.send(player, buildHudText(player, clan, shield));
+    }
+
+    /**
+     * Monta texto do HUD (task periódica - clã e shield já resolvidos uma vez por clã)
+     */
+    public String buildHudText(Player player, com.primeleague.clans.models.ClanData clan,
+                               com.primeleague.factions.manager.ShieldManager.ShieldState shield) {
         UUID uuid = player.getUniqueId();
         double power = plugin.getPowerManager().getPower(uuid);
         double maxPower = plugin.getPowerManager().getMaxPower(uuid);
 
-        // Verificar se está em clan para mostrar shield e território
-        com.primeleague.clans.models.ClanData clan =
-            plugin.getClansPlugin().getClansManager().getClanByMember(uuid);
-
         StringBuilder hudText = new StringBuilder();
 
         // Power
-        hudText.append("§e⚡ Power: §f").append(String.format("%.0f/%.0f", power, maxPower));
+        hudText.append("§e⚡ Power: §f").append(Math.round(power)).append('/').append(Math.round(maxPower));
 
         if (clan != null) {
             // Shield (só mostra se > 0)
-            long shieldRemaining = plugin.getShieldManager().getRemainingMinutes(clan.getId());
-            if (shieldRemaining > 0) {
-                String shieldFormatted = plugin.getShieldManager().formatRemaining(clan.getId());
-                String shieldColor = shieldRemaining < 360 ? "§c" : (shieldRemaining < 720 ? "§e" : "§a");
-                hudText.append(" §7| ").append(shieldColor).append("🛡 Shield: ").append(shieldFormatted);
+            if (shield != null && shield.isActive()) {
+                hudText.append(" §7| ").append(shield.getColor()).append("🛡 Shield: ").append(shield.getFormatted());
             }
 
             // Território atual
@@ -648,7 +655,6 @@ public class FactionsCommand implements CommandExecutor {
             }
         }
 
-        // Enviar ActionBar
-        com.primeleague.factions.util.ActionBarCompat.send(player, hudText.toString());
+        return hudText.toString();
     }
 }
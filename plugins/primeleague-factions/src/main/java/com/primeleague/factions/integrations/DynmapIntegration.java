@@ -249,26 +249,20 @@ public class DynmapIntegration {
     /**
      * Remove todos os claims de um clã
      * Grug Brain: Limpa markers quando clã é deletado (via reflection)
+     * Recebe os chunks do clã (índice reverso do ClaimManager) - não varre todos os markers
      * Thread-safe: Usa main thread para Dynmap API
      */
-    public void removeClanClaims(int clanId) {
+    public void removeClanClaims(java.util.Collection<ChunkKey> chunks) {
         if (markerSet == null) return;
 
         // Coletar markers a remover (thread-safe)
         final java.util.List<Object> markersToDelete = new java.util.ArrayList<>();
-        claimMarkers.entrySet().removeIf(entry -> {
-            // Verificar se chunk pertence ao clã
-            int chunkClanId = plugin.getClaimManager().getClanAt(
-                entry.getKey().getWorld(),
-                entry.getKey().getX(),
-                entry.getKey().getZ()
-            );
-            if (chunkClanId == clanId) {
-                markersToDelete.add(entry.getValue());
-                return true;
+        for (ChunkKey chunk : chunks) {
+            Object marker = claimMarkers.remove(chunk);
+            if (marker != null) {
+                markersToDelete.add(marker);
             }
-            return false;
-        });
+        }
 
         // Deletar markers na main thread (Dynmap API requirement)
         if (!markersToDelete.isEmpty()) {
@@ -0,0 +1,46 @@
+package com.primeleague.factions.listener;
+
+import com.primeleague.clans.events.ClanChangeEvent;
+import com.primeleague.factions.PrimeFactions;
+import com.primeleague.factions.integrations.DynmapIntegration;
+import com.primeleague.factions.util.ChunkKey;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mudanças no registry de clans (Clans plugin)
+ * Grug Brain: Nome/tag mudou -> redesenha markers do Dynmap daquele clan. Resto lê o registry direto.
+ */
+public class ClanChangeListener implements Listener {
+
+    private final PrimeFactions plugin;
+
+    public ClanChangeListener(PrimeFactions plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onClanChange(ClanChangeEvent event) {
+        ClanChangeEvent.Change change = event.getChange();
+        if (change != ClanChangeEvent.Change.NAME && change != ClanChangeEvent.Change.TAG &&
+            change != ClanChangeEvent.Change.RELOADED) {
+            return;
+        }
+
+        DynmapIntegration dynmap = plugin.getDynmapIntegration();
+        if (dynmap == null || !dynmap.isEnabled()) {
+            return;
+        }
+
+        int clanId = event.getClanId();
+        // Cópia: evento pode ser async e o set de claims muda no main thread
+        List<ChunkKey> chunks = new ArrayList<>(plugin.getClaimManager().getClanClaims(clanId));
+        for (ChunkKey chunk : chunks) {
+            dynmap.updateClaim(chunk, clanId);
+        }
+    }
+}
@@ -47,28 +47,21 @@ public class ProtectionListener implements Listener {
         }
 
         // Rastrear build solo (quando player sem clan coloca bloco em wilderness)
-        // Grug Brain: Verificação async para não bloquear main thread
+        // Grug Brain: Tudo em memória (claim index + membership do Clans) - sem task por bloco
         Location loc = event.getBlock().getLocation();
         int clanId = plugin.getClaimManager().getClanAt(loc);
         if (clanId == -1) { // Wilderness
-            // Verificar se player está em clan de forma async (não bloqueia evento)
-            // Nota: Rastreamento é não-crítico, pode ser async
             final UUID playerUuid = event.getPlayer().getUniqueId();
-            final org.bukkit.Chunk chunk = loc.getChunk();
-            final String worldName = chunk.getWorld().getName();
-            final int chunkX = chunk.getX();
-            final int chunkZ = chunk.getZ();
-
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-                // Verificar se player está em clan (query async)
-                com.primeleague.clans.models.ClanData playerClan = plugin.getClansPlugin().getClansManager().getClanByMember(playerUuid);
-                if (playerClan == null) { // Solo player
-                    // Rastrear build solo (voltar para main thread para atualizar cache)
-                    plugin.getServer().getScheduler().runTask(plugin, () -> {
-                        plugin.getClaimManager().trackSoloBuild(worldName, chunkX, chunkZ, playerUuid);
-                    });
-                }
-            });
+            final String worldName = loc.getWorld().getName();
+            final int chunkX = loc.getBlockX() >> 4;
+            final int chunkZ = loc.getBlockZ() >> 4;
+
+            if (plugin.getClaimManager().isSoloBuildOf(playerUuid, worldName, chunkX, chunkZ)) {
+                return; // Chunk já rastreado para esse player
+            }
+            if (plugin.getClansPlugin().getClansManager().getClanByMember(playerUuid) == null) { // Solo player
+                plugin.getClaimManager().trackSoloBuild(worldName, chunkX, chunkZ, playerUuid);
+            }
         }
     }
 
@@ -95,7 +95,9 @@ public class UpgradeGUIListener implements Listener {
                     UpgradeManager.UpgradeData data = plugin.getUpgradeManager().getUpgrades(finalClanId);
                     int currentLevel = data.getLevel(finalType);
 
-                    if (currentLevel >= finalType.getMaxLevel()) {
+                    if (!plugin.getUpgradeManager().isLoaded()) {
+                        player.sendMessage(ChatColor.RED + "Upgrades ainda carregando, tente novamente em instantes.");
+                    } else if (currentLevel >= finalType.getMaxLevel()) {
                         player.sendMessage(ChatColor.RED + "Este upgrade já está no nível máximo!");
                     } else {
                         long cost = finalType.getCostForLevel(currentLevel);
@@ -3,6 +3,7 @@ package com.primeleague.factions.manager;
 import com.primeleague.core.CoreAPI;
 import com.primeleague.factions.PrimeFactions;
 import com.primeleague.factions.util.ChunkKey;
+import com.primeleague.factions.util.ClaimIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
@@ -11,6 +12,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -21,17 +23,25 @@ import java.util.logging.Level;
 /**
  * Manages all land claims.
  * Uses a ConcurrentHashMap for O(1) access.
+ * Lookups (getClanAt) go through a primitive ClaimIndex - zero allocation per event.
  * Syncs with PostgreSQL.
- * Grug Brain: Rastreia builds solo em cache (sem DB extra).
+ * Grug Brain: Rastreia builds solo em cache; persistência em lote periódico (sem task por bloco).
  */
 public class ClaimManager {
 
     private final PrimeFactions plugin;
-    private final Map<ChunkKey, Integer> claimCache; // ChunkKey -> ClanID
+    private final Map<ChunkKey, Integer> claimCache; // ChunkKey -> ClanID (iteração: Dynmap, tasks)
+    // Índice primitivo para o caminho quente (eventos de bloco/entidade)
+    private final ClaimIndex claimIndex;
     // Rastreia chunks onde solo players buildaram (ChunkKey -> UUID do player)
     private final Map<ChunkKey, UUID> soloBuildCache;
-    // Contador O(1) de claims por clã (otimização)
-    private final Map<Integer, Integer> clanClaimCount;
+    // Índice reverso UUID -> chunks de solo build (auto-claim sem varrer soloBuildCache)
+    private final Map<UUID, Set<ChunkKey>> soloBuildsByOwner;
+    // Mudanças pendentes de solo builds (gravadas em lote pelo flush periódico)
+    private final Set<ChunkKey> pendingSoloUpserts;
+    private final Set<ChunkKey> pendingSoloDeletes;
+    // Índice reverso clanId -> chunks (contagem O(1) e operações por clã sem varrer todos os claims)
+    private final Map<Integer, Set<ChunkKey>> clanClaims;
 
     /**
      * Obtém cache de claims (para task de power negativo)
@@ -41,13 +51,37 @@ public class ClaimManager {
         return claimCache;
     }
 
+    /**
+     * Chunks claimados por um clã (view somente leitura, O(1))
+     * Grug Brain: Para operações por clã - não varrer claimCache inteiro
+     */
+    public Set<ChunkKey> getClanClaims(int clanId) {
+        Set<ChunkKey> chunks = clanClaims.get(clanId);
+        return chunks != null ? Collections.unmodifiableSet(chunks) : Collections.<ChunkKey>emptySet();
+    }
+
+    /**
+     * IDs dos clãs com pelo menos um claim (view somente leitura)
+     */
+    public Set<Integer> getClaimingClans() {
+        return Collections.unmodifiableSet(clanClaims.keySet());
+    }
+
     public ClaimManager(PrimeFactions plugin) {
         this.plugin = plugin;
         this.claimCache = new ConcurrentHashMap<>();
+        this.claimIndex = new ClaimIndex();
         this.soloBuildCache = new ConcurrentHashMap<>();
-        this.clanClaimCount = new ConcurrentHashMap<>();
+        this.soloBuildsByOwner = new ConcurrentHashMap<>();
+        this.pendingSoloUpserts = ConcurrentHashMap.newKeySet();
+        this.pendingSoloDeletes = ConcurrentHashMap.newKeySet();
+        this.clanClaims = new ConcurrentHashMap<>();
         loadClaims();
         loadSoloBuilds(); // Carregar solo builds após claims
+
+        // Flush periódico de solo builds (async)
+        long flushTicks = Math.max(1, plugin.getConfig().getInt("claims.solo-build-flush-seconds", 30)) * 20L;
+        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::saveSoloBuilds, flushTicks, flushTicks);
     }
 
     /**
@@ -69,8 +103,8 @@ public class ClaimManager {
 
                 ChunkKey key = new ChunkKey(world, x, z);
                 claimCache.put(key, clanId);
-                // Atualizar contador O(1)
-                clanClaimCount.merge(clanId, 1, Integer::sum);
+                claimIndex.putIfAbsent(world, x, z, clanId);
+                addClanClaim(clanId, key);
                 count++;
             }
             plugin.getLogger().info("Carregados " + count + " claims.");
@@ -100,7 +134,8 @@ public class ClaimManager {
      */
     public int getClanAt(Location location) {
         if (location == null || location.getWorld() == null) return -1;
-        return getClanAt(location.getWorld().getName(), location.getChunk().getX(), location.getChunk().getZ());
+        // Shift do bloco em vez de getChunk() (não toca no chunk)
+        return getClanAt(location.getWorld().getName(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
     }
 
     /**
@@ -122,7 +157,7 @@ public class ClaimManager {
      * @return The Clan ID, or -1 if not claimed.
      */
     public int getClanAt(String world, int x, int z) {
-        return claimCache.getOrDefault(new ChunkKey(world, x, z), -1);
+        return claimIndex.get(world, x, z);
     }
 
     /**
@@ -135,16 +170,15 @@ public class ClaimManager {
      * @return true if successful, false if already claimed or error.
      */
     public boolean claimChunk(String world, int x, int z, int clanId) {
-        ChunkKey key = new ChunkKey(world, x, z);
-
-        // Operação atômica: putIfAbsent retorna null se não existia, ou o valor existente
-        Integer existing = claimCache.putIfAbsent(key, clanId);
-        if (existing != null) {
+        // Operação atômica no índice: retorna -1 se não existia, ou o dono atual
+        if (claimIndex.putIfAbsent(world, x, z, clanId) != -1) {
             return false; // Already claimed
         }
+        ChunkKey key = new ChunkKey(world, x, z);
+        claimCache.put(key, clanId);
 
-        // Atualizar contador O(1) - só incrementa se claim foi bem-sucedido
-        clanClaimCount.merge(clanId, 1, Integer::sum);
+        // Índice reverso - só adiciona se claim foi bem-sucedido
+        addClanClaim(clanId, key);
 
         // Notify Dynmap (async, não bloqueia)
         if (plugin.getDynmapIntegration() != null && plugin.getDynmapIntegration().isEnabled()) {
@@ -169,7 +203,8 @@ public class ClaimManager {
                 final int finalClanId = clanId;
                 plugin.getServer().getScheduler().runTask(plugin, () -> {
                     claimCache.remove(finalKey);
-                    clanClaimCount.computeIfPresent(finalClanId, (k, v) -> v > 0 ? v - 1 : 0);
+                    claimIndex.remove(world, x, z);
+                    removeClanClaim(finalClanId, finalKey);
                     // Remover do Dynmap também
                     if (plugin.getDynmapIntegration() != null && plugin.getDynmapIntegration().isEnabled()) {
                         plugin.getDynmapIntegration().removeClaim(finalKey);
@@ -190,16 +225,14 @@ public class ClaimManager {
      * @return true if successful (was claimed), false otherwise.
      */
     public boolean unclaimChunk(String world, int x, int z) {
-        ChunkKey key = new ChunkKey(world, x, z);
-        Integer clanId = claimCache.get(key);
-        if (clanId == null) {
+        // Update Cache (índice decide quem remove em caso de corrida)
+        int clanId = claimIndex.remove(world, x, z);
+        if (clanId == -1) {
             return false;
         }
-
-        // Update Cache
+        ChunkKey key = new ChunkKey(world, x, z);
         claimCache.remove(key);
-        // Atualizar contador O(1)
-        clanClaimCount.computeIfPresent(clanId, (k, v) -> v > 0 ? v - 1 : 0);
+        removeClanClaim(clanId, key);
 
         // Notify Dynmap (async, não bloqueia)
         if (plugin.getDynmapIntegration() != null && plugin.getDynmapIntegration().isEnabled()) {
@@ -229,15 +262,19 @@ public class ClaimManager {
      * @param clanId Clan ID
      */
     public void unclaimAll(int clanId) {
-        // Notify Dynmap (remove todos os markers do clã)
-        if (plugin.getDynmapIntegration() != null && plugin.getDynmapIntegration().isEnabled()) {
-            plugin.getDynmapIntegration().removeClanClaims(clanId);
-        }
+        // Remove from cache - O(claims do clã) via índice reverso
+        Set<ChunkKey> chunks = clanClaims.remove(clanId);
+        if (chunks != null) {
+            for (ChunkKey key : chunks) {
+                claimIndex.remove(key.getWorld(), key.getX(), key.getZ());
+                claimCache.remove(key, clanId);
+            }
 
-        // Remove from cache
-        claimCache.entrySet().removeIf(entry -> entry.getValue() == clanId);
-        // Limpar contador
-        clanClaimCount.remove(clanId);
+            // Notify Dynmap (remove todos os markers do clã)
+            if (plugin.getDynmapIntegration() != null && plugin.getDynmapIntegration().isEnabled()) {
+                plugin.getDynmapIntegration().removeClanClaims(chunks);
+            }
+        }
 
         // Async DB Update
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
@@ -254,13 +291,38 @@ public class ClaimManager {
 
     /**
      * Gets the number of claims a clan has.
-     * O(1) - usa contador em memória
+     * O(1) - usa índice reverso em memória
      *
      * @param clanId Clan ID
      * @return Number of claims
      */
     public int getClaimCount(int clanId) {
-        return clanClaimCount.getOrDefault(clanId, 0);
+        Set<ChunkKey> chunks = clanClaims.get(clanId);
+        return chunks != null ? chunks.size() : 0;
+    }
+
+    /**
+     * Adiciona chunk ao índice reverso
+     * Grug Brain: compute = atômico com a remoção do set vazio
+     */
+    private void addClanClaim(int clanId, ChunkKey key) {
+        clanClaims.compute(clanId, (id, chunks) -> {
+            if (chunks == null) {
+                chunks = ConcurrentHashMap.newKeySet();
+            }
+            chunks.add(key);
+            return chunks;
+        });
+    }
+
+    /**
+     * Remove chunk do índice reverso (descarta set vazio)
+     */
+    private void removeClanClaim(int clanId, ChunkKey key) {
+        clanClaims.computeIfPresent(clanId, (id, chunks) -> {
+            chunks.remove(key);
+            return chunks.isEmpty() ? null : chunks;
+        });
     }
 
     /**
@@ -279,9 +341,8 @@ public class ClaimManager {
 
         for (int x = centerX - radius; x <= centerX + radius; x++) {
             for (int z = centerZ - radius; z <= centerZ + radius; z++) {
-                ChunkKey key = new ChunkKey(world, x, z);
-                if (claimCache.containsKey(key)) {
-                    claims.add(key);
+                if (claimIndex.get(world, x, z) != -1) {
+                    claims.add(new ChunkKey(world, x, z));
                 }
             }
         }
@@ -290,44 +351,48 @@ public class ClaimManager {
 
     /**
      * Rastreia chunk onde solo player buildou
-     * Grug Brain: Cache em memória + DB (persistência)
+     * Grug Brain: Cache em memória; DB via flush em lote (saveSoloBuilds)
      */
     public void trackSoloBuild(String world, int x, int z, UUID playerUuid) {
-        ChunkKey key = new ChunkKey(world, x, z);
         // Só rastreia se chunk não está claimado
-        if (!claimCache.containsKey(key)) {
-            soloBuildCache.put(key, playerUuid);
-
-            // Salvar no banco async (não bloqueia)
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-                try (Connection conn = CoreAPI.getDatabase().getConnection();
-                     PreparedStatement stmt = conn.prepareStatement(
-                        "INSERT INTO solo_builds (world, x, z, owner_uuid) VALUES (?, ?, ?, ?) " +
-                        "ON CONFLICT (world, x, z) DO UPDATE SET owner_uuid = EXCLUDED.owner_uuid")) {
-                    stmt.setString(1, world);
-                    stmt.setInt(2, x);
-                    stmt.setInt(3, z);
-                    stmt.setString(4, playerUuid.toString());
-                    stmt.executeUpdate();
-                } catch (SQLException e) {
-                    plugin.getLogger().log(Level.WARNING, "Erro ao salvar solo build no banco", e);
-                }
-            });
+        if (claimIndex.get(world, x, z) != -1) {
+            return;
         }
+        ChunkKey key = new ChunkKey(world, x, z);
+        UUID previous = soloBuildCache.put(key, playerUuid);
+        if (playerUuid.equals(previous)) {
+            return; // Já rastreado para esse player - nada a gravar
+        }
+        if (previous != null) {
+            removeFromOwner(previous, key);
+        }
+        soloBuildsByOwner.computeIfAbsent(playerUuid, k -> ConcurrentHashMap.newKeySet()).add(key);
+        pendingSoloDeletes.remove(key);
+        pendingSoloUpserts.add(key);
+    }
+
+    /**
+     * Verifica se chunk já é solo build do player (O(1) via índice reverso)
+     */
+    public boolean isSoloBuildOf(UUID playerUuid, String world, int x, int z) {
+        Set<ChunkKey> builds = soloBuildsByOwner.get(playerUuid);
+        return builds != null && builds.contains(new ChunkKey(world, x, z));
     }
 
     /**
      * Obtém chunks onde solo player buildou
-     * Grug Brain: Retorna Set de ChunkKeys para auto-claim
+     * Grug Brain: Cópia do índice reverso (O(chunks do player))
      */
     public Set<ChunkKey> getSoloBuilds(UUID playerUuid) {
-        Set<ChunkKey> builds = new HashSet<>();
-        for (Map.Entry<ChunkKey, UUID> entry : soloBuildCache.entrySet()) {
-            if (entry.getValue().equals(playerUuid)) {
-                builds.add(entry.getKey());
-            }
-        }
-        return builds;
+        Set<ChunkKey> builds = soloBuildsByOwner.get(playerUuid);
+        return builds != null ? new HashSet<>(builds) : new HashSet<>();
+    }
+
+    private void removeFromOwner(UUID owner, ChunkKey key) {
+        soloBuildsByOwner.computeIfPresent(owner, (k, builds) -> {
+            builds.remove(key);
+            return builds.isEmpty() ? null : builds;
+        });
     }
 
     /**
@@ -350,7 +415,7 @@ public class ClaimManager {
             if (claimCache.containsKey(chunkKey)) {
                 skippedCount++;
                 // Remove do cache de solo builds (não é mais solo)
-                soloBuildCache.remove(chunkKey);
+                removeSoloBuild(chunkKey);
                 continue;
             }
 
@@ -359,14 +424,10 @@ public class ClaimManager {
             if (claimChunk(chunkKey.getWorld(), chunkKey.getX(), chunkKey.getZ(), clanId)) {
                 claimedCount++;
                 // Remove do cache de solo builds (agora é claim do clan)
-                soloBuildCache.remove(chunkKey);
-                // Remove do banco também
                 removeSoloBuild(chunkKey);
             } else {
                 // Se claimChunk retornou false, chunk foi claimado por outro processo (race condition rara)
                 skippedCount++;
-                soloBuildCache.remove(chunkKey);
-                // Remove do banco também
                 removeSoloBuild(chunkKey);
             }
         }
@@ -401,8 +462,9 @@ public class ClaimManager {
 
                 ChunkKey key = new ChunkKey(world, x, z);
                 // Só adiciona ao cache se não está claimado
-                if (!claimCache.containsKey(key)) {
+                if (claimIndex.get(world, x, z) == -1) {
                     soloBuildCache.put(key, ownerUuid);
+                    soloBuildsByOwner.computeIfAbsent(ownerUuid, k -> ConcurrentHashMap.newKeySet()).add(key);
                     count++;
                 }
             }
@@ -413,60 +475,82 @@ public class ClaimManager {
     }
 
     /**
-     * Salva todos os solo builds do cache no banco (chamado no onDisable)
-     * Grug Brain: Batch insert para performance
+     * Grava mudanças pendentes de solo builds (timer async + onDisable)
+     * Grug Brain: Um upsert em batch + um delete em batch, só chunks que mudaram
      */
-    public void saveSoloBuilds() {
-        if (soloBuildCache.isEmpty()) {
+    public synchronized void saveSoloBuilds() {
+        if (pendingSoloUpserts.isEmpty() && pendingSoloDeletes.isEmpty()) {
             return;
         }
 
-        plugin.getLogger().info("Salvando " + soloBuildCache.size() + " solo builds...");
-            try (Connection conn = CoreAPI.getDatabase().getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(
+        // Drenar pendências (o que chegar durante o flush fica para o próximo ciclo)
+        java.util.List<ChunkKey> upserts = new java.util.ArrayList<>(pendingSoloUpserts);
+        pendingSoloUpserts.removeAll(upserts);
+        java.util.List<ChunkKey> deletes = new java.util.ArrayList<>(pendingSoloDeletes);
+        pendingSoloDeletes.removeAll(deletes);
+
+        long start = System.currentTimeMillis();
+        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement upsert = conn.prepareStatement(
                     "INSERT INTO solo_builds (world, x, z, owner_uuid) VALUES (?, ?, ?, ?) " +
-                    "ON CONFLICT (world, x, z) DO UPDATE SET owner_uuid = EXCLUDED.owner_uuid")) {
-
-            int count = 0;
-            for (Map.Entry<ChunkKey, UUID> entry : soloBuildCache.entrySet()) {
-                ChunkKey key = entry.getKey();
-                UUID ownerUuid = entry.getValue();
-
-                stmt.setString(1, key.getWorld());
-                stmt.setInt(2, key.getX());
-                stmt.setInt(3, key.getZ());
-                stmt.setString(4, ownerUuid.toString());
-                stmt.addBatch();
-                count++;
+                    "ON CONFLICT (world, x, z) DO UPDATE SET owner_uuid = EXCLUDED.owner_uuid");
+                 PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM solo_builds WHERE world = ? AND x = ? AND z = ?")) {
 
-                // Executar batch a cada 100 inserts
-                if (count % 100 == 0) {
-                    stmt.executeBatch();
+                for (ChunkKey key : upserts) {
+                    UUID ownerUuid = soloBuildCache.get(key);
+                    if (ownerUuid == null) {
+                        continue; // Removido depois de marcado - delete pendente cuida
+                    }
+                    upsert.setString(1, key.getWorld());
+                    upsert.setInt(2, key.getX());
+                    upsert.setInt(3, key.getZ());
+                    upsert.setString(4, ownerUuid.toString());
+                    upsert.addBatch();
+                }
+                for (ChunkKey key : deletes) {
+                    delete.setString(1, key.getWorld());
+                    delete.setInt(2, key.getX());
+                    delete.setInt(3, key.getZ());
+                    delete.addBatch();
                 }
+                upsert.executeBatch();
+                delete.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            stmt.executeBatch(); // Executar restante
-            plugin.getLogger().info("Salvos " + count + " solo builds.");
+            plugin.getLogger().fine("Solo builds: " + upserts.size() + " upserts, " + deletes.size() +
+                " deletes em " + (System.currentTimeMillis() - start) + "ms");
         } catch (SQLException e) {
+            // Devolver pendências para o próximo ciclo (sem sobrescrever mudanças novas)
+            for (ChunkKey key : upserts) {
+                if (!pendingSoloDeletes.contains(key)) {
+                    pendingSoloUpserts.add(key);
+                }
+            }
+            for (ChunkKey key : deletes) {
+                if (!pendingSoloUpserts.contains(key)) {
+                    pendingSoloDeletes.add(key);
+                }
+            }
             plugin.getLogger().log(Level.SEVERE, "Erro ao salvar solo builds!", e);
         }
     }
 
     /**
-     * Remove solo build do banco (quando é claimado ou player entra em clan)
+     * Remove solo build do cache e agenda delete no banco (quando é claimado ou player entra em clan)
      */
     private void removeSoloBuild(ChunkKey key) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (Connection conn = CoreAPI.getDatabase().getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(
-                    "DELETE FROM solo_builds WHERE world = ? AND x = ? AND z = ?")) {
-                stmt.setString(1, key.getWorld());
-                stmt.setInt(2, key.getX());
-                stmt.setInt(3, key.getZ());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "Erro ao remover solo build do banco", e);
-            }
-        });
+        UUID owner = soloBuildCache.remove(key);
+        if (owner != null) {
+            removeFromOwner(owner, key);
+        }
+        pendingSoloUpserts.remove(key);
+        pendingSoloDeletes.add(key);
     }
 }
-
@@ -1,21 +1,31 @@
 package com.primeleague.factions.manager;
 
+import com.primeleague.clans.events.ClanMemberChangeEvent;
 import com.primeleague.core.CoreAPI;
 import com.primeleague.factions.PrimeFactions;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
@@ -23,8 +33,6 @@ import java.util.logging.Level;
 public class PowerManager implements Listener {
 
     private final PrimeFactions plugin;
-    private final Map<UUID, Double> powerCache;
-    private final Map<UUID, Double> maxPowerCache;
     private final double maxPowerDefault;
     private final double minPowerDefault;
     private final double powerRegen;
@@ -32,10 +40,42 @@ public class PowerManager implements Listener {
     private final double clanRegen;
     private final double deathPenalty;
 
+    // Tabela de slots dos players carregados (online + quit ainda não gravado)
+    // Grug Brain: Arrays primitivos indexados pelo slot - regen é um loop sobre double[], sem boxing.
+    // Tudo sob lock (regen e flush async, morte/quit no main).
+    private final Object lock = new Object();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private UUID[] slotOwner = new UUID[64];
+    private double[] slotPower = new double[64];
+    private double[] slotMax = new double[64];
+    private double[] slotRegen = new double[64];   // Regen por minuto (solo/clã), cacheado do índice de membros
+    private boolean[] slotOnline = new boolean[64];
+    private boolean[] slotDirty = new boolean[64];  // Mudou desde o último flush
+    private long[] slotQuitAt = new long[64];       // Hora do quit (last_power_regen do slot offline)
+    private int slotCount;                         // Slots já usados (livres ficam em freeSlots)
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    // Morte antes do load async do slot terminar: penalidade aplicada quando o slot carrega
+    private final Map<UUID, Double> pendingPenalty = new HashMap<>();
+
+    // Power agregado por clã (membros online + power persistido dos offline)
+    // Grug Brain: Soma corrente - cada mudança de power de um membro aplica o delta no clã.
+    private final Map<UUID, Integer> memberClans;   // Todos os membros de clã (online ou não)
+    private final Map<UUID, Double> memberPower;    // Power de cada membro já somado no clã
+    private final Map<Integer, Double> clanPower;
+    private final Set<Integer> negativeClans;       // Clãs com soma < 0 (os únicos que o sweep visita)
+    private volatile boolean membersLoaded;         // false = load (async) não terminou ou falhou, regen usa o fallback
+    private final Set<UUID> changedDuringLoad = new HashSet<>(); // Evento de membro durante o load vale mais que o SELECT (sob lock)
+
+    private BukkitTask regenTask;
+    private BukkitTask saveTask;
+
     public PowerManager(PrimeFactions plugin) {
         this.plugin = plugin;
-        this.powerCache = new ConcurrentHashMap<>();
-        this.maxPowerCache = new ConcurrentHashMap<>();
+        this.memberClans = new ConcurrentHashMap<>();
+        this.memberPower = new ConcurrentHashMap<>();
+        this.clanPower = new ConcurrentHashMap<>();
+        this.negativeClans = ConcurrentHashMap.newKeySet();
 
         this.maxPowerDefault = plugin.getConfig().getDouble("power.max-power", 50.0);
         this.minPowerDefault = plugin.getConfig().getDouble("power.min-power", -10.0);
@@ -44,71 +84,296 @@ public class PowerManager implements Listener {
         this.clanRegen = plugin.getConfig().getDouble("power.clan-regen-per-minute", 0.4);
         this.deathPenalty = plugin.getConfig().getDouble("power.death-penalty", 4.0);
 
+        // Agregados de power por clã (async - enable não espera o banco; até terminar, regen usa o fallback)
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, this::loadClanPower);
+
         // Start Regen Task
         startRegenTask();
+
+        // Gravação em lote dos slots alterados
+        long saveTicks = Math.max(1, plugin.getConfig().getLong("power.save-interval-seconds", 60)) * 20L;
+        saveTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flushDirty, saveTicks, saveTicks);
     }
 
-    private void startRegenTask() {
-        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                UUID uuid = player.getUniqueId();
-                if (!powerCache.containsKey(uuid)) continue;
-
-                double current = powerCache.get(uuid);
-                double max = maxPowerCache.getOrDefault(uuid, maxPowerDefault);
-
-                if (current < max) {
-                    // Power Regen Diferenciado: Solo vs Clã
-                    // Grug Brain: Verifica se está em clan, usa regen apropriado
-                    double regenRate = powerRegen; // Fallback default
-                    try {
-                        com.primeleague.clans.models.ClanData clan = plugin.getClansPlugin().getClansManager().getClanByMember(uuid);
-                        if (clan == null) {
-                            regenRate = soloRegen; // Solo: mais rápido (0.8/min)
-                        } else {
-                            regenRate = clanRegen; // Clã: mais lento (0.4/min) - incentiva coop
-                        }
-                    } catch (Exception e) {
-                        // Se houver erro ao buscar clan, usa fallback
-                        plugin.getLogger().fine("Erro ao buscar clan para regen de " + uuid + ": " + e.getMessage());
+    /**
+     * Para as tasks e grava tudo que está pendente (onDisable - síncrono)
+     */
+    public void shutdown() {
+        if (regenTask != null) {
+            regenTask.cancel();
+        }
+        if (saveTask != null) {
+            saveTask.cancel();
+        }
+        flushDirty();
+    }
+
+    /**
+     * Carrega membros de todos os clãs com o power persistido (enable, async)
+     * Grug Brain: Uma query; daqui para frente só deltas.
+     * Player que entrou/saiu de clã durante o SELECT já foi tratado pelo evento - linha dele é ignorada.
+     */
+    private void loadClanPower() {
+        List<UUID> uuids = new ArrayList<>();
+        List<Integer> clanIds = new ArrayList<>();
+        List<Double> powers = new ArrayList<>();
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT cm.clan_id, cm.player_uuid, COALESCE(u.power, 0) AS power " +
+                 "FROM clan_members cm LEFT JOIN users u ON u.uuid = cm.player_uuid")) {
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    uuids.add((UUID) rs.getObject("player_uuid"));
+                    clanIds.add(rs.getInt("clan_id"));
+                    powers.add(rs.getDouble("power"));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Erro ao carregar power dos clãs", e);
+            return;
+        }
+
+        synchronized (lock) {
+            for (int i = 0; i < uuids.size(); i++) {
+                UUID uuid = uuids.get(i);
+                if (!changedDuringLoad.contains(uuid)) {
+                    // Já online com slot: power do slot (pode ter morrido/regenerado desde o banco)
+                    addMember(uuid, clanIds.get(i), currentPower(uuid, powers.get(i)));
+                }
+            }
+            changedDuringLoad.clear();
+            membersLoaded = true;
+            // Slots carregados antes daqui cachearam o regen do fallback
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (slotOwner[slot] != null) {
+                    slotRegen[slot] = regenRateFor(slotOwner[slot]);
+                }
+            }
+        }
+        plugin.getLogger().info("Power agregado: " + uuids.size() + " membros em " + clanPower.size() + " clãs");
+    }
+
+    /**
+     * Regen por minuto do player (solo ou clã) pelo índice de membros - sem consulta ao ClansManager
+     */
+    private double regenRateFor(UUID uuid) {
+        if (!membersLoaded) {
+            return powerRegen;
+        }
+        return memberClans.containsKey(uuid)
+            ? clanRegen  // Clã: mais lento (0.4/min) - incentiva coop
+            : soloRegen; // Solo: mais rápido (0.8/min)
+    }
+
+    /**
+     * Ocupa um slot para o player (chamar sob lock)
+     */
+    private int allocateSlot(UUID uuid, double power, double maxPower) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == slotOwner.length) {
+                int capacity = slotOwner.length * 2;
+                slotOwner = Arrays.copyOf(slotOwner, capacity);
+                slotPower = Arrays.copyOf(slotPower, capacity);
+                slotMax = Arrays.copyOf(slotMax, capacity);
+                slotRegen = Arrays.copyOf(slotRegen, capacity);
+                slotOnline = Arrays.copyOf(slotOnline, capacity);
+                slotDirty = Arrays.copyOf(slotDirty, capacity);
+                slotQuitAt = Arrays.copyOf(slotQuitAt, capacity);
+            }
+            slot = slotCount++;
+        }
+        slots.put(uuid, slot);
+        slotOwner[slot] = uuid;
+        slotPower[slot] = power;
+        slotMax[slot] = maxPower;
+        slotRegen[slot] = regenRateFor(uuid);
+        slotOnline[slot] = true;
+        slotDirty[slot] = false;
+        slotQuitAt[slot] = 0L;
+        return slot;
+    }
+
+    /**
+     * Libera slot (chamar sob lock)
+     */
+    private void freeSlot(int slot) {
+        slots.remove(slotOwner[slot]);
+        slotOwner[slot] = null;
+        slotOnline[slot] = false;
+        slotDirty[slot] = false;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Atualiza power do slot (marca para o flush + soma do clã) - chamar sob lock
+     */
+    private void applyPower(int slot, double power) {
+        slotPower[slot] = power;
+        slotDirty[slot] = true;
+        UUID uuid = slotOwner[slot];
+        Integer clanId = memberClans.get(uuid);
+        if (clanId != null) {
+            Double old = memberPower.put(uuid, power);
+            addClanPower(clanId, power - (old != null ? old : 0.0));
+        }
+    }
+
+    /**
+     * Power atual do player (slot carregado) ou fallback
+     */
+    private double currentPower(UUID uuid, double fallback) {
+        synchronized (lock) {
+            Integer slot = slots.get(uuid);
+            return slot != null ? slotPower[slot] : fallback;
+        }
+    }
+
+    private void addMember(UUID uuid, int clanId, double power) {
+        synchronized (lock) {
+            removeMember(uuid);
+            memberClans.put(uuid, clanId);
+            memberPower.put(uuid, power);
+            addClanPower(clanId, power);
+            updateRegenRate(uuid);
+        }
+    }
+
+    private void removeMember(UUID uuid) {
+        synchronized (lock) {
+            Integer clanId = memberClans.remove(uuid);
+            Double power = memberPower.remove(uuid);
+            if (clanId != null && power != null) {
+                addClanPower(clanId, -power);
+            }
+            updateRegenRate(uuid);
+        }
+    }
+
+    private void updateRegenRate(UUID uuid) {
+        Integer slot = slots.get(uuid);
+        if (slot != null) {
+            slotRegen[slot] = regenRateFor(uuid);
+        }
+    }
+
+    /**
+     * Aplica delta na soma do clã e mantém o conjunto de clãs negativos (chamar sob lock)
+     */
+    private void addClanPower(int clanId, double delta) {
+        double total = clanPower.merge(clanId, delta, Double::sum);
+        if (total < 0) {
+            negativeClans.add(clanId);
+        } else {
+            negativeClans.remove(clanId);
+        }
+    }
+
+    /**
+     * Membro entrou/saiu do clã (ClansManager)
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onClanMemberChange(ClanMemberChangeEvent event) {
+        UUID uuid = event.getPlayerUuid();
+        synchronized (lock) {
+            if (!membersLoaded) {
+                changedDuringLoad.add(uuid);
+            }
+        }
+        if (!event.isJoined()) {
+            synchronized (lock) {
+                Integer clanId = memberClans.get(uuid);
+                if (clanId != null && clanId == event.getClanId()) {
+                    removeMember(uuid);
+                }
+            }
+            return;
+        }
+
+        int clanId = event.getClanId();
+        synchronized (lock) {
+            Integer slot = slots.get(uuid);
+            if (slot != null) {
+                addMember(uuid, clanId, slotPower[slot]);
+                return;
+            }
+        }
+
+        // Adicionado offline (admin) - power persistido
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            double persisted = 0.0;
+            try (Connection conn = CoreAPI.getDatabase().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT power FROM users WHERE uuid = ?")) {
+                stmt.setObject(1, uuid);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        persisted = rs.getDouble("power");
                     }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Erro ao carregar power de " + uuid, e);
+            }
+            synchronized (lock) {
+                addMember(uuid, clanId, currentPower(uuid, persisted));
+            }
+        });
+    }
 
-                    double newPower = Math.min(max, current + regenRate);
-                    powerCache.put(uuid, newPower);
-                    // We don't save to DB every minute to avoid spam.
-                    // We save on Quit or periodically.
+    private void startRegenTask() {
+        regenTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            // Uma passada sobre os slots online (regen diferenciado já cacheado no slot)
+            synchronized (lock) {
+                for (int slot = 0; slot < slotCount; slot++) {
+                    if (!slotOnline[slot]) continue;
+
+                    double current = slotPower[slot];
+                    double max = slotMax[slot];
+                    if (current < max) {
+                        applyPower(slot, Math.min(max, current + slotRegen[slot]));
+                    }
                 }
             }
+            // Banco só no flush em lote (power.save-interval-seconds)
         }, 1200L, 1200L); // Every minute (60 * 20)
     }
 
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
-        loadPlayerPower(event.getPlayer().getUniqueId());
+        UUID uuid = event.getPlayer().getUniqueId();
+
+        // Rejoin antes do flush do quit: slot ainda é a fonte da verdade
+        synchronized (lock) {
+            Integer slot = slots.get(uuid);
+            if (slot != null) {
+                slotOnline[slot] = true;
+                slotQuitAt[slot] = 0L;
+                return;
+            }
+        }
+        loadPlayerPower(uuid);
     }
 
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
         UUID uuid = event.getPlayer().getUniqueId();
 
-        // Capture values BEFORE removing from cache (critical for async save)
-        // Grug Brain: Similar to EconomyManager.removePlayer() pattern
-        Double power = powerCache.get(uuid);
-        Double maxPower = maxPowerCache.get(uuid);
-
-        // Remove from cache immediately (safe, cache is ConcurrentHashMap)
-        powerCache.remove(uuid);
-        maxPowerCache.remove(uuid);
-
-        // Save power asynchronously to avoid blocking main thread
-        // Critical: PlayerQuitEvent runs on main thread, DB save must be async
-        if (power != null) {
-            final double finalPower = power;
-            final double finalMaxPower = maxPower != null ? maxPower : maxPowerDefault;
-
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                savePlayerPower(uuid, finalPower, finalMaxPower);
-            });
+        // Slot fica até o flush gravar; last_power_regen = hora da saída (não a do flush, até 60s depois -
+        // senão o regen offline desse intervalo se perde no próximo load)
+        // Soma do clã mantém o power dele (offline conta com o valor persistido)
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            Integer slot = slots.get(uuid);
+            if (slot != null) {
+                slotOnline[slot] = false;
+                slotDirty[slot] = true;
+                slotQuitAt[slot] = now;
+            }
         }
     }
 
@@ -117,139 +382,186 @@ public class PowerManager implements Listener {
         Player player = event.getEntity();
         UUID uuid = player.getUniqueId();
 
-        if (powerCache.containsKey(uuid)) {
-            double current = powerCache.get(uuid);
-            double newPower = Math.max(minPowerDefault, current - deathPenalty);
-            powerCache.put(uuid, newPower);
-            player.sendMessage("§cVocê morreu e perdeu " + deathPenalty + " de poder! Atual: " + String.format("%.2f", newPower));
-
-            // Notificar Discord se power ficou negativo ou crítico
-            if (newPower < 0 && plugin.getDiscordIntegration() != null && plugin.getDiscordIntegration().isEnabled()) {
-                // Obter clan do player
-                String clanName = null;
-                try {
-                    com.primeleague.clans.models.ClanData clan = plugin.getClansPlugin().getClansManager().getClanByMember(uuid);
-                    if (clan != null) {
-                        clanName = clan.getName();
-                    }
-                } catch (Exception e) {
-                    // Ignorar erros ao buscar clan
+        double current;
+        double newPower;
+        synchronized (lock) {
+            Integer slot = slots.get(uuid);
+            if (slot == null) {
+                // Slot ainda carregando (morte logo após o join): penalidade entra quando o load terminar
+                pendingPenalty.merge(uuid, deathPenalty, Double::sum);
+                player.sendMessage("§cVocê morreu e perdeu " + deathPenalty + " de poder!");
+                return;
+            }
+            current = slotPower[slot];
+            newPower = Math.max(minPowerDefault, current - deathPenalty);
+            applyPower(slot, newPower); // Gravado no próximo flush
+        }
+        player.sendMessage("§cVocê morreu e perdeu " + deathPenalty + " de poder! Atual: " + String.format("%.2f", newPower));
+
+        // Notificar Discord se power ficou negativo ou crítico
+        if (newPower < 0 && plugin.getDiscordIntegration() != null && plugin.getDiscordIntegration().isEnabled()) {
+            // Obter clan do player
+            String clanName = null;
+            try {
+                com.primeleague.clans.models.ClanData clan = plugin.getClansPlugin().getClansManager().getClanByMember(uuid);
+                if (clan != null) {
+                    clanName = clan.getName();
                 }
+            } catch (Exception e) {
+                // Ignorar erros ao buscar clan
+            }
 
-                plugin.getDiscordIntegration().sendPowerLost(player.getName(), current, newPower, deathPenalty, clanName);
+            plugin.getDiscordIntegration().sendPowerLost(player.getName(), current, newPower, deathPenalty, clanName);
 
-                // Se power está crítico (muito negativo), notificar também
-                if (newPower <= -5.0) {
-                    plugin.getDiscordIntegration().sendPowerCritical(player.getName(), newPower, clanName);
-                }
+            // Se power está crítico (muito negativo), notificar também
+            if (newPower <= -5.0) {
+                plugin.getDiscordIntegration().sendPowerCritical(player.getName(), newPower, clanName);
             }
-
-            // Save immediately on death
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> savePlayerPower(uuid));
         }
     }
 
     public double getPower(UUID uuid) {
-        return powerCache.getOrDefault(uuid, 0.0);
+        return currentPower(uuid, 0.0);
     }
 
     /**
      * Obtém power máximo do player
      */
     public double getMaxPower(UUID uuid) {
-        return maxPowerCache.getOrDefault(uuid, maxPowerDefault);
+        synchronized (lock) {
+            Integer slot = slots.get(uuid);
+            return slot != null ? slotMax[slot] : maxPowerDefault;
+        }
     }
 
     /**
-     * Calcula power total do clan (soma de todos os membros)
+     * Power total do clan (soma de todos os membros, offline com o power persistido)
+     * O(1) - soma mantida incrementalmente
      */
     public double getClanTotalPower(int clanId) {
-        double total = 0.0;
-        try {
-            java.util.List<com.primeleague.clans.models.ClanMember> members =
-                plugin.getClansPlugin().getClansManager().getMembers(clanId);
-            for (com.primeleague.clans.models.ClanMember member : members) {
-                total += powerCache.getOrDefault(member.getPlayerUuid(), 0.0);
+        return clanPower.getOrDefault(clanId, 0.0);
+    }
+
+    /**
+     * Clãs com power total negativo, do mais negativo para o menos (heap mínimo pelo power)
+     * Grug Brain: Só os clãs "debaixo d'água" - sweep não toca nos outros
+     */
+    public List<Integer> getNegativePowerClans() {
+        PriorityQueue<double[]> heap = new PriorityQueue<>((a, b) -> Double.compare(a[1], b[1]));
+        for (int clanId : negativeClans) {
+            double power = getClanTotalPower(clanId);
+            if (power < 0) {
+                heap.add(new double[] {clanId, power});
             }
-        } catch (Exception e) {
-            plugin.getLogger().fine("Erro ao calcular power total do clan " + clanId + ": " + e.getMessage());
         }
-        return total;
+        List<Integer> clans = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            clans.add((int) heap.poll()[0]);
+        }
+        return clans;
     }
 
     private void loadPlayerPower(UUID uuid) {
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            double power = 0.0; // New player or not in DB yet (Core handles creation, but maybe delayed)
+            double maxPower = maxPowerDefault;
             try (Connection conn = CoreAPI.getDatabase().getConnection();
                  PreparedStatement stmt = conn.prepareStatement("SELECT power, max_power, last_power_regen FROM users WHERE uuid = ?")) {
                 stmt.setObject(1, uuid);
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    double power = rs.getDouble("power");
-                    double maxPower = rs.getDouble("max_power");
-                    Timestamp lastRegen = rs.getTimestamp("last_power_regen");
-
-                    // Calculate offline regen (com regen diferenciado)
-                    if (lastRegen != null) {
-                        long diffMillis = System.currentTimeMillis() - lastRegen.getTime();
-                        double minutesOffline = diffMillis / 60000.0;
-
-                        // Usar regen diferenciado baseado em se está em clan ou não
-                        // Nota: Verificamos se está em clan AGORA (pode ter entrado enquanto offline)
-                        double regenRate = powerRegen; // Fallback
-                        try {
-                            com.primeleague.clans.models.ClanData clan = plugin.getClansPlugin().getClansManager().getClanByMember(uuid);
-                            if (clan == null) {
-                                regenRate = soloRegen; // Solo: mais rápido
-                            } else {
-                                regenRate = clanRegen; // Clã: mais lento
-                            }
-                        } catch (Exception e) {
-                            // Se houver erro, usa fallback
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        power = rs.getDouble("power");
+                        maxPower = rs.getDouble("max_power");
+                        Timestamp lastRegen = rs.getTimestamp("last_power_regen");
+
+                        // Calculate offline regen (com regen diferenciado)
+                        // Nota: Clã AGORA pelo índice de membros (pode ter entrado enquanto offline)
+                        if (lastRegen != null) {
+                            double minutesOffline = (System.currentTimeMillis() - lastRegen.getTime()) / 60000.0;
+                            power = Math.min(maxPower, power + minutesOffline * regenRateFor(uuid));
                         }
-
-                        double regenAmount = minutesOffline * regenRate;
-                        power = Math.min(maxPower, power + regenAmount);
                     }
-
-                    powerCache.put(uuid, power);
-                    maxPowerCache.put(uuid, maxPower);
-                } else {
-                    // New player or not in DB yet (Core handles creation, but maybe delayed)
-                    powerCache.put(uuid, 0.0); // Start with 0 or config default? User said "Start with 0"
-                    maxPowerCache.put(uuid, maxPowerDefault);
                 }
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Erro ao carregar power de " + uuid, e);
+                return;
+            }
+
+            synchronized (lock) {
+                if (slots.containsKey(uuid)) {
+                    return; // Já carregado (join duplo)
+                }
+                int slot = allocateSlot(uuid, power, maxPower);
+                // Saiu antes do load terminar: slot offline, liberado no próximo flush (sem gravar)
+                boolean online = Bukkit.getPlayer(uuid) != null;
+                slotOnline[slot] = online;
+                if (!online) {
+                    slotQuitAt[slot] = System.currentTimeMillis();
+                }
+                Double penalty = pendingPenalty.remove(uuid);
+                if (penalty != null) {
+                    power = Math.max(minPowerDefault, power - penalty);
+                }
+                applyPower(slot, power);
+                // Igual ao banco (regen offline é recalculada no próximo load); morte no meio tem que ser gravada
+                slotDirty[slot] = penalty != null;
             }
         });
     }
 
     /**
-     * Salva power do player no banco (usa valores do cache)
+     * Grava slots alterados em um único batch (task periódica e shutdown)
+     * Grug Brain: Slot offline já gravado é liberado aqui (quit -> flush -> libera)
+     * last_power_regen: online = agora (power já tem o regen até aqui), offline = hora do quit
      */
-    private void savePlayerPower(UUID uuid) {
-        if (!powerCache.containsKey(uuid)) return;
-
-        double power = powerCache.get(uuid);
-        double maxPower = maxPowerCache.getOrDefault(uuid, maxPowerDefault);
-        savePlayerPower(uuid, power, maxPower);
-    }
+    private void flushDirty() {
+        List<UUID> uuids = new ArrayList<>();
+        List<double[]> values = new ArrayList<>();
+        List<Timestamp> regenAt = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (slotOwner[slot] == null) continue;
+
+                if (slotDirty[slot]) {
+                    uuids.add(slotOwner[slot]);
+                    values.add(new double[] {slotPower[slot], slotMax[slot]});
+                    regenAt.add(new Timestamp(slotOnline[slot] ? now : slotQuitAt[slot]));
+                    slotDirty[slot] = false;
+                } else if (!slotOnline[slot]) {
+                    freeSlot(slot);
+                }
+            }
+        }
+        if (uuids.isEmpty()) {
+            return;
+        }
 
-    /**
-     * Salva power do player no banco (usa valores fornecidos)
-     * Grug Brain: Versão que aceita valores diretamente (usado em onQuit para evitar race condition)
-     */
-    private void savePlayerPower(UUID uuid, double power, double maxPower) {
+        long start = System.nanoTime();
         try (Connection conn = CoreAPI.getDatabase().getConnection();
              PreparedStatement stmt = conn.prepareStatement(
-                     "UPDATE users SET power = ?, max_power = ?, last_power_regen = CURRENT_TIMESTAMP WHERE uuid = ?")) {
-            stmt.setDouble(1, power);
-            stmt.setDouble(2, maxPower);
-            stmt.setObject(3, uuid);
-            stmt.executeUpdate();
+                     "UPDATE users SET power = ?, max_power = ?, last_power_regen = ? WHERE uuid = ?")) {
+            for (int i = 0; i < uuids.size(); i++) {
+                stmt.setDouble(1, values.get(i)[0]);
+                stmt.setDouble(2, values.get(i)[1]);
+                stmt.setTimestamp(3, regenAt.get(i));
+                stmt.setObject(4, uuids.get(i));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            plugin.getLogger().fine("Power: " + uuids.size() + " players gravados em " +
+                (System.nanoTime() - start) / 1000000 + "ms");
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Erro ao salvar power de " + uuid, e);
+            // Devolver para o próximo flush (slot ainda do mesmo player)
+            synchronized (lock) {
+                for (UUID uuid : uuids) {
+                    Integer slot = slots.get(uuid);
+                    if (slot != null) {
+                        slotDirty[slot] = true;
+                    }
+                }
+            }
+            plugin.getLogger().log(Level.SEVERE, "Erro ao salvar power (" + uuids.size() + " players)", e);
         }
     }
 }
@@ -10,6 +10,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -99,16 +102,45 @@ public class ShieldManager {
      * Thread-safe: synchronized para evitar race conditions
      */
     public synchronized long getRemainingMinutes(int clanId) {
+        return remainingMinutes(clanId, isGoldenHours());
+    }
+
+    /**
+     * Estado do shield de vários clãs de uma vez (task de ActionBar/HUD, a cada segundo)
+     * Grug Brain: Um lock e um Calendar por tick, não um por player
+     */
+    public synchronized Map<Integer, ShieldState> getStates(Collection<Integer> clanIds) {
+        boolean goldenHours = isGoldenHours();
+        Map<Integer, ShieldState> states = new HashMap<>();
+        for (int clanId : clanIds) {
+            long remaining = remainingMinutes(clanId, goldenHours);
+            if (remaining > 0) {
+                states.put(clanId, new ShieldState(remaining, goldenHours, false));
+            } else {
+                // Expirado = tinha shield nesta sessão e zerou (clã sem shield nunca notifica)
+                states.put(clanId, shieldCache.containsKey(clanId) ? ShieldState.EXPIRED : ShieldState.NONE);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Golden Hours (00h-06h): shield pausado
+     */
+    private static boolean isGoldenHours() {
+        int hour = Calendar.getInstance().get(Calendar.HOUR_OF_DAY);
+        return hour >= 0 && hour < 6;
+    }
+
+    /**
+     * Minutos restantes com o Golden Hours já calculado (chamar sob o lock)
+     */
+    private long remainingMinutes(int clanId, boolean isGoldenHours) {
         Long expiresAt = shieldCache.get(clanId);
         if (expiresAt == null || expiresAt <= System.currentTimeMillis()) {
             return 0;
         }
 
-        // Verificar se está em Golden Hours (00h-06h)
-        Calendar cal = Calendar.getInstance();
-        int hour = cal.get(Calendar.HOUR_OF_DAY);
-        boolean isGoldenHours = hour >= 0 && hour < 6;
-
         if (isGoldenHours) {
             // Durante Golden Hours, shield está pausado
             // Retornar o tempo que tinha quando entrou em Golden Hours
@@ -172,7 +204,13 @@ public class ShieldManager {
      * Formata tempo restante (ex: "2d 5h" ou "18h 32min" ou "3h 12min")
      */
     public String formatRemaining(int clanId) {
-        long minutes = getRemainingMinutes(clanId);
+        return formatMinutes(getRemainingMinutes(clanId));
+    }
+
+    /**
+     * Formata minutos restantes (mesmo formato de formatRemaining)
+     */
+    public static String formatMinutes(long minutes) {
         if (minutes <= 0) {
             return "§4ZERADO";
         }
@@ -210,5 +248,64 @@ public class ShieldManager {
     public void clearNotification(int clanId) {
         notifiedCache.remove(clanId);
     }
-}
 
+    /**
+     * Estado do shield de um clã em um tick (imutável)
+     * Faixa de cor: §c < 6h, §e < 12h, §a acima
+     */
+    public static final class ShieldState {
+        static final ShieldState NONE = new ShieldState(0, false, false);
+        static final ShieldState EXPIRED = new ShieldState(0, false, true);
+
+        private final long remainingMinutes;
+        private final boolean paused;
+        private final boolean expired;
+        private final String color;
+        private final String formatted;
+
+        ShieldState(long remainingMinutes, boolean paused, boolean expired) {
+            this.remainingMinutes = remainingMinutes;
+            this.paused = paused;
+            this.expired = expired;
+            this.color = remainingMinutes < 360 ? "§c" : (remainingMinutes < 720 ? "§e" : "§a");
+            this.formatted = formatMinutes(remainingMinutes);
+        }
+
+        public long getRemainingMinutes() {
+            return remainingMinutes;
+        }
+
+        public boolean isActive() {
+            return remainingMinutes > 0;
+        }
+
+        /**
+         * Shield < 12h (ActionBar de alerta)
+         */
+        public boolean isCritical() {
+            return remainingMinutes > 0 && remainingMinutes < 720;
+        }
+
+        /**
+         * Pausado pelo Golden Hours neste tick
+         */
+        public boolean isPaused() {
+            return paused;
+        }
+
+        /**
+         * Tinha shield e zerou
+         */
+        public boolean isExpired() {
+            return expired;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public String getFormatted() {
+            return formatted;
+        }
+    }
+}
@@ -15,7 +15,6 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,12 +22,36 @@ import java.util.logging.Level;
 
 /**
  * Gerenciador de Upgrades de Factions
- * Grug Brain: Cache em memória, GUI simples, integração com clan bank
+ * Grug Brain: Tabela inteira em memória (carregada async no enable), GUI simples, integração com clan bank.
+ * Getters de bônus (crop grow, spawn, death - main thread) = leitura de array, nunca I/O.
  */
 public class UpgradeManager {
 
+    // Bônus percentual por nível (cada nível = +5%), pré-calculado
+    private static final double[] PERCENT_BY_LEVEL = new double[11];
+
+    static {
+        for (int level = 0; level < PERCENT_BY_LEVEL.length; level++) {
+            PERCENT_BY_LEVEL[level] = level * 5.0;
+        }
+    }
+
+    private static final int SPAWNER = UpgradeType.SPAWNER_RATE.ordinal();
+    private static final int CROP = UpgradeType.CROP_GROWTH.ordinal();
+    private static final int EXP = UpgradeType.EXP_BOOST.ordinal();
+    private static final int SHIELD = UpgradeType.EXTRA_SHIELD.ordinal();
+
+    // Load do enable que falhou: nova tentativa em 5s, 10s, 20s... até 5 min entre tentativas
+    private static final long LOAD_RETRY_BASE_TICKS = 5 * 20L;
+    private static final long LOAD_RETRY_MAX_TICKS = 5 * 60 * 20L;
+    // Save de nível que já foi superado por compra seguinte: tenta de novo depois (não devolve dinheiro)
+    private static final long SAVE_RETRY_TICKS = 5 * 20L;
+
     private final PrimeFactions plugin;
-    private final Map<Integer, UpgradeData> upgradeCache; // clanId -> UpgradeData
+    // clanId -> níveis (índice = UpgradeType.ordinal()). Array nunca é alterado - mudança troca a entrada.
+    // Clan ausente = tudo 0 (registro no banco só é criado na primeira compra)
+    private final Map<Integer, int[]> levels;
+    private volatile boolean loaded;
 
     public enum UpgradeType {
         SPAWNER_RATE("Taxa de Spawners", Material.MOB_SPAWNER, 5, 50000, "%d%%"),
@@ -70,6 +93,24 @@ public class UpgradeManager {
             return format;
         }
 
+        /**
+         * Coluna em faction_upgrades
+         */
+        public String getColumn() {
+            switch (this) {
+                case SPAWNER_RATE:
+                    return "spawner_rate";
+                case CROP_GROWTH:
+                    return "crop_growth";
+                case EXP_BOOST:
+                    return "exp_boost";
+                case EXTRA_SHIELD:
+                    return "extra_shield_hours";
+                default:
+                    return "";
+            }
+        }
+
         /**
          * Calcula custo para próximo nível
          * Grug Brain: Custo = baseCost * (currentLevel + 1)
@@ -83,7 +124,7 @@ public class UpgradeManager {
     }
 
     /**
-     * Dados de upgrade de um clã
+     * Dados de upgrade de um clã (cópia - alterar não muda o manager)
      */
     public static class UpgradeData {
         private final int clanId;
@@ -171,60 +212,94 @@ public class UpgradeManager {
 
     public UpgradeManager(PrimeFactions plugin) {
         this.plugin = plugin;
-        this.upgradeCache = new ConcurrentHashMap<>();
+        this.levels = new ConcurrentHashMap<>();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> loadAll(0));
     }
 
     /**
-     * Carrega upgrades de um clã (com cache)
-     * CORREÇÃO: Usa computeIfAbsent para thread-safety (evita múltiplas queries simultâneas)
-     * Grug Brain: Thread-safe, cache evita queries frequentes
+     * Carrega todos os registros de faction_upgrades (async - enable)
+     * Grug Brain: Uma query; até terminar, bônus = 0 e compra é recusada.
+     * Falhou (banco fora no boot) = agenda de novo com backoff, senão upgrades ficam travados até o restart.
      */
-    public UpgradeData getUpgrades(int clanId) {
-        // CORREÇÃO: computeIfAbsent é thread-safe e evita múltiplas queries simultâneas
-        return upgradeCache.computeIfAbsent(clanId, k -> {
-            // Carregar do banco (síncrono - cache evita queries frequentes)
-            // Grug Brain: Query rápida, cache TTL implícito (invalidação manual)
-            try (Connection conn = CoreAPI.getDatabase().getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT spawner_rate, crop_growth, exp_boost, extra_shield_hours " +
-                    "FROM faction_upgrades WHERE clan_id = ?")) {
-                stmt.setInt(1, clanId);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return new UpgradeData(
-                            clanId,
-                            rs.getInt("spawner_rate"),
-                            rs.getInt("crop_growth"),
-                            rs.getInt("exp_boost"),
-                            rs.getInt("extra_shield_hours")
-                        );
-                    } else {
-                        // Criar registro padrão
-                        createUpgradeRecord(clanId);
-                        return new UpgradeData(clanId, 0, 0, 0, 0);
-                    }
+    private void loadAll(int attempt) {
+        int count = 0;
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                "SELECT clan_id, spawner_rate, crop_growth, exp_boost, extra_shield_hours FROM faction_upgrades")) {
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int[] clanLevels = new int[UpgradeType.values().length];
+                    int clanId = rs.getInt("clan_id");
+                    clanLevels[SPAWNER] = clampLevel(clanId, rs.getInt("spawner_rate"));
+                    clanLevels[CROP] = clampLevel(clanId, rs.getInt("crop_growth"));
+                    clanLevels[EXP] = clampLevel(clanId, rs.getInt("exp_boost"));
+                    clanLevels[SHIELD] = clampLevel(clanId, rs.getInt("extra_shield_hours"));
+                    // putIfAbsent: compra feita durante o load já está mais nova que o banco
+                    levels.putIfAbsent(clanId, clanLevels);
+                    count++;
                 }
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Erro ao carregar upgrades do clã " + clanId, e);
-                return new UpgradeData(clanId, 0, 0, 0, 0);
             }
-        });
+            loaded = true;
+            plugin.getLogger().info("Upgrades carregados: " + count + " clãs");
+        } catch (SQLException e) {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            long delay = Math.min(LOAD_RETRY_BASE_TICKS << Math.min(attempt, 6), LOAD_RETRY_MAX_TICKS);
+            plugin.getLogger().log(Level.SEVERE, "Erro ao carregar upgrades (tentativa " + (attempt + 1) +
+                ", nova tentativa em " + (delay / 20) + "s)", e);
+            plugin.getServer().getScheduler().runTaskLaterAsynchronously(plugin, () -> loadAll(attempt + 1), delay);
+        }
     }
 
     /**
-     * Cria registro de upgrades se não existir
+     * Nível do banco dentro de 0..10 (índice de PERCENT_BY_LEVEL) - UPDATE manual não derruba os getters
      */
-    private void createUpgradeRecord(int clanId) {
-        try (Connection conn = CoreAPI.getDatabase().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                "INSERT INTO faction_upgrades (clan_id, spawner_rate, crop_growth, exp_boost, extra_shield_hours) " +
-                "VALUES (?, 0, 0, 0, 0) ON CONFLICT (clan_id) DO NOTHING")) {
-            stmt.setInt(1, clanId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Erro ao criar registro de upgrades", e);
+    private int clampLevel(int clanId, int level) {
+        int clamped = Math.max(0, Math.min(level, PERCENT_BY_LEVEL.length - 1));
+        if (clamped != level) {
+            plugin.getLogger().warning("Nível de upgrade inválido no banco (clã " + clanId + "): " + level +
+                " - usando " + clamped);
+        }
+        return clamped;
+    }
+
+    /**
+     * false até o load do enable terminar
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Nível de um upgrade (0 se o clã nunca comprou)
+     */
+    public int getLevel(int clanId, UpgradeType type) {
+        int[] clanLevels = levels.get(clanId);
+        return clanLevels != null ? clanLevels[type.ordinal()] : 0;
+    }
+
+    /**
+     * Upgrades de um clã (sem I/O)
+     */
+    public UpgradeData getUpgrades(int clanId) {
+        int[] clanLevels = levels.get(clanId);
+        if (clanLevels == null) {
+            return new UpgradeData(clanId, 0, 0, 0, 0);
         }
+        return new UpgradeData(clanId, clanLevels[SPAWNER], clanLevels[CROP], clanLevels[EXP], clanLevels[SHIELD]);
+    }
+
+    /**
+     * Troca o nível de um upgrade (copy-on-write do array do clã)
+     */
+    private void setLevel(int clanId, UpgradeType type, int level) {
+        levels.compute(clanId, (id, old) -> {
+            int[] updated = old != null ? old.clone() : new int[UpgradeType.values().length];
+            updated[type.ordinal()] = level;
+            return updated;
+        });
     }
 
     /**
@@ -233,8 +308,10 @@ public class UpgradeManager {
      * @return true se comprou com sucesso, false caso contrário
      */
     public synchronized boolean purchaseUpgrade(int clanId, UpgradeType type) {
-        UpgradeData data = getUpgrades(clanId);
-        int currentLevel = data.getLevel(type);
+        if (!loaded) {
+            return false; // Níveis ainda carregando - não cobrar em cima de nível errado
+        }
+        int currentLevel = getLevel(clanId, type);
 
         // Verificar se já está no máximo
         if (currentLevel >= type.getMaxLevel()) {
@@ -258,12 +335,9 @@ public class UpgradeManager {
             return false; // Falha ao remover dinheiro
         }
 
-        // Atualizar nível
+        // Atualizar nível em memória imediatamente (otimismo - assume sucesso)
         int newLevel = currentLevel + 1;
-        data.setLevel(type, newLevel);
-
-        // Atualizar cache imediatamente (otimismo - assume sucesso)
-        upgradeCache.put(clanId, data);
+        setLevel(clanId, type, newLevel);
 
         // Salvar no banco (async)
         saveUpgrade(clanId, type, newLevel);
@@ -272,8 +346,11 @@ public class UpgradeManager {
     }
 
     /**
-     * Salva upgrade no banco
-     * Grug Brain: Se falhar, faz rollback do cache e devolve dinheiro
+     * Salva upgrade no banco (upsert - registro do clã é criado aqui na primeira compra)
+     * Grug Brain: GREATEST protege contra duas compras seguidas gravando fora de ordem.
+     * Se falhar e o nível ainda é este: rollback em memória e devolve dinheiro.
+     * Se falhar mas outra compra já subiu o nível: este nível continua valendo (o save seguinte grava por cima
+     * com GREATEST) - sem devolver, grava de novo mais tarde.
      */
     private void saveUpgrade(int clanId, UpgradeType type, int level) {
         // Capturar valores antes de async (para rollback se necessário)
@@ -281,46 +358,41 @@ public class UpgradeManager {
         final long cost = type.getCostForLevel(oldLevel);
 
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            String column = type.getColumn();
             try (Connection conn = CoreAPI.getDatabase().getConnection();
                  PreparedStatement stmt = conn.prepareStatement(
-                    "UPDATE faction_upgrades SET " + getColumnName(type) + " = ? WHERE clan_id = ?")) {
-                stmt.setInt(1, level);
-                stmt.setInt(2, clanId);
+                    "INSERT INTO faction_upgrades (clan_id, " + column + ") VALUES (?, ?) " +
+                    "ON CONFLICT (clan_id) DO UPDATE SET " + column + " = " +
+                    "GREATEST(faction_upgrades." + column + ", EXCLUDED." + column + ")")) {
+                stmt.setInt(1, clanId);
+                stmt.setInt(2, level);
                 stmt.executeUpdate();
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Erro ao salvar upgrade, fazendo rollback", e);
+                plugin.getLogger().log(Level.SEVERE, "Erro ao salvar upgrade (clã " + clanId + ", " + type +
+                    " nível " + level + ")", e);
 
-                // Rollback: reverter cache e devolver dinheiro
                 plugin.getServer().getScheduler().runTask(plugin, () -> {
-                    UpgradeData data = getUpgrades(clanId);
-                    data.setLevel(type, oldLevel);
-                    upgradeCache.put(clanId, data);
-
-                    // Devolver dinheiro ao clan bank
-                    plugin.getClansPlugin().getClansManager().addClanBalance(clanId, cost);
+                    // Mesmo lock do purchaseUpgrade: compra não acontece entre o getLevel e o rollback
+                    synchronized (UpgradeManager.this) {
+                        int current = getLevel(clanId, type);
+                        if (current == level) {
+                            // Rollback: reverter nível e devolver dinheiro ao clan bank
+                            setLevel(clanId, type, oldLevel);
+                            plugin.getClansPlugin().getClansManager().addClanBalance(clanId, cost);
+                            return;
+                        }
+                        if (current < level) {
+                            return; // Nível já saiu da memória (reset do clã) - nada a gravar
+                        }
+                    }
+                    // Compra seguinte já está em cima deste nível: nível foi pago e vale - gravar de novo
+                    plugin.getServer().getScheduler().runTaskLater(plugin, () -> saveUpgrade(clanId, type, level),
+                        SAVE_RETRY_TICKS);
                 });
             }
         });
     }
 
-    /**
-     * Obtém nome da coluna no banco
-     */
-    private String getColumnName(UpgradeType type) {
-        switch (type) {
-            case SPAWNER_RATE:
-                return "spawner_rate";
-            case CROP_GROWTH:
-                return "crop_growth";
-            case EXP_BOOST:
-                return "exp_boost";
-            case EXTRA_SHIELD:
-                return "extra_shield_hours";
-            default:
-                return "";
-        }
-    }
-
     /**
      * Cria GUI de upgrades
      */
@@ -417,39 +489,38 @@ public class UpgradeManager {
      * Obtém bônus de spawner rate (em percentual)
      */
     public double getSpawnerRateBonus(int clanId) {
-        UpgradeData data = getUpgrades(clanId);
-        return data.getSpawnerRate() * 5.0; // Cada nível = +5%
+        int[] clanLevels = levels.get(clanId);
+        return clanLevels != null ? PERCENT_BY_LEVEL[clanLevels[SPAWNER]] : 0;
     }
 
     /**
      * Obtém bônus de crop growth (em percentual)
      */
     public double getCropGrowthBonus(int clanId) {
-        UpgradeData data = getUpgrades(clanId);
-        return data.getCropGrowth() * 5.0; // Cada nível = +5%
+        int[] clanLevels = levels.get(clanId);
+        return clanLevels != null ? PERCENT_BY_LEVEL[clanLevels[CROP]] : 0;
     }
 
     /**
      * Obtém bônus de EXP (em percentual)
      */
     public double getExpBoostBonus(int clanId) {
-        UpgradeData data = getUpgrades(clanId);
-        return data.getExpBoost() * 5.0; // Cada nível = +5%
+        int[] clanLevels = levels.get(clanId);
+        return clanLevels != null ? PERCENT_BY_LEVEL[clanLevels[EXP]] : 0;
     }
 
     /**
      * Obtém horas extras de shield
      */
     public int getExtraShieldHours(int clanId) {
-        UpgradeData data = getUpgrades(clanId);
-        return data.getExtraShieldHours();
+        int[] clanLevels = levels.get(clanId);
+        return clanLevels != null ? clanLevels[SHIELD] : 0;
     }
 
     /**
-     * Invalida cache de upgrades (chamado quando upgrade é comprado)
+     * Descarta níveis de um clã (clã apagado)
      */
     public void invalidateCache(int clanId) {
-        upgradeCache.remove(clanId);
+        levels.remove(clanId);
     }
 }
-
@@ -2,12 +2,24 @@ package com.primeleague.factions.util;
 
 import org.bukkit.entity.Player;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
 /**
  * ActionBar sender compatible with Paper 1.8.8
  * Grug Brain: Usa NMS v1_8_R3 quando necessário, fallback silencioso
  */
 public final class ActionBarCompat {
 
+    // Handles de reflection resolvidos uma vez (null = NMS indisponível, usa chat)
+    private static volatile boolean resolved;
+    private static Method serializerA;
+    private static Constructor<?> packetChatConstructor;
+    private static Method getHandle;
+    private static Field playerConnectionField;
+    private static Method sendPacket;
+
     private ActionBarCompat() {}
 
     /**
@@ -16,35 +28,80 @@ public final class ActionBarCompat {
     public static void send(Player player, String message) {
         if (player == null || !player.isOnline()) return;
 
-        try {
-            // NMS v1_8_R3 para ActionBar (PacketPlayOutChat com byte 2 = GAME_INFO)
-            // Grug Brain: Paper 1.8.8 não tem API para ActionBar, usar NMS diretamente
-            Class<?> ichat = Class.forName("net.minecraft.server.v1_8_R3.IChatBaseComponent");
-            Class<?> serializer = Class.forName("net.minecraft.server.v1_8_R3.IChatBaseComponent$ChatSerializer");
-            Class<?> packetChat = Class.forName("net.minecraft.server.v1_8_R3.PacketPlayOutChat");
-            Class<?> craftPlayer = Class.forName("org.bukkit.craftbukkit.v1_8_R3.entity.CraftPlayer");
-            Class<?> entityPlayer = Class.forName("net.minecraft.server.v1_8_R3.EntityPlayer");
-            Class<?> playerConnection = Class.forName("net.minecraft.server.v1_8_R3.PlayerConnection");
-            Class<?> packet = Class.forName("net.minecraft.server.v1_8_R3.Packet");
-
-            Object handle = craftPlayer.getMethod("getHandle").invoke(player);
-            Object connection = entityPlayer.getField("playerConnection").get(handle);
+        Object chatPacket = createPacket(message);
+        if (chatPacket == null || !sendPacket(player, chatPacket)) {
+            // Fallback: enviar mensagem normal no chat (melhor que nada)
+            player.sendMessage(message);
+        }
+    }
 
+    /**
+     * Monta o packet de ActionBar (reaproveitável para o mesmo texto)
+     * @return null se NMS indisponível
+     */
+    public static Object createPacket(String message) {
+        if (!resolve()) {
+            return null;
+        }
+        try {
             // Converter mensagem para JSON
             String json = "{\"text\":\"" + escape(message) + "\"}";
-            Object chatComponent = serializer.getMethod("a", String.class).invoke(null, json);
+            Object chatComponent = serializerA.invoke(null, json);
+
+            // PacketPlayOutChat(IChatBaseComponent, byte) - byte 2 = GAME_INFO (ActionBar)
+            return packetChatConstructor.newInstance(chatComponent, (byte) 2);
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
 
-            // Criar packet com byte 2 = GAME_INFO (ActionBar)
-            // PacketPlayOutChat(IChatBaseComponent, byte) - byte 2 = ActionBar
-            Object chatPacket = packetChat.getConstructor(ichat, byte.class)
-                .newInstance(chatComponent, (byte) 2);
+    /**
+     * Envia packet já montado
+     * @return false se falhou (chamador decide o fallback)
+     */
+    public static boolean sendPacket(Player player, Object chatPacket) {
+        if (player == null || !player.isOnline()) return true;
 
-            // Enviar packet
-            playerConnection.getMethod("sendPacket", packet).invoke(connection, chatPacket);
+        try {
+            Object handle = getHandle.invoke(player);
+            Object connection = playerConnectionField.get(handle);
+            sendPacket.invoke(connection, chatPacket);
+            return true;
         } catch (Throwable ignored) {
-            // Fallback: enviar mensagem normal no chat (melhor que nada)
-            player.sendMessage(message);
+            return false;
+        }
+    }
+
+    /**
+     * Resolve classes NMS v1_8_R3 (uma vez)
+     * Grug Brain: Paper 1.8.8 não tem API para ActionBar, usar NMS diretamente
+     */
+    private static boolean resolve() {
+        if (!resolved) {
+            synchronized (ActionBarCompat.class) {
+                if (!resolved) {
+                    try {
+                        Class<?> ichat = Class.forName("net.minecraft.server.v1_8_R3.IChatBaseComponent");
+                        Class<?> serializer = Class.forName("net.minecraft.server.v1_8_R3.IChatBaseComponent$ChatSerializer");
+                        Class<?> packetChat = Class.forName("net.minecraft.server.v1_8_R3.PacketPlayOutChat");
+                        Class<?> craftPlayer = Class.forName("org.bukkit.craftbukkit.v1_8_R3.entity.CraftPlayer");
+                        Class<?> entityPlayer = Class.forName("net.minecraft.server.v1_8_R3.EntityPlayer");
+                        Class<?> playerConnection = Class.forName("net.minecraft.server.v1_8_R3.PlayerConnection");
+                        Class<?> packet = Class.forName("net.minecraft.server.v1_8_R3.Packet");
+
+                        serializerA = serializer.getMethod("a", String.class);
+                        packetChatConstructor = packetChat.getConstructor(ichat, byte.class);
+                        getHandle = craftPlayer.getMethod("getHandle");
+                        playerConnectionField = entityPlayer.getField("playerConnection");
+                        sendPacket = playerConnection.getMethod("sendPacket", packet);
+                    } catch (Throwable ignored) {
+                        serializerA = null;
+                    }
+                    resolved = true;
+                }
+            }
         }
+        return serializerA != null;
     }
 
     private static String escape(String input) {
@@ -53,5 +110,34 @@ public final class ActionBarCompat {
                     .replace("\n", "\\n")
                     .replace("\r", "\\r");
     }
-}
 
+    /**
+     * ActionBar contínua de um player (task a cada segundo)
+     * Grug Brain: Packet só é remontado quando o texto muda; mesmo texto = reenvia o packet pronto
+     * a cada REFRESH_MS (client apaga a barra depois de ~3s).
+     */
+    public static final class Line {
+        private static final long REFRESH_MS = 2000L;
+
+        private String text;
+        private Object packet;
+        private long sentAt;
+
+        public void show(Player player, String message, long now) {
+            boolean changed = !message.equals(text);
+            if (!changed && now - sentAt < REFRESH_MS) {
+                return;
+            }
+            if (changed) {
+                text = message;
+                packet = createPacket(message);
+            } else if (packet == null) {
+                return; // Sem NMS: chat só quando muda (evita spam)
+            }
+            sentAt = now;
+            if (packet == null || !sendPacket(player, packet)) {
+                player.sendMessage(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.primeleague.factions.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Índice primitivo de claims: mundo -> (chunk x/z empacotado em long) -> clanId.
+ * Grug Brain: Caminho de leitura (getClanAt) sem alocação - sem ChunkKey, sem boxing.
+ *
+ * - Nome do mundo internado para int pequeno (poucos mundos, nunca removidos)
+ * - Uma tabela open-addressing (linear probing) por mundo
+ * - Leitura lock-free; escrita synchronized por mundo (claim/unclaim são raros)
+ */
+public final class ClaimIndex {
+
+    private final Map<String, Integer> worldIds = new ConcurrentHashMap<>();
+    private volatile Table[] tables = new Table[0];
+
+    /**
+     * ClanId dono do chunk, ou -1 se livre (zero alocação)
+     */
+    public int get(String world, int x, int z) {
+        Integer id = worldIds.get(world);
+        if (id == null) {
+            return -1;
+        }
+        return tables[id].get(pack(x, z));
+    }
+
+    /**
+     * Registra claim se o chunk estiver livre
+     * @return -1 se registrou, ou o clanId que já era dono
+     */
+    public int putIfAbsent(String world, int x, int z, int clanId) {
+        return table(world).putIfAbsent(pack(x, z), clanId);
+    }
+
+    /**
+     * Remove claim
+     * @return clanId removido, ou -1 se não estava claimado
+     */
+    public int remove(String world, int x, int z) {
+        Integer id = worldIds.get(world);
+        if (id == null) {
+            return -1;
+        }
+        return tables[id].remove(pack(x, z));
+    }
+
+    /**
+     * Total de chunks indexados (todos os mundos)
+     */
+    public int size() {
+        int total = 0;
+        for (Table table : tables) {
+            total += table.size();
+        }
+        return total;
+    }
+
+    private Table table(String world) {
+        Integer id = worldIds.get(world);
+        if (id != null) {
+            return tables[id];
+        }
+        synchronized (this) {
+            id = worldIds.get(world);
+            if (id == null) {
+                Table[] grown = new Table[tables.length + 1];
+                System.arraycopy(tables, 0, grown, 0, tables.length);
+                id = tables.length;
+                grown[id] = new Table();
+                // Publica o array antes do id: quem vê o id já vê a tabela
+                tables = grown;
+                worldIds.put(world, id);
+            }
+            return tables[id];
+        }
+    }
+
+    /**
+     * Empacota chunk x/z em um long (x nos 32 bits altos)
+     */
+    public static long pack(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Tabela long -> int de um mundo.
+     * Chunk x nunca é Integer.MIN_VALUE (borda do mundo = ±1.875.000 chunks),
+     * então EMPTY/TOMBSTONE nunca colidem com chaves reais.
+     */
+    private static final class Table {
+
+        private static final long EMPTY = pack(Integer.MIN_VALUE, 0);
+        private static final long TOMBSTONE = pack(Integer.MIN_VALUE, 1);
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+        private int size;  // guardado por this
+        private int used;  // vivos + tombstones, guardado por this
+
+        int get(long key) {
+            Slots s = slots;
+            int mask = s.mask;
+            int i = hash(key) & mask;
+            while (true) {
+                long k = s.keys.get(i);
+                if (k == key) {
+                    int value = s.values.get(i);
+                    // Re-checa: se o slot foi reciclado entre as duas leituras, procura de novo
+                    if (s.keys.get(i) == key) {
+                        return value;
+                    }
+                    s = slots;
+                    mask = s.mask;
+                    i = hash(key) & mask;
+                    continue;
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        synchronized int putIfAbsent(long key, int value) {
+            Slots s = slots;
+            int mask = s.mask;
+            int i = hash(key) & mask;
+            int reuse = -1;
+            while (true) {
+                long k = s.keys.get(i);
+                if (k == key) {
+                    return s.values.get(i);
+                }
+                if (k == EMPTY) {
+                    break;
+                }
+                if (k == TOMBSTONE && reuse < 0) {
+                    reuse = i;
+                }
+                i = (i + 1) & mask;
+            }
+
+            if (reuse >= 0) {
+                i = reuse;
+            } else {
+                used++;
+            }
+            // Valor antes da chave: leitor que vê a chave já vê o valor
+            s.values.set(i, value);
+            s.keys.set(i, key);
+            size++;
+
+            if (used * 4 >= s.keys.length() * 3) {
+                rehash(s);
+            }
+            return -1;
+        }
+
+        synchronized int remove(long key) {
+            Slots s = slots;
+            int mask = s.mask;
+            int i = hash(key) & mask;
+            while (true) {
+                long k = s.keys.get(i);
+                if (k == key) {
+                    int value = s.values.get(i);
+                    s.keys.set(i, TOMBSTONE);
+                    size--;
+                    return value;
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        /**
+         * Cresce (ou só limpa tombstones) e publica a nova tabela de uma vez
+         */
+        private void rehash(Slots old) {
+            int capacity = old.keys.length();
+            if (size * 2 >= capacity) {
+                capacity <<= 1;
+            }
+            Slots fresh = new Slots(capacity);
+            for (int j = 0; j < old.keys.length(); j++) {
+                long k = old.keys.get(j);
+                if (k != EMPTY && k != TOMBSTONE) {
+                    int i = hash(k) & fresh.mask;
+                    while (fresh.keys.get(i) != EMPTY) {
+                        i = (i + 1) & fresh.mask;
+                    }
+                    fresh.values.set(i, old.values.get(j));
+                    fresh.keys.set(i, k);
+                }
+            }
+            used = size;
+            slots = fresh;
+        }
+
+        private static int hash(long key) {
+            // Finalizador do murmur3 (espalha x/z vizinhos)
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            return (int) key;
+        }
+    }
+
+    /**
+     * Arrays de uma geração da tabela (capacidade potência de 2)
+     */
+    private static final class Slots {
+        final AtomicLongArray keys;
+        final AtomicIntegerArray values;
+        final int mask;
+
+        Slots(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicIntegerArray(capacity);
+            mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                keys.set(i, Table.EMPTY);
+            }
+        }
+    }
+}
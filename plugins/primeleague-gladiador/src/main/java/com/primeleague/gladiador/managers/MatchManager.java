@@ -1,5 +1,6 @@
 package com.primeleague.gladiador.managers;
 
+import com.primeleague.core.PvPContextAPI;
 import com.primeleague.gladiador.GladiadorPlugin;
 import com.primeleague.gladiador.models.Arena;
 import com.primeleague.gladiador.models.ClanEntry;
@@ -236,6 +237,9 @@ public class MatchManager {
         // Cancelar task de broadcast via BroadcastManager
         broadcastManager.stopStatusBroadcast();
 
+        // Ninguém mais em arena gerenciada pelo Gladiador
+        PvPContextAPI.clearOwner(MatchStateHandler.PVP_CONTEXT_OWNER);
+
         // Resetar WorldBorder e desativar PvP via BorderManager
         borderManager.resetBorder(currentMatch.getArena());
         borderManager.disablePvP(currentMatch.getArena());
@@ -1,5 +1,6 @@
 package com.primeleague.gladiador.managers;
 
+import com.primeleague.core.PvPContextAPI;
 import com.primeleague.gladiador.GladiadorPlugin;
 import com.primeleague.gladiador.integrations.ClansAPI;
 import com.primeleague.gladiador.models.ClanEntry;
@@ -106,6 +107,7 @@ public class MatchPlayerHandler {
 
         victimClanEntry.removePlayer(victim.getUniqueId());
         match.getAlivePlayers().remove(victim.getUniqueId());
+        PvPContextAPI.leaveArena(victim.getUniqueId(), MatchStateHandler.PVP_CONTEXT_OWNER);
         victimClanEntry.incrementDeaths();
 
         // Incrementar kills do killer ANTES de construir mensagem
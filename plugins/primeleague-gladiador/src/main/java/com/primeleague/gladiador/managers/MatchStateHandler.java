@@ -1,5 +1,6 @@
 package com.primeleague.gladiador.managers;
 
+import com.primeleague.core.PvPContextAPI;
 import com.primeleague.gladiador.GladiadorPlugin;
 import com.primeleague.gladiador.models.ClanEntry;
 import com.primeleague.gladiador.models.GladiadorMatch;
@@ -22,6 +23,9 @@ import java.util.UUID;
  */
 public class MatchStateHandler {
 
+    // Owner dos contextos de PvP do Gladiador no PvPContextAPI
+    public static final String PVP_CONTEXT_OWNER = "Gladiador";
+
     private final GladiadorPlugin plugin;
     private final BroadcastManager broadcastManager;
     private final BorderManager borderManager;
@@ -132,6 +136,11 @@ public class MatchStateHandler {
         match.setState(GladiadorMatch.MatchState.ACTIVE);
         match.setStartTime(System.currentTimeMillis());
 
+        // PvP dos vivos passa a ser gerenciado pelo Gladiador (pvp152 não aplica mecânicas)
+        for (UUID uuid : match.getAlivePlayers()) {
+            PvPContextAPI.enterArena(uuid, PVP_CONTEXT_OWNER, true);
+        }
+
         broadcastManager.broadcastPvPActivated(match);
 
         for (Player p : Bukkit.getOnlinePlayers()) {
@@ -161,6 +170,7 @@ public class MatchStateHandler {
             match.getBorderTask().cancel();
         }
 
+        PvPContextAPI.clearOwner(PVP_CONTEXT_OWNER);
         broadcastManager.stopStatusBroadcast();
         borderManager.resetBorder(match.getArena());
         borderManager.disablePvP(match.getArena());
@@ -1,5 +1,6 @@
 package com.primeleague.league;
 
+import com.primeleague.league.managers.RankingFormula;
 import com.primeleague.league.models.LeagueEvent;
 import com.primeleague.league.models.RankingEntry;
 import org.bukkit.Bukkit;
@@ -28,7 +29,7 @@ public class LeagueAPI {
 
     /**
      * Registra um evento (qualquer plugin pode usar)
-     * Grug Brain: Método único, genérico, thread-safe
+     * Grug Brain: Método único, genérico, thread-safe - sem lock, só enfileira
      *
      * @param category Categoria ("GLADIADOR", "X1", "PVP", "KOTH", "ECONOMY", "ELO", etc)
      * @param action Ação ("WIN", "KILL", "DEATH", "MVP", "CAPTURE", "BAN", "PURCHASE", "ELO_CHANGE", etc)
@@ -36,10 +37,10 @@ public class LeagueAPI {
      * @param entityId ID da entidade (UUID string para player, INT string para clan)
      * @param value Valor do evento (+50 pontos, +1 kill, -500 penalidade, etc)
      * @param reason Motivo ("1º lugar", "Kill PvP", "Compra loja", etc)
-     * @param metadata Dados extras (JSONB)
+     * @param metadata Dados extras (JSONB) - serializado no lote, não alterar o map depois da chamada
      * @param createdBy UUID do admin (se manual)
      */
-    public static synchronized void recordEvent(
+    public static void recordEvent(
         String category,
         String action,
         String entityType,
@@ -60,22 +61,10 @@ public class LeagueAPI {
             return;
         }
 
-        int seasonId = season.getId();
-
-        // Converter metadata para JSON
-        String metadataJson = null;
-        if (metadata != null && !metadata.isEmpty()) {
-            org.json.simple.JSONObject json = new org.json.simple.JSONObject();
-            json.putAll(metadata);
-            metadataJson = json.toJSONString();
-        }
-
-        // Inserir evento no banco (async)
-        // Trigger atualiza league_summary automaticamente
-        plugin.getEventManager().insertEventAsync(seasonId, entityType, entityId, category, action, value, reason, metadataJson, createdBy);
-
-        // Invalidar cache Caffeine
-        plugin.getCacheManager().invalidatePoints(seasonId, entityType, entityId);
+        // Enfileirar (gravação em lote async - EventIngestor)
+        // Summary e cache Caffeine são atualizados uma vez por lote
+        plugin.getEventIngestor().enqueue(season.getId(), entityType, entityId, category, action, value, reason,
+            metadata, createdBy);
     }
 
     // ========== WRAPPERS CONVENIENTES ==========
@@ -83,7 +72,7 @@ public class LeagueAPI {
     /**
      * Registra kill PvP
      */
-    public static synchronized void recordKill(UUID killerUuid, UUID victimUuid, String weapon) {
+    public static void recordKill(UUID killerUuid, UUID victimUuid, String weapon) {
         if (!isEnabled()) {
             return;
         }
@@ -106,7 +95,7 @@ public class LeagueAPI {
     /**
      * Registra mudança de ELO
      */
-    public static synchronized void recordEloChange(UUID playerUuid, int oldElo, int newElo, String reason) {
+    public static void recordEloChange(UUID playerUuid, int oldElo, int newElo, String reason) {
         if (!isEnabled()) {
             return;
         }
@@ -123,7 +112,7 @@ public class LeagueAPI {
     /**
      * Registra transação de dinheiro
      */
-    public static synchronized void recordMoneyTransaction(UUID playerUuid, long cents, String type, String reason) {
+    public static void recordMoneyTransaction(UUID playerUuid, long cents, String type, String reason) {
         if (!isEnabled()) {
             return;
         }
@@ -138,7 +127,7 @@ public class LeagueAPI {
     /**
      * Registra vitória em Gladiador
      */
-    public static synchronized void recordGladiadorWin(int clanId, UUID matchId, int position, int kills, int deaths) {
+    public static void recordGladiadorWin(int clanId, UUID matchId, int position, int kills, int deaths) {
         if (!isEnabled()) {
             return;
         }
@@ -159,7 +148,7 @@ public class LeagueAPI {
     /**
      * Registra vitória em X1
      */
-    public static synchronized void recordX1Win(UUID winnerUuid, UUID loserUuid, UUID matchId) {
+    public static void recordX1Win(UUID winnerUuid, UUID loserUuid, UUID matchId) {
         if (!isEnabled()) {
             return;
         }
@@ -182,7 +171,7 @@ public class LeagueAPI {
     /**
      * Adiciona pontos (wrapper para recordEvent)
      */
-    public static synchronized void awardPoints(String entityType, String entityId, int points, String reason, Map<String, Object> metadata) {
+    public static void awardPoints(String entityType, String entityId, int points, String reason, Map<String, Object> metadata) {
         if (!isEnabled()) {
             return;
         }
@@ -193,7 +182,7 @@ public class LeagueAPI {
     /**
      * Penaliza (wrapper para recordEvent com valor negativo)
      */
-    public static synchronized void penalize(String entityType, String entityId, int penaltyPoints, String reason, UUID adminUuid) {
+    public static void penalize(String entityType, String entityId, int penaltyPoints, String reason, UUID adminUuid) {
         if (!isEnabled()) {
             return;
         }
@@ -340,14 +329,37 @@ public class LeagueAPI {
     }
 
     /**
-     * Ranking customizado (múltiplas métricas)
-     * Exemplo: kills × 10 + glad_wins × 50 + money/1000
-     * TODO: Implementar parser de fórmula
+     * Ranking customizado de players (múltiplas métricas)
+     * Exemplo: "kills*10 + count_gladiador_win*50 + money/1000"
+     * Métricas e operadores: ver RankingFormula
+     *
+     * @throws IllegalArgumentException se a fórmula é inválida
      */
     public static List<RankingEntry> getCustomRanking(String formula, int limit) {
-        // TODO: Parse formula e calcular ON-THE-FLY
-        // Por enquanto, retorna lista vazia
-        return new ArrayList<>();
+        return getCustomRanking("PLAYER", formula, limit);
+    }
+
+    /**
+     * Ranking customizado (chamar async - primeiro acesso a uma fórmula lê o banco)
+     * Grug Brain: Fórmula compilada uma vez, métricas em memória atualizadas a cada lote de eventos,
+     * top-K por heap. Resultado em cache até chegar evento novo.
+     *
+     * @param entityType "CLAN" ou "PLAYER"
+     * @throws IllegalArgumentException se a fórmula é inválida
+     */
+    public static List<RankingEntry> getCustomRanking(String entityType, String formula, int limit) {
+        if (!isEnabled()) {
+            return new ArrayList<>();
+        }
+
+        LeaguePlugin plugin = getPlugin();
+        RankingFormula compiled = plugin.getCacheManager().getFormula(formula);
+        com.primeleague.league.models.Season season = plugin.getLeagueManager().getCurrentSeason();
+        if (season == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        return plugin.getCacheManager().getCustomRanking(season.getId(), entityType, compiled, limit);
     }
 
     /**
@@ -487,6 +499,7 @@ public class LeagueAPI {
                 // Invalidar cache
                 plugin.getServer().getScheduler().runTask(plugin, () -> {
                     plugin.getCacheManager().invalidatePoints(season.getId(), entityType, entityId);
+                    plugin.getCacheManager().invalidateRankings();
                 });
             } catch (Exception e) {
                 plugin.getLogger().severe("Erro ao resetar eventos: " + e.getMessage());
@@ -2,6 +2,7 @@ package com.primeleague.league;
 
 import com.primeleague.core.CoreAPI;
 import com.primeleague.league.managers.CacheManager;
+import com.primeleague.league.managers.EventIngestor;
 import com.primeleague.league.managers.EventManager;
 import com.primeleague.league.managers.LeagueManager;
 import com.primeleague.league.managers.ResetManager;
@@ -21,6 +22,7 @@ public class LeaguePlugin extends JavaPlugin {
     private static LeaguePlugin instance;
     private LeagueManager leagueManager;
     private EventManager eventManager;
+    private EventIngestor eventIngestor;
     private CacheManager cacheManager;
     private RewardsManager rewardsManager;
     private ResetManager resetManager;
@@ -46,6 +48,8 @@ public class LeaguePlugin extends JavaPlugin {
         leagueManager = new LeagueManager(this);
         eventManager = new EventManager(this);
         cacheManager = new CacheManager(this);
+        eventIngestor = new EventIngestor(this);
+        eventIngestor.start();
         rewardsManager = new RewardsManager(this);
         resetManager = new ResetManager(this);
 
@@ -72,6 +76,11 @@ public class LeaguePlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // Gravar eventos pendentes (sync - scheduler não roda mais depois do disable)
+        if (eventIngestor != null) {
+            eventIngestor.stop();
+        }
+
         if (cacheManager != null) {
             cacheManager.close();
         }
@@ -182,7 +191,9 @@ public class LeaguePlugin extends JavaPlugin {
             stmt.execute("CREATE TRIGGER update_summary_trigger " +
                 "AFTER INSERT ON league_events " +
                 "FOR EACH ROW " +
-                "WHEN (NEW.is_deleted = false) " +
+                "WHEN (NEW.is_deleted = false " +
+                // EventIngestor grava o summary por lote (SET LOCAL league.batch_ingest = 'on')
+                "AND current_setting('league.batch_ingest', true) IS DISTINCT FROM 'on') " +
                 "EXECUTE FUNCTION update_league_summary()");
 
             // 6. Índices para performance (CRÍTICOS)
@@ -234,6 +245,10 @@ public class LeaguePlugin extends JavaPlugin {
         return eventManager;
     }
 
+    public EventIngestor getEventIngestor() {
+        return eventIngestor;
+    }
+
     public CacheManager getCacheManager() {
         return cacheManager;
     }
@@ -47,8 +47,12 @@ public class LeagueCommand implements CommandExecutor {
                 return handlePenalidade(sender, args);
             case "softdelete":
                 return handleSoftDelete(sender, args);
+            case "ingest":
+                return handleIngest(sender);
+            case "formula":
+                return handleFormula(sender, args);
             default:
-                sender.sendMessage(ChatColor.RED + "Uso: /temporada [pontos|top|reset|penalidade|softdelete]");
+                sender.sendMessage(ChatColor.RED + "Uso: /temporada [pontos|top|reset|penalidade|softdelete|ingest|formula]");
                 return true;
         }
     }
@@ -176,7 +180,8 @@ public class LeagueCommand implements CommandExecutor {
     }
 
     /**
-     * Comando /top [kills|points|elo] - Ranking customizado
+     * Comando /top [kills|points|<ranking da config>] - Ranking customizado
+     * Rankings extras ficam em config.yml (rankings.<nome>.formula) - sem query nova por leaderboard
      */
     private boolean handleTop(CommandSender sender, String[] args) {
         String metric = "kills";
@@ -190,6 +195,7 @@ public class LeagueCommand implements CommandExecutor {
             @Override
             public void run() {
                 List<RankingEntry> rankings;
+                boolean customFormula = false;
 
                 switch (finalMetric) {
                     case "kills":
@@ -199,17 +205,34 @@ public class LeagueCommand implements CommandExecutor {
                         rankings = LeagueAPI.getClanRankingByPoints(10);
                         break;
                     default:
+                        String formula = plugin.getConfig().getString("rankings." + finalMetric + ".formula");
+                        if (formula != null) {
+                            String entityType = plugin.getConfig().getString("rankings." + finalMetric + ".entity", "PLAYER")
+                                .toUpperCase();
+                            customFormula = true;
+                            try {
+                                rankings = LeagueAPI.getCustomRanking(entityType, formula, 10);
+                            } catch (IllegalArgumentException e) {
+                                plugin.getLogger().warning("Fórmula inválida em rankings." + finalMetric + ": " + e.getMessage());
+                                rankings = new java.util.ArrayList<>();
+                            }
+                            break;
+                        }
                         rankings = LeagueAPI.getPlayerRankingByKills(10);
                         break;
                 }
 
                 final List<RankingEntry> finalRankings = rankings;
+                // Fórmula dá valor fracionário (ratio, pesos) - mesmo formato do /temporada formula
+                final boolean decimalValues = customFormula;
 
                 plugin.getServer().getScheduler().runTask(plugin, new Runnable() {
                     @Override
                     public void run() {
                         String metricName = finalMetric.equals("kills") ? "KILLS" :
-                                           (finalMetric.equals("points") ? "PONTOS" : "KILLS");
+                                           (finalMetric.equals("points") ? "PONTOS" :
+                                           (plugin.getConfig().isSet("rankings." + finalMetric + ".formula") ?
+                                               finalMetric.toUpperCase() : "KILLS"));
 
                         finalSender.sendMessage(ChatColor.GOLD + "=== TOP " + metricName + " ===");
 
@@ -228,7 +251,8 @@ public class LeagueCommand implements CommandExecutor {
 
                                 finalSender.sendMessage(ChatColor.YELLOW + "#" + entry.getPosition() + " " +
                                     ChatColor.WHITE + entityName + " " +
-                                    ChatColor.GRAY + "(" + (int)entry.getValue() + ")");
+                                    ChatColor.GRAY + "(" + (decimalValues ? String.format("%.1f", entry.getValue()) :
+                                        String.valueOf((int) entry.getValue())) + ")");
                             }
                         }
                     }
@@ -388,5 +412,98 @@ public class LeagueCommand implements CommandExecutor {
 
         return true;
     }
-}
 
+    /**
+     * Comando /temporada ingest - Métricas da gravação em lote de eventos (admin)
+     */
+    private boolean handleIngest(CommandSender sender) {
+        if (!sender.hasPermission("league.admin.ingest")) {
+            sender.sendMessage(ChatColor.RED + "Sem permissão.");
+            return true;
+        }
+
+        sender.sendMessage(ChatColor.GOLD + "=== " + ChatColor.YELLOW + "Ingestão de eventos" + ChatColor.GOLD + " ===");
+        for (java.util.Map.Entry<String, String> metric : plugin.getEventIngestor().getMetrics().entrySet()) {
+            sender.sendMessage(ChatColor.GRAY + metric.getKey() + ": " + ChatColor.WHITE + metric.getValue());
+        }
+        return true;
+    }
+
+    /**
+     * Comando /temporada formula <player|clan> <limite> <fórmula...> - Testa ranking por fórmula (admin)
+     * Ex: /temporada formula player 10 kills*3 + wins*10 - deaths
+     */
+    private boolean handleFormula(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("league.admin.formula")) {
+            sender.sendMessage(ChatColor.RED + "Sem permissão.");
+            return true;
+        }
+
+        if (args.length < 4) {
+            sender.sendMessage(ChatColor.RED + "Uso: /temporada formula <player|clan> <limite> <fórmula>");
+            sender.sendMessage(ChatColor.GRAY + "Métricas: points, kills, deaths, wins, losses, money, elo, penalties, " +
+                "count_<cat>_<acao>, sum_<cat>_<acao>");
+            return true;
+        }
+
+        String entityType = args[1].toUpperCase();
+        if (!entityType.equals("PLAYER") && !entityType.equals("CLAN")) {
+            sender.sendMessage(ChatColor.RED + "Tipo inválido! Use: player ou clan");
+            return true;
+        }
+
+        final int limit;
+        try {
+            limit = Integer.parseInt(args[2]);
+        } catch (NumberFormatException e) {
+            sender.sendMessage(ChatColor.RED + "Limite inválido!");
+            return true;
+        }
+        if (limit < 1 || limit > 100) {
+            sender.sendMessage(ChatColor.RED + "Limite deve ser entre 1 e 100!");
+            return true;
+        }
+
+        StringBuilder formulaBuilder = new StringBuilder();
+        for (int i = 3; i < args.length; i++) {
+            formulaBuilder.append(args[i]).append(' ');
+        }
+        final String formula = formulaBuilder.toString().trim();
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<RankingEntry> rankings;
+            long start = System.nanoTime();
+            try {
+                rankings = LeagueAPI.getCustomRanking(entityType, formula, limit);
+            } catch (IllegalArgumentException e) {
+                plugin.getServer().getScheduler().runTask(plugin, () ->
+                    sender.sendMessage(ChatColor.RED + "Fórmula inválida: " + e.getMessage()));
+                return;
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+            // Nomes resolvidos no async (getPlayerName pode ir ao banco)
+            List<String> lines = new java.util.ArrayList<>();
+            for (RankingEntry entry : rankings) {
+                String entityName = entry.getEntityType().equals("CLAN") ?
+                    getClanName(Integer.parseInt(entry.getEntityId())) :
+                    getPlayerName(UUID.fromString(entry.getEntityId()));
+                lines.add(ChatColor.YELLOW + "#" + entry.getPosition() + " " + ChatColor.WHITE + entityName + " " +
+                    ChatColor.GRAY + "(" + String.format("%.1f", entry.getValue()) + ")");
+            }
+
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                sender.sendMessage(ChatColor.GOLD + "=== " + ChatColor.YELLOW + formula + ChatColor.GOLD + " ===");
+                if (lines.isEmpty()) {
+                    sender.sendMessage(ChatColor.GRAY + "Nenhum resultado ainda!");
+                }
+                for (String line : lines) {
+                    sender.sendMessage(line);
+                }
+                sender.sendMessage(ChatColor.GRAY + "(" + elapsedMs + " ms)");
+            });
+        });
+
+        return true;
+    }
+}
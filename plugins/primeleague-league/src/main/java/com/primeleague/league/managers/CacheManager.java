@@ -1,10 +1,18 @@
 package com.primeleague.league.managers;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.primeleague.league.LeaguePlugin;
+import com.primeleague.league.models.RankingEntry;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Gerenciador de cache Caffeine
@@ -14,6 +22,14 @@ public class CacheManager {
 
     private final LeaguePlugin plugin;
     private final LoadingCache<String, Integer> pointsCache;
+    // Rankings de fórmula: fórmula compilada, tabela de métricas (temporada:tipo:fórmula), resultado (+ limite)
+    private final LoadingCache<String, RankingFormula> formulaCache;
+    private final Cache<String, RankingTable> rankingTables;
+    private final Cache<String, CachedRanking> rankingResults;
+    // Conta invalidações de ranking: tabela carregada durante uma invalidação não fica no cache
+    private final AtomicLong rankingInvalidations = new AtomicLong();
+    // Um load por tabela de cada vez (chave -> lock); outros leitores esperam e pegam o resultado
+    private final Map<String, Object> rankingLoadLocks = new ConcurrentHashMap<>();
 
     public CacheManager(LeaguePlugin plugin) {
         this.plugin = plugin;
@@ -45,6 +61,24 @@ public class CacheManager {
                 // Calcular ON-THE-FLY se cache não disponível
                 return plugin.getEventManager().calculatePointsFromEvents(seasonId, entityType, entityId);
             });
+
+        // Fórmula inválida lança IllegalArgumentException no get (não entra no cache)
+        formulaCache = Caffeine.newBuilder()
+            .maximumSize(100)
+            .build(RankingFormula::compile);
+
+        // Tabela expira para rebuild completo periódico (pega soft-delete, ajustes manuais no banco, etc)
+        int tableRefreshMinutes = plugin.getConfig().getInt("cache.ranking-table-refresh-minutes", 10);
+        rankingTables = Caffeine.newBuilder()
+            .expireAfterWrite(tableRefreshMinutes, TimeUnit.MINUTES)
+            .maximumSize(50)
+            .build();
+
+        int rankingTtlSeconds = plugin.getConfig().getInt("cache.ranking-ttl-seconds", 60);
+        rankingResults = Caffeine.newBuilder()
+            .expireAfterWrite(rankingTtlSeconds, TimeUnit.SECONDS)
+            .maximumSize(200)
+            .build();
     }
 
     /**
@@ -63,11 +97,112 @@ public class CacheManager {
         pointsCache.invalidate(cacheKey);
     }
 
+    /**
+     * Invalida cache de pontos de várias entidades de uma vez (lote do EventIngestor)
+     * @param cacheKeys Chaves "seasonId:entityType:entityId"
+     */
+    public void invalidatePoints(Collection<String> cacheKeys) {
+        pointsCache.invalidateAll(cacheKeys);
+    }
+
+    /**
+     * Compila fórmula (com cache)
+     * @throws IllegalArgumentException se a fórmula é inválida
+     */
+    public RankingFormula getFormula(String formula) {
+        if (formula == null) {
+            throw new IllegalArgumentException("Fórmula vazia");
+        }
+        return formulaCache.get(formula);
+    }
+
+    /**
+     * Ranking por fórmula (chamar async - primeiro acesso monta a tabela do banco)
+     * Grug Brain: Resultado em cache enquanto a versão da tabela não muda; tabela mantida pelo EventIngestor.
+     */
+    public List<RankingEntry> getCustomRanking(int seasonId, String entityType, RankingFormula formula, int limit) {
+        String tableKey = seasonId + ":" + entityType + ":" + formula.getKey();
+        RankingTable table = rankingTables.getIfPresent(tableKey);
+        if (table == null) {
+            synchronized (rankingLoadLocks.computeIfAbsent(tableKey, k -> new Object())) {
+                table = rankingTables.getIfPresent(tableKey);
+                if (table == null) {
+                    table = loadRankingTable(tableKey, seasonId, entityType, formula);
+                }
+            }
+            if (table == null) {
+                return new ArrayList<>();
+            }
+        }
+
+        String resultKey = tableKey + ":" + limit;
+        long version = table.getVersion();
+        CachedRanking cached = rankingResults.getIfPresent(resultKey);
+        if (cached == null || cached.table != table || cached.version != version) {
+            cached = new CachedRanking(table, version, table.top(limit));
+            rankingResults.put(resultKey, cached);
+        }
+        return RankingTable.copy(cached.ranking);
+    }
+
+    /**
+     * Monta a tabela fora do lock do EventIngestor (flush continua gravando durante o GROUP BY)
+     * Grug Brain: ReplayLog aberto antes do SELECT guarda os lotes commitados; no fim, dentro de callExclusive,
+     * aplica só os lotes acima do watermark e publica a tabela - daí em diante o ingestor soma direto nela.
+     */
+    private RankingTable loadRankingTable(String tableKey, int seasonId, String entityType, RankingFormula formula) {
+        EventIngestor ingestor = plugin.getEventIngestor();
+        long invalidations = rankingInvalidations.get();
+        EventIngestor.ReplayLog replayLog = ingestor.openReplayLog();
+        try {
+            RankingTable loaded = plugin.getEventManager().loadRankingTable(seasonId, entityType, formula);
+            if (loaded == null) {
+                return null;
+            }
+            return ingestor.callExclusive(() -> {
+                replayLog.replayInto(loaded, loaded.getWatermark());
+                rankingTables.put(tableKey, loaded);
+                // Reset/soft-delete invalidou no meio do SELECT: tabela pode ter os eventos apagados
+                if (rankingInvalidations.get() != invalidations) {
+                    rankingTables.asMap().remove(tableKey, loaded);
+                }
+                return loaded;
+            });
+        } finally {
+            ingestor.closeReplayLog(replayLog);
+        }
+    }
+
+    /**
+     * Soma evento gravado nas tabelas de ranking em memória (EventIngestor, depois do commit)
+     */
+    public void applyRankingEvent(int seasonId, String entityType, String entityId,
+                                  String category, String action, double value) {
+        for (RankingTable table : rankingTables.asMap().values()) {
+            table.apply(seasonId, entityType, entityId, category, action, value);
+        }
+    }
+
+    public boolean hasRankingTables() {
+        return rankingTables.estimatedSize() > 0;
+    }
+
+    /**
+     * Descarta rankings de fórmula (eventos mudaram fora do EventIngestor - reset, soft-delete)
+     * Grug Brain: Sem callExclusive (main thread não espera flush) - contador barra o load que já estava rodando
+     */
+    public void invalidateRankings() {
+        rankingInvalidations.incrementAndGet();
+        rankingTables.invalidateAll();
+        rankingResults.invalidateAll();
+    }
+
     /**
      * Invalida todo o cache
      */
     public void invalidateAll() {
         pointsCache.invalidateAll();
+        invalidateRankings();
     }
 
     /**
@@ -77,6 +212,7 @@ public class CacheManager {
         if (pointsCache != null) {
             pointsCache.invalidateAll();
         }
+        invalidateRankings();
     }
 
     /**
@@ -103,5 +239,19 @@ public class CacheManager {
         }
         return null;
     }
-}
 
+    /**
+     * Resultado de ranking + versão da tabela quando foi calculado
+     */
+    private static final class CachedRanking {
+        private final RankingTable table;
+        private final long version;
+        private final List<RankingEntry> ranking;
+
+        CachedRanking(RankingTable table, long version, List<RankingEntry> ranking) {
+            this.table = table;
+            this.version = version;
+            this.ranking = ranking;
+        }
+    }
+}
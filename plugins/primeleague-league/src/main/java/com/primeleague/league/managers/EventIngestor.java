@@ -0,0 +1,513 @@
+package com.primeleague.league.managers;
+
+import com.primeleague.core.CoreAPI;
+import com.primeleague.league.LeaguePlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Ingestão de eventos da League em lote
+ * Grug Brain: LeagueAPI.recordEvent só enfileira (sem lock, sem JSON, sem task por evento).
+ * Escritor único drena a fila e grava cada lote numa transação:
+ * - league_events: um INSERT multi-linha
+ * - league_summary: deltas somados em memória, um upsert por entidade (trigger desligado via SET LOCAL)
+ * - Caffeine: invalidado uma vez por lote, depois do commit
+ * Falha: erro de conexão devolve o lote para a frente da fila (retry no próximo flush);
+ * erro de dado divide o lote ao meio até isolar a linha ruim - só ela é descartada.
+ */
+public class EventIngestor {
+
+    // 10 parâmetros por linha - bem abaixo do limite de 32767 do PostgreSQL
+    private static final int MAX_BATCH = 1000;
+
+    private static final String INSERT_PREFIX = "INSERT INTO league_events " +
+        "(season_id, entity_type, entity_id, category, action, value, reason, metadata, created_by, created_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?)";
+    private static final String INSERT_SUFFIX = " RETURNING id";
+    private static final String SUMMARY_PREFIX = "INSERT INTO league_summary " +
+        "(season_id, entity_type, entity_id, points, last_updated) VALUES ";
+    private static final String SUMMARY_ROW = "(?, ?, ?, ?, CURRENT_TIMESTAMP)";
+    private static final String SUMMARY_SUFFIX = " ON CONFLICT (season_id, entity_type, entity_id) DO UPDATE SET " +
+        "points = league_summary.points + EXCLUDED.points, last_updated = CURRENT_TIMESTAMP";
+
+    private final LeaguePlugin plugin;
+    private final int batchSize;
+    private final ConcurrentLinkedQueue<PendingEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    // Escritor único (flush, disable e load de tabelas de ranking)
+    private final ReentrantLock writer = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // Eventos devolvidos por falha transitória - gravados antes da fila (só acessado com writer)
+    private final ArrayDeque<PendingEvent> retry = new ArrayDeque<>();
+    private volatile int retrySize;
+    // Loads de tabela de ranking em andamento (SELECT fora do lock) - recebem os lotes commitados
+    private final List<ReplayLog> replayLogs = new CopyOnWriteArrayList<>();
+    private BukkitTask flushTask;
+
+    // Métricas
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile int maxBatchSize;
+    private volatile long lastLagMs;
+    private volatile long maxLagMs;
+    private volatile double ratePerSecond;
+    private long rateSampleCount;
+    private long rateSampleAt = System.currentTimeMillis();
+
+    public EventIngestor(LeaguePlugin plugin) {
+        this.plugin = plugin;
+        this.batchSize = Math.max(1, Math.min(MAX_BATCH, plugin.getConfig().getInt("ingest.batch-size", 500)));
+    }
+
+    /**
+     * Inicia flush periódico async
+     */
+    public void start() {
+        long intervalTicks = Math.max(1L, plugin.getConfig().getLong("ingest.flush-interval-ms", 500) / 50L);
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+            intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Para o timer e grava tudo (sync - usado no disable)
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        // Flush em andamento no async: esperar terminar antes do flush final
+        writer.lock();
+        try {
+            drainAndWrite();
+            if (!retry.isEmpty()) {
+                plugin.getLogger().severe("Banco indisponível no desligamento - " + (retry.size() + pending.get()) +
+                    " eventos não gravados");
+            }
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * Enfileira evento (qualquer thread, nunca bloqueia)
+     * Nota: metadata é serializado no escritor - não alterar o map depois de chamar
+     */
+    public void enqueue(int seasonId, String entityType, String entityId, String category, String action,
+                        double value, String reason, Map<String, Object> metadata, UUID createdBy) {
+        queue.add(new PendingEvent(seasonId, entityType, entityId, category, action, value, reason,
+            metadata, createdBy, System.currentTimeMillis()));
+        enqueued.incrementAndGet();
+
+        // Lote cheio: não esperar o timer
+        if (pending.incrementAndGet() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Drena a fila e grava (escritor único - chamada concorrente retorna sem fazer nada)
+     */
+    public void flush() {
+        if (!writer.tryLock()) {
+            return;
+        }
+        try {
+            drainAndWrite();
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * Roda task sem lote sendo gravado ao mesmo tempo (espera o flush atual terminar)
+     * Grug Brain: Só trabalho curto aqui dentro - o flush espera. SELECT pesado vai fora, com ReplayLog.
+     */
+    public <T> T callExclusive(Supplier<T> task) {
+        writer.lock();
+        try {
+            return task.get();
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * Começa a guardar os lotes commitados (abrir ANTES do SELECT do load, fechar no finally)
+     * Grug Brain: Lote commitado antes de abrir já está no snapshot do SELECT (que começa depois).
+     */
+    public ReplayLog openReplayLog() {
+        ReplayLog log = new ReplayLog();
+        replayLogs.add(log);
+        return log;
+    }
+
+    public void closeReplayLog(ReplayLog log) {
+        replayLogs.remove(log);
+    }
+
+    private void drainAndWrite() {
+        updateRate();
+
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            // Devolvidos primeiro (ordem preservada)
+            while (batch.size() < batchSize && !retry.isEmpty()) {
+                batch.add(retry.pollFirst());
+            }
+            int fromQueue = 0;
+            PendingEvent event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                batch.add(event);
+                fromQueue++;
+            }
+            if (batch.isEmpty()) {
+                retrySize = 0;
+                return;
+            }
+            pending.addAndGet(-fromQueue);
+
+            List<PendingEvent> unwritten = writeBatch(batch);
+            if (!unwritten.isEmpty()) {
+                // Banco fora: devolver na frente e parar até o próximo flush
+                for (int i = unwritten.size() - 1; i >= 0; i--) {
+                    retry.addFirst(unwritten.get(i));
+                }
+                retrySize = retry.size();
+                return;
+            }
+            retrySize = retry.size();
+            batch.clear();
+        }
+    }
+
+    /**
+     * Grava lote; erro de dado = bisseção até isolar a linha ruim
+     * @return Eventos não gravados por falha transitória (vazio = tudo resolvido)
+     */
+    private List<PendingEvent> writeBatch(List<PendingEvent> batch) {
+        try {
+            commitBatch(batch);
+            return Collections.emptyList();
+        } catch (SQLException e) {
+            if (isTransient(e)) {
+                plugin.getLogger().warning("Erro transitório ao gravar lote de " + batch.size() +
+                    " eventos (nova tentativa no próximo flush): " + e.getMessage());
+                return batch;
+            }
+            if (batch.size() == 1) {
+                PendingEvent event = batch.get(0);
+                failed.incrementAndGet();
+                plugin.getLogger().severe("Evento descartado (" + event.entityType + " " + event.entityId + " " +
+                    event.category + "/" + event.action + " " + event.value + "): " + e.getMessage());
+                return Collections.emptyList();
+            }
+
+            int mid = batch.size() / 2;
+            List<PendingEvent> right = batch.subList(mid, batch.size());
+            List<PendingEvent> unwritten = writeBatch(new ArrayList<>(batch.subList(0, mid)));
+            if (!unwritten.isEmpty()) {
+                List<PendingEvent> rest = new ArrayList<>(unwritten);
+                rest.addAll(right);
+                return rest;
+            }
+            return writeBatch(new ArrayList<>(right));
+        }
+    }
+
+    /**
+     * Conexão, deadlock, falta de recurso: tentar de novo. Resto (constraint, tipo) é erro do dado.
+     */
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state == null || state.startsWith("08") || state.startsWith("40") ||
+            state.startsWith("53") || state.startsWith("57");
+    }
+
+    /**
+     * Um lote = uma transação (eventos + summary), depois invalida o cache das entidades tocadas
+     */
+    private void commitBatch(List<PendingEvent> batch) throws SQLException {
+        // Deltas do summary: mesma regra do trigger update_league_summary
+        Map<String, SummaryDelta> deltas = new LinkedHashMap<>();
+        for (PendingEvent event : batch) {
+            if (event.value != 0 && ("AWARD".equals(event.action) || "POINTS".equals(event.action) ||
+                "GLADIADOR".equals(event.category) || "KOTH".equals(event.category) || "X1".equals(event.category))) {
+                deltas.computeIfAbsent(event.seasonId + ":" + event.entityType + ":" + event.entityId,
+                    k -> new SummaryDelta(event.seasonId, event.entityType, event.entityId)).points += event.value;
+            }
+        }
+
+        long maxId;
+        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    // Trigger por linha desligado nesta transação - summary vai em um upsert por entidade
+                    stmt.execute("SET LOCAL league.batch_ingest = 'on'");
+                }
+                maxId = insertEvents(conn, batch);
+                if (!deltas.isEmpty()) {
+                    upsertSummary(conn, deltas);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        // Métricas
+        long lag = System.currentTimeMillis() - batch.get(0).createdAt;
+        written.addAndGet(batch.size());
+        batches.incrementAndGet();
+        lastBatchSize = batch.size();
+        maxBatchSize = Math.max(maxBatchSize, batch.size());
+        lastLagMs = lag;
+        maxLagMs = Math.max(maxLagMs, lag);
+
+        // Caffeine: uma invalidação por lote (só entidades cujo summary mudou)
+        CacheManager cacheManager = plugin.getCacheManager();
+        if (!deltas.isEmpty()) {
+            cacheManager.invalidatePoints(deltas.keySet());
+        }
+
+        // Load de tabela em andamento: guarda o lote para aplicar se o SELECT não o viu
+        for (ReplayLog log : replayLogs) {
+            log.record(maxId, batch);
+        }
+
+        // Rankings de fórmula em memória: somar eventos do lote (sem voltar ao banco)
+        if (cacheManager.hasRankingTables()) {
+            for (PendingEvent event : batch) {
+                cacheManager.applyRankingEvent(event.seasonId, event.entityType, event.entityId,
+                    event.category, event.action, event.value);
+            }
+        }
+    }
+
+    /**
+     * @return maior id gravado (lotes são sequenciais sob o writer - ids crescem de lote para lote)
+     */
+    private long insertEvents(Connection conn, List<PendingEvent> batch) throws SQLException {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + batch.size() * (INSERT_ROW.length() + 2) +
+            INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_ROW);
+        }
+        sql.append(INSERT_SUFFIX);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (PendingEvent event : batch) {
+                stmt.setInt(index++, event.seasonId);
+                stmt.setString(index++, event.entityType);
+                stmt.setString(index++, event.entityId);
+                stmt.setString(index++, event.category);
+                stmt.setString(index++, event.action);
+                stmt.setDouble(index++, event.value);
+                stmt.setString(index++, event.reason);
+                String metadataJson = toJson(event.metadata);
+                if (metadataJson != null) {
+                    stmt.setString(index++, metadataJson);
+                } else {
+                    stmt.setNull(index++, Types.OTHER);
+                }
+                if (event.createdBy != null) {
+                    stmt.setObject(index++, event.createdBy);
+                } else {
+                    stmt.setNull(index++, Types.OTHER);
+                }
+                stmt.setTimestamp(index++, new Timestamp(event.createdAt));
+            }
+            long maxId = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    maxId = Math.max(maxId, rs.getLong(1));
+                }
+            }
+            return maxId;
+        }
+    }
+
+    private void upsertSummary(Connection conn, Map<String, SummaryDelta> deltas) throws SQLException {
+        StringBuilder sql = new StringBuilder(SUMMARY_PREFIX);
+        for (int i = 0; i < deltas.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(SUMMARY_ROW);
+        }
+        sql.append(SUMMARY_SUFFIX);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (SummaryDelta delta : deltas.values()) {
+                stmt.setInt(index++, delta.seasonId);
+                stmt.setString(index++, delta.entityType);
+                stmt.setString(index++, delta.entityId);
+                stmt.setInt(index++, (int) Math.round(delta.points));
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String toJson(Map<String, Object> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return null;
+        }
+        org.json.simple.JSONObject json = new org.json.simple.JSONObject();
+        json.putAll(metadata);
+        return json.toJSONString();
+    }
+
+    /**
+     * Taxa de ingestão (eventos/s) entre flushes, suavizada
+     */
+    private void updateRate() {
+        long now = System.currentTimeMillis();
+        long elapsed = now - rateSampleAt;
+        if (elapsed < 1000L) {
+            return;
+        }
+        long count = enqueued.get();
+        double sample = (count - rateSampleCount) * 1000.0 / elapsed;
+        ratePerSecond = ratePerSecond == 0 ? sample : ratePerSecond * 0.7 + sample * 0.3;
+        rateSampleCount = count;
+        rateSampleAt = now;
+    }
+
+    /**
+     * Métricas para /temporada ingest
+     */
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long batchCount = batches.get();
+        metrics.put("Taxa", String.format("%.1f eventos/s", ratePerSecond));
+        metrics.put("Na fila", pending.get() + (retrySize > 0 ? " (+" + retrySize + " aguardando retry)" : ""));
+        metrics.put("Recebidos", String.valueOf(enqueued.get()));
+        metrics.put("Gravados", written.get() + " em " + batchCount + " lotes");
+        metrics.put("Falhas", String.valueOf(failed.get()));
+        metrics.put("Lote", "último " + lastBatchSize + ", médio " +
+            (batchCount > 0 ? written.get() / batchCount : 0) + ", máx " + maxBatchSize);
+        metrics.put("Atraso", "último " + lastLagMs + "ms, máx " + maxLagMs + "ms");
+        return metrics;
+    }
+
+    /**
+     * Lotes commitados durante um load de tabela de ranking
+     * Grug Brain: Lote inteiro num commit - ou todo dentro do snapshot do SELECT (maxId <= watermark), ou todo fora.
+     */
+    public static final class ReplayLog {
+        private final List<Long> maxIds = new ArrayList<>();
+        private final List<List<PendingEvent>> batches = new ArrayList<>();
+
+        private synchronized void record(long maxId, List<PendingEvent> batch) {
+            maxIds.add(maxId);
+            batches.add(new ArrayList<>(batch)); // drainAndWrite reaproveita a lista
+        }
+
+        /**
+         * Soma na tabela os lotes que o SELECT não viu (chamar dentro de callExclusive - nenhum lote no meio)
+         * @return eventos aplicados
+         */
+        public synchronized int replayInto(RankingTable table, long watermark) {
+            int applied = 0;
+            for (int i = 0; i < batches.size(); i++) {
+                if (maxIds.get(i) <= watermark) {
+                    continue;
+                }
+                for (PendingEvent event : batches.get(i)) {
+                    table.apply(event.seasonId, event.entityType, event.entityId, event.category, event.action,
+                        event.value);
+                    applied++;
+                }
+            }
+            return applied;
+        }
+    }
+
+    /**
+     * Evento aguardando gravação (imutável)
+     */
+    private static final class PendingEvent {
+        final int seasonId;
+        final String entityType;
+        final String entityId;
+        final String category;
+        final String action;
+        final double value;
+        final String reason;
+        final Map<String, Object> metadata;
+        final UUID createdBy;
+        final long createdAt;
+
+        PendingEvent(int seasonId, String entityType, String entityId, String category, String action, double value,
+                     String reason, Map<String, Object> metadata, UUID createdBy, long createdAt) {
+            this.seasonId = seasonId;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.category = category;
+            this.action = action;
+            this.value = value;
+            this.reason = reason;
+            this.metadata = metadata;
+            this.createdBy = createdBy;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Soma de pontos de uma entidade no lote
+     */
+    private static final class SummaryDelta {
+        final int seasonId;
+        final String entityType;
+        final String entityId;
+        double points;
+
+        SummaryDelta(int seasonId, String entityType, String entityId) {
+            this.seasonId = seasonId;
+            this.entityType = entityType;
+            this.entityId = entityId;
+        }
+    }
+}
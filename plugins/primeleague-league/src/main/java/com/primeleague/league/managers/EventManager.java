@@ -4,7 +4,6 @@ import com.primeleague.core.CoreAPI;
 import com.primeleague.league.LeaguePlugin;
 import com.primeleague.league.models.LeagueEvent;
 import com.primeleague.league.models.RankingEntry;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -14,6 +13,7 @@ import java.util.UUID;
 /**
  * Gerenciador de eventos
  * Grug Brain: Queries diretas, operações async, ON-THE-FLY calculations
+ * Escrita de eventos fica no EventIngestor (lote)
  */
 public class EventManager {
 
@@ -23,50 +23,6 @@ public class EventManager {
         this.plugin = plugin;
     }
 
-    /**
-     * Insere evento no banco (async)
-     * Grug Brain: Insert direto, trigger atualiza summary automaticamente
-     */
-    public void insertEventAsync(int seasonId, String entityType, String entityId, String category,
-                                 String action, double value, String reason, String metadataJson, UUID createdBy) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                try (Connection conn = CoreAPI.getDatabase().getConnection();
-                     PreparedStatement stmt = conn.prepareStatement(
-                         "INSERT INTO league_events " +
-                         "(season_id, entity_type, entity_id, category, action, value, reason, metadata, created_by) " +
-                         "VALUES (?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?)")) {
-
-                    stmt.setInt(1, seasonId);
-                    stmt.setString(2, entityType);
-                    stmt.setString(3, entityId);
-                    stmt.setString(4, category);
-                    stmt.setString(5, action);
-                    stmt.setDouble(6, value);
-                    stmt.setString(7, reason);
-                    if (metadataJson != null) {
-                        stmt.setString(8, metadataJson);
-                    } else {
-                        stmt.setNull(8, Types.OTHER);
-                    }
-                    if (createdBy != null) {
-                        stmt.setObject(9, createdBy);
-                    } else {
-                        stmt.setNull(9, Types.OTHER);
-                    }
-
-                    stmt.executeUpdate();
-                    // Trigger atualiza league_summary automaticamente
-
-                } catch (SQLException e) {
-                    plugin.getLogger().severe("Erro ao inserir evento: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-        }.runTaskAsynchronously(plugin);
-    }
-
     /**
      * Conta eventos (ON-THE-FLY)
      * Grug Brain: Query direta, sem cache
@@ -200,6 +156,104 @@ public class EventManager {
         return rankings;
     }
 
+    /**
+     * Monta tabela de métricas de uma fórmula (ranking customizado)
+     * Grug Brain: Um GROUP BY com SUM(CASE ...) por métrica em league_events + points do league_summary.
+     * Depois disso a tabela é mantida em memória pelo EventIngestor.
+     * Roda fora do lock do EventIngestor - watermark (maior id no snapshot) diz quais lotes faltam aplicar.
+     */
+    public RankingTable loadRankingTable(int seasonId, String entityType, RankingFormula formula) {
+        RankingTable table = new RankingTable(seasonId, entityType, formula);
+        List<RankingFormula.Metric> metrics = formula.getMetrics();
+
+        StringBuilder sql = new StringBuilder("SELECT entity_id");
+        List<String> params = new ArrayList<>();
+        List<Integer> eventMetrics = new ArrayList<>();
+        int pointsMetric = -1;
+        for (int i = 0; i < metrics.size(); i++) {
+            RankingFormula.Metric metric = metrics.get(i);
+            if (metric.getType() == RankingFormula.POINTS) {
+                pointsMetric = i;
+                continue;
+            }
+            sql.append(", SUM(CASE WHEN true");
+            if (metric.getCategory() != null) {
+                sql.append(" AND category = ?");
+                params.add(metric.getCategory());
+            }
+            if (metric.getAction() != null) {
+                sql.append(" AND action = ?");
+                params.add(metric.getAction());
+            }
+            sql.append(metric.getType() == RankingFormula.COUNT ? " THEN 1" : " THEN value")
+                .append(" ELSE 0 END) AS m").append(i);
+            eventMetrics.add(i);
+        }
+        sql.append(" FROM league_events WHERE season_id = ? AND entity_type = ? AND is_deleted = false GROUP BY entity_id");
+
+        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
+            // Um snapshot para watermark + GROUP BY + summary: lote com id <= watermark está em tudo, id maior em nada
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM league_events")) {
+                    rs.next();
+                    table.setWatermark(rs.getLong(1));
+                }
+
+                if (!eventMetrics.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                        int index = 1;
+                        for (String param : params) {
+                            stmt.setString(index++, param);
+                        }
+                        stmt.setInt(index++, seasonId);
+                        stmt.setString(index, entityType);
+
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                String entityId = rs.getString("entity_id");
+                                for (int metric : eventMetrics) {
+                                    double value = rs.getDouble("m" + metric);
+                                    if (value != 0) {
+                                        table.set(entityId, metric, value);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+
+                if (pointsMetric >= 0) {
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT entity_id, points FROM league_summary WHERE season_id = ? AND entity_type = ?")) {
+                        stmt.setInt(1, seasonId);
+                        stmt.setString(2, entityType);
+
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                table.set(rs.getString("entity_id"), pointsMetric, rs.getInt("points"));
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao montar ranking '" + formula.getSource() + "': " + e.getMessage());
+            return null;
+        }
+
+        return table;
+    }
+
     /**
      * Obtém histórico de eventos (filtros opcionais)
      */
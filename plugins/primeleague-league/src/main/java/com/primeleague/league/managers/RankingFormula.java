@@ -0,0 +1,355 @@
+package com.primeleague.league.managers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fórmula de ranking compilada (ex: "kills*3 + wins*10 - deaths")
+ * Grug Brain: Parse uma vez, vira bytecode de pilha (int[] + double[]). Avaliar por entidade = loop
+ * sobre o array, sem árvore, sem reflection, sem alocação.
+ *
+ * Métricas (por temporada, is_deleted = false):
+ * - points: pontos do league_summary (mesma regra do trigger)
+ * - count_CATEGORIA_ACAO: número de eventos (ex: count_x1_win, count_koth_capture)
+ * - sum_CATEGORIA_ACAO: soma de value (ex: sum_elo_elo_change)
+ * - Atalhos: kills, deaths, wins (WIN de qualquer categoria), losses, money, elo, penalties
+ * Operadores: + - * / ( ) e números. Divisão por zero devolve o numerador (kills/deaths com 0 deaths = kills).
+ */
+public final class RankingFormula {
+
+    public static final int MAX_LENGTH = 200;
+    public static final int MAX_METRICS = 16;
+
+    // Tipos de métrica
+    public static final int POINTS = 0;
+    public static final int COUNT = 1;
+    public static final int SUM = 2;
+
+    // Opcodes
+    private static final int PUSH_CONST = 0;
+    private static final int PUSH_METRIC = 1;
+    private static final int ADD = 2;
+    private static final int SUB = 3;
+    private static final int MUL = 4;
+    private static final int DIV = 5;
+    private static final int NEG = 6;
+
+    private static final Map<String, Metric> ALIASES = new HashMap<>();
+
+    static {
+        ALIASES.put("points", new Metric("points", POINTS, null, null));
+        ALIASES.put("kills", new Metric("kills", COUNT, "PVP", "KILL"));
+        ALIASES.put("deaths", new Metric("deaths", COUNT, "PVP", "DEATH"));
+        ALIASES.put("wins", new Metric("wins", COUNT, null, "WIN"));
+        ALIASES.put("losses", new Metric("losses", COUNT, null, "LOSS"));
+        ALIASES.put("money", new Metric("money", SUM, "ECONOMY", "TRANSACTION"));
+        ALIASES.put("elo", new Metric("elo", SUM, "ELO", "ELO_CHANGE"));
+        ALIASES.put("penalties", new Metric("penalties", SUM, "PUNISH", "PENALTY"));
+    }
+
+    private final String source;
+    private final String key;
+    private final List<Metric> metrics;
+    private final int[] code;
+    private final double[] constants;
+    private final int maxStack;
+
+    private RankingFormula(String source, String key, List<Metric> metrics, int[] code, double[] constants, int maxStack) {
+        this.source = source;
+        this.key = key;
+        this.metrics = metrics;
+        this.code = code;
+        this.constants = constants;
+        this.maxStack = maxStack;
+    }
+
+    /**
+     * Compila fórmula
+     * @throws IllegalArgumentException com mensagem para o staff se a fórmula é inválida
+     */
+    public static RankingFormula compile(String formula) {
+        if (formula == null || formula.trim().isEmpty()) {
+            throw new IllegalArgumentException("Fórmula vazia");
+        }
+        if (formula.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Fórmula muito longa (máx " + MAX_LENGTH + " caracteres)");
+        }
+
+        Parser parser = new Parser(formula.toLowerCase(Locale.ROOT));
+        parser.parseExpression();
+        parser.skipSpaces();
+        if (parser.pos < parser.text.length()) {
+            throw new IllegalArgumentException("Caractere inesperado na posição " + (parser.pos + 1) + ": '" +
+                parser.text.charAt(parser.pos) + "'");
+        }
+
+        int[] code = new int[parser.code.size()];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = parser.code.get(i);
+        }
+        double[] constants = new double[parser.constants.size()];
+        for (int i = 0; i < constants.length; i++) {
+            constants[i] = parser.constants.get(i);
+        }
+        String key = formula.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+        return new RankingFormula(formula.trim(), key, Collections.unmodifiableList(parser.metrics), code, constants,
+            parser.maxDepth);
+    }
+
+    /**
+     * Avalia a fórmula para uma entidade
+     * @param values Valor de cada métrica, na ordem de getMetrics()
+     * @param stack Pilha reaproveitada (tamanho >= getMaxStack())
+     */
+    public double evaluate(double[] values, double[] stack) {
+        int top = -1;
+        int[] code = this.code;
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case PUSH_CONST:
+                    stack[++top] = constants[code[++pc]];
+                    break;
+                case PUSH_METRIC:
+                    stack[++top] = values[code[++pc]];
+                    break;
+                case ADD:
+                    stack[top - 1] += stack[top];
+                    top--;
+                    break;
+                case SUB:
+                    stack[top - 1] -= stack[top];
+                    top--;
+                    break;
+                case MUL:
+                    stack[top - 1] *= stack[top];
+                    top--;
+                    break;
+                case DIV:
+                    if (stack[top] != 0) {
+                        stack[top - 1] /= stack[top];
+                    }
+                    top--;
+                    break;
+                case NEG:
+                    stack[top] = -stack[top];
+                    break;
+                default:
+                    throw new IllegalStateException("Opcode inválido: " + code[pc]);
+            }
+        }
+        return stack[0];
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Forma normalizada (sem espaços, minúscula) - chave de cache
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public List<Metric> getMetrics() {
+        return metrics;
+    }
+
+    public int getMaxStack() {
+        return maxStack;
+    }
+
+    /**
+     * Métrica usada pela fórmula
+     * category/action null = qualquer
+     */
+    public static final class Metric {
+        private final String name;
+        private final int type;
+        private final String category;
+        private final String action;
+
+        Metric(String name, int type, String category, String action) {
+            this.name = name;
+            this.type = type;
+            this.category = category;
+            this.action = action;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * Quanto um evento soma nesta métrica (0 = não conta)
+         * Grug Brain: POINTS segue a regra do trigger update_league_summary
+         */
+        public double contribution(String eventCategory, String eventAction, double value) {
+            if (type == POINTS) {
+                boolean scores = "AWARD".equals(eventAction) || "POINTS".equals(eventAction) ||
+                    "GLADIADOR".equals(eventCategory) || "KOTH".equals(eventCategory) || "X1".equals(eventCategory);
+                return scores ? value : 0;
+            }
+            if ((category != null && !category.equals(eventCategory)) || (action != null && !action.equals(eventAction))) {
+                return 0;
+            }
+            return type == COUNT ? 1 : value;
+        }
+    }
+
+    /**
+     * Parser recursivo (expr -> termo -> fator), emite código de pilha direto
+     */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+        private final List<Integer> code = new ArrayList<>();
+        private final List<Double> constants = new ArrayList<>();
+        private final List<Metric> metrics = new ArrayList<>();
+        private int depth;
+        private int maxDepth;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        void parseExpression() {
+            parseTerm();
+            while (true) {
+                skipSpaces();
+                if (accept('+')) {
+                    parseTerm();
+                    emit(ADD, -1);
+                } else if (accept('-')) {
+                    parseTerm();
+                    emit(SUB, -1);
+                } else {
+                    return;
+                }
+            }
+        }
+
+        void parseTerm() {
+            parseFactor();
+            while (true) {
+                skipSpaces();
+                if (accept('*')) {
+                    parseFactor();
+                    emit(MUL, -1);
+                } else if (accept('/')) {
+                    parseFactor();
+                    emit(DIV, -1);
+                } else {
+                    return;
+                }
+            }
+        }
+
+        void parseFactor() {
+            skipSpaces();
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("Fórmula incompleta");
+            }
+            char c = text.charAt(pos);
+            if (c == '-') {
+                pos++;
+                parseFactor();
+                emit(NEG, 0);
+            } else if (c == '(') {
+                pos++;
+                parseExpression();
+                skipSpaces();
+                if (!accept(')')) {
+                    throw new IllegalArgumentException("Faltou ')' na posição " + (pos + 1));
+                }
+            } else if (Character.isDigit(c) || c == '.') {
+                int start = pos;
+                while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                    pos++;
+                }
+                try {
+                    constants.add(Double.parseDouble(text.substring(start, pos)));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Número inválido: " + text.substring(start, pos));
+                }
+                emit(PUSH_CONST, 1);
+                code.add(constants.size() - 1);
+            } else if (Character.isLetter(c)) {
+                int start = pos;
+                while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                    pos++;
+                }
+                emit(PUSH_METRIC, 1);
+                code.add(metricIndex(text.substring(start, pos)));
+            } else {
+                throw new IllegalArgumentException("Caractere inesperado na posição " + (pos + 1) + ": '" + c + "'");
+            }
+        }
+
+        int metricIndex(String name) {
+            for (int i = 0; i < metrics.size(); i++) {
+                if (metrics.get(i).name.equals(name)) {
+                    return i;
+                }
+            }
+
+            Metric metric = ALIASES.get(name);
+            if (metric == null) {
+                // count_categoria_acao / sum_categoria_acao (ação pode ter "_", ex: sum_elo_elo_change)
+                String[] parts = name.split("_", 3);
+                if (parts.length == 3 && (parts[0].equals("count") || parts[0].equals("sum"))) {
+                    metric = new Metric(name, parts[0].equals("count") ? COUNT : SUM,
+                        parts[1].toUpperCase(Locale.ROOT), parts[2].toUpperCase(Locale.ROOT));
+                }
+            }
+            if (metric == null) {
+                throw new IllegalArgumentException("Métrica desconhecida: " + name +
+                    " (use points, kills, deaths, wins, losses, money, elo, penalties, count_<cat>_<acao> ou sum_<cat>_<acao>)");
+            }
+            if (metrics.size() >= MAX_METRICS) {
+                throw new IllegalArgumentException("Muitas métricas (máx " + MAX_METRICS + ")");
+            }
+            metrics.add(metric);
+            return metrics.size() - 1;
+        }
+
+        /**
+         * Emite opcode e atualiza profundidade da pilha (push +1, binário -1, unário 0)
+         */
+        void emit(int opcode, int stackDelta) {
+            code.add(opcode);
+            depth += stackDelta;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        boolean accept(char c) {
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.primeleague.league.managers;
+
+import com.primeleague.league.models.RankingEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Métricas de uma fórmula por entidade (uma temporada, um tipo de entidade)
+ * Grug Brain: Montada uma vez do banco; depois cada lote do EventIngestor soma os eventos novos.
+ * Top-K = heap mínimo de tamanho K sobre as entidades (O(n log K)), sem ordenar tudo.
+ */
+public final class RankingTable {
+
+    private final int seasonId;
+    private final String entityType;
+    private final RankingFormula formula;
+    private final Map<String, double[]> values = new HashMap<>();
+    private final double[] stack;
+    private volatile long version;
+    // Maior id de league_events no snapshot do load (lotes acima disso são aplicados pelo ReplayLog)
+    private long watermark;
+
+    public RankingTable(int seasonId, String entityType, RankingFormula formula) {
+        this.seasonId = seasonId;
+        this.entityType = entityType;
+        this.formula = formula;
+        this.stack = new double[Math.max(1, formula.getMaxStack())];
+    }
+
+    /**
+     * Valor inicial de uma métrica (load do banco)
+     */
+    public synchronized void set(String entityId, int metricIndex, double value) {
+        values.computeIfAbsent(entityId, k -> new double[formula.getMetrics().size()])[metricIndex] = value;
+    }
+
+    /**
+     * Soma um evento gravado (chamado pelo EventIngestor depois do commit)
+     * @return true se alguma métrica mudou
+     */
+    public synchronized boolean apply(int eventSeasonId, String eventEntityType, String entityId,
+                                      String category, String action, double value) {
+        if (eventSeasonId != seasonId || !entityType.equals(eventEntityType)) {
+            return false;
+        }
+
+        List<RankingFormula.Metric> metrics = formula.getMetrics();
+        double[] entity = null;
+        for (int i = 0; i < metrics.size(); i++) {
+            double contribution = metrics.get(i).contribution(category, action, value);
+            if (contribution != 0) {
+                if (entity == null) {
+                    entity = values.computeIfAbsent(entityId, k -> new double[metrics.size()]);
+                }
+                entity[i] += contribution;
+            }
+        }
+        if (entity != null) {
+            version++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Top-K pela fórmula (maior primeiro)
+     */
+    public synchronized List<RankingEntry> top(int limit) {
+        PriorityQueue<RankingEntry> heap = new PriorityQueue<>(Math.max(1, limit) + 1,
+            (a, b) -> Double.compare(a.getValue(), b.getValue()));
+        for (Map.Entry<String, double[]> entry : values.entrySet()) {
+            double score = formula.evaluate(entry.getValue(), stack);
+            if (heap.size() < limit) {
+                heap.add(new RankingEntry(entityType, entry.getKey(), null, score, 0));
+            } else if (limit > 0 && score > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(new RankingEntry(entityType, entry.getKey(), null, score, 0));
+            }
+        }
+
+        List<RankingEntry> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        // Heap sai do menor para o maior - inverter e numerar
+        List<RankingEntry> ranking = new ArrayList<>(result.size());
+        for (int i = result.size() - 1; i >= 0; i--) {
+            RankingEntry entry = result.get(i);
+            entry.setPosition(ranking.size() + 1);
+            ranking.add(entry);
+        }
+        return ranking;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    /**
+     * Muda a cada evento aplicado - resultado em cache com versão antiga é recalculado
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getSeasonId() {
+        return seasonId;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public RankingFormula getFormula() {
+        return formula;
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    /**
+     * Copia lista de resultado (entrada do cache não pode ser alterada por quem chama)
+     */
+    static List<RankingEntry> copy(List<RankingEntry> ranking) {
+        List<RankingEntry> copy = new ArrayList<>(ranking.size());
+        for (RankingEntry entry : ranking) {
+            copy.add(new RankingEntry(entry.getEntityType(), entry.getEntityId(), entry.getEntityName(),
+                entry.getValue(), entry.getPosition()));
+        }
+        return copy;
+    }
+}
@@ -1,11 +1,12 @@
 package com.primeleague.punishments.listeners;
 
 import com.primeleague.punishments.PunishPlugin;
+import com.primeleague.punishments.managers.BanIndex;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
-import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 
 /**
  * Listener de punições
@@ -19,21 +20,26 @@ public class PunishListener implements Listener {
         this.plugin = plugin;
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerLogin(PlayerLoginEvent event) {
-        org.bukkit.entity.Player player = event.getPlayer();
-        java.util.UUID uuid = player.getUniqueId();
+    /**
+     * Ban checado no pre-login (thread async do login) - main thread não faz I/O
+     * HIGH: antes do Auth (HIGHEST), banido nem chega a consultar a conta
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
         String ip = event.getAddress().getHostAddress();
 
-        // Verificar ban (UUID ou IP)
-        if (plugin.getPunishManager().isBanned(uuid, ip)) {
-            // Buscar motivo do ban (query DB ou cache)
-            String reason = plugin.getPunishManager().getBanReason(uuid, ip);
+        // Verificar ban (UUID ou IP) - índice em memória
+        BanIndex.Ban ban = plugin.getPunishManager().getActiveBan(event.getUniqueId(), ip);
+        if (ban != null) {
+            String reason = ban.getReason() != null && !ban.getReason().isEmpty() ? ban.getReason() : "Sem motivo especificado";
             // Usar ChatColor ao invés de § para evitar problemas de encoding
             String message = org.bukkit.ChatColor.RED + "Voce esta banido!\n" +
                             org.bukkit.ChatColor.GRAY + "Motivo: " +
                             org.bukkit.ChatColor.WHITE + reason;
-            event.disallow(PlayerLoginEvent.Result.KICK_BANNED, message);
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, message);
         }
     }
 
@@ -0,0 +1,286 @@
+package com.primeleague.punishments.managers;
+
+import com.primeleague.core.CoreAPI;
+import com.primeleague.punishments.PunishPlugin;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice em memória dos bans ativos (por UUID e por IP)
+ * Grug Brain: Login consulta memória, nunca o banco.
+ * - Snapshot imutável trocado inteiro (leitura lock-free, bans mudam raramente)
+ * - Bloom filter na frente: a maioria dos logins (não banidos) nem toca os mapas
+ * - Ban/unban deste servidor atualizam o índice na hora; reload periódico pega o resto
+ * - Expiração conferida na leitura (expires_at), sem precisar de reload
+ */
+public class BanIndex {
+
+    private final PunishPlugin plugin;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+    // Incrementa a cada mudança incremental - reload descarta resultado se houve mudança durante a query
+    private final AtomicLong changes = new AtomicLong();
+
+    public BanIndex(PunishPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Índice carregado ao menos uma vez? (se não, caller consulta o banco)
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Ban ativo mais recente do UUID ou do IP (zero I/O)
+     * @return ban ou null se não está banido
+     */
+    public Ban find(UUID uuid, String ip) {
+        Snapshot s = snapshot;
+        long now = System.currentTimeMillis();
+        Ban best = null;
+        if (uuid != null && s.bloom.mightContain(hash(uuid))) {
+            best = newest(s.byUuid.get(uuid), now, null);
+        }
+        if (ip != null && s.bloom.mightContain(hash(ip))) {
+            best = newest(s.byIp.get(ip), now, best);
+        }
+        return best;
+    }
+
+    /**
+     * Recarrega todos os bans ativos do banco (chamar async, ou sync no enable)
+     */
+    public void reload() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long seq = changes.get();
+            List<Ban> bans = queryActiveBans();
+            if (bans == null) {
+                return; // Erro já logado - mantém índice atual
+            }
+            Snapshot fresh = Snapshot.build(bans);
+            synchronized (this) {
+                if (changes.get() == seq) {
+                    snapshot = fresh;
+                    loaded = true;
+                    return;
+                }
+            }
+            // Ban/unban aplicado durante a query: o resultado pode estar velho, consultar de novo
+        }
+    }
+
+    /**
+     * Ban novo gravado no banco (notificação do applyPunish)
+     */
+    public synchronized void add(Ban ban) {
+        List<Ban> bans = new ArrayList<>(snapshot.all);
+        bans.add(ban);
+        snapshot = Snapshot.build(bans);
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Bans do player desativados no banco (notificação do removePunish)
+     */
+    public synchronized void removePlayer(UUID playerUuid) {
+        List<Ban> bans = new ArrayList<>(snapshot.all.size());
+        for (Ban ban : snapshot.all) {
+            if (!ban.playerUuid.equals(playerUuid)) {
+                bans.add(ban);
+            }
+        }
+        snapshot = Snapshot.build(bans);
+        changes.incrementAndGet();
+    }
+
+    public int size() {
+        return snapshot.all.size();
+    }
+
+    private List<Ban> queryActiveBans() {
+        List<Ban> bans = new ArrayList<>();
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT player_uuid, ip, reason, created_at, expires_at FROM punishments WHERE " +
+                 "type = 'ban' AND active = TRUE AND (expires_at IS NULL OR expires_at > NOW())");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                Timestamp expiresAt = rs.getTimestamp("expires_at");
+                bans.add(new Ban((UUID) rs.getObject("player_uuid"), rs.getString("ip"), rs.getString("reason"),
+                    createdAt != null ? createdAt.getTime() : 0L,
+                    expiresAt != null ? expiresAt.getTime() : 0L));
+            }
+            return bans;
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao carregar índice de bans: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Ban newest(List<Ban> bans, long now, Ban best) {
+        if (bans == null) {
+            return best;
+        }
+        for (Ban ban : bans) {
+            if (ban.isActive(now) && (best == null || ban.createdAt > best.createdAt)) {
+                best = ban;
+            }
+        }
+        return best;
+    }
+
+    private static long hash(UUID uuid) {
+        return mix(uuid.getMostSignificantBits() ^ Long.rotateLeft(uuid.getLeastSignificantBits(), 32));
+    }
+
+    private static long hash(String ip) {
+        long h = 1125899906842597L;
+        for (int i = 0; i < ip.length(); i++) {
+            h = 31 * h + ip.charAt(i);
+        }
+        return mix(h);
+    }
+
+    /**
+     * Finalizador do murmur3 (espalha bits para o Bloom)
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Ban ativo (imutável)
+     */
+    public static final class Ban {
+        private final UUID playerUuid;
+        private final String ip;
+        private final String reason;
+        private final long createdAt;
+        private final long expiresAt; // 0 = permanente
+
+        public Ban(UUID playerUuid, String ip, String reason, long createdAt, long expiresAt) {
+            this.playerUuid = playerUuid;
+            this.ip = ip != null && !ip.isEmpty() ? ip : null;
+            this.reason = reason;
+            this.createdAt = createdAt;
+            this.expiresAt = expiresAt;
+        }
+
+        public UUID getPlayerUuid() {
+            return playerUuid;
+        }
+
+        public String getIp() {
+            return ip;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        boolean isActive(long now) {
+            return expiresAt == 0L || expiresAt > now;
+        }
+    }
+
+    /**
+     * Estado imutável do índice (mapas + Bloom construídos juntos)
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = build(Collections.<Ban>emptyList());
+
+        final List<Ban> all;
+        final Map<UUID, List<Ban>> byUuid;
+        final Map<String, List<Ban>> byIp;
+        final Bloom bloom;
+
+        private Snapshot(List<Ban> all, Map<UUID, List<Ban>> byUuid, Map<String, List<Ban>> byIp, Bloom bloom) {
+            this.all = all;
+            this.byUuid = byUuid;
+            this.byIp = byIp;
+            this.bloom = bloom;
+        }
+
+        static Snapshot build(List<Ban> bans) {
+            long now = System.currentTimeMillis();
+            List<Ban> all = new ArrayList<>(bans.size());
+            Map<UUID, List<Ban>> byUuid = new HashMap<>();
+            Map<String, List<Ban>> byIp = new HashMap<>();
+            Bloom bloom = new Bloom(bans.size() * 2);
+            for (Ban ban : bans) {
+                if (!ban.isActive(now)) {
+                    continue; // Expirados saem no próximo rebuild
+                }
+                all.add(ban);
+                byUuid.computeIfAbsent(ban.playerUuid, k -> new ArrayList<>(1)).add(ban);
+                bloom.add(hash(ban.playerUuid));
+                if (ban.ip != null) {
+                    byIp.computeIfAbsent(ban.ip, k -> new ArrayList<>(1)).add(ban);
+                    bloom.add(hash(ban.ip));
+                }
+            }
+            return new Snapshot(all, byUuid, byIp, bloom);
+        }
+    }
+
+    /**
+     * Bloom filter simples: ~10 bits por chave, 3 hashes (falso positivo ~1-2%)
+     * Falso positivo só custa uma leitura de mapa; falso negativo não existe
+     */
+    private static final class Bloom {
+        private static final int HASHES = 3;
+
+        private final long[] bits;
+        private final int mask;
+
+        Bloom(int expectedKeys) {
+            int size = Integer.highestOneBit(Math.max(1024, expectedKeys * 10) - 1) << 1;
+            bits = new long[size >>> 6];
+            mask = size - 1;
+        }
+
+        void add(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -13,17 +13,26 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Gerenciador de punições
  * Grug Brain: Cache simples com TTL, queries diretas, sem DAO/Repository
+ * Bans: índice em memória (BanIndex) - login não consulta o banco
  */
 public class PunishManager {
 
     private final PunishPlugin plugin;
     private final Map<UUID, PunishmentCache> cache = new ConcurrentHashMap<>();
     private final long cacheTtl;
+    private final BanIndex banIndex;
 
     public PunishManager(PunishPlugin plugin) {
         this.plugin = plugin;
         this.cacheTtl = plugin.getConfig().getLong("cache-ttl", 60) * 1000L; // Converter para ms
 
+        // Índice de bans: carga sync no enable (antes dos logins), reload periódico async
+        this.banIndex = new BanIndex(plugin);
+        banIndex.reload();
+        plugin.getLogger().info("Índice de bans carregado: " + banIndex.size() + " bans ativos");
+        long refreshTicks = Math.max(30L, plugin.getConfig().getLong("ban-index.refresh-seconds", 300)) * 20L;
+        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, banIndex::reload, refreshTicks, refreshTicks);
+
         // Task periódica para limpar cache expirado (a cada 60s)
         plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
             cleanExpiredCache();
@@ -31,19 +40,18 @@ public class PunishManager {
     }
 
     /**
-     * Verifica se player está banido (UUID ou IP)
+     * Ban ativo do player (UUID ou IP)
+     * Grug Brain: Memória (BanIndex); banco só se o índice nunca carregou (chamar async)
+     * @return ban ou null se não está banido
      */
-    public boolean isBanned(UUID uuid, String ip) {
-        // 1. Check cache (TTL 60s)
-        PunishmentCache cached = cache.get(uuid);
-        if (cached != null && !cached.isExpired()) {
-            return cached.isBanned();
+    public BanIndex.Ban getActiveBan(UUID uuid, String ip) {
+        if (banIndex.isLoaded()) {
+            return banIndex.find(uuid, ip);
         }
 
-        // 2. Query DB
         try (Connection conn = CoreAPI.getDatabase().getConnection()) {
             PreparedStatement stmt = conn.prepareStatement(
-                "SELECT * FROM punishments WHERE " +
+                "SELECT player_uuid, ip, reason, created_at, expires_at FROM punishments WHERE " +
                 "(player_uuid = ? OR (ip = ? AND ip IS NOT NULL)) AND " +
                 "type = 'ban' AND active = TRUE AND " +
                 "(expires_at IS NULL OR expires_at > NOW()) " +
@@ -53,64 +61,36 @@ public class PunishManager {
             stmt.setString(2, ip);
 
             ResultSet rs = stmt.executeQuery();
-            boolean banned = rs.next();
-            String banReason = null;
-
-            // 3. Update cache
-            if (cached == null) {
-                cached = new PunishmentCache();
+            if (!rs.next()) {
+                return null;
             }
-            cached.setBanned(banned);
-            if (banned) {
-                banReason = rs.getString("reason");
-                cached.setBanReason(banReason);
-            }
-            cache.put(uuid, cached);
-
-            return banned;
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            Timestamp expiresAt = rs.getTimestamp("expires_at");
+            return new BanIndex.Ban((UUID) rs.getObject("player_uuid"), rs.getString("ip"), rs.getString("reason"),
+                createdAt != null ? createdAt.getTime() : 0L, expiresAt != null ? expiresAt.getTime() : 0L);
         } catch (SQLException e) {
             plugin.getLogger().severe("Erro ao verificar ban: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
 
+    /**
+     * Verifica se player está banido (UUID ou IP)
+     */
+    public boolean isBanned(UUID uuid, String ip) {
+        return getActiveBan(uuid, ip) != null;
+    }
+
     /**
      * Obtém motivo do ban
      */
     public String getBanReason(UUID uuid, String ip) {
-        // Check cache
-        PunishmentCache cached = cache.get(uuid);
-        if (cached != null && !cached.isExpired() && cached.getBanReason() != null) {
-            return cached.getBanReason();
+        BanIndex.Ban ban = getActiveBan(uuid, ip);
+        if (ban == null || ban.getReason() == null || ban.getReason().isEmpty()) {
+            return "Sem motivo especificado";
         }
-
-        // Query DB
-        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                "SELECT reason FROM punishments WHERE " +
-                "(player_uuid = ? OR (ip = ? AND ip IS NOT NULL)) AND " +
-                "type = 'ban' AND active = TRUE AND " +
-                "(expires_at IS NULL OR expires_at > NOW()) " +
-                "ORDER BY created_at DESC LIMIT 1"
-            );
-            stmt.setObject(1, uuid);
-            stmt.setString(2, ip);
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                String reason = rs.getString("reason");
-                if (reason == null || reason.isEmpty()) {
-                    return "Sem motivo especificado";
-                }
-                return reason;
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Erro ao obter motivo do ban: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        return "Sem motivo especificado";
+        return ban.getReason();
     }
 
     /**
@@ -257,8 +237,12 @@ public class PunishManager {
                 return;
             }
 
-            // 2. Invalidar cache
+            // 2. Invalidar cache (ban entra no índice na hora)
             invalidateCache(playerUuid);
+            if (type.equals("ban")) {
+                banIndex.add(new BanIndex.Ban(playerUuid, ip, reason, System.currentTimeMillis(),
+                    expiresAt != null ? expiresAt.getTime() : 0L));
+            }
 
             // 3. Ações síncronas (voltar à thread principal)
             plugin.getServer().getScheduler().runTask(plugin, () -> {
@@ -324,8 +308,11 @@ public class PunishManager {
 
                 int updated = stmt.executeUpdate();
 
-                // Invalidar cache
+                // Invalidar cache (unban sai do índice na hora)
                 invalidateCache(playerUuid);
+                if (type.equals("ban")) {
+                    banIndex.removePlayer(playerUuid);
+                }
 
                 // Callback na thread principal
                 final boolean success = updated > 0;
@@ -434,6 +421,10 @@ public class PunishManager {
         return 0; // Inválido = permanente
     }
 
+    public BanIndex getBanIndex() {
+        return banIndex;
+    }
+
     /**
      * Invalidar cache (chamado em applyPunish/removePunish)
      */
@@ -478,26 +469,15 @@ public class PunishManager {
      * Classe interna para cache de punições
      */
     private class PunishmentCache {
-        private boolean banned;
         private boolean muted;
-        private String banReason;
         private String muteReason;
         private final long timestamp;
 
         public PunishmentCache() {
             this.timestamp = System.currentTimeMillis();
-            this.banned = false;
             this.muted = false;
         }
 
-        public boolean isBanned() {
-            return banned;
-        }
-
-        public void setBanned(boolean banned) {
-            this.banned = banned;
-        }
-
         public boolean isMuted() {
             return muted;
         }
@@ -506,14 +486,6 @@ public class PunishManager {
             this.muted = muted;
         }
 
-        public String getBanReason() {
-            return banReason;
-        }
-
-        public void setBanReason(String banReason) {
-            this.banReason = banReason;
-        }
-
         public String getMuteReason() {
             return muteReason;
         }
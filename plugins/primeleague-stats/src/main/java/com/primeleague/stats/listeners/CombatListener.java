@@ -13,7 +13,6 @@ import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -242,29 +241,11 @@ public class CombatListener implements Listener {
 
     /**
      * PlayerQuitEvent é síncrono
-     * Grug Brain: Query async para não bloquear (quit pode ser raro, mas não queremos lag)
-     * UUID já está correto no PlayerLoginEvent (síncrono) - buscar diretamente por UUID
+     * Grug Brain: Só limpa memória - last_seen_at é gravado pelo PlayerStore do Core no quit
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
-        Player player = event.getPlayer();
-
         // Limpar último dano ao sair (limpeza de memória)
-        lastPlayerDamage.remove(player.getUniqueId());
-
-        // Executar em thread assíncrona para não bloquear
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                // UUID já está correto no PlayerLoginEvent - buscar diretamente por UUID
-                PlayerData data = CoreAPI.getPlayer(player.getUniqueId());
-                if (data != null) {
-                    data.setLastSeenAt(new Date());
-                    CoreAPI.savePlayer(data);
-                }
-            }
-        }.runTaskAsynchronously(plugin);
+        lastPlayerDamage.remove(event.getPlayer().getUniqueId());
     }
 }
-
-
@@ -0,0 +1,121 @@
+package com.primeleague.x1.bench;
+
+import com.primeleague.x1.managers.MatchmakingEngine;
+import com.primeleague.x1.models.QueueEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matchmaking do X1 com fila sintética (o que saiu do /x1 admin fila bench)
+ * Grug Brain: Mede o que o tick paga - consultas de placeholder/scoreboard, passe de pareamento, inserir.
+ * Config padrão do plugin (janela 100 +50 a cada 10s até 500, 3 pares por tick).
+ *
+ * Rodar (ns/op + bytes/op em gc.alloc.rate.norm):
+ *   mvn -f plugins/primeleague-x1 install
+ *   mvn -f plugins/primeleague-x1-bench package
+ *   java -jar plugins/primeleague-x1-bench/target/benchmarks.jar -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchmakingBenchmark {
+
+    private static final int ELO_RANGE_INITIAL = 100;
+    private static final int ELO_RANGE_INCREMENT = 50;
+    private static final int ELO_RANGE_MAX = 500;
+    private static final long ELO_RANGE_STEP_MS = 10000L;
+    private static final int MAX_MATCHES_PER_TICK = 3;
+
+    @Param({"100", "1000", "10000"})
+    public int players;
+
+    private QueueEntry[] entries;
+    private MatchmakingEngine engine;
+    private long now;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        now = System.currentTimeMillis();
+        entries = new QueueEntry[players];
+        // ELO ~ N(1200, 300), espera espalhada nos últimos 2 minutos (mais antigos primeiro)
+        for (int i = 0; i < players; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            int elo = Math.max(0, (int) (1200 + random.nextGaussian() * 300));
+            QueueEntry entry = new QueueEntry(uuid, "bench", true, elo);
+            entry.setTimestamp(now - 120000L + (120000L * i) / players);
+            entries[i] = entry;
+        }
+        engine = fill();
+    }
+
+    private MatchmakingEngine fill() {
+        MatchmakingEngine filled = new MatchmakingEngine(ELO_RANGE_INITIAL, ELO_RANGE_INCREMENT, ELO_RANGE_MAX,
+            ELO_RANGE_STEP_MS);
+        for (QueueEntry entry : entries) {
+            filled.add(entry);
+        }
+        return filled;
+    }
+
+    /**
+     * Consultas de placeholder/scoreboard de um player (fila, chave, posição)
+     */
+    @Benchmark
+    public void lookup(Blackhole bh) {
+        UUID uuid = entries[cursor].getPlayerUuid();
+        cursor = (cursor + 1) % players;
+        bh.consume(engine.contains(uuid));
+        bh.consume(engine.getQueueKey(uuid));
+        bh.consume(engine.getPosition(uuid));
+    }
+
+    /**
+     * Um passe do tick (max-matches-per-tick) - pares voltam para a fila no fim (inclui 2 add por par)
+     */
+    @Benchmark
+    public int tickPass() {
+        List<QueueEntry[]> pairs = engine.findMatches(now, MAX_MATCHES_PER_TICK);
+        for (QueueEntry[] pair : pairs) {
+            engine.add(pair[0]);
+            engine.add(pair[1]);
+        }
+        return pairs.size();
+    }
+
+    /**
+     * Fila inteira do zero (players inserções)
+     */
+    @Benchmark
+    public MatchmakingEngine fillQueue() {
+        return fill();
+    }
+
+    /**
+     * Pior caso: encher e parear todo mundo que cabe na janela (descontar fillQueue)
+     */
+    @Benchmark
+    public int fillAndDrain() {
+        return fill().findMatches(now, Integer.MAX_VALUE).size();
+    }
+}
@@ -34,8 +34,6 @@ public class X1Plugin extends JavaPlugin {
     private long topCacheDuration;
     // Cache de última mudança de ELO por player (para placeholders)
     private Map<UUID, Integer> lastEloChange;
-    // Cache de stats para placeholders (TTL curto - 5 segundos)
-    private Map<UUID, PlaceholderStatsCache> placeholderStatsCache;
 
     @Override
     public void onEnable() {
@@ -63,8 +61,6 @@ public class X1Plugin extends JavaPlugin {
         topCacheDuration = getConfig().getLong("cache.top-duration", 300) * 1000; // Converter para ms
         // Cache de última mudança de ELO
         lastEloChange = new ConcurrentHashMap<>();
-        // Cache de stats para placeholders (TTL curto)
-        placeholderStatsCache = new ConcurrentHashMap<>();
 
         // Inicializar managers
         queueManager = new QueueManager(this);
@@ -92,14 +88,6 @@ public class X1Plugin extends JavaPlugin {
         kitManager.loadKits();
         arenaManager.loadArenas();
         
-        // Tarefa periódica para limpar cache expirado de placeholders (a cada 30 segundos)
-        getServer().getScheduler().runTaskTimerAsynchronously(this, new Runnable() {
-            @Override
-            public void run() {
-                clearExpiredPlaceholderCache();
-            }
-        }, 600L, 600L); // 30 segundos (600 ticks)
-        
         // Aguardar um tick para garantir que kits/arenas foram carregados
         getServer().getScheduler().runTaskLater(this, new Runnable() {
             @Override
@@ -113,6 +101,12 @@ public class X1Plugin extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new com.primeleague.x1.listeners.MatchListener(this), this);
         getServer().getPluginManager().registerEvents(new com.primeleague.x1.listeners.QueueListener(this), this);
         getServer().getPluginManager().registerEvents(new com.primeleague.x1.listeners.MatchMovementListener(this), this);
+        getServer().getPluginManager().registerEvents(new com.primeleague.x1.listeners.StatsListener(this), this);
+        // Reload com players online: stats para os placeholders de quem já está no servidor
+        for (org.bukkit.entity.Player online : getServer().getOnlinePlayers()) {
+            final UUID uuid = online.getUniqueId();
+            getServer().getScheduler().runTaskAsynchronously(this, () -> statsManager.loadStats(uuid));
+        }
 
         // Registrar comandos (verificar se estão definidos no plugin.yml)
         org.bukkit.command.PluginCommand x1Cmd = getCommand("x1");
@@ -150,10 +144,6 @@ public class X1Plugin extends JavaPlugin {
         if (lastEloChange != null) {
             lastEloChange.clear();
         }
-        
-        if (placeholderStatsCache != null) {
-            placeholderStatsCache.clear();
-        }
 
         getLogger().info("PrimeleagueX1 desabilitado");
     }
@@ -333,54 +323,6 @@ public class X1Plugin extends JavaPlugin {
         lastEloChange.put(playerUuid, change);
     }
 
-    /**
-     * Obtém stats do cache de placeholders (com TTL de 5 segundos)
-     */
-    public com.primeleague.x1.models.X1Stats getPlaceholderStats(UUID playerUuid) {
-        PlaceholderStatsCache cached = placeholderStatsCache.get(playerUuid);
-        if (cached != null && System.currentTimeMillis() - cached.getTimestamp() < 5000) {
-            return cached.getStats();
-        }
-        return null; // Cache expirado ou não existe
-    }
-
-    /**
-     * Define stats no cache de placeholders
-     */
-    public void setPlaceholderStats(UUID playerUuid, com.primeleague.x1.models.X1Stats stats) {
-        placeholderStatsCache.put(playerUuid, new PlaceholderStatsCache(stats, System.currentTimeMillis()));
-    }
-
-    /**
-     * Limpa cache expirado de placeholders (chamado periodicamente)
-     */
-    public void clearExpiredPlaceholderCache() {
-        long now = System.currentTimeMillis();
-        placeholderStatsCache.entrySet().removeIf(entry -> 
-            now - entry.getValue().getTimestamp() > 5000);
-    }
-
-    /**
-     * Classe interna para cache de stats de placeholders
-     */
-    public static class PlaceholderStatsCache {
-        private final com.primeleague.x1.models.X1Stats stats;
-        private final long timestamp;
-
-        public PlaceholderStatsCache(com.primeleague.x1.models.X1Stats stats, long timestamp) {
-            this.stats = stats;
-            this.timestamp = timestamp;
-        }
-
-        public com.primeleague.x1.models.X1Stats getStats() {
-            return stats;
-        }
-
-        public long getTimestamp() {
-            return timestamp;
-        }
-    }
-
     /**
      * Classe interna para cache de top
      */
@@ -1,7 +1,8 @@
 package com.primeleague.x1.integrations;
 
+import com.primeleague.core.CoreAPI;
+import com.primeleague.core.models.PlayerSnapshot;
 import com.primeleague.x1.X1Plugin;
-import com.primeleague.x1.models.X1Stats;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.entity.Player;
 
@@ -10,6 +11,7 @@ import java.util.UUID;
 /**
  * PlaceholderAPI Expansion para X1
  * Grug Brain: Seguir padrão CorePlaceholderExpansion.java
+ * Stats vêm do snapshot do Core e fila/match da memória - nenhum placeholder faz query
  */
 public class X1PlaceholderExpansion extends PlaceholderExpansion {
 
@@ -47,46 +49,29 @@ public class X1PlaceholderExpansion extends PlaceholderExpansion {
 
         UUID uuid = player.getUniqueId();
 
-        // Buscar stats uma vez e reutilizar (com cache)
-        X1Stats stats = null;
         String lowerId = identifier.toLowerCase();
-        
-        if (lowerId.equals("wins") || lowerId.equals("losses") || lowerId.equals("wlr") || 
-            lowerId.equals("streak") || lowerId.equals("best_streak") || lowerId.equals("winstreak_color")) {
-            // Tentar obter do cache primeiro (TTL 5 segundos)
-            stats = plugin.getPlaceholderStats(uuid);
-            if (stats == null) {
-                // Cache expirado ou não existe - buscar do banco
-                stats = plugin.getStatsManager().getStatsSync(uuid);
-                if (stats != null) {
-                    // Atualizar cache
-                    plugin.setPlaceholderStats(uuid, stats);
-                }
-            }
-        }
-        
+        // Stats de X1 do snapshot do Core (carregadas no join, atualizadas ao fim de cada match)
+        PlayerSnapshot stats = CoreAPI.getSnapshot(uuid);
+
         switch (lowerId) {
             case "wins":
-                return String.valueOf(stats != null ? stats.getWins() : 0);
+                return String.valueOf(stats.getX1Wins());
             
             case "losses":
-                return String.valueOf(stats != null ? stats.getLosses() : 0);
+                return String.valueOf(stats.getX1Losses());
             
             case "wlr":
-                return String.format("%.2f", stats != null ? stats.getWLR() : 0.0);
+                return String.format("%.2f", stats.getX1Wlr());
             
             case "streak":
-                return String.valueOf(stats != null ? stats.getWinstreak() : 0);
+                return String.valueOf(stats.getX1Winstreak());
             
             case "best_streak":
-                return String.valueOf(stats != null ? stats.getBestWinstreak() : 0);
+                return String.valueOf(stats.getX1BestWinstreak());
             
             case "winstreak_color":
                 // Cor baseada em winstreak (para TAB)
-                if (stats == null) {
-                    return "§7";
-                }
-                int streak = stats.getWinstreak();
+                int streak = stats.getX1Winstreak();
                 if (streak >= 10) {
                     return "§c"; // Vermelho - excelente
                 } else if (streak >= 5) {
@@ -197,15 +182,11 @@ public class X1PlaceholderExpansion extends PlaceholderExpansion {
                 } else if (lowerId.equals("opponent_elo")) {
                     UUID opponentUuid = matchInfo.getPlayer1().equals(uuid) ? 
                         matchInfo.getPlayer2() : matchInfo.getPlayer1();
-                    try {
-                        if (com.primeleague.elo.EloAPI.isEnabled()) {
-                            int opponentElo = com.primeleague.elo.EloAPI.getElo(opponentUuid);
-                            return String.valueOf(opponentElo);
-                        }
-                    } catch (Exception e) {
-                        // EloAPI não disponível
+                    // Oponente online: ELO do snapshot dele (sem I/O)
+                    if (org.bukkit.Bukkit.getPlayer(opponentUuid) == null) {
+                        return "?";
                     }
-                    return "?";
+                    return String.valueOf(CoreAPI.getSnapshot(opponentUuid).getElo());
                 }
                 return "";
             
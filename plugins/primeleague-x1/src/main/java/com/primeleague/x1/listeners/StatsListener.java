@@ -0,0 +1,28 @@
+package com.primeleague.x1.listeners;
+
+import com.primeleague.x1.X1Plugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+import java.util.UUID;
+
+/**
+ * Carrega stats de X1 no join
+ * Grug Brain: Query async, resultado vai para o cache e para o snapshot de placeholders do Core
+ */
+public class StatsListener implements Listener {
+
+    private final X1Plugin plugin;
+
+    public StatsListener(X1Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> plugin.getStatsManager().loadStats(uuid));
+    }
+}
@@ -1,5 +1,6 @@
 package com.primeleague.x1.managers;
 
+import com.primeleague.core.PvPContextAPI;
 import com.primeleague.x1.X1Plugin;
 import com.primeleague.x1.models.Kit;
 import com.primeleague.x1.models.Match;
@@ -25,6 +26,8 @@ public class MatchManager {
     private final MatchSnapshotHandler snapshotHandler;
     private final MatchCreator matchCreator;
     private final MatchFinisher matchFinisher;
+    // Owner dos contextos de PvP do X1 no PvPContextAPI
+    public static final String PVP_CONTEXT_OWNER = "X1";
 
     public MatchManager(X1Plugin plugin) {
         this.plugin = plugin;
@@ -56,6 +59,9 @@ public class MatchManager {
     public void addActiveMatch(Match match) {
         activeMatches.put(match.getPlayer1(), match);
         activeMatches.put(match.getPlayer2(), match);
+        // Em arena X1, mas mecânicas do pvp152 continuam valendo (managed = false)
+        PvPContextAPI.enterArena(match.getPlayer1(), PVP_CONTEXT_OWNER, false);
+        PvPContextAPI.enterArena(match.getPlayer2(), PVP_CONTEXT_OWNER, false);
     }
 
     /**
@@ -158,6 +164,8 @@ public class MatchManager {
     public void removeMatch(Match match) {
         activeMatches.remove(match.getPlayer1());
         activeMatches.remove(match.getPlayer2());
+        PvPContextAPI.leaveArena(match.getPlayer1(), PVP_CONTEXT_OWNER);
+        PvPContextAPI.leaveArena(match.getPlayer2(), PVP_CONTEXT_OWNER);
         // Limpar snapshots armazenados
         snapshotHandler.clearSnapshot(match.getPlayer1());
         snapshotHandler.clearSnapshot(match.getPlayer2());
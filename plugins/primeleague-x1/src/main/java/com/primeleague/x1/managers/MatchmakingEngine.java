@@ -0,0 +1,267 @@
+package com.primeleague.x1.managers;
+
+import com.primeleague.x1.models.QueueEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Motor de matchmaking das filas do X1
+ * Grug Brain: Sem Bukkit aqui dentro - só estruturas (benchmark roda fora do servidor: plugins/primeleague-x1-bench).
+ *
+ * - Índice UUID -> slot: isInQueue/remover/chave da fila em O(1)
+ * - Por fila: TreeMap ordenado por ELO (vizinho mais próximo em O(log n)) + ordem de chegada (FIFO)
+ * - Janela de ELO cresce com o tempo de espera: inicial + incremento a cada passo, até o máximo
+ * - Métodos synchronized: chamados do tick e de placeholders/comandos, contenção mínima
+ */
+public class MatchmakingEngine {
+
+    private final int eloRangeInitial;
+    private final int eloRangeIncrement;
+    private final int eloRangeMax;
+    private final long eloRangeStepMs;
+
+    private final Map<String, Queue> queues = new HashMap<>();
+    private final Map<UUID, Slot> index = new HashMap<>();
+    private int nextSeq;
+
+    public MatchmakingEngine(int eloRangeInitial, int eloRangeIncrement, int eloRangeMax, long eloRangeStepMs) {
+        this.eloRangeInitial = eloRangeInitial;
+        this.eloRangeIncrement = eloRangeIncrement;
+        this.eloRangeMax = Math.max(eloRangeInitial, eloRangeMax);
+        this.eloRangeStepMs = Math.max(1L, eloRangeStepMs);
+    }
+
+    /**
+     * Adiciona entry na fila dela
+     * @return false se o player já está em alguma fila
+     */
+    public synchronized boolean add(QueueEntry entry) {
+        if (index.containsKey(entry.getPlayerUuid())) {
+            return false;
+        }
+        String queueKey = entry.getQueueKey();
+        Queue queue = queues.get(queueKey);
+        if (queue == null) {
+            queue = new Queue(queueKey, entry.isRanked());
+            queues.put(queueKey, queue);
+        }
+        // ELO nos 32 bits altos, sequência nos baixos: ordena por ELO, empate por chegada
+        long eloKey = ((long) entry.getElo() << 32) | (nextSeq++ & 0xFFFFFFFFL);
+        Slot slot = new Slot(entry, eloKey, queue);
+        queue.byElo.put(eloKey, slot);
+        queue.byArrival.put(entry.getPlayerUuid(), slot);
+        slot.position = queue.byArrival.size(); // Entrou no fim - posição já certa
+        index.put(entry.getPlayerUuid(), slot);
+        return true;
+    }
+
+    /**
+     * Remove player da fila
+     * @return entry removida ou null se não estava em fila
+     */
+    public synchronized QueueEntry remove(UUID playerUuid) {
+        Slot slot = index.get(playerUuid);
+        if (slot == null) {
+            return null;
+        }
+        unlink(slot);
+        return slot.entry;
+    }
+
+    public synchronized boolean contains(UUID playerUuid) {
+        return index.containsKey(playerUuid);
+    }
+
+    /**
+     * Chave da fila do player (kit_ranked/kit_unranked) ou null
+     */
+    public synchronized String getQueueKey(UUID playerUuid) {
+        Slot slot = index.get(playerUuid);
+        return slot != null ? slot.queue.key : null;
+    }
+
+    /**
+     * Posição do player na fila por ordem de chegada (1-based), 0 se não está em fila
+     * Grug Brain: Posições recalculadas só quando alguém sai da frente (não a cada leitura)
+     */
+    public synchronized int getPosition(UUID playerUuid) {
+        Slot slot = index.get(playerUuid);
+        if (slot == null) {
+            return 0;
+        }
+        Queue queue = slot.queue;
+        if (queue.positionsDirty) {
+            int position = 1;
+            for (Slot s : queue.byArrival.values()) {
+                s.position = position++;
+            }
+            queue.positionsDirty = false;
+        }
+        return slot.position;
+    }
+
+    public synchronized int size(String queueKey) {
+        Queue queue = queues.get(queueKey);
+        return queue != null ? queue.byArrival.size() : 0;
+    }
+
+    public synchronized int totalSize() {
+        return index.size();
+    }
+
+    /**
+     * Remove entries que passaram do timeout (mais antigas primeiro, para no primeiro que não expirou)
+     * @return entries removidas
+     */
+    public synchronized List<QueueEntry> removeExpired(long now, long timeoutMs) {
+        List<QueueEntry> expired = null;
+        for (Queue queue : queues.values()) {
+            Iterator<Slot> it = queue.byArrival.values().iterator();
+            while (it.hasNext()) {
+                Slot slot = it.next();
+                if (now - slot.entry.getTimestamp() <= timeoutMs) {
+                    break; // Ordem de chegada = ordem de timestamp
+                }
+                it.remove();
+                queue.byElo.remove(slot.eloKey);
+                index.remove(slot.entry.getPlayerUuid());
+                queue.positionsDirty = true;
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(slot.entry);
+            }
+        }
+        return expired != null ? expired : new ArrayList<QueueEntry>(0);
+    }
+
+    /**
+     * Forma até maxMatches pares e já os remove das filas
+     * - Ranqueada: mais antigo primeiro, oponente de ELO mais próximo dentro da janela do mais antigo
+     * - Normal: dois mais antigos
+     * @return pares [entry1, entry2]
+     */
+    public synchronized List<QueueEntry[]> findMatches(long now, int maxMatches) {
+        List<QueueEntry[]> pairs = new ArrayList<>();
+        for (Queue queue : queues.values()) {
+            if (pairs.size() >= maxMatches) {
+                break;
+            }
+            if (queue.byArrival.size() < 2) {
+                continue;
+            }
+            if (queue.ranked) {
+                matchRanked(queue, now, maxMatches, pairs);
+            } else {
+                matchFifo(queue, maxMatches, pairs);
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Janela de ELO do entry pelo tempo de espera
+     */
+    public int getEloWindow(QueueEntry entry, long now) {
+        long steps = Math.max(0L, now - entry.getTimestamp()) / eloRangeStepMs;
+        long window = eloRangeInitial + (long) eloRangeIncrement * steps;
+        return (int) Math.min(window, eloRangeMax);
+    }
+
+    private void matchRanked(Queue queue, long now, int maxMatches, List<QueueEntry[]> pairs) {
+        // Cópia da ordem de chegada: pares saem das estruturas durante o loop
+        Slot[] order = queue.byArrival.values().toArray(new Slot[0]);
+        for (Slot slot : order) {
+            if (pairs.size() >= maxMatches || queue.byElo.size() < 2) {
+                return;
+            }
+            if (slot.removed) {
+                continue; // Já pareado como oponente de alguém mais antigo
+            }
+
+            // Vizinhos no TreeMap = ELO mais próximo abaixo e acima (nunca o próprio slot)
+            Map.Entry<Long, Slot> lower = queue.byElo.lowerEntry(slot.eloKey);
+            Map.Entry<Long, Slot> higher = queue.byElo.higherEntry(slot.eloKey);
+            int elo = slot.entry.getElo();
+            Slot best = null;
+            long bestDiff = Long.MAX_VALUE;
+            if (lower != null) {
+                best = lower.getValue();
+                bestDiff = (long) elo - best.entry.getElo();
+            }
+            if (higher != null) {
+                long diff = (long) higher.getValue().entry.getElo() - elo;
+                if (diff < bestDiff) {
+                    best = higher.getValue();
+                    bestDiff = diff;
+                }
+            }
+
+            if (best != null && bestDiff <= getEloWindow(slot.entry, now)) {
+                unlink(slot);
+                unlink(best);
+                pairs.add(new QueueEntry[]{slot.entry, best.entry});
+            }
+        }
+    }
+
+    private void matchFifo(Queue queue, int maxMatches, List<QueueEntry[]> pairs) {
+        while (pairs.size() < maxMatches && queue.byArrival.size() >= 2) {
+            Iterator<Slot> it = queue.byArrival.values().iterator();
+            Slot first = it.next();
+            Slot second = it.next();
+            unlink(first);
+            unlink(second);
+            pairs.add(new QueueEntry[]{first.entry, second.entry});
+        }
+    }
+
+    private void unlink(Slot slot) {
+        Queue queue = slot.queue;
+        queue.byElo.remove(slot.eloKey);
+        queue.byArrival.remove(slot.entry.getPlayerUuid());
+        index.remove(slot.entry.getPlayerUuid());
+        queue.positionsDirty = true;
+        slot.removed = true;
+    }
+
+    /**
+     * Uma fila (kit + ranqueada/normal)
+     */
+    private static final class Queue {
+        final String key;
+        final boolean ranked;
+        final TreeMap<Long, Slot> byElo = new TreeMap<>();
+        final LinkedHashMap<UUID, Slot> byArrival = new LinkedHashMap<>();
+        boolean positionsDirty;
+
+        Queue(String key, boolean ranked) {
+            this.key = key;
+            this.ranked = ranked;
+        }
+    }
+
+    /**
+     * Entry + chave no TreeMap + fila dona
+     */
+    private static final class Slot {
+        final QueueEntry entry;
+        final long eloKey;
+        final Queue queue;
+        int position;
+        boolean removed;
+
+        Slot(QueueEntry entry, long eloKey, Queue queue) {
+            this.entry = entry;
+            this.eloKey = eloKey;
+            this.queue = queue;
+        }
+    }
+}
@@ -8,38 +8,37 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 
 /**
  * Gerenciador de Queue System
  * Grug Brain: Estrutura thread-safe com matchmaking ELO-based para ranked, FIFO para unranked
+ * Estruturas e pareamento ficam no MatchmakingEngine; aqui só integrações (TAB, scoreboard, mensagens)
  */
 public class QueueManager {
 
     private final X1Plugin plugin;
-    // Estrutura: queueKey (kit_ranked ou kit_unranked) -> Map<UUID, QueueEntry>
-    private final Map<String, ConcurrentHashMap<UUID, QueueEntry>> queues;
-    // Cache de tamanhos de queue
-    private final Map<String, Integer> queueSizes;
+    // Filas (kit_ranked ou kit_unranked), índice UUID -> fila e ordem por ELO
+    private final MatchmakingEngine engine;
     // Configurações
     private final int eloRangeInitial;
     private final int eloRangeIncrement;
     private final int eloRangeMax;
+    private final long eloRangeStepMs;
     private final long queueTimeout;
     private final int maxMatchesPerTick;
 
     public QueueManager(X1Plugin plugin) {
         this.plugin = plugin;
-        this.queues = new ConcurrentHashMap<>();
-        this.queueSizes = new ConcurrentHashMap<>();
-        
+
         // Carregar configurações
         this.eloRangeInitial = plugin.getConfig().getInt("queue.elo-range-initial", 100);
         this.eloRangeIncrement = plugin.getConfig().getInt("queue.elo-range-increment", 50);
         this.eloRangeMax = plugin.getConfig().getInt("queue.elo-range-max", 500);
+        this.eloRangeStepMs = plugin.getConfig().getLong("queue.elo-range-increment-seconds", 10) * 1000; // Converter para ms
         this.queueTimeout = plugin.getConfig().getLong("queue.timeout", 300) * 1000; // Converter para ms
         this.maxMatchesPerTick = plugin.getConfig().getInt("queue.max-matches-per-tick", 3); // Processar múltiplos matches
+        this.engine = new MatchmakingEngine(eloRangeInitial, eloRangeIncrement, eloRangeMax, eloRangeStepMs);
 
         // Task periódica para matchmaking e timeout
         startMatchmakingTask();
@@ -58,7 +57,7 @@ public class QueueManager {
             return false;
         }
 
-        // Verificar se já está na queue
+        // Verificar se já está na queue (checagem barata antes de buscar ELO)
         if (isInQueue(playerUuid)) {
             return false;
         }
@@ -75,13 +74,11 @@ public class QueueManager {
             }
         }
 
-        // Criar entry
+        // Criar entry e adicionar à queue (false se entrou em outra fila no meio tempo)
         QueueEntry entry = new QueueEntry(playerUuid, kit, ranked, elo);
-        String queueKey = entry.getQueueKey();
-
-        // Adicionar à queue
-        queues.computeIfAbsent(queueKey, k -> new ConcurrentHashMap<>()).put(playerUuid, entry);
-        updateQueueSize(queueKey);
+        if (!engine.add(entry)) {
+            return false;
+        }
         
         // Atualizar TAB prefix (se disponível)
         if (plugin.getTabIntegration() != null && plugin.getTabIntegration().isEnabled()) {
@@ -108,117 +105,34 @@ public class QueueManager {
      * @return true se removido
      */
     public boolean removeFromQueue(UUID playerUuid) {
-        for (ConcurrentHashMap<UUID, QueueEntry> queue : queues.values()) {
-            if (queue.remove(playerUuid) != null) {
-                // Atualizar tamanhos de todas as queues (simplificado)
-                updateAllQueueSizes();
-                
-                // Limpar TAB prefix (se disponível)
-                if (plugin.getTabIntegration() != null && plugin.getTabIntegration().isEnabled()) {
-                    Player player = Bukkit.getPlayer(playerUuid);
-                    if (player != null) {
-                        plugin.getTabIntegration().clearPrefix(player);
-                    }
-                }
-                
-                // Limpar scoreboard contextual (se disponível)
-                if (plugin.getScoreboardIntegration() != null && plugin.getScoreboardIntegration().isEnabled()) {
-                    Player player = Bukkit.getPlayer(playerUuid);
-                    if (player != null) {
-                        plugin.getScoreboardIntegration().clearScoreboard(player);
-                    }
-                }
-                
-                return true;
-            }
+        if (engine.remove(playerUuid) == null) {
+            return false;
         }
-        return false;
-    }
 
-    /**
-     * Verifica se player está na queue
-     */
-    public boolean isInQueue(UUID playerUuid) {
-        for (ConcurrentHashMap<UUID, QueueEntry> queue : queues.values()) {
-            if (queue.containsKey(playerUuid)) {
-                return true;
+        // Limpar TAB prefix (se disponível)
+        if (plugin.getTabIntegration() != null && plugin.getTabIntegration().isEnabled()) {
+            Player player = Bukkit.getPlayer(playerUuid);
+            if (player != null) {
+                plugin.getTabIntegration().clearPrefix(player);
             }
         }
-        return false;
-    }
-
-    /**
-     * Busca match para um entry
-     * @param entry Entry do player
-     * @return QueueEntry do oponente ou null se não encontrado
-     */
-    public QueueEntry findMatch(QueueEntry entry) {
-        String queueKey = entry.getQueueKey();
-        ConcurrentHashMap<UUID, QueueEntry> queue = queues.get(queueKey);
-        
-        if (queue == null || queue.size() < 2) {
-            return null;
-        }
 
-        if (entry.isRanked()) {
-            // Matchmaking ELO-based: buscar player com ELO dentro de range
-            return findMatchByElo(entry, queue);
-        } else {
-            // Matchmaking FIFO: primeiro da queue (exceto o próprio)
-            return findMatchFIFO(entry, queue);
-        }
-    }
-
-    /**
-     * Matchmaking ELO-based: busca player com ELO dentro de range
-     */
-    private QueueEntry findMatchByElo(QueueEntry entry, ConcurrentHashMap<UUID, QueueEntry> queue) {
-        int playerElo = entry.getElo();
-        int range = eloRangeInitial;
-
-        while (range <= eloRangeMax) {
-            int minElo = playerElo - range;
-            int maxElo = playerElo + range;
-
-            // Buscar player com ELO dentro do range
-            for (QueueEntry other : queue.values()) {
-                if (other.getPlayerUuid().equals(entry.getPlayerUuid())) {
-                    continue; // Pular o próprio
-                }
-
-                int otherElo = other.getElo();
-                if (otherElo >= minElo && otherElo <= maxElo) {
-                    return other;
-                }
+        // Limpar scoreboard contextual (se disponível)
+        if (plugin.getScoreboardIntegration() != null && plugin.getScoreboardIntegration().isEnabled()) {
+            Player player = Bukkit.getPlayer(playerUuid);
+            if (player != null) {
+                plugin.getScoreboardIntegration().clearScoreboard(player);
             }
-
-            // Expandir range se não encontrou
-            range += eloRangeIncrement;
         }
 
-        return null; // Não encontrou match
+        return true;
     }
 
     /**
-     * Matchmaking FIFO: primeiro da queue
+     * Verifica se player está na queue
      */
-    private QueueEntry findMatchFIFO(QueueEntry entry, ConcurrentHashMap<UUID, QueueEntry> queue) {
-        // Buscar entry mais antiga (menor timestamp)
-        QueueEntry oldest = null;
-        long oldestTimestamp = Long.MAX_VALUE;
-
-        for (QueueEntry other : queue.values()) {
-            if (other.getPlayerUuid().equals(entry.getPlayerUuid())) {
-                continue; // Pular o próprio
-            }
-
-            if (other.getTimestamp() < oldestTimestamp) {
-                oldestTimestamp = other.getTimestamp();
-                oldest = other;
-            }
-        }
-
-        return oldest;
+    public boolean isInQueue(UUID playerUuid) {
+        return engine.contains(playerUuid);
     }
 
     /**
@@ -227,66 +141,24 @@ public class QueueManager {
     public int getQueueSize(String queueKey) {
         if (queueKey == null || queueKey.equals("total")) {
             // Retornar total de todas as queues
-            int total = 0;
-            for (ConcurrentHashMap<UUID, QueueEntry> queue : queues.values()) {
-                total += queue.size();
-            }
-            return total;
+            return engine.totalSize();
         }
-        return queueSizes.getOrDefault(queueKey, 0);
+        return engine.size(queueKey);
     }
 
     /**
      * Obtém posição do player na queue (1-based)
-     * Grug Brain: Calcula posição baseado em timestamp (FIFO)
+     * Grug Brain: Posição por ordem de chegada (FIFO)
      */
     public int getQueuePosition(UUID playerUuid) {
-        for (ConcurrentHashMap<UUID, QueueEntry> queue : queues.values()) {
-            QueueEntry playerEntry = queue.get(playerUuid);
-            if (playerEntry == null) {
-                continue;
-            }
-            
-            // Contar quantos players entraram antes (timestamp menor)
-            int position = 1;
-            long playerTimestamp = playerEntry.getTimestamp();
-            for (QueueEntry other : queue.values()) {
-                if (!other.getPlayerUuid().equals(playerUuid) && other.getTimestamp() < playerTimestamp) {
-                    position++;
-                }
-            }
-            return position;
-        }
-        return 0; // Não está na queue
+        return engine.getPosition(playerUuid);
     }
 
     /**
      * Obtém queue key do player (se estiver na queue)
      */
     public String getPlayerQueueKey(UUID playerUuid) {
-        for (Map.Entry<String, ConcurrentHashMap<UUID, QueueEntry>> entry : queues.entrySet()) {
-            if (entry.getValue().containsKey(playerUuid)) {
-                return entry.getKey();
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Atualiza tamanho de uma queue específica
-     */
-    private void updateQueueSize(String queueKey) {
-        ConcurrentHashMap<UUID, QueueEntry> queue = queues.get(queueKey);
-        queueSizes.put(queueKey, queue != null ? queue.size() : 0);
-    }
-
-    /**
-     * Atualiza tamanhos de todas as queues
-     */
-    private void updateAllQueueSizes() {
-        for (String queueKey : queues.keySet()) {
-            updateQueueSize(queueKey);
-        }
+        return engine.getQueueKey(playerUuid);
     }
 
     /**
@@ -298,72 +170,28 @@ public class QueueManager {
             public void run() {
                 // Verificar timeouts
                 long currentTime = System.currentTimeMillis();
-                for (ConcurrentHashMap<UUID, QueueEntry> queue : queues.values()) {
-                    Iterator<Map.Entry<UUID, QueueEntry>> it = queue.entrySet().iterator();
-                    while (it.hasNext()) {
-                        Map.Entry<UUID, QueueEntry> entry = it.next();
-                        if (currentTime - entry.getValue().getTimestamp() > queueTimeout) {
-                            // Timeout - remover da queue
-                            it.remove();
-                            UUID playerId = entry.getKey();
-                            plugin.getLogger().info("Player removido da queue por timeout: " + playerId);
+                for (QueueEntry expired : engine.removeExpired(currentTime, queueTimeout)) {
+                    UUID playerId = expired.getPlayerUuid();
+                    plugin.getLogger().info("Player removido da queue por timeout: " + playerId);
 
-                            // Notificar jogador (se online)
-                            org.bukkit.entity.Player player = org.bukkit.Bukkit.getPlayer(playerId);
-                            if (player != null) {
-                                String msg = plugin.getConfig().getString("messages.queue.timeout",
-                                    "§cVocê foi removido da fila por tempo excedido");
-                                player.sendMessage(msg);
+                    // Notificar jogador (se online)
+                    Player player = Bukkit.getPlayer(playerId);
+                    if (player != null) {
+                        String msg = plugin.getConfig().getString("messages.queue.timeout",
+                            "§cVocê foi removido da fila por tempo excedido");
+                        player.sendMessage(msg);
 
-                                // Limpar TAB prefix (se disponível)
-                                if (plugin.getTabIntegration() != null && plugin.getTabIntegration().isEnabled()) {
-                                    plugin.getTabIntegration().clearPrefix(player);
-                                }
-                            }
+                        // Limpar TAB prefix (se disponível)
+                        if (plugin.getTabIntegration() != null && plugin.getTabIntegration().isEnabled()) {
+                            plugin.getTabIntegration().clearPrefix(player);
                         }
                     }
                 }
 
-                // Matchmaking: tentar encontrar matches (processar múltiplos por tick)
-                int matchesProcessed = 0;
-                for (ConcurrentHashMap<UUID, QueueEntry> queue : new ArrayList<>(queues.values())) {
-                    if (queue.size() < 2 || matchesProcessed >= maxMatchesPerTick) {
-                        continue;
-                    }
-
-                    // Buscar matches (criar cópia para evitar ConcurrentModificationException)
-                    List<QueueEntry> entries = new ArrayList<>(queue.values());
-                    if (entries.size() < 2) {
-                        continue;
-                    }
-
-                    // Tentar encontrar match para o primeiro entry
-                    QueueEntry entry1 = entries.get(0);
-                    QueueEntry match = findMatch(entry1);
-                    
-                    if (match != null) {
-                        // Verificar se ainda estão na queue (evitar race condition)
-                        if (!queue.containsKey(entry1.getPlayerUuid()) || !queue.containsKey(match.getPlayerUuid())) {
-                            continue; // Já foram removidos por outra thread
-                        }
-                        
-                        // Remover ambos da queue (atômico)
-                        QueueEntry removed1 = queue.remove(entry1.getPlayerUuid());
-                        QueueEntry removed2 = queue.remove(match.getPlayerUuid());
-                        
-                        if (removed1 == null || removed2 == null) {
-                            // Alguém já removeu - re-adicionar se necessário
-                            if (removed1 != null) queue.put(entry1.getPlayerUuid(), entry1);
-                            if (removed2 != null) queue.put(match.getPlayerUuid(), match);
-                            continue;
-                        }
-                        
-                        updateAllQueueSizes();
-
-                        // Criar match via MatchManager (na thread principal)
-                        plugin.getServer().getScheduler().runTask(plugin, new MatchCreationRunnable(entry1, match));
-                        matchesProcessed++;
-                    }
+                // Matchmaking: pares já saem das filas dentro do engine (processar múltiplos por tick)
+                for (QueueEntry[] pair : engine.findMatches(currentTime, maxMatchesPerTick)) {
+                    // Criar match via MatchManager (na thread principal)
+                    plugin.getServer().getScheduler().runTask(plugin, new MatchCreationRunnable(pair[0], pair[1]));
                 }
             }
         }.runTaskTimer(plugin, 20L, 20L); // A cada 1 segundo
@@ -25,6 +25,8 @@ public class StatsManager {
     private final Map<UUID, CachedStats> statsCache;
     private final long cacheDuration;
 
+    private static final String STATS_RETURNING = "RETURNING wins, losses, winstreak, best_winstreak, last_match_at";
+
     public StatsManager(X1Plugin plugin) {
         this.plugin = plugin;
         this.statsCache = new ConcurrentHashMap<>();
@@ -54,6 +56,7 @@ public class StatsManager {
 
     /**
      * Atualiza stats após match (atômico via SQL)
+     * Grug Brain: RETURNING devolve a linha nova - publica no snapshot de placeholders sem outro SELECT
      */
     public void updateStats(UUID winnerUuid, UUID loserUuid) {
         new BukkitRunnable() {
@@ -61,36 +64,35 @@ public class StatsManager {
             public void run() {
                 try (Connection conn = CoreAPI.getDatabase().getConnection()) {
                     // Atualizar winner: wins++, winstreak++, best_winstreak = GREATEST(...)
-                    PreparedStatement winnerStmt = conn.prepareStatement(
+                    try (PreparedStatement winnerStmt = conn.prepareStatement(
                         "INSERT INTO x1_stats (player_uuid, wins, losses, winstreak, best_winstreak, last_match_at) " +
                         "VALUES (?, 1, 0, 1, 1, ?) " +
                         "ON CONFLICT (player_uuid) DO UPDATE SET " +
                         "wins = x1_stats.wins + 1, " +
                         "winstreak = x1_stats.winstreak + 1, " +
                         "best_winstreak = GREATEST(x1_stats.best_winstreak, x1_stats.winstreak + 1), " +
-                        "last_match_at = EXCLUDED.last_match_at");
-                    
-                    winnerStmt.setObject(1, winnerUuid);
-                    winnerStmt.setTimestamp(2, new java.sql.Timestamp(System.currentTimeMillis()));
-                    winnerStmt.executeUpdate();
+                        "last_match_at = EXCLUDED.last_match_at " + STATS_RETURNING)) {
+                        winnerStmt.setObject(1, winnerUuid);
+                        winnerStmt.setTimestamp(2, new java.sql.Timestamp(System.currentTimeMillis()));
+                        storeReturned(winnerUuid, winnerStmt);
+                    }
 
                     // Atualizar loser: losses++, winstreak = 0
-                    PreparedStatement loserStmt = conn.prepareStatement(
+                    try (PreparedStatement loserStmt = conn.prepareStatement(
                         "INSERT INTO x1_stats (player_uuid, wins, losses, winstreak, best_winstreak, last_match_at) " +
                         "VALUES (?, 0, 1, 0, 0, ?) " +
                         "ON CONFLICT (player_uuid) DO UPDATE SET " +
                         "losses = x1_stats.losses + 1, " +
                         "winstreak = 0, " +
-                        "last_match_at = EXCLUDED.last_match_at");
-                    
-                    loserStmt.setObject(1, loserUuid);
-                    loserStmt.setTimestamp(2, new java.sql.Timestamp(System.currentTimeMillis()));
-                    loserStmt.executeUpdate();
-
-                    // Limpar cache (invalidar)
+                        "last_match_at = EXCLUDED.last_match_at " + STATS_RETURNING)) {
+                        loserStmt.setObject(1, loserUuid);
+                        loserStmt.setTimestamp(2, new java.sql.Timestamp(System.currentTimeMillis()));
+                        storeReturned(loserUuid, loserStmt);
+                    }
+                } catch (SQLException e) {
+                    // Cache pode estar velho - invalidar
                     statsCache.remove(winnerUuid);
                     statsCache.remove(loserUuid);
-                } catch (SQLException e) {
                     plugin.getLogger().severe("Erro ao atualizar stats: " + e.getMessage());
                     e.printStackTrace();
                 }
@@ -98,6 +100,17 @@ public class StatsManager {
         }.runTaskAsynchronously(plugin);
     }
 
+    /**
+     * Carrega stats do player para o cache e snapshot de placeholders (chamar async - join)
+     */
+    public void loadStats(UUID playerUuid) {
+        X1Stats stats = queryStats(playerUuid);
+        if (stats != null) {
+            statsCache.put(playerUuid, new CachedStats(stats));
+            publish(stats);
+        }
+    }
+
     /**
      * Obtém stats de um player (com cache e TTL individual)
      * Grug Brain: Retorna stats vazias imediatamente, busca async em background
@@ -117,34 +130,7 @@ public class StatsManager {
         new BukkitRunnable() {
             @Override
             public void run() {
-                try (Connection conn = CoreAPI.getDatabase().getConnection()) {
-                    PreparedStatement stmt = conn.prepareStatement(
-                        "SELECT wins, losses, winstreak, best_winstreak, last_match_at FROM x1_stats WHERE player_uuid = ?");
-                    stmt.setObject(1, playerUuid);
-
-                    ResultSet rs = stmt.executeQuery();
-                    if (rs.next()) {
-                        X1Stats stats = new X1Stats(playerUuid);
-                        stats.setWins(rs.getInt("wins"));
-                        stats.setLosses(rs.getInt("losses"));
-                        stats.setWinstreak(rs.getInt("winstreak"));
-                        stats.setBestWinstreak(rs.getInt("best_winstreak"));
-                        java.sql.Timestamp lastMatch = rs.getTimestamp("last_match_at");
-                        if (lastMatch != null) {
-                            stats.setLastMatchAt(new Date(lastMatch.getTime()));
-                        }
-
-                        // Atualizar cache
-                        statsCache.put(playerUuid, new CachedStats(stats));
-                    } else {
-                        // Criar stats vazias e cachear
-                        X1Stats stats = new X1Stats(playerUuid);
-                        statsCache.put(playerUuid, new CachedStats(stats));
-                    }
-                } catch (SQLException e) {
-                    plugin.getLogger().severe("Erro ao buscar stats: " + e.getMessage());
-                    e.printStackTrace();
-                }
+                loadStats(playerUuid);
             }
         }.runTaskAsynchronously(plugin);
         
@@ -163,39 +149,71 @@ public class StatsManager {
         }
 
         // Buscar do banco (síncrono)
-        try (Connection conn = CoreAPI.getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                "SELECT wins, losses, winstreak, best_winstreak, last_match_at FROM x1_stats WHERE player_uuid = ?");
-            stmt.setObject(1, playerUuid);
+        X1Stats stats = queryStats(playerUuid);
+        if (stats == null) {
+            return new X1Stats(playerUuid); // Retornar stats vazias em caso de erro
+        }
+        statsCache.put(playerUuid, new CachedStats(stats));
+        publish(stats);
+        return stats;
+    }
 
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                X1Stats stats = new X1Stats(playerUuid);
-                stats.setWins(rs.getInt("wins"));
-                stats.setLosses(rs.getInt("losses"));
-                stats.setWinstreak(rs.getInt("winstreak"));
-                stats.setBestWinstreak(rs.getInt("best_winstreak"));
-                java.sql.Timestamp lastMatch = rs.getTimestamp("last_match_at");
-                if (lastMatch != null) {
-                    stats.setLastMatchAt(new Date(lastMatch.getTime()));
-                }
+    /**
+     * SELECT das stats do player
+     * @return stats (vazias se nunca jogou) ou null se erro no banco
+     */
+    private X1Stats queryStats(UUID playerUuid) {
+        try (Connection conn = CoreAPI.getDatabase().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                "SELECT wins, losses, winstreak, best_winstreak, last_match_at FROM x1_stats WHERE player_uuid = ?")) {
+            stmt.setObject(1, playerUuid);
 
-                // Atualizar cache
-                statsCache.put(playerUuid, new CachedStats(stats));
-                return stats;
-            } else {
-                // Criar stats vazias
-                X1Stats stats = new X1Stats(playerUuid);
-                statsCache.put(playerUuid, new CachedStats(stats));
-                return stats;
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapStats(playerUuid, rs) : new X1Stats(playerUuid);
             }
         } catch (SQLException e) {
             plugin.getLogger().severe("Erro ao buscar stats: " + e.getMessage());
             e.printStackTrace();
-            return new X1Stats(playerUuid); // Retornar stats vazias em caso de erro
+            return null;
+        }
+    }
+
+    /**
+     * Executa upsert com RETURNING e guarda a linha nova no cache + snapshot
+     */
+    private void storeReturned(UUID playerUuid, PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                X1Stats stats = mapStats(playerUuid, rs);
+                statsCache.put(playerUuid, new CachedStats(stats));
+                publish(stats);
+            } else {
+                statsCache.remove(playerUuid);
+            }
         }
     }
 
+    private static X1Stats mapStats(UUID playerUuid, ResultSet rs) throws SQLException {
+        X1Stats stats = new X1Stats(playerUuid);
+        stats.setWins(rs.getInt("wins"));
+        stats.setLosses(rs.getInt("losses"));
+        stats.setWinstreak(rs.getInt("winstreak"));
+        stats.setBestWinstreak(rs.getInt("best_winstreak"));
+        java.sql.Timestamp lastMatch = rs.getTimestamp("last_match_at");
+        if (lastMatch != null) {
+            stats.setLastMatchAt(new Date(lastMatch.getTime()));
+        }
+        return stats;
+    }
+
+    /**
+     * Publica stats no snapshot de placeholders do Core (ignorado se player offline)
+     */
+    private void publish(X1Stats stats) {
+        CoreAPI.updateSnapshot(stats.getPlayerUuid(), snapshot -> snapshot.withX1(
+            stats.getWins(), stats.getLosses(), stats.getWinstreak(), stats.getBestWinstreak()));
+    }
+
     /**
      * Limpa cache expirado (task periódica)
      * Grug Brain: TTL individual - remove apenas entradas expiradas
@@ -0,0 +1,135 @@
+package com.primeleague.pvp152.bench;
+
+import com.primeleague.core.PvPContextAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checagem "minigame gerencia o PvP?" do CombatListener.onEntityDamageByEntity, por hit
+ * Grug Brain: legacy = arePlayersInGladiadorMatch (getPlugin + 5-6 Method.invoke);
+ * current = isCombatManaged (PvPContextAPI, uma leitura de mapa por player).
+ * Setup confere que os dois respondem igual em todas as amostras antes de medir.
+ *
+ * idle = sem partida do Gladiador (caso comum: PvP no mundo, X1 em andamento)
+ * active = Gladiador ACTIVE com 100 vivos, 80% dos hits entre participantes
+ *
+ * Rodar (ns/op + bytes/op em gc.alloc.rate.norm):
+ *   mvn -f plugins/primeleague-core install
+ *   mvn -f plugins/pvp152-plugin install
+ *   mvn -f plugins/pvp152-bench package
+ *   java -jar plugins/pvp152-bench/target/benchmarks.jar CombatContextBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CombatContextBenchmark {
+
+    private static final int SAMPLES = 1024; // Potência de 2 (índice via máscara)
+    private static final int ONLINE = 500;
+    private static final int GLADIADOR_PLAYERS = 100;
+    private static final int X1_DUELS = 10;
+
+    @Param({"idle", "active"})
+    public String scenario;
+
+    private LegacyGladiadorCheck legacy;
+    private final UUID[] attackers = new UUID[SAMPLES];
+    private final UUID[] victims = new UUID[SAMPLES];
+    // Mesmo flag do CombatListener (Core habilitado)
+    private final boolean pvpContextAvailable = true;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        Random random = new Random(9);
+        UUID[] online = new UUID[ONLINE];
+        for (int i = 0; i < ONLINE; i++) {
+            online[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+
+        LegacyGladiadorCheck.Gladiador gladiador = new LegacyGladiadorCheck.Gladiador();
+        legacy = new LegacyGladiadorCheck(gladiador);
+
+        // X1 em andamento: em arena, mas mecânicas do pvp152 valem (managed = false)
+        for (int i = 0; i < X1_DUELS * 2; i++) {
+            PvPContextAPI.enterArena(online[ONLINE - 1 - i], "X1", false);
+        }
+
+        boolean active = "active".equals(scenario);
+        if (active) {
+            LegacyGladiadorCheck.GladiadorMatch match = new LegacyGladiadorCheck.GladiadorMatch();
+            match.state = LegacyGladiadorCheck.MatchState.ACTIVE;
+            for (int i = 0; i < GLADIADOR_PLAYERS; i++) {
+                match.alivePlayers.add(online[i]);
+                PvPContextAPI.enterArena(online[i], "Gladiador", true);
+            }
+            gladiador.getMatchManager().currentMatch = match;
+        }
+
+        for (int i = 0; i < SAMPLES; i++) {
+            boolean inMatch = active && random.nextInt(10) < 8;
+            int bound = inMatch ? GLADIADOR_PLAYERS : ONLINE;
+            attackers[i] = online[random.nextInt(bound)];
+            victims[i] = online[random.nextInt(bound)];
+        }
+
+        for (int i = 0; i < SAMPLES; i++) {
+            boolean expected = legacy.arePlayersInGladiadorMatch(attackers[i], victims[i]);
+            if (expected != isCombatManaged(attackers[i], victims[i])) {
+                throw new IllegalStateException("Amostra " + i + " diverge (antigo " + expected + ")");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PvPContextAPI.clearOwner("Gladiador");
+        PvPContextAPI.clearOwner("X1");
+    }
+
+    /**
+     * Mesmo isCombatManaged do CombatListener
+     */
+    private boolean isCombatManaged(UUID attacker, UUID victim) {
+        if (!pvpContextAvailable) {
+            return false;
+        }
+        return PvPContextAPI.isCombatManaged(attacker) && PvPContextAPI.isCombatManaged(victim);
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1) & (SAMPLES - 1);
+        return i;
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        int i = next();
+        return legacy.arePlayersInGladiadorMatch(attackers[i], victims[i]);
+    }
+
+    @Benchmark
+    public boolean current() {
+        int i = next();
+        return isCombatManaged(attackers[i], victims[i]);
+    }
+}
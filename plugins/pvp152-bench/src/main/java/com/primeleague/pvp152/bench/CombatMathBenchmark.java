@@ -0,0 +1,225 @@
+package com.primeleague.pvp152.bench;
+
+import com.primeleague.pvp152.CombatMath;
+import org.bukkit.Location;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit do PvP152: versão antiga (Vector/Location/double[]/acos) x CombatMath (primitivos, sem alocação)
+ * Grug Brain: Mesmas posições para os dois lados; setup confere que os resultados batem antes de medir.
+ *
+ * Rodar (ns/op + bytes/op em gc.alloc.rate.norm):
+ *   mvn -f plugins/pvp152-plugin install
+ *   mvn -f plugins/pvp152-bench package
+ *   java -jar plugins/pvp152-bench/target/benchmarks.jar -prof gc
+ *
+ * Legacy aloca as duas Locations por hit porque Entity.getLocation() alocava no código antigo;
+ * Current lê de Locations reaproveitadas, como o CombatListener faz com getLocation(Location).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CombatMathBenchmark {
+
+    private static final int SAMPLES = 1024; // Potência de 2 (índice via máscara)
+    private static final double REACH = 3.0;
+    private static final double TOLERANCE = 1.05;
+    private static final double BLOCK_REDUCTION = 0.7;
+    private static final double BLOCK_ANGLE = 60.0;
+    private static final double COS_BLOCK_ANGLE = Math.cos(Math.toRadians(BLOCK_ANGLE));
+
+    private final double[] ax = new double[SAMPLES];
+    private final double[] ay = new double[SAMPLES];
+    private final double[] az = new double[SAMPLES];
+    private final double[] vx = new double[SAMPLES];
+    private final double[] vy = new double[SAMPLES];
+    private final double[] vz = new double[SAMPLES];
+    private final float[] vYaw = new float[SAMPLES];
+    private final float[] vPitch = new float[SAMPLES];
+    private final boolean[] blocking = new boolean[SAMPLES];
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(152);
+        for (int i = 0; i < SAMPLES; i++) {
+            ax[i] = random.nextDouble() * 20 - 10;
+            ay[i] = 64 + random.nextDouble() * 3;
+            az[i] = random.nextDouble() * 20 - 10;
+            // Vítima a até ~4.5 blocos (parte dentro, parte fora do reach)
+            vx[i] = ax[i] + random.nextDouble() * 6 - 3;
+            vy[i] = 64 + random.nextDouble() * 3;
+            vz[i] = az[i] + random.nextDouble() * 6 - 3;
+            vYaw[i] = random.nextFloat() * 360 - 180;
+            vPitch[i] = random.nextFloat() * 180 - 90;
+            blocking[i] = random.nextBoolean();
+        }
+        verifyEquivalence();
+    }
+
+    /**
+     * Versão nova tem que dar o mesmo resultado da antiga em todas as amostras
+     */
+    private void verifyEquivalence() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Location attacker = new Location(null, ax[i], ay[i], az[i]);
+            Location victim = new Location(null, vx[i], vy[i], vz[i], vYaw[i], vPitch[i]);
+
+            double[] legacyReach = LegacyCombatMath.isWithinReachWithDistance(attacker, victim, REACH, TOLERANCE,
+                blocking[i], BLOCK_REDUCTION);
+            double distance = CombatMath.horizontalDistance(ax[i], az[i], vx[i], vz[i]);
+            boolean inReach = distance <= CombatMath.maxReach(REACH * TOLERANCE, blocking[i], BLOCK_REDUCTION,
+                ay[i], vy[i]);
+            check(i, "reach", legacyReach[0] == 1.0, inReach);
+            check(i, "distância", legacyReach[1], distance);
+
+            // Fronteira do cone: acos x cosseno podem divergir no último bit - ignorar |dot - cos| minúsculo
+            if (!nearBlockBoundary(i)) {
+                check(i, "bloqueio", LegacyCombatMath.isWithinBlockAngle(victim, attacker, BLOCK_ANGLE),
+                    CombatMath.isWithinBlockAngle(vYaw[i], vPitch[i], vx[i], vy[i], vz[i], ax[i], ay[i], az[i],
+                        COS_BLOCK_ANGLE));
+            }
+
+            Vector legacyDirection = LegacyCombatMath.knockbackDirection(attacker, victim);
+            double dx = vx[i] - ax[i];
+            double dy = vy[i] - ay[i];
+            double dz = vz[i] - az[i];
+            check(i, "knockback x", legacyDirection.getX(), CombatMath.knockbackDirectionX(dx, dy, dz));
+            check(i, "knockback z", legacyDirection.getZ(), CombatMath.knockbackDirectionZ(dx, dy, dz));
+        }
+    }
+
+    private boolean nearBlockBoundary(int i) {
+        Vector direction = new Location(null, vx[i], vy[i], vz[i], vYaw[i], vPitch[i]).getDirection();
+        Vector toAttacker = new Vector(ax[i] - vx[i], ay[i] - vy[i], az[i] - vz[i]);
+        if (toAttacker.lengthSquared() < 0.0001) {
+            return false;
+        }
+        return Math.abs(direction.dot(toAttacker.normalize()) - COS_BLOCK_ANGLE) < 1e-9;
+    }
+
+    private static void check(int sample, String what, boolean legacy, boolean current) {
+        if (legacy != current) {
+            throw new IllegalStateException("Amostra " + sample + ": " + what + " diverge (antigo " + legacy +
+                ", novo " + current + ")");
+        }
+    }
+
+    private static void check(int sample, String what, double legacy, double current) {
+        if (Math.abs(legacy - current) > 1e-12) {
+            throw new IllegalStateException("Amostra " + sample + ": " + what + " diverge (antigo " + legacy +
+                ", novo " + current + ")");
+        }
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1) & (SAMPLES - 1);
+        return i;
+    }
+
+    @Benchmark
+    public void reachLegacy(Blackhole bh) {
+        int i = next();
+        Location attacker = new Location(null, ax[i], ay[i], az[i]);
+        Location victim = new Location(null, vx[i], vy[i], vz[i], vYaw[i], vPitch[i]);
+        bh.consume(LegacyCombatMath.isWithinReachWithDistance(attacker, victim, REACH, TOLERANCE, blocking[i],
+            BLOCK_REDUCTION));
+    }
+
+    @Benchmark
+    public void reachCurrent(Blackhole bh) {
+        int i = next();
+        double distance = CombatMath.horizontalDistance(ax[i], az[i], vx[i], vz[i]);
+        bh.consume(distance <= CombatMath.maxReach(REACH * TOLERANCE, blocking[i], BLOCK_REDUCTION, ay[i], vy[i]));
+        bh.consume(distance);
+    }
+
+    @Benchmark
+    public boolean blockAngleLegacy() {
+        int i = next();
+        Location attacker = new Location(null, ax[i], ay[i], az[i]);
+        Location victim = new Location(null, vx[i], vy[i], vz[i], vYaw[i], vPitch[i]);
+        return LegacyCombatMath.isWithinBlockAngle(victim, attacker, BLOCK_ANGLE);
+    }
+
+    @Benchmark
+    public boolean blockAngleCurrent() {
+        int i = next();
+        return CombatMath.isWithinBlockAngle(vYaw[i], vPitch[i], vx[i], vy[i], vz[i], ax[i], ay[i], az[i],
+            COS_BLOCK_ANGLE);
+    }
+
+    @Benchmark
+    public Vector knockbackLegacy() {
+        int i = next();
+        Location attacker = new Location(null, ax[i], ay[i], az[i]);
+        Location victim = new Location(null, vx[i], vy[i], vz[i], vYaw[i], vPitch[i]);
+        return LegacyCombatMath.knockbackDirection(attacker, victim);
+    }
+
+    @Benchmark
+    public void knockbackCurrent(Blackhole bh) {
+        int i = next();
+        double dx = vx[i] - ax[i];
+        double dy = vy[i] - ay[i];
+        double dz = vz[i] - az[i];
+        bh.consume(CombatMath.knockbackDirectionX(dx, dy, dz));
+        bh.consume(CombatMath.knockbackDirectionZ(dx, dy, dz));
+    }
+
+    /**
+     * Hit completo (reach + bloqueio + direção), como no handler
+     */
+    @Benchmark
+    public void hitLegacy(Blackhole bh) {
+        int i = next();
+        Location attacker = new Location(null, ax[i], ay[i], az[i]);
+        Location victim = new Location(null, vx[i], vy[i], vz[i], vYaw[i], vPitch[i]);
+        double[] reach = LegacyCombatMath.isWithinReachWithDistance(attacker, victim, REACH, TOLERANCE, blocking[i],
+            BLOCK_REDUCTION);
+        if (reach[0] == 0.0) {
+            bh.consume(reach);
+            return;
+        }
+        bh.consume(blocking[i] && LegacyCombatMath.isWithinBlockAngle(victim, attacker, BLOCK_ANGLE));
+        bh.consume(LegacyCombatMath.knockbackDirection(attacker, victim));
+        bh.consume(reach[1]);
+    }
+
+    @Benchmark
+    public void hitCurrent(Blackhole bh) {
+        int i = next();
+        double distance = CombatMath.horizontalDistance(ax[i], az[i], vx[i], vz[i]);
+        if (distance > CombatMath.maxReach(REACH * TOLERANCE, blocking[i], BLOCK_REDUCTION, ay[i], vy[i])) {
+            bh.consume(distance);
+            return;
+        }
+        bh.consume(blocking[i] && CombatMath.isWithinBlockAngle(vYaw[i], vPitch[i], vx[i], vy[i], vz[i],
+            ax[i], ay[i], az[i], COS_BLOCK_ANGLE));
+        double dx = vx[i] - ax[i];
+        double dy = vy[i] - ay[i];
+        double dz = vz[i] - az[i];
+        bh.consume(CombatMath.knockbackDirectionX(dx, dy, dz));
+        bh.consume(CombatMath.knockbackDirectionZ(dx, dy, dz));
+        bh.consume(distance);
+    }
+}
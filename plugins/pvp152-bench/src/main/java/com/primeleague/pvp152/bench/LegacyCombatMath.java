@@ -0,0 +1,77 @@
+package com.primeleague.pvp152.bench;
+
+import org.bukkit.Location;
+import org.bukkit.util.Vector;
+
+/**
+ * Matemática de hit como era no CombatListener antes do CombatMath (referência do benchmark)
+ * Grug Brain: Mesmo código, só trocando Player/PlayerData por Location e flags - Vector, double[] e acos.
+ */
+final class LegacyCombatMath {
+
+    private static final double MAX_HEIGHT_DIFF = 2.0;
+    private static final double BLOCK_ANGLE_THRESHOLD = 0.0001;
+
+    private LegacyCombatMath() {
+    }
+
+    /**
+     * @return [isWithinReach (1.0 = true, 0.0 = false), horizontalDistance]
+     */
+    static double[] isWithinReachWithDistance(Location attackerLoc, Location targetLoc, double reachMaxDistance,
+                                              double reachTolerance, boolean targetBlocking,
+                                              double blockingReachReduction) {
+        double maxDist = reachMaxDistance * reachTolerance;
+
+        // Se vítima está bloqueando, reduz reach
+        if (targetBlocking) {
+            maxDist *= blockingReachReduction;
+        }
+
+        // High ground bonus: +0.1-0.2 reach se atacante está acima
+        double heightDiff = attackerLoc.getY() - targetLoc.getY();
+        if (heightDiff > 0) {
+            heightDiff = Math.min(heightDiff, MAX_HEIGHT_DIFF);
+            maxDist += Math.min(heightDiff * 0.1, 0.2);
+        }
+
+        double dx = targetLoc.getX() - attackerLoc.getX();
+        double dz = targetLoc.getZ() - attackerLoc.getZ();
+        double horizontalDistance = Math.sqrt(dx * dx + dz * dz);
+
+        return new double[]{horizontalDistance <= maxDist ? 1.0 : 0.0, horizontalDistance};
+    }
+
+    static boolean isWithinBlockAngle(Location blockerLoc, Location attackerLoc, double blockingAngleDegrees) {
+        double maxAngleRad = Math.toRadians(blockingAngleDegrees);
+
+        Vector blockerDirection = blockerLoc.getDirection();
+        Vector toAttacker = attackerLoc.toVector().subtract(blockerLoc.toVector());
+
+        // Verificar magnitude antes de normalizar (evita NaN)
+        if (toAttacker.lengthSquared() < BLOCK_ANGLE_THRESHOLD) {
+            return true;
+        }
+
+        toAttacker.normalize();
+
+        double dot = blockerDirection.dot(toAttacker);
+        double angle = Math.acos(Math.max(-1.0, Math.min(1.0, dot)));
+
+        return angle <= maxAngleRad;
+    }
+
+    static Vector knockbackDirection(Location attackerLoc, Location victimLoc) {
+        Vector direction = victimLoc.toVector().subtract(attackerLoc.toVector());
+
+        // Production: Evitar NaN/Infinity se vetor for zero (mesma posição)
+        double lengthSquared = direction.lengthSquared();
+        if (lengthSquared < 0.0001) {
+            // Mesma posição, usar direção padrão (norte)
+            direction = new Vector(0, 0, 1);
+        } else {
+            direction.normalize();
+        }
+        return direction;
+    }
+}
@@ -0,0 +1,123 @@
+package com.primeleague.pvp152.bench;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * arePlayersInGladiadorMatch antes do PvPContextAPI (cópia para benchmark)
+ * Grug Brain: Fora do servidor não tem PluginManager nem Gladiador - lookupNames imita
+ * SimplePluginManager.getPlugin (replace + HashMap) e as classes abaixo imitam o Gladiador
+ * (mesmas assinaturas, hasPlayer em HashSet). Reflection em cache, como depois do primeiro hit.
+ */
+final class LegacyGladiadorCheck {
+
+    private final Map<String, Gladiador> lookupNames = new HashMap<>();
+
+    private final Method getInstanceMethod;
+    private final Method getMatchManagerMethod;
+    private final Method getCurrentMatchMethod;
+    private final Method getStateMethod;
+    private final Method hasPlayerMethod;
+
+    LegacyGladiadorCheck(Gladiador gladiador) throws ReflectiveOperationException {
+        Gladiador.instance = gladiador;
+        lookupNames.put("PrimeleagueGladiador", gladiador);
+
+        // Mesmo cacheGladiadorReflection antigo
+        getInstanceMethod = gladiador.getClass().getMethod("getInstance");
+        Object instance = getInstanceMethod.invoke(null);
+        getMatchManagerMethod = instance.getClass().getMethod("getMatchManager");
+        Object matchManager = getMatchManagerMethod.invoke(instance);
+        getCurrentMatchMethod = matchManager.getClass().getMethod("getCurrentMatch");
+        Class<?> matchReturnType = getCurrentMatchMethod.getReturnType();
+        getStateMethod = matchReturnType.getMethod("getState");
+        hasPlayerMethod = matchReturnType.getMethod("hasPlayer", UUID.class);
+    }
+
+    private Gladiador getPlugin(String name) {
+        return lookupNames.get(name.replace(' ', '_'));
+    }
+
+    /**
+     * Caminho com cache do arePlayersInGladiadorMatch antigo
+     */
+    boolean arePlayersInGladiadorMatch(UUID attacker, UUID victim) {
+        Gladiador gladiadorPlugin = getPlugin("PrimeleagueGladiador");
+        if (gladiadorPlugin == null || !gladiadorPlugin.isEnabled()) {
+            return false;
+        }
+
+        try {
+            Object gladiadorInstance = getInstanceMethod.invoke(null);
+            Object matchManager = getMatchManagerMethod.invoke(gladiadorInstance);
+            Object match = getCurrentMatchMethod.invoke(matchManager);
+            if (match == null) {
+                return false;
+            }
+
+            Object state = getStateMethod.invoke(match);
+            if (state instanceof Enum) {
+                if (!((Enum<?>) state).name().equals("ACTIVE")) {
+                    return false;
+                }
+            } else if (!state.toString().contains("ACTIVE")) {
+                return false;
+            }
+
+            boolean attackerInMatch = (Boolean) hasPlayerMethod.invoke(match, attacker);
+            boolean victimInMatch = (Boolean) hasPlayerMethod.invoke(match, victim);
+            return attackerInMatch && victimInMatch;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * GladiadorPlugin (getInstance/getMatchManager/isEnabled)
+     */
+    public static final class Gladiador {
+        static Gladiador instance;
+        private final MatchManager matchManager = new MatchManager();
+
+        public static Gladiador getInstance() {
+            return instance;
+        }
+
+        public MatchManager getMatchManager() {
+            return matchManager;
+        }
+
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+
+    public static final class MatchManager {
+        GladiadorMatch currentMatch;
+
+        public GladiadorMatch getCurrentMatch() {
+            return currentMatch;
+        }
+    }
+
+    public static final class GladiadorMatch {
+        final Set<UUID> alivePlayers = new HashSet<>();
+        MatchState state = MatchState.WAITING;
+
+        public boolean hasPlayer(UUID playerUuid) {
+            return alivePlayers.contains(playerUuid);
+        }
+
+        public MatchState getState() {
+            return state;
+        }
+    }
+
+    public enum MatchState {
+        WAITING, PREPARATION, ACTIVE, ENDING
+    }
+}
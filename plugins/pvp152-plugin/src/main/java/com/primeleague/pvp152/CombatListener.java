@@ -3,7 +3,6 @@ package com.primeleague.pvp152;
 
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -24,9 +23,7 @@ import org.bukkit.GameMode;
 public class CombatListener implements Listener {
 
     // Constantes para melhorias de UX
-    private static final double MAX_HEIGHT_DIFF = 2.0;  // Limite de altura para reach
     private static final double VELOCITY_RESET_THRESHOLD = 0.5;  // Threshold para reset de velocity
-    private static final double BLOCK_ANGLE_THRESHOLD = 0.0001;  // Threshold para magnitude de bloqueio
 
     private final PvP152Plugin plugin;
     private boolean reachEnabled;
@@ -35,6 +32,7 @@ public class CombatListener implements Listener {
     private boolean blockingEnabled;
     private double blockingDamageReduction;
     private double blockingAngleDegrees;
+    private double blockingCosMaxAngle; // cos(blockingAngleDegrees) - evita acos por hit
     private boolean damageEnabled;
     private double damageWooden;
     private double damageStone;
@@ -61,22 +59,24 @@ public class CombatListener implements Listener {
     private double antiStuckMultiplier; // Multiplicador anti-stuck
     private double knockbackRegenReductionPerLevel; // Redução de KB por nível de regeneração
     private double knockbackNoRegenMultiplier; // Multiplicador de KB quando vítima NÃO tem regeneração (reduz KB base)
+    private int knockbackSprintResetTicks; // Lido do config no load (não por hit)
+    private double knockbackMinVertical; // Lido do config no load (não por hit)
 
     private long currentTick = 0;
+
+    // Locations reutilizadas no caminho de hit (só main thread) - Entity.getLocation(Location) não aloca
+    private final Location attackerLoc = new Location(null, 0, 0, 0);
+    private final Location victimLoc = new Location(null, 0, 0, 0);
+
     
-    // Cache de reflection methods do Gladiador (performance)
-    private static java.lang.reflect.Method gladiadorGetInstanceMethod;
-    private static java.lang.reflect.Method gladiadorGetMatchManagerMethod;
-    private static java.lang.reflect.Method gladiadorGetCurrentMatchMethod;
-    private static java.lang.reflect.Method gladiadorGetStateMethod;
-    private static java.lang.reflect.Method gladiadorHasPlayerMethod;
-    private static boolean gladiadorReflectionCached = false;
+    // PvPContextAPI do Core disponível? (soft-depend: sem Core, nenhum minigame gerencia PvP)
+    private final boolean pvpContextAvailable;
 
     public CombatListener(PvP152Plugin plugin) {
         this.plugin = plugin;
         loadConfig();
-        // Cache reflection methods do Gladiador (performance)
-        cacheGladiadorReflection();
+        org.bukkit.plugin.Plugin core = plugin.getServer().getPluginManager().getPlugin("PrimeleagueCore");
+        this.pvpContextAvailable = core != null && core.isEnabled();
         // Grug Brain: Usar classe anônima ao invés de lambda para compatibilidade total com Paper 1.8.8
         plugin.getServer().getScheduler().runTaskTimer(plugin, new Runnable() {
             @Override
@@ -86,48 +86,6 @@ public class CombatListener implements Listener {
         }, 0L, 1L);
     }
     
-    /**
-     * Cache reflection methods do Gladiador para performance
-     * Grug Brain: Cache uma vez, reuse sempre - cache direto da classe (não precisa de instância)
-     */
-    private void cacheGladiadorReflection() {
-        if (gladiadorReflectionCached) {
-            return; // Já cached
-        }
-        
-        org.bukkit.plugin.Plugin gladiadorPlugin = 
-            plugin.getServer().getPluginManager().getPlugin("PrimeleagueGladiador");
-        
-        if (gladiadorPlugin == null || !gladiadorPlugin.isEnabled()) {
-            return; // Gladiador não disponível
-        }
-        
-        try {
-            // Cache getInstance
-            gladiadorGetInstanceMethod = gladiadorPlugin.getClass().getMethod("getInstance");
-            
-            // Cache getMatchManager (precisa do instance)
-            Object gladiadorInstance = gladiadorGetInstanceMethod.invoke(null);
-            gladiadorGetMatchManagerMethod = gladiadorInstance.getClass().getMethod("getMatchManager");
-            
-            // Cache getCurrentMatch (precisa do matchManager)
-            Object matchManager = gladiadorGetMatchManagerMethod.invoke(gladiadorInstance);
-            gladiadorGetCurrentMatchMethod = matchManager.getClass().getMethod("getCurrentMatch");
-            
-            // Cache getState e hasPlayer diretamente da classe de retorno (não precisa de instância)
-            // Grug Brain: Cache direto da classe é mais eficiente e sempre funciona
-            Class<?> matchReturnType = gladiadorGetCurrentMatchMethod.getReturnType();
-            gladiadorGetStateMethod = matchReturnType.getMethod("getState");
-            gladiadorHasPlayerMethod = matchReturnType.getMethod("hasPlayer", java.util.UUID.class);
-            
-            gladiadorReflectionCached = true;
-            plugin.getLogger().info("Gladiador reflection cached - integração otimizada");
-        } catch (Exception e) {
-            // Falha silenciosa - reflection será feito em runtime se necessário
-            plugin.getLogger().fine("Não foi possível cachear reflection do Gladiador: " + e.getMessage());
-        }
-    }
-
     /**
      * Carrega todas as configurações do config.yml
      * Grug Brain: Método único usado por construtor e reloadConfig()
@@ -140,6 +98,7 @@ public class CombatListener implements Listener {
         this.blockingEnabled = plugin.getConfig().getBoolean("blocking.enabled", true);
         this.blockingDamageReduction = validateRange("blocking.damage-reduction", plugin.getConfig().getDouble("blocking.damage-reduction", 0.5), 0.0, 1.0, 0.5);
         this.blockingAngleDegrees = validateRange("blocking.angle-degrees", plugin.getConfig().getDouble("blocking.angle-degrees", 60.0), 0.0, 180.0, 60.0);
+        this.blockingCosMaxAngle = Math.cos(Math.toRadians(this.blockingAngleDegrees));
         this.damageEnabled = plugin.getConfig().getBoolean("damage.enabled", true);
         this.damageWooden = validatePositive("damage.swords.wooden", plugin.getConfig().getDouble("damage.swords.wooden", 4.0), 4.0);
         this.damageStone = validatePositive("damage.swords.stone", plugin.getConfig().getDouble("damage.swords.stone", 5.0), 5.0);
@@ -166,6 +125,8 @@ public class CombatListener implements Listener {
         this.antiStuckMultiplier = validatePositive("knockback.anti-stuck-multiplier", plugin.getConfig().getDouble("knockback.anti-stuck-multiplier", 1.5), 1.5);
         this.knockbackRegenReductionPerLevel = validateRange("knockback.regen-reduction-per-level", plugin.getConfig().getDouble("knockback.regen-reduction-per-level", 0.15), 0.0, 1.0, 0.15);
         this.knockbackNoRegenMultiplier = validateRange("knockback.no-regen-multiplier", plugin.getConfig().getDouble("knockback.no-regen-multiplier", 0.7), 0.0, 1.0, 0.7);
+        this.knockbackSprintResetTicks = plugin.getConfig().getInt("knockback.sprint-reset-ticks", 1);
+        this.knockbackMinVertical = plugin.getConfig().getDouble("knockback.min-vertical", 0.45);
     }
 
     /**
@@ -227,6 +188,13 @@ public class CombatListener implements Listener {
             return;
         }
 
+        handlePlayerHit(event);
+    }
+
+    /**
+     * Mecânicas 1.5.2 de um hit player -> player
+     */
+    private void handlePlayerHit(EntityDamageByEntityEvent event) {
         // Verificação universal: Se evento foi cancelado por qualquer plugin (WorldGuard, etc.)
         // Esta verificação funciona para a maioria dos plugins que cancelam PvP
         if (event.isCancelled()) {
@@ -249,12 +217,11 @@ public class CombatListener implements Listener {
             return;
         }
 
-        // Edge case: Verificação específica para Gladiador
-        // (necessária porque Gladiador descancela eventos quando match está ACTIVE)
+        // Edge case: Minigame que gerencia o próprio PvP (ex: Gladiador descancela eventos quando ACTIVE)
         // Para outros plugins (WorldGuard, etc.), a verificação isCancelled() acima já funciona
-        // Grug Brain: Soft-depend via reflection - não precisa de dependência de compilação
-        if (arePlayersInGladiadorMatch(attacker, victim)) {
-            return; // Gladiador gerencia PvP, não aplicar mecânicas customizadas
+        // Grug Brain: Flag por player mantida pelo minigame no PvPContextAPI - uma leitura de mapa por player
+        if (isCombatManaged(attacker, victim)) {
+            return; // Minigame gerencia PvP, não aplicar mecânicas customizadas
         }
 
         // Limitar CPS: verificar cooldown do atacante
@@ -266,12 +233,25 @@ public class CombatListener implements Listener {
         attackerData.setLastAttackTick(currentTick); // Registrar hit do atacante
 
         // Verificar reach e calcular distância horizontal (reutilizar para anti-stuck)
-        double[] reachResult = isWithinReachWithDistance(attacker, victim);
-        if (reachResult == null || reachResult[0] == 0.0) { // reachResult[0] = 0.0 significa fora do reach
-            event.setCancelled(true);
-            return;
+        // Reach desabilitado = distância 0 (não precisa calcular)
+        double horizontalDistance = 0.0;
+        if (reachEnabled) {
+            // Production: Verificar worlds diferentes
+            if (attacker.getWorld() != victim.getWorld()) {
+                event.setCancelled(true);
+                return;
+            }
+            attacker.getLocation(attackerLoc);
+            victim.getLocation(victimLoc);
+            horizontalDistance = CombatMath.horizontalDistance(
+                attackerLoc.getX(), attackerLoc.getZ(), victimLoc.getX(), victimLoc.getZ());
+            double maxDist = CombatMath.maxReach(reachMaxDistance * reachTolerance,
+                isHoldingBlock(victim), blockingReachReduction, attackerLoc.getY(), victimLoc.getY());
+            if (horizontalDistance > maxDist) {
+                event.setCancelled(true);
+                return;
+            }
         }
-        double horizontalDistance = reachResult[1]; // reachResult[1] = distância horizontal calculada
 
         // Edge case: Verificar se evento foi cancelado antes de modificar estado do player
         // (outros plugins podem cancelar entre verificações)
@@ -287,7 +267,9 @@ public class CombatListener implements Listener {
         double customDamage = calculateCustomDamage(attacker, victim, originalDamage);
         event.setDamage(customDamage);
 
-        if (isBlocking(victim, attacker)) {
+        // Bloqueio calculado uma vez (dano + knockback + debug)
+        boolean victimBlocking = isBlocking(victim, attacker);
+        if (victimBlocking) {
             event.setDamage(event.getDamage() * blockingDamageReduction);
         }
 
@@ -315,7 +297,7 @@ public class CombatListener implements Listener {
 
         // Aplicar knockback (já verificamos isCancelled() acima)
         // Passar distância horizontal calculada para evitar recalcular
-        applyCustomKnockback(attacker, victim, event, horizontalDistance);
+        applyCustomKnockback(attacker, victim, event, horizontalDistance, victimBlocking);
 
         // Edge case: Verificar novamente antes de registrar dano
         if (event.isCancelled()) {
@@ -327,7 +309,7 @@ public class CombatListener implements Listener {
 
         if (debugLogDamage) {
             plugin.getLogger().info(String.format("Dano: %.2f -> %.2f (bloqueado: %s)",
-                originalDamage, event.getDamage(), isBlocking(victim, attacker)));
+                originalDamage, event.getDamage(), victimBlocking));
         }
     }
 
@@ -360,24 +342,8 @@ public class CombatListener implements Listener {
         if (item != null && isSword(item.getType()) &&
             (event.getAction() == Action.RIGHT_CLICK_AIR ||
              event.getAction() == Action.RIGHT_CLICK_BLOCK)) {
+            // Sem task por clique: quem lê o bloqueio (isHoldingBlock) confere a espada na mão
             data.setIsBlocking(true);
-            // Grug Brain: Usar classe anônima ao invés de lambda para compatibilidade total com Paper 1.8.8
-            plugin.getServer().getScheduler().runTaskLater(plugin, new Runnable() {
-                @Override
-                public void run() {
-                    // Edge case: Player pode ter desconectado durante os 5 ticks
-                    if (!player.isOnline()) {
-                        return;
-                    }
-                    PlayerData d = plugin.getPlayerData(player.getUniqueId());
-                    if (d.getIsBlocking()) {
-                        ItemStack currentItem = player.getItemInHand();
-                        if (currentItem == null || !isSword(currentItem.getType())) {
-                            d.setIsBlocking(false);
-                        }
-                    }
-                }
-            }, 5L);
         } else if (event.getAction() == Action.LEFT_CLICK_AIR ||
                    event.getAction() == Action.LEFT_CLICK_BLOCK) {
             data.setIsBlocking(false);
@@ -461,52 +427,15 @@ public class CombatListener implements Listener {
     }
 
     /**
-     * Verifica se está dentro do reach e retorna distância horizontal calculada
-     * Grug Brain: Retorna array [isWithinReach (1.0 ou 0.0), horizontalDistance] para reutilizar cálculo
-     * @return Array [isWithinReach (1.0 = true, 0.0 = false), horizontalDistance] ou null se inválido
+     * Player está segurando bloqueio (flag do clique direito + espada ainda na mão)
+     * Grug Brain: Substitui a task de 5 ticks por clique - a espada é conferida na leitura
      */
-    private double[] isWithinReachWithDistance(Player attacker, Entity target) {
-        if (!reachEnabled) {
-            // Se reach desabilitado, retornar distância 0 (não precisa calcular)
-            return new double[]{1.0, 0.0};
-        }
-        
-        // Production: Verificar worlds diferentes
-        if (attacker.getWorld() != target.getWorld()) {
-            return null;
-        }
-        
-        Location attackerLoc = attacker.getLocation();
-        Location targetLoc = target.getLocation();
-        
-        // Production: Null safety (improvável, mas seguro)
-        if (attackerLoc == null || targetLoc == null) {
-            return null;
-        }
-
-        double maxDist = reachMaxDistance * reachTolerance;
-
-        // Se vítima está bloqueando, reduz reach
-        if (target instanceof Player) {
-            PlayerData targetData = plugin.getPlayerData(((Player) target).getUniqueId());
-            if (targetData.getIsBlocking()) {
-                maxDist *= blockingReachReduction;
-            }
-        }
-
-        // High ground bonus: +0.1-0.2 reach se atacante está acima
-        double heightDiff = attackerLoc.getY() - targetLoc.getY();
-        if (heightDiff > 0) {
-            heightDiff = Math.min(heightDiff, MAX_HEIGHT_DIFF);
-            maxDist += Math.min(heightDiff * 0.1, 0.2);
+    private boolean isHoldingBlock(Player player) {
+        if (!plugin.getPlayerData(player.getUniqueId()).getIsBlocking()) {
+            return false;
         }
-
-        double dx = targetLoc.getX() - attackerLoc.getX();
-        double dz = targetLoc.getZ() - attackerLoc.getZ();
-        double horizontalDistance = Math.sqrt(dx * dx + dz * dz);
-
-        // Retornar [isWithinReach (1.0 ou 0.0), horizontalDistance]
-        return new double[]{horizontalDistance <= maxDist ? 1.0 : 0.0, horizontalDistance};
+        ItemStack item = player.getItemInHand();
+        return item != null && isSword(item.getType());
     }
 
     private boolean isBlocking(Player blocker, Player attacker) {
@@ -514,14 +443,7 @@ public class CombatListener implements Listener {
             return false;
         }
 
-        // Verificar item na mão
-        ItemStack item = blocker.getItemInHand();
-        if (item == null || !isSword(item.getType())) {
-            return false;
-        }
-
-        PlayerData data = plugin.getPlayerData(blocker.getUniqueId());
-        if (!data.getIsBlocking()) {
+        if (!isHoldingBlock(blocker)) {
             return false;
         }
 
@@ -530,25 +452,12 @@ public class CombatListener implements Listener {
     }
 
     private boolean isWithinBlockAngle(Player blocker, Player attacker) {
-        double maxAngleRad = Math.toRadians(blockingAngleDegrees);
-
-        Location blockerLoc = blocker.getLocation();
-        Location attackerLoc = attacker.getLocation();
-
-        Vector blockerDirection = blockerLoc.getDirection();
-        Vector toAttacker = attackerLoc.toVector().subtract(blockerLoc.toVector());
-
-        // Verificar magnitude antes de normalizar (evita NaN)
-        if (toAttacker.lengthSquared() < BLOCK_ANGLE_THRESHOLD) {
-            return true;
-        }
-
-        toAttacker.normalize();
-
-        double dot = blockerDirection.dot(toAttacker);
-        double angle = Math.acos(Math.max(-1.0, Math.min(1.0, dot)));
-
-        return angle <= maxAngleRad;
+        blocker.getLocation(victimLoc);
+        attacker.getLocation(attackerLoc);
+        return CombatMath.isWithinBlockAngle(victimLoc.getYaw(), victimLoc.getPitch(),
+            victimLoc.getX(), victimLoc.getY(), victimLoc.getZ(),
+            attackerLoc.getX(), attackerLoc.getY(), attackerLoc.getZ(),
+            blockingCosMaxAngle);
     }
 
     private double calculateCustomDamage(Player attacker, Player victim, double originalDamage) {
@@ -647,97 +556,23 @@ public class CombatListener implements Listener {
     }
 
     /**
-     * Verifica se ambos os players estão em um match do Gladiador com estado ACTIVE
-     * Grug Brain: Soft-depend via reflection cached - performance otimizada
-     * Retorna true se AMBOS estão no match E match está ACTIVE (Gladiador gerencia PvP)
+     * Verifica se ambos os players estão em arena cujo combate é gerenciado pelo minigame
+     * Grug Brain: Gladiador/X1/etc registram no PvPContextAPI ao iniciar/terminar partida
      */
-    private boolean arePlayersInGladiadorMatch(Player attacker, Player victim) {
-        org.bukkit.plugin.Plugin gladiadorPlugin = 
-            plugin.getServer().getPluginManager().getPlugin("PrimeleagueGladiador");
-        
-        if (gladiadorPlugin == null || !gladiadorPlugin.isEnabled()) {
-            return false; // Gladiador não está habilitado
-        }
-
-        try {
-            // Usar métodos cached se disponíveis (performance)
-            Object gladiadorInstance;
-            Object matchManager;
-            Object match;
-            
-            if (gladiadorReflectionCached && gladiadorGetInstanceMethod != null) {
-                // Usar cache
-                gladiadorInstance = gladiadorGetInstanceMethod.invoke(null);
-                matchManager = gladiadorGetMatchManagerMethod.invoke(gladiadorInstance);
-                match = gladiadorGetCurrentMatchMethod.invoke(matchManager);
-            } else {
-                // Fallback: reflection em runtime (primeira vez ou cache falhou)
-                java.lang.reflect.Method getInstance = gladiadorPlugin.getClass().getMethod("getInstance");
-                gladiadorInstance = getInstance.invoke(null);
-                
-                java.lang.reflect.Method getMatchManager = gladiadorInstance.getClass().getMethod("getMatchManager");
-                matchManager = getMatchManager.invoke(gladiadorInstance);
-                
-                java.lang.reflect.Method getCurrentMatch = matchManager.getClass().getMethod("getCurrentMatch");
-                match = getCurrentMatch.invoke(matchManager);
-            }
-            
-            if (match == null) {
-                return false; // Não há match ativo
-            }
-            
-            // Verificar estado do match - APENAS ACTIVE aplica mecânicas do Gladiador
-            Object state;
-            if (gladiadorReflectionCached && gladiadorGetStateMethod != null) {
-                state = gladiadorGetStateMethod.invoke(match);
-            } else {
-                java.lang.reflect.Method getState = match.getClass().getMethod("getState");
-                state = getState.invoke(match);
-            }
-            
-            // Verificar se estado é ACTIVE (Gladiador gerencia PvP apenas em ACTIVE)
-            // Grug Brain: Comparar enum diretamente (mais robusto que toString().contains())
-            if (state instanceof Enum) {
-                Enum<?> stateEnum = (Enum<?>) state;
-                if (!stateEnum.name().equals("ACTIVE")) {
-                    return false; // Match não está ativo (WAITING, PREPARATION, ENDING)
-                }
-            } else {
-                // Fallback: se não for enum, usar toString (compatibilidade)
-                String stateStr = state.toString();
-                if (!stateStr.contains("ACTIVE")) {
-                    return false;
-                }
-            }
-            
-            // Verificar se AMBOS estão no match
-            boolean attackerInMatch;
-            boolean victimInMatch;
-            
-            if (gladiadorReflectionCached && gladiadorHasPlayerMethod != null) {
-                attackerInMatch = (Boolean) gladiadorHasPlayerMethod.invoke(match, attacker.getUniqueId());
-                victimInMatch = (Boolean) gladiadorHasPlayerMethod.invoke(match, victim.getUniqueId());
-            } else {
-                java.lang.reflect.Method hasPlayer = match.getClass().getMethod("hasPlayer", java.util.UUID.class);
-                attackerInMatch = (Boolean) hasPlayer.invoke(match, attacker.getUniqueId());
-                victimInMatch = (Boolean) hasPlayer.invoke(match, victim.getUniqueId());
-            }
-            
-            // Se ambos estão no match E match está ACTIVE, Gladiador gerencia PvP
-            return attackerInMatch && victimInMatch;
-            
-        } catch (Exception e) {
-            // Ignorar erros de integração (plugin pode ter mudado API ou não estar disponível)
-            // Grug Brain: Falha silenciosa - não quebrar se Gladiador não estiver disponível
+    private boolean isCombatManaged(Player attacker, Player victim) {
+        if (!pvpContextAvailable) {
             return false;
         }
+        return com.primeleague.core.PvPContextAPI.isCombatManaged(attacker.getUniqueId())
+            && com.primeleague.core.PvPContextAPI.isCombatManaged(victim.getUniqueId());
     }
 
     /**
      * Aplica knockback customizado com distância horizontal pré-calculada
      * Grug Brain: Recebe distância como parâmetro para evitar recalcular
      */
-    private void applyCustomKnockback(Player attacker, Player victim, EntityDamageByEntityEvent event, double horizontalDistance) {
+    private void applyCustomKnockback(Player attacker, Player victim, EntityDamageByEntityEvent event,
+                                      double horizontalDistance, boolean victimBlocking) {
         // Edge case: Verificar se evento foi cancelado antes de aplicar knockback
         // (correção universal para Paper 1.8.8 - outros plugins podem cancelar depois)
         if (event.isCancelled()) {
@@ -748,55 +583,39 @@ public class CombatListener implements Listener {
             return;
         }
 
-        // Reset velocity se muito alta
-        // Edge case: Verificar se evento foi cancelado antes de modificar velocity
-        if (!event.isCancelled()) {
-            Vector currentVel = victim.getVelocity();
-            boolean needsReset = false;
-
-            if (Math.abs(currentVel.getY()) > VELOCITY_RESET_THRESHOLD) {
-                currentVel.setY(0);
-                needsReset = true;
-            }
-            if (Math.abs(currentVel.getX()) > VELOCITY_RESET_THRESHOLD || Math.abs(currentVel.getZ()) > VELOCITY_RESET_THRESHOLD) {
-                currentVel.setX(0);
-                currentVel.setZ(0);
-                needsReset = true;
-            }
-
-            if (needsReset) {
-                victim.setVelocity(currentVel);
-            }
+        // Reset velocity se muito alta (um Vector por hit: getVelocity -> ajustes -> setVelocity)
+        Vector velocity = victim.getVelocity();
+        if (Math.abs(velocity.getY()) > VELOCITY_RESET_THRESHOLD) {
+            velocity.setY(0);
         }
-
-        Location attackerLoc = attacker.getLocation();
-        Location victimLoc = victim.getLocation();
-        
-        // Production: Verificar worlds diferentes e null safety
-        if (attackerLoc == null || victimLoc == null || attacker.getWorld() != victim.getWorld()) {
-            return; // Não aplicar knockback se worlds diferentes ou locations inválidas
+        if (Math.abs(velocity.getX()) > VELOCITY_RESET_THRESHOLD || Math.abs(velocity.getZ()) > VELOCITY_RESET_THRESHOLD) {
+            velocity.setX(0);
+            velocity.setZ(0);
         }
-        
-        Vector direction = victimLoc.toVector().subtract(attackerLoc.toVector());
-        
-        // Production: Evitar NaN/Infinity se vetor for zero (mesma posição)
-        double lengthSquared = direction.lengthSquared();
-        if (lengthSquared < 0.0001) {
-            // Mesma posição, usar direção padrão (norte)
-            direction = new Vector(0, 0, 1);
-        } else {
-            direction.normalize();
+
+        // Production: Verificar worlds diferentes
+        if (attacker.getWorld() != victim.getWorld()) {
+            victim.setVelocity(velocity); // Só o reset
+            return; // Não aplicar knockback se worlds diferentes
         }
 
+        attacker.getLocation(attackerLoc);
+        victim.getLocation(victimLoc);
+        double dx = victimLoc.getX() - attackerLoc.getX();
+        double dy = victimLoc.getY() - attackerLoc.getY();
+        double dz = victimLoc.getZ() - attackerLoc.getZ();
+        // Production: Evitar NaN/Infinity se vetor for zero (mesma posição = norte)
+        double directionX = CombatMath.knockbackDirectionX(dx, dy, dz);
+        double directionZ = CombatMath.knockbackDirectionZ(dx, dy, dz);
+
         // Base knockback 1.5.2: 0.4 horizontal e 0.4 vertical
         double baseHorizontal = 0.4;
         double baseVertical = 0.4;
 
         // Sprint = 2x multiplier APENAS se não deu hit recente em sprint
         PlayerData attackerData = plugin.getPlayerData(attacker.getUniqueId());
-        int sprintResetTicks = plugin.getConfig().getInt("knockback.sprint-reset-ticks", 1);
         boolean isFirstSprintHit = attacker.isSprinting() &&
-            (currentTick - attackerData.getLastSprintHitTick()) > sprintResetTicks;
+            (currentTick - attackerData.getLastSprintHitTick()) > knockbackSprintResetTicks;
 
         if (isFirstSprintHit) {
             baseHorizontal *= 2.0;
@@ -819,7 +638,7 @@ public class CombatListener implements Listener {
         }
 
         // Reduzir KB se vítima está bloqueando (configurável, padrão 50% como 1.5.2)
-        if (isBlocking(victim, attacker)) {
+        if (victimBlocking) {
             baseHorizontal *= knockbackBlockingReduction;
             baseVertical *= knockbackBlockingReduction;
         }
@@ -838,9 +657,8 @@ public class CombatListener implements Listener {
 
         // Garantir KB vertical mínimo sempre (força "voo up" mesmo grudado)
         // Nota: minVertical é aplicado DEPOIS da redução de regen (garante mínimo mesmo com regen)
-        double minVertical = plugin.getConfig().getDouble("knockback.min-vertical", 0.45);
-        if (baseVertical < minVertical) {
-            baseVertical = minVertical;
+        if (baseVertical < knockbackMinVertical) {
+            baseVertical = knockbackMinVertical;
         }
 
         // Boost horizontal se não está em sprint (resolve problema grudado)
@@ -851,25 +669,24 @@ public class CombatListener implements Listener {
         // Edge case: Verificar novamente se evento foi cancelado antes de aplicar velocity
         // (correção universal para Paper 1.8.8 - evento pode ser cancelado durante cálculo)
         if (event.isCancelled()) {
+            victim.setVelocity(velocity); // Só o reset
             return;
         }
 
         // Aplicar direção
-        Vector knockback = new Vector(
-            direction.getX() * baseHorizontal,
-            baseVertical,  // Já garantido >= minVertical acima
-            direction.getZ() * baseHorizontal
-        );
-
-        victim.setVelocity(victim.getVelocity().add(knockback));
+        double knockbackX = directionX * baseHorizontal;
+        double knockbackZ = directionZ * baseHorizontal;
+        velocity.setX(velocity.getX() + knockbackX);
+        velocity.setY(velocity.getY() + baseVertical); // Já garantido >= minVertical acima
+        velocity.setZ(velocity.getZ() + knockbackZ);
+        victim.setVelocity(velocity);
 
         if (debugLogKnockback) {
             // Calcular regen multiplier para log (mostrar se está reduzindo KB)
             double regenMultiplierForLog = calculateKnockbackMultiplierBasedOnRegen(victim);
             String regenInfo = regenMultiplierForLog < 1.0 ? String.format(" (regen: %.0f%%)", regenMultiplierForLog * 100) : " (sem regen)";
             plugin.getLogger().info(String.format("Knockback aplicado: %.2f,%.2f,%.2f (sprint: %s%s)",
-                knockback.getX(), knockback.getY(), knockback.getZ(), attacker.isSprinting(), regenInfo));
+                knockbackX, baseVertical, knockbackZ, attacker.isSprinting(), regenInfo));
         }
     }
 }
-
@@ -0,0 +1,99 @@
+package com.primeleague.pvp152;
+
+/**
+ * Matemática de hit do 1.5.2 (reach, ângulo de bloqueio, direção de knockback)
+ * Grug Brain: Funções puras com primitivos - sem Vector, sem double[], sem alocação por hit.
+ * Mesmos resultados das versões com Vector/Location que existiam no CombatListener.
+ */
+public final class CombatMath {
+
+    // Limite de altura para bônus de reach
+    static final double MAX_HEIGHT_DIFF = 2.0;
+    // Magnitude mínima do vetor até o atacante (evita NaN ao normalizar)
+    static final double BLOCK_ANGLE_THRESHOLD = 0.0001;
+    // Magnitude mínima da direção de knockback (mesma posição = norte)
+    static final double KNOCKBACK_MIN_LENGTH_SQUARED = 0.0001;
+
+    private CombatMath() {
+    }
+
+    /**
+     * Distância horizontal (XZ) entre atacante e vítima
+     */
+    public static double horizontalDistance(double attackerX, double attackerZ, double victimX, double victimZ) {
+        double dx = victimX - attackerX;
+        double dz = victimZ - attackerZ;
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+
+    /**
+     * Reach máximo para o hit
+     * - Vítima bloqueando reduz reach
+     * - High ground: +0.1 por bloco acima da vítima (máx +0.2)
+     */
+    public static double maxReach(double baseReach, boolean victimBlocking, double blockingReachReduction,
+                                  double attackerY, double victimY) {
+        double maxDist = baseReach;
+        if (victimBlocking) {
+            maxDist *= blockingReachReduction;
+        }
+        double heightDiff = attackerY - victimY;
+        if (heightDiff > 0) {
+            heightDiff = Math.min(heightDiff, MAX_HEIGHT_DIFF);
+            maxDist += Math.min(heightDiff * 0.1, 0.2);
+        }
+        return maxDist;
+    }
+
+    /**
+     * Atacante está dentro do cone de bloqueio (olhar do bloqueador)?
+     * Grug Brain: Compara cosseno em vez de acos - angle <= max  <=>  dot >= cos(max)
+     *
+     * @param cosMaxAngle Math.cos(Math.toRadians(angulo)) pré-calculado no loadConfig
+     */
+    public static boolean isWithinBlockAngle(float blockerYaw, float blockerPitch,
+                                             double blockerX, double blockerY, double blockerZ,
+                                             double attackerX, double attackerY, double attackerZ,
+                                             double cosMaxAngle) {
+        double tx = attackerX - blockerX;
+        double ty = attackerY - blockerY;
+        double tz = attackerZ - blockerZ;
+        double lengthSquared = tx * tx + ty * ty + tz * tz;
+        if (lengthSquared < BLOCK_ANGLE_THRESHOLD) {
+            return true;
+        }
+
+        // Mesma fórmula de Location.getDirection()
+        double yawRad = Math.toRadians(blockerYaw);
+        double pitchRad = Math.toRadians(blockerPitch);
+        double xz = Math.cos(pitchRad);
+        double dirX = -xz * Math.sin(yawRad);
+        double dirY = -Math.sin(pitchRad);
+        double dirZ = xz * Math.cos(yawRad);
+
+        double dot = (dirX * tx + dirY * ty + dirZ * tz) / Math.sqrt(lengthSquared);
+        return Math.max(-1.0, Math.min(1.0, dot)) >= cosMaxAngle;
+    }
+
+    /**
+     * Componente X da direção de knockback (atacante -> vítima, normalizada em 3D)
+     */
+    public static double knockbackDirectionX(double dx, double dy, double dz) {
+        double lengthSquared = dx * dx + dy * dy + dz * dz;
+        if (lengthSquared < KNOCKBACK_MIN_LENGTH_SQUARED) {
+            return 0.0; // Mesma posição: norte (0, 0, 1)
+        }
+        return dx / Math.sqrt(lengthSquared);
+    }
+
+    /**
+     * Componente Z da direção de knockback (atacante -> vítima, normalizada em 3D)
+     */
+    public static double knockbackDirectionZ(double dx, double dy, double dz) {
+        double lengthSquared = dx * dx + dy * dy + dz * dz;
+        if (lengthSquared < KNOCKBACK_MIN_LENGTH_SQUARED) {
+            return 1.0; // Mesma posição: norte (0, 0, 1)
+        }
+        return dz / Math.sqrt(lengthSquared);
+    }
+}